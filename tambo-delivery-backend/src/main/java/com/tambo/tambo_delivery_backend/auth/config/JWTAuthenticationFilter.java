@@ -5,25 +5,42 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+import com.tambo.tambo_delivery_backend.auth.helper.AuthenticatedUser;
 import com.tambo.tambo_delivery_backend.auth.helper.JWTTokenHelper;
+import com.tambo.tambo_delivery_backend.auth.helper.TokenClaims;
+import com.tambo.tambo_delivery_backend.auth.services.TokenVersionService;
 
 import java.io.IOException;
+import java.util.List;
 
 //  Interceptar las solicitudes HTTP y validar los tokens JWT para autenticar usuarios.
+//  El token se verifica una sola vez por solicitud. En modo sin estado la
+//  autenticación sale de sus claims (id, roles) y la revocación se comprueba
+//  contra la versión de tokens en memoria; en modo base de datos se carga el
+//  usuario en cada solicitud.
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService; // cargar los detalles del usuario desde la base de datos
     private final JWTTokenHelper jwtTokenHelper; // Utilidad para trabajar con tokens JWT
+    private final TokenVersionService tokenVersionService;
+    private final boolean stateless;
 
-    public JWTAuthenticationFilter(JWTTokenHelper jwtTokenHelper, UserDetailsService userDetailsService) {
+    public JWTAuthenticationFilter(JWTTokenHelper jwtTokenHelper, UserDetailsService userDetailsService,
+            TokenVersionService tokenVersionService, boolean stateless) {
         this.jwtTokenHelper = jwtTokenHelper;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.stateless = stateless;
     }
 
     @Override
@@ -41,24 +58,17 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String authToken = jwtTokenHelper.getToken(request); // Extrae el token
-            if (null != authToken) {
-                String userName = jwtTokenHelper.getUserNameFromToken(authToken); // Obtiene el nombre de usuario del
-                                                                                  // token
-                if (null != userName) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(userName); // Carga los detalles del
-                                                                                               // usuario
+            TokenClaims claims = authToken != null ? jwtTokenHelper.parseToken(authToken) : null;
+            if (claims != null) {
+                UsernamePasswordAuthenticationToken authenticationToken = stateless && claims.isStateless()
+                        ? fromClaims(claims)
+                        // Modo base de datos o token emitido antes de los claims propios
+                        : fromDatabase(claims);
 
-                    // Valida el token contra los detalles del usuario
-                    if (jwtTokenHelper.validateToken(authToken, userDetails)) {
-                        // Crea y establece la autenticación en el contexto de seguridad
-                        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                        authenticationToken.setDetails(new WebAuthenticationDetails(request));
-
-                        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                    }
+                if (authenticationToken != null) {
+                    authenticationToken.setDetails(new WebAuthenticationDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
                 }
-
             }
             // pasa la solicitud al siguiente filtro
             filterChain.doFilter(request, response);
@@ -66,4 +76,35 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
             throw new RuntimeException(e);
         }
     }
+
+    // Sin consultas: solo la versión de tokens (en memoria) para detectar revocaciones
+    private UsernamePasswordAuthenticationToken fromClaims(TokenClaims claims) {
+        if (!tokenVersionService.isCurrent(claims.userId(), claims.version())) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = claims.roles().stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        return new UsernamePasswordAuthenticationToken(new AuthenticatedUser(claims.userId(), claims.email()), null,
+                authorities);
+    }
+
+    private UsernamePasswordAuthenticationToken fromDatabase(TokenClaims claims) {
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(claims.email()); // Carga los detalles del usuario
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        // Cuenta deshabilitada: sin acceso aunque el token siga vigente
+        if (!userDetails.isEnabled()) {
+            return null;
+        }
+        // Mismo criterio de revocación que en modo sin estado
+        if (claims.version() != null && userDetails instanceof User user
+                && user.getTokenVersion() != claims.version()) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
 }
@@ -1,8 +1,10 @@
 package com.tambo.tambo_delivery_backend.auth.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -19,8 +21,16 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+import jakarta.servlet.DispatcherType;
+
 import com.tambo.tambo_delivery_backend.auth.exceptions.RESTAuthenticationEntryPoint;
+import com.tambo.tambo_delivery_backend.auth.helper.InstrumentedPasswordEncoder;
 import com.tambo.tambo_delivery_backend.auth.helper.JWTTokenHelper;
+import com.tambo.tambo_delivery_backend.auth.services.TokenVersionService;
 
 // Configuración de seguridad de la aplicación Spring Boot que combina autenticación JWT y OAuth2
 @Configuration // Indica que esta clase contiene configuraciones de Spring
@@ -36,6 +46,23 @@ public class WebSecurityConfig {
         @Autowired
         private RESTAuthenticationEntryPoint restAuthenticationEntryPoint;
 
+        @Autowired
+        private TokenVersionService tokenVersionService;
+
+        // true: autentica con los claims del token; false: carga el usuario en cada solicitud
+        @Value("${auth.jwt.stateless:true}")
+        private boolean statelessJwt;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        // Hashes de contraseña simultáneos; 0 = la mitad de los núcleos
+        @Value("${auth.password-hash.max-concurrent:0}")
+        private int maxConcurrentHashes;
+
+        @Value("${auth.password-hash.queue-wait:PT2S}")
+        private Duration hashQueueWait;
+
         // Configuración del filtro de seguridad
         @Bean
         public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -49,6 +76,11 @@ public class WebSecurityConfig {
                                                 .requestMatchers("/api/auth/**", "/oauth2/**", "/api/public/**", "/api/dev/**", "/api/admin/**",
                                                                 "/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html")
                                                 .permitAll()
+                                                // Webhook de PayPal: se valida por su firma, no por sesión
+                                                .requestMatchers(HttpMethod.POST, "/api/payment/paypal/webhook").permitAll()
+                                                // Respuestas asíncronas (confirmación de pago, exportaciones): la
+                                                // solicitud original ya pasó la autorización
+                                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                                 // Todos los demás endpoints requieren autenticación
                                                 .anyRequest().authenticated())
                                 .exceptionHandling(exception -> exception
@@ -56,7 +88,8 @@ public class WebSecurityConfig {
                                 .oauth2Login((oauth2login) -> oauth2login
                                                 .defaultSuccessUrl("/oauth2/success")
                                                 .loginPage("/oauth2/authorization/google"))
-                                .addFilterBefore(new JWTAuthenticationFilter(jwtTokenHelper, userDetailsService),
+                                .addFilterBefore(new JWTAuthenticationFilter(jwtTokenHelper, userDetailsService,
+                                                tokenVersionService, statelessJwt),
                                                 UsernamePasswordAuthenticationFilter.class);
                 return http.build();
         }
@@ -75,10 +108,14 @@ public class WebSecurityConfig {
                 return new ProviderManager(daoAuthenticationProvider);
         }
 
-        // Provee un encoder de contraseñas moderno y flexible
+        // Provee un encoder de contraseñas moderno y flexible, medido y con un
+        // límite de hashes simultáneos
         @Bean
         public PasswordEncoder passwordEncoder() {
-                return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+                int maxConcurrent = maxConcurrentHashes > 0 ? maxConcurrentHashes
+                                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+                return new InstrumentedPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder(),
+                                maxConcurrent, hashQueueWait, meterRegistry);
         }
 
         // Configuración de CORS para permitir solicitudes desde el frontend
@@ -6,9 +6,11 @@ import com.tambo.tambo_delivery_backend.auth.dto.response.LoginResponse;
 import com.tambo.tambo_delivery_backend.auth.dto.response.UserResponseDto;
 import com.tambo.tambo_delivery_backend.auth.entities.User;
 import com.tambo.tambo_delivery_backend.auth.services.LoginService;
+import com.tambo.tambo_delivery_backend.auth.services.RefreshTokenService;
 import com.tambo.tambo_delivery_backend.auth.services.UserService;
 import com.tambo.tambo_delivery_backend.auth.services.ResetPasswordService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,15 +38,37 @@ public class AuthController {
     @Autowired
     ResetPasswordService resetPasswordService;
 
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody @Valid LoginRequest request) {
-        LoginResponse loginResponse = loginService.loginUser(request);
+    public ResponseEntity<LoginResponse> login(@RequestBody @Valid LoginRequest request,
+            HttpServletRequest httpRequest) {
+        // Detrás de un proxy, server.forward-headers-strategy=native hace que Tomcat
+        // tome la IP de X-Forwarded-For, solo si la conexión viene de una red interna
+        return toResponse(loginService.loginUser(request, httpRequest.getRemoteAddr()));
+    }
+
+    // Cambia un refresh token vigente por un access token y un refresh token nuevos
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@RequestBody Map<String, String> body) {
+        return toResponse(refreshTokenService.refresh(body.get("refreshToken")));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody Map<String, String> body) {
+        refreshTokenService.revoke(body.get("refreshToken"));
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
 
+    private static ResponseEntity<LoginResponse> toResponse(LoginResponse loginResponse) {
         HttpStatus status;
         if (loginResponse.getCode() == 200) {
             status = HttpStatus.OK;
         } else if (loginResponse.getCode() == 401) {
             status = HttpStatus.UNAUTHORIZED;
+        } else if (loginResponse.getCode() == 429) {
+            status = HttpStatus.TOO_MANY_REQUESTS;
         } else {
             status = HttpStatus.BAD_REQUEST;
         }
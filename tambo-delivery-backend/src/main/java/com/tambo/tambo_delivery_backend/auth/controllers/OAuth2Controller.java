@@ -3,6 +3,7 @@ package com.tambo.tambo_delivery_backend.auth.controllers;
 import com.tambo.tambo_delivery_backend.auth.entities.User;
 import com.tambo.tambo_delivery_backend.auth.helper.JWTTokenHelper;
 import com.tambo.tambo_delivery_backend.auth.services.OAuth2Service;
+import com.tambo.tambo_delivery_backend.auth.services.RefreshTokenService;
 
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 
 // maneja la autenticación OAuth2
 @RestController
@@ -27,6 +30,9 @@ public class OAuth2Controller {
     @Autowired
     private JWTTokenHelper jwtTokenHelper;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @GetMapping("/success")
     public void callbackOAuth2(@AuthenticationPrincipal OAuth2User oAuth2User, HttpServletResponse response)
             throws IOException {
@@ -41,11 +47,17 @@ public class OAuth2Controller {
         }
 
         // Genera un token JWT usando JWTTokenHelper
-        String token = jwtTokenHelper.generateToken(user.getUsername());
-
-        // Redirige al frontend (React en localhost:4200) con el
-        // token como parámetro de consulta.
-        response.sendRedirect("http://localhost:4200/oauth2/callback?token=" + token);
+        String token = jwtTokenHelper.generateToken(user);
+        // El access token dura poco: igual que en el login con contraseña, la
+        // sesión se renueva con el refresh token en /api/auth/refresh
+        String refreshToken = refreshTokenService.issue(user);
+
+        // Redirige al frontend (localhost:4200) con los tokens en el fragmento:
+        // el navegador no lo envía a ningún servidor, no queda en los logs de
+        // proxies ni viaja en el Referer. La ruta /oauth2/callback lo guarda y
+        // lo borra del historial.
+        response.sendRedirect("http://localhost:4200/oauth2/callback#token=" + token
+                + "&refreshToken=" + URLEncoder.encode(refreshToken, StandardCharsets.UTF_8));
 
     }
 }
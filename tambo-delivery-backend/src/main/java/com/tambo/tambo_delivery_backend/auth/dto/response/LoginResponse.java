@@ -14,4 +14,6 @@ public class LoginResponse {
     private int code;
     private String message;
     private String token;
+    // Opaco y de un solo uso: se cambia por un token nuevo en /api/auth/refresh
+    private String refreshToken;
 }
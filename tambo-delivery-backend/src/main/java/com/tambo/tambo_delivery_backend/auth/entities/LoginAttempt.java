@@ -0,0 +1,34 @@
+package com.tambo.tambo_delivery_backend.auth.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Intento fallido de inicio de sesión (modo auth.login.throttle.store=db)
+@Table(name = "AUTH_LOGIN_ATTEMPT", indexes = {
+        @Index(name = "IDX_AUTH_LOGIN_ATTEMPT_KEY", columnList = "attemptKey, attemptedAt"),
+        @Index(name = "IDX_AUTH_LOGIN_ATTEMPT_AT", columnList = "attemptedAt")
+})
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoginAttempt {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    // "account:<email>" o "ip:<dirección>"
+    @Column(nullable = false, length = 320, updatable = false)
+    private String attemptKey;
+
+    @Column(nullable = false, updatable = false)
+    private Date attemptedAt;
+}
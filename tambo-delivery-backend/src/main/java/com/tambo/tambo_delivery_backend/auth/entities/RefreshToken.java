@@ -0,0 +1,57 @@
+package com.tambo.tambo_delivery_backend.auth.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Refresh token opaco; solo se guarda su hash SHA-256. Cada uso lo reemplaza por
+// uno nuevo de la misma familia (la sesión); presentar uno ya usado revoca la
+// familia completa.
+@Table(name = "AUTH_REFRESH_TOKEN", indexes = {
+        @Index(name = "IDX_AUTH_REFRESH_TOKEN_FAMILY", columnList = "familyId"),
+        @Index(name = "IDX_AUTH_REFRESH_TOKEN_EXPIRES", columnList = "expiresAt")
+})
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false, unique = true, length = 64, updatable = false)
+    private String tokenHash;
+
+    @Column(nullable = false, updatable = false)
+    private UUID familyId;
+
+    @Column(nullable = false, updatable = false)
+    private UUID userId;
+
+    // Versión de tokens del usuario al iniciar sesión: si cambió (contraseña,
+    // roles, cuenta deshabilitada) la familia deja de valer
+    @Column(nullable = false, updatable = false)
+    private int tokenVersion;
+
+    @Column(nullable = false, updatable = false)
+    private Date createdAt;
+
+    @Column(nullable = false, updatable = false)
+    private Date expiresAt;
+
+    // Límite de la sesión: las rotaciones no lo extienden
+    @Column(nullable = false, updatable = false)
+    private Date sessionExpiresAt;
+
+    private Date usedAt;
+
+    private Date revokedAt;
+}
@@ -35,7 +35,7 @@ import lombok.ToString;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class User implements UserDetails {
 
     @Id
@@ -73,6 +73,12 @@ public class User implements UserDetails {
     @Column(name = "last_password_reset_request")
     private Date lastPasswordResetRequest;
 
+    // Se incrementa al cambiar la contraseña, los roles o el estado de la cuenta:
+    // los tokens emitidos con una versión anterior dejan de valer
+    @Builder.Default
+    @Column(nullable = false)
+    private int tokenVersion = 0;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private Date createdOn;
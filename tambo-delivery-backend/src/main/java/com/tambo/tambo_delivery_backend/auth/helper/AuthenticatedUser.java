@@ -0,0 +1,14 @@
+package com.tambo.tambo_delivery_backend.auth.helper;
+
+import java.security.Principal;
+import java.util.UUID;
+
+// Usuario autenticado armado desde los claims del token, sin ir a la base de
+// datos. getName() es el email, como con la entidad User.
+public record AuthenticatedUser(UUID id, String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,104 @@
+package com.tambo.tambo_delivery_backend.auth.helper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.tambo.tambo_delivery_backend.exceptions.LoginThrottledEx;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Envuelve el PasswordEncoder para medir y acotar el costo del hashing:
+// - auth.password.hash (tiempo real) y auth.password.hash.cpu (CPU del hilo)
+//   por operación; cada login hace un matches, así que es el costo por login
+// - como mucho maxConcurrent matches (logins) a la vez; el resto espera
+//   queueWait y luego se rechaza, para que el login no deje sin núcleos al resto
+//   de la API. encode (registro, cambio de contraseña) solo se mide: ya lo
+//   acotan sus propios flujos y no debe fallar con un error de login.
+public class InstrumentedPasswordEncoder implements PasswordEncoder {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+    private final Duration queueWait;
+    private final boolean cpuTimeSupported;
+
+    private final Timer encodeTime;
+    private final Timer encodeCpu;
+    private final Timer matchesTime;
+    private final Timer matchesCpu;
+    private final Counter rejected;
+
+    public InstrumentedPasswordEncoder(PasswordEncoder delegate, int maxConcurrent, Duration queueWait,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrent);
+        this.queueWait = queueWait;
+        this.cpuTimeSupported = THREADS.isCurrentThreadCpuTimeSupported();
+        this.encodeTime = timer("auth.password.hash", "encode", meterRegistry);
+        this.encodeCpu = timer("auth.password.hash.cpu", "encode", meterRegistry);
+        this.matchesTime = timer("auth.password.hash", "matches", meterRegistry);
+        this.matchesCpu = timer("auth.password.hash.cpu", "matches", meterRegistry);
+        this.rejected = meterRegistry.counter("auth.password.hash.rejected");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return measure(encodeTime, encodeCpu, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        acquire();
+        try {
+            return measure(matchesTime, matchesCpu, () -> delegate.matches(rawPassword, encodedPassword));
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T measure(Timer time, Timer cpu, Supplier<T> hash) {
+        long cpuStart = cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() : 0;
+        long start = System.nanoTime();
+        try {
+            return hash.get();
+        } finally {
+            time.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (cpuTimeSupported) {
+                cpu.record(THREADS.getCurrentThreadCpuTime() - cpuStart, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(queueWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new LoginThrottledEx("Demasiados inicios de sesión en curso, intente nuevamente en unos segundos");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoginThrottledEx("Inicio de sesión interrumpido", e);
+        }
+    }
+
+    private static Timer timer(String name, String operation, MeterRegistry meterRegistry) {
+        return Timer.builder(name)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
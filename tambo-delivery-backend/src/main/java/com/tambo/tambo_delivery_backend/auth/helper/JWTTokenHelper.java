@@ -1,47 +1,95 @@
 package com.tambo.tambo_delivery_backend.auth.helper;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
+// Emite y verifica los tokens JWT. La clave HMAC y el parser se crean una sola
+// vez al arrancar (ambos son inmutables y seguros entre hilos). Los tokens ya
+// verificados se guardan por su hash en una caché LRU acotada hasta que vencen,
+// así cada solicitud repetida con el mismo token evita la firma y el JSON.
 @Component
 public class JWTTokenHelper {
 
-    // Propiedades inyectadas
-    @Value("${jwt.auth.app}")
-    private String appName;
-
-    @Value("${jwt.auth.secret_key}")
-    private String secretKey;
-
-    @Value("${jwt.auth.expires_in}")
-    private int expiresIn;
+    // Claims propios: con ellos el filtro autentica sin consultar la base de datos
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_VERSION = "ver";
+
+    private final String appName;
+    private final int expiresIn;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // null si la caché está desactivada (tamaño 0)
+    private final Cache<HashCode, VerifiedToken> verifiedTokens;
+
+    public JWTTokenHelper(@Value("${jwt.auth.app}") String appName,
+            @Value("${jwt.auth.secret_key}") String secretKey,
+            @Value("${jwt.auth.expires_in}") int expiresIn,
+            @Value("${jwt.auth.token-cache-size:10000}") long tokenCacheSize) {
+        this.appName = appName;
+        this.expiresIn = expiresIn;
+        this.signingKey = createSigningKey(secretKey);
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        // Ninguna entrada vive más que el token más largo; el vencimiento exacto
+        // de cada una se comprueba al leerla
+        this.verifiedTokens = tokenCacheSize > 0
+                ? CacheBuilder.newBuilder()
+                        .maximumSize(tokenCacheSize)
+                        .expireAfterWrite(Duration.ofSeconds(expiresIn))
+                        .build()
+                : null;
+    }
 
     // Generación de Tokens
-    public String generateToken(String userName) {
+    public String generateToken(User user) {
+        List<String> roles = user.getAuthorities() == null ? List.of()
+                : user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
         return Jwts.builder()
                 .issuer(appName)
-                .subject(userName)
+                .subject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId().toString())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_VERSION, user.getTokenVersion())
                 .issuedAt(new Date())
                 .expiration(generateExpirationDate())
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    // Decodifica la clave secreta en Base64 y crea una clave HMAC-SHA para firmar
-    private Key getSigningKey() {
-        byte[] keysBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keysBytes);
+    // Decodifica la clave secreta en Base64 y crea una clave HMAC-SHA para firmar.
+    // Una clave inválida o corta detiene el arranque en vez de fallar en cada login.
+    private static SecretKey createSigningKey(String secretKey) {
+        try {
+            return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("jwt.auth.secret_key no es una clave HMAC válida en Base64", e);
+        }
     }
 
     // Generar la fecha de espiración del token
@@ -60,61 +108,70 @@ public class JWTTokenHelper {
         return authHeader;
     }
 
-    // Verifica:
+    // Verifica firma y vencimiento una sola vez y devuelve los claims, o null si
+    // el token no es válido. El hash cubre también la firma: un token alterado
+    // nunca coincide con uno verificado.
+    public TokenClaims parseToken(String token) {
+        if (verifiedTokens == null) {
+            VerifiedToken verified = verify(token);
+            return verified != null ? verified.claims() : null;
+        }
 
-    // Que el token contenga un nombre de usuario
-    // Que coincida con el usuario proporcionado
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUserNameFromToken(token);
-        return (username != null &&
-                username.equals(userDetails.getUsername()) &&
-                !isTokenExpired(token));
-    }
+        HashCode key = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            if (cached.expiresAt() > System.currentTimeMillis()) {
+                return cached.claims();
+            }
+            verifiedTokens.invalidate(key);
+            return null;
+        }
 
-    // Que no esté expirado
-    private boolean isTokenExpired(String token) {
-        Date expireDate = getExpirationDate(token);
-        return expireDate.before(new Date());
+        VerifiedToken verified = verify(token);
+        if (verified == null) {
+            return null;
+        }
+        verifiedTokens.put(key, verified);
+        return verified.claims();
     }
 
-    private Date getExpirationDate(String token) {
-        Date expireDate;
+    private VerifiedToken verify(String token) {
         try {
-            final Claims claims = this.getAllClaimsFromToken(token);
-            expireDate = claims.getExpiration();
-        } catch (Exception e) {
-            expireDate = null;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return null;
+            }
+            TokenClaims tokenClaims = new TokenClaims(claims.getSubject(),
+                    parseUserId(claims.get(CLAIM_USER_ID, String.class)), parseRoles(claims.get(CLAIM_ROLES)),
+                    claims.get(CLAIM_VERSION, Integer.class));
+            return new VerifiedToken(tokenClaims, claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
         }
-        return expireDate;
     }
 
     private String getAuthHeaderFromHeader(HttpServletRequest request) {
         return request.getHeader("Authorization");
     }
 
-    public String getUserNameFromToken(String authToken) {
-        String username;
+    private static UUID parseUserId(String userId) {
+        if (userId == null) {
+            return null;
+        }
         try {
-            final Claims claims = this.getAllClaimsFromToken(authToken);
-            username = claims.getSubject();
-        } catch (Exception e) {
-            username = null;
+            return UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
-        return username;
     }
 
-    // Extrae todos los claims (datos) del token usando la clave secreta
-    private Claims getAllClaimsFromToken(String token) {
-        Claims claims;
-        try {
-            claims = Jwts.parser()
-                    .verifyWith((SecretKey) getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (Exception e) {
-            throw new RuntimeException("Token inválido o mal formado", e);
+    private static List<String> parseRoles(Object roles) {
+        if (!(roles instanceof Collection<?> values)) {
+            return null;
         }
-        return claims;
+        return values.stream().map(String::valueOf).toList();
+    }
+
+    private record VerifiedToken(TokenClaims claims, long expiresAt) {
     }
 }
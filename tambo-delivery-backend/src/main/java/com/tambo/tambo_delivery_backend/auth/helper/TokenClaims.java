@@ -0,0 +1,13 @@
+package com.tambo.tambo_delivery_backend.auth.helper;
+
+import java.util.List;
+import java.util.UUID;
+
+// Datos de un token ya verificado (firma y vencimiento). userId y version son
+// nulos en tokens emitidos antes de incluir esos claims.
+public record TokenClaims(String email, UUID userId, List<String> roles, Integer version) {
+
+    public boolean isStateless() {
+        return userId != null && version != null && roles != null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.tambo.tambo_delivery_backend.auth.repositories;
+
+import com.tambo.tambo_delivery_backend.auth.entities.LoginAttempt;
+import com.tambo.tambo_delivery_backend.auth.services.LoginAttempts;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, UUID> {
+
+    // Cantidad y último fallo en una sola consulta sobre el índice (attemptKey, attemptedAt)
+    @Query("SELECT new com.tambo.tambo_delivery_backend.auth.services.LoginAttempts(COUNT(a), MAX(a.attemptedAt)) " +
+            "FROM LoginAttempt a WHERE a.attemptKey = :key AND a.attemptedAt > :since")
+    LoginAttempts countSince(@Param("key") String key, @Param("since") Date since);
+
+    @Modifying
+    @Query("DELETE FROM LoginAttempt a WHERE a.attemptKey = :key")
+    int deleteByKey(@Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM LoginAttempt a WHERE a.attemptedAt < :before")
+    int deleteOlderThan(@Param("before") Date before);
+}
@@ -2,9 +2,12 @@ package com.tambo.tambo_delivery_backend.auth.repositories;
 
 import com.tambo.tambo_delivery_backend.auth.entities.User;
 
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -13,4 +16,8 @@ public interface UserDetailRepository extends JpaRepository<User, UUID> {
 
     User findByResetToken(String resetToken);
 
+    // Solo la versión vigente de los tokens, sin cargar el usuario ni sus roles
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
+
 }
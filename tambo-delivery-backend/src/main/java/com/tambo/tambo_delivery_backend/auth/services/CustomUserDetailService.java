@@ -1,28 +1,95 @@
 package com.tambo.tambo_delivery_backend.auth.services;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.tambo.tambo_delivery_backend.auth.entities.Authority;
 import com.tambo.tambo_delivery_backend.auth.entities.User;
 import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.tambo.tambo_delivery_backend.events.UserAccountChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-// implementa UserDetailsService para cargar usuarios por nombre de usuario (en este caso, email)
+// implementa UserDetailsService para cargar usuarios por nombre de usuario (en este caso, email).
+// Los usuarios activos se guardan en una caché acotada (tamaño y TTL) que se
+// invalida con UserAccountChangedEvent; cada llamada recibe su propia copia.
+// Los deshabilitados no se cachean: se leen siempre de la base de datos.
 @Service
 public class CustomUserDetailService implements UserDetailsService {
 
-    @Autowired
-    private UserDetailRepository userDetailRepository;
+    private final UserDetailRepository userDetailRepository;
+    private final Cache<String, User> users;
+
+    // Cambia con cada invalidación: una carga que empezó antes no se guarda, así
+    // no vuelve a la caché un usuario leído antes del cambio
+    private final AtomicLong generation = new AtomicLong();
+
+    public CustomUserDetailService(UserDetailRepository userDetailRepository,
+            @Value("${auth.user-details.cache-size:10000}") long cacheSize,
+            @Value("${auth.user-details.cache-ttl:PT5M}") Duration cacheTtl,
+            MeterRegistry meterRegistry) {
+        this.userDetailRepository = userDetailRepository;
+        this.users = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size
+        GuavaCacheMetrics.monitor(meterRegistry, users, "auth.user-details");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        String key = username == null ? "" : username.toLowerCase(Locale.ROOT);
+        User cached = users.getIfPresent(key);
+        if (cached != null) {
+            return copy(cached);
+        }
+
+        long loadedAt = generation.get();
         // Busca usuario por email
         User user = userDetailRepository.findByEmail(username);
         // Si no existe, lanza UsernameNotFoundException
         if (null == user) {
             throw new UsernameNotFoundException("User Not Found with userName " + username);
         }
+        if (user.isEnabled() && generation.get() == loadedAt) {
+            users.put(key, copy(user));
+        }
         return user;
     }
+
+    // Después del commit: la siguiente carga ya lee el cambio. Se buscan también
+    // por id las entradas con otra capitalización del email o con el email nuevo.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.getEmail() != null) {
+            users.invalidate(event.getEmail().toLowerCase(Locale.ROOT));
+        }
+        if (event.getUserId() != null) {
+            users.asMap().values().removeIf(user -> event.getUserId().equals(user.getId()));
+        }
+    }
+
+    // Copia desacoplada de la sesión: quien la modifique no altera la caché.
+    // Las direcciones (LAZY) no se copian; se consultan con AddressRepository.
+    private static User copy(User user) {
+        return user.toBuilder()
+                .authorities(user.getAuthorities() == null ? null
+                        : user.getAuthorities().stream().map(Authority.class::cast).toList())
+                .addressList(null)
+                .build();
+    }
 }
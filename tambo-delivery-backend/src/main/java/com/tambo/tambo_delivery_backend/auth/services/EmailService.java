@@ -3,17 +3,30 @@ package com.tambo.tambo_delivery_backend.auth.services;
 import com.tambo.tambo_delivery_backend.auth.entities.User;
 import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
 import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.ReceiptType;
+import com.tambo.tambo_delivery_backend.events.UserAccountChangedEvent;
+import com.tambo.tambo_delivery_backend.mail.EmailDispatcher;
+import com.tambo.tambo_delivery_backend.mail.EmailTemplate;
+import com.tambo.tambo_delivery_backend.mail.EmailTemplateRenderer;
+import com.tambo.tambo_delivery_backend.mail.EmailType;
 
 import java.io.UnsupportedEncodingException;
+import java.time.Duration;
 import java.util.Date;
-
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 import org.springframework.core.io.ByteArrayResource;
 
 import jakarta.mail.MessagingException;
@@ -26,11 +39,17 @@ public class EmailService {
     private JavaMailSender javaMailSender;
 
     @Autowired
-    private TemplateEngine templateEngine;
+    private EmailTemplateRenderer templateRenderer;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
 
     @Autowired
     private UserDetailRepository userDetailRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Value("${spring.mail.username}")
     private String sender;
 
@@ -40,24 +59,27 @@ public class EmailService {
     @Value("${frontend.base-url}")
     private String frontendUrl;
 
+    @Value("${mail.dispatch.send-timeout:PT2M}")
+    private Duration sendTimeout;
+
     public String sendEmail(User user) {
         try {
             MimeMessage mimeMessage = javaMailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
 
-            Context context = new Context();
-            context.setVariable("username", user.getUsername());
-            context.setVariable("verificationCode", user.getVerificationCode());
-            context.setVariable("baseUrl", backendUrl);
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("username", user.getUsername());
+            variables.put("verificationCode", user.getVerificationCode());
+            variables.put("baseUrl", backendUrl);
 
-            String htmlContent = templateEngine.process("email-verification", context);
+            String htmlContent = templateRenderer.render(EmailTemplate.VERIFICATION, variables);
 
             helper.setFrom(sender, "Tambo Support");
             helper.setTo(user.getEmail());
             helper.setSubject("Verifica tu correo electrónico");
             helper.setText(htmlContent, true);
 
-            javaMailSender.send(mimeMessage);
+            emailDispatcher.submit(EmailType.VERIFICATION, mimeMessage);
 
             return "Correo enviado con éxito";
         } catch (MessagingException e) {
@@ -80,18 +102,18 @@ public class EmailService {
             MimeMessage mimeMessage = javaMailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
 
-            Context context = new Context();
-            context.setVariable("username", user.getUsername());
-            context.setVariable("resetUrl", frontendUrl + "/v1/reset-password?token=" + token);
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("username", user.getUsername());
+            variables.put("resetUrl", frontendUrl + "/v1/reset-password?token=" + token);
 
-            String htmlContent = templateEngine.process("reset-password-email", context);
+            String htmlContent = templateRenderer.render(EmailTemplate.PASSWORD_RESET, variables);
 
             helper.setFrom(sender, "Tambo Support");
             helper.setTo(user.getEmail());
             helper.setSubject("Recuperación de contraseña");
             helper.setText(htmlContent, true);
 
-            javaMailSender.send(mimeMessage);
+            emailDispatcher.submit(EmailType.PASSWORD_RESET, mimeMessage);
 
             // Guardamos la fecha de la peticion de reseteo
             user.setLastPasswordResetRequest(new Date());
@@ -100,6 +122,7 @@ public class EmailService {
             // El token expira en 30 minutos
             user.setResetTokenExpiry(new Date(System.currentTimeMillis() + 30 * 60 * 1000));
             userDetailRepository.save(user);
+            eventPublisher.publishEvent(new UserAccountChangedEvent(user.getId(), user.getEmail()));
 
             return "Correo de recuperación enviado con éxito";
         } catch (MessagingException e) {
@@ -114,30 +137,7 @@ public class EmailService {
     // envía la boleta como PDF adjunto
     public String sendBoletaEmail(Order order, byte[] pdfBytes) {
         try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "utf-8");
-
-            try {
-                helper.setFrom(sender, "Tambo Delivery");
-            } catch (UnsupportedEncodingException e) {
-                e.printStackTrace();
-                helper.setFrom(sender); // fallback sin nombre
-            }
-            helper.setTo(order.getUser().getEmail());
-            helper.setSubject("Gracias por tu compra - Boleta Adjunta");
-
-            String text = "Hola " + order.getUser().getUsername() + ",<br><br>"
-                    + "Gracias por tu compra en Tambo Delivery. Adjuntamos tu boleta de compra en formato PDF.<br><br>"
-                    + "Total pagado: <strong>S/ " + order.getTotalAmount() + "</strong><br>"
-                    + "Fecha: " + order.getOrderDate() + "<br><br>"
-                    + "Saludos cordiales,<br>Tambo Team";
-
-            helper.setText(text, true); // true para HTML
-
-            // Adjuntar PDF como archivo binario
-            helper.addAttachment("Boleta_Tambo.pdf", new ByteArrayResource(pdfBytes));
-
-            javaMailSender.send(mimeMessage);
+            sendReceiptEmail(order, ReceiptType.BOLETA, pdfBytes);
             return "Boleta enviada correctamente";
         } catch (MessagingException e) {
             e.printStackTrace();
@@ -148,35 +148,62 @@ public class EmailService {
     // envía la factura como PDF adjunto
     public String sendFacturaEmail(Order order, byte[] pdfBytes) {
         try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "utf-8");
+            sendReceiptEmail(order, ReceiptType.FACTURA, pdfBytes);
+            return "Factura enviada correctamente";
+        } catch (MessagingException e) {
+            e.printStackTrace();
+            return "Error al enviar la factura: " + e.getMessage();
+        }
+    }
 
-            try {
-                helper.setFrom(sender, "Tambo Delivery");
-            } catch (UnsupportedEncodingException e) {
-                e.printStackTrace();
-                helper.setFrom(sender); // fallback sin nombre
-            }
-            helper.setTo(order.getUser().getEmail());
-            helper.setSubject("Gracias por tu compra - Factura Adjunta");
+    // envía el comprobante como PDF adjunto; los errores se propagan para que
+    // quien llama pueda reintentar
+    public void sendReceiptEmail(Order order, ReceiptType type, byte[] pdfBytes) throws MessagingException {
+        String name = type == ReceiptType.FACTURA ? "factura" : "boleta";
 
-            String text = "Hola " + order.getUser().getUsername() + ",<br><br>"
-                    + "Gracias por tu compra en Tambo Delivery. Adjuntamos tu factura de compra en formato PDF.<br><br>"
-                    + "Total pagado: <strong>S/ " + order.getTotalAmount() + "</strong><br>"
-                    + "Fecha: " + order.getOrderDate() + "<br><br>"
-                    + "Saludos cordiales,<br>Tambo Team";
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "utf-8");
 
-            helper.setText(text, true); // true para HTML
+        try {
+            helper.setFrom(sender, "Tambo Delivery");
+        } catch (UnsupportedEncodingException e) {
+            e.printStackTrace();
+            helper.setFrom(sender); // fallback sin nombre
+        }
+        helper.setTo(order.getUser().getEmail());
+        helper.setSubject("Gracias por tu compra - " + StringUtils.capitalize(name) + " Adjunta");
 
-            // Adjuntar PDF como archivo binario
-            helper.addAttachment("Factura_Tambo.pdf", new ByteArrayResource(pdfBytes));
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("username", order.getUser().getUsername());
+        variables.put("receiptName", name);
+        variables.put("totalAmount", "S/ " + order.getTotalAmount());
+        variables.put("orderDate", order.getOrderDate());
 
-            javaMailSender.send(mimeMessage);
-            return "Factura enviada correctamente";
-        } catch (MessagingException e) {
-            e.printStackTrace();
-            return "Error al enviar la factura: " + e.getMessage();
+        helper.setText(templateRenderer.render(EmailTemplate.RECEIPT, variables), true); // true para HTML
+
+        // Adjuntar PDF como archivo binario
+        helper.addAttachment(StringUtils.capitalize(name) + "_Tambo.pdf", new ByteArrayResource(pdfBytes));
+
+        awaitDelivery(emailDispatcher.submit(EmailType.RECEIPT, mimeMessage));
+    }
+
+    // Espera a que el servidor SMTP acepte el correo y convierte el fallo en
+    // MessagingException
+    private void awaitDelivery(CompletableFuture<Void> delivery) throws MessagingException {
+        try {
+            delivery.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MessagingException cause) {
+                throw cause;
+            }
+            throw new MessagingException("Error al enviar el correo: " + e.getCause().getMessage(),
+                    e.getCause() instanceof Exception cause ? cause : e);
+        } catch (TimeoutException e) {
+            throw new MessagingException("Se agotó el tiempo de espera del envío", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Envío interrumpido", e);
         }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.tambo.tambo_delivery_backend.auth.services;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+// Ventana deslizante por clave: la hora de cada fallo, descartando los que
+// salieron de la ventana. La caché acota las claves (un ataque desde muchas IP
+// no agota la memoria) y olvida las que dejan de fallar.
+@Component
+@ConditionalOnProperty(name = "auth.login.throttle.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+
+    // Más de esto por clave no cambia la espera (ya está en el máximo)
+    private static final int MAX_TRACKED = 64;
+
+    private final Cache<String, Deque<Long>> failures;
+
+    public InMemoryLoginAttemptStore(@Value("${auth.login.throttle.window:PT15M}") Duration window,
+            @Value("${auth.login.throttle.max-keys:100000}") long maxKeys) {
+        this.failures = CacheBuilder.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(window)
+                .build();
+    }
+
+    @Override
+    public LoginAttempts failuresSince(String key, Date since) {
+        Deque<Long> times = failures.getIfPresent(key);
+        if (times == null) {
+            return LoginAttempts.NONE;
+        }
+        synchronized (times) {
+            while (!times.isEmpty() && times.peekFirst() <= since.getTime()) {
+                times.pollFirst();
+            }
+            return times.isEmpty() ? LoginAttempts.NONE : new LoginAttempts(times.size(), new Date(times.peekLast()));
+        }
+    }
+
+    @Override
+    public void recordFailure(String key, Date at) {
+        Deque<Long> times = failures.asMap().computeIfAbsent(key, k -> new ArrayDeque<>());
+        synchronized (times) {
+            times.addLast(at.getTime());
+            if (times.size() > MAX_TRACKED) {
+                times.pollFirst();
+            }
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        failures.invalidate(key);
+    }
+}
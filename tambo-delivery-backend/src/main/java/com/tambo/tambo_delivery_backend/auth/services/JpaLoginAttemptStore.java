@@ -0,0 +1,57 @@
+package com.tambo.tambo_delivery_backend.auth.services;
+
+import java.time.Duration;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tambo.tambo_delivery_backend.auth.entities.LoginAttempt;
+import com.tambo.tambo_delivery_backend.auth.repositories.LoginAttemptRepository;
+
+// Contadores en la base de datos: todas las instancias ven los mismos intentos
+@Component
+@ConditionalOnProperty(name = "auth.login.throttle.store", havingValue = "db")
+public class JpaLoginAttemptStore implements LoginAttemptStore {
+
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final Duration window;
+
+    public JpaLoginAttemptStore(LoginAttemptRepository loginAttemptRepository,
+            @Value("${auth.login.throttle.window:PT15M}") Duration window) {
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.window = window;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LoginAttempts failuresSince(String key, Date since) {
+        LoginAttempts attempts = loginAttemptRepository.countSince(key, since);
+        return attempts == null || attempts.count() == 0 ? LoginAttempts.NONE : attempts;
+    }
+
+    @Override
+    @Transactional
+    public void recordFailure(String key, Date at) {
+        loginAttemptRepository.save(LoginAttempt.builder()
+                .attemptKey(key)
+                .attemptedAt(at)
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void reset(String key) {
+        loginAttemptRepository.deleteByKey(key);
+    }
+
+    // Lo que salió de la ventana ya no cuenta
+    @Transactional
+    @Scheduled(fixedDelayString = "${auth.login.throttle.cleanup-interval:PT10M}")
+    public void deleteExpired() {
+        loginAttemptRepository.deleteOlderThan(new Date(System.currentTimeMillis() - window.toMillis()));
+    }
+}
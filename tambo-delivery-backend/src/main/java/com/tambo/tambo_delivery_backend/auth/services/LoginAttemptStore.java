@@ -0,0 +1,15 @@
+package com.tambo.tambo_delivery_backend.auth.services;
+
+import java.util.Date;
+
+// Contadores de intentos fallidos de inicio de sesión por clave ("account:..." o
+// "ip:..."). En memoria por defecto; auth.login.throttle.store=db los comparte
+// entre instancias.
+public interface LoginAttemptStore {
+
+    LoginAttempts failuresSince(String key, Date since);
+
+    void recordFailure(String key, Date at);
+
+    void reset(String key);
+}
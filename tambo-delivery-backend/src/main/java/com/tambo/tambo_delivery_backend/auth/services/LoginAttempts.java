@@ -0,0 +1,9 @@
+package com.tambo.tambo_delivery_backend.auth.services;
+
+import java.util.Date;
+
+// Intentos fallidos de una clave dentro de la ventana y la hora del último
+public record LoginAttempts(long count, Date lastFailureAt) {
+
+    public static final LoginAttempts NONE = new LoginAttempts(0, null);
+}
@@ -1,9 +1,13 @@
 package com.tambo.tambo_delivery_backend.auth.services;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -14,10 +18,16 @@ import com.tambo.tambo_delivery_backend.auth.dto.response.LoginResponse;
 import com.tambo.tambo_delivery_backend.auth.entities.User;
 import com.tambo.tambo_delivery_backend.auth.helper.JWTTokenHelper;
 import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
+import com.tambo.tambo_delivery_backend.exceptions.LoginThrottledEx;
 
 @Service
 public class LoginService {
 
+    // Un email no pasa de 254 caracteres y BCrypt no acepta más de 72 bytes:
+    // fuera de eso el intento no puede ser válido y no se gasta un hash
+    private static final int MAX_USERNAME_LENGTH = 254;
+    private static final int MAX_PASSWORD_BYTES = 72;
+
     @Autowired
     AuthenticationManager authenticationManager;
 
@@ -27,11 +37,32 @@ public class LoginService {
     @Autowired
     JWTTokenHelper jwtTokenHelper;
 
-    public LoginResponse loginUser(LoginRequest request) {
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Autowired
+    LoginThrottleService loginThrottleService;
+
+    public LoginResponse loginUser(LoginRequest request, String clientIp) {
 
         String userName = request.getUserName();
         String password = request.getPassword();
 
+        if (!isPlausible(userName, password)) {
+            return LoginResponse.builder()
+                    .code(401)
+                    .message("Credenciales incorrectas.")
+                    .token(null)
+                    .build();
+        }
+
+        // Antes de cualquier hashing: cuentas o IPs con demasiados fallos esperan
+        Duration wait = loginThrottleService.check(userName, clientIp);
+        if (!wait.isZero()) {
+            return throttled("Demasiados intentos fallidos. Intenta nuevamente en "
+                    + Math.max(1, wait.toSeconds()) + " segundos.");
+        }
+
         try {
             Authentication authentication = new UsernamePasswordAuthenticationToken(userName, password);
             Authentication authResult = authenticationManager.authenticate(authentication);
@@ -46,11 +77,13 @@ public class LoginService {
                         .build();
             }
 
-            String token = jwtTokenHelper.generateToken(user.getEmail());
+            loginThrottleService.recordSuccess(userName);
+            String token = jwtTokenHelper.generateToken(user);
             return LoginResponse.builder()
                     .code(200)
                     .message("Inicio de sesión exitoso.")
                     .token(token)
+                    .refreshToken(refreshTokenService.issue(user))
                     .build();
 
         } catch (DisabledException e) {
@@ -61,14 +94,37 @@ public class LoginService {
                     .build();
 
         } catch (BadCredentialsException e) {
+            loginThrottleService.recordFailure(userName, clientIp);
             return LoginResponse.builder()
                     .code(401)
                     .message("Credenciales incorrectas.")
                     .token(null)
                     .build();
+        } catch (LoginThrottledEx e) {
+            return throttled(e.getMessage());
+        } catch (InternalAuthenticationServiceException e) {
+            if (e.getCause() instanceof LoginThrottledEx cause) {
+                return throttled(cause.getMessage());
+            }
+            throw new ServerErrorException("Error interno al autenticar.", e);
         } catch (Exception e) {
             throw new ServerErrorException("Error interno al autenticar.", e);
         }
     }
 
+    private static boolean isPlausible(String userName, String password) {
+        return userName != null && !userName.isBlank() && userName.length() <= MAX_USERNAME_LENGTH
+                && userName.indexOf('@') > 0
+                && password != null && !password.isEmpty()
+                && password.getBytes(StandardCharsets.UTF_8).length <= MAX_PASSWORD_BYTES;
+    }
+
+    private static LoginResponse throttled(String message) {
+        return LoginResponse.builder()
+                .code(429)
+                .message(message)
+                .token(null)
+                .build();
+    }
+
 }
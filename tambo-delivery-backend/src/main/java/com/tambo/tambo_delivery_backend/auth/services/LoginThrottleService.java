@@ -0,0 +1,95 @@
+package com.tambo.tambo_delivery_backend.auth.services;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Decide si un inicio de sesión puede llegar al PasswordEncoder. Cuenta los
+// fallos por cuenta y por IP en una ventana deslizante; pasados los intentos
+// libres, cada fallo duplica la espera (hasta un máximo). Se consulta antes de
+// cualquier hashing, así un ataque de credential stuffing no consume CPU.
+@Service
+public class LoginThrottleService {
+
+    private final LoginAttemptStore store;
+    private final Duration window;
+    private final int accountFreeAttempts;
+    private final int ipFreeAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final MeterRegistry meterRegistry;
+
+    public LoginThrottleService(LoginAttemptStore store,
+            @Value("${auth.login.throttle.window:PT15M}") Duration window,
+            @Value("${auth.login.throttle.account.free-attempts:3}") int accountFreeAttempts,
+            @Value("${auth.login.throttle.ip.free-attempts:20}") int ipFreeAttempts,
+            @Value("${auth.login.throttle.base-delay:PT1S}") Duration baseDelay,
+            @Value("${auth.login.throttle.max-delay:PT15M}") Duration maxDelay,
+            MeterRegistry meterRegistry) {
+        this.store = store;
+        this.window = window;
+        this.accountFreeAttempts = accountFreeAttempts;
+        this.ipFreeAttempts = ipFreeAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Duration.ZERO si puede intentar; si no, cuánto le falta esperar
+    public Duration check(String account, String ip) {
+        Date now = new Date();
+        Duration accountWait = remaining(accountKey(account), accountFreeAttempts, now);
+        Duration ipWait = ip == null ? Duration.ZERO : remaining(ipKey(ip), ipFreeAttempts, now);
+        Duration wait = accountWait.compareTo(ipWait) >= 0 ? accountWait : ipWait;
+        if (!wait.isZero()) {
+            meterRegistry.counter("auth.login.throttled", "scope", wait == accountWait ? "account" : "ip")
+                    .increment();
+        }
+        return wait;
+    }
+
+    public void recordFailure(String account, String ip) {
+        Date now = new Date();
+        store.recordFailure(accountKey(account), now);
+        if (ip != null) {
+            store.recordFailure(ipKey(ip), now);
+        }
+    }
+
+    // Solo la cuenta: la IP puede ser compartida (NAT) y seguir atacando otras cuentas
+    public void recordSuccess(String account) {
+        store.reset(accountKey(account));
+    }
+
+    private Duration remaining(String key, int freeAttempts, Date now) {
+        LoginAttempts attempts = store.failuresSince(key, new Date(now.getTime() - window.toMillis()));
+        if (attempts.count() < freeAttempts || attempts.lastFailureAt() == null) {
+            return Duration.ZERO;
+        }
+        long wait = attempts.lastFailureAt().getTime() + delay(attempts.count() - freeAttempts).toMillis()
+                - now.getTime();
+        return wait > 0 ? Duration.ofMillis(wait) : Duration.ZERO;
+    }
+
+    // baseDelay * 2^excess, sin pasar de maxDelay
+    Duration delay(long excess) {
+        if (excess >= 30) {
+            return maxDelay;
+        }
+        Duration delay = baseDelay.multipliedBy(1L << excess);
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+
+    private static String accountKey(String account) {
+        return "account:" + (account == null ? "" : account.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String ipKey(String ip) {
+        return "ip:" + ip;
+    }
+}
@@ -0,0 +1,156 @@
+package com.tambo.tambo_delivery_backend.auth.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.google.common.hash.Hashing;
+import com.tambo.tambo_delivery_backend.auth.dto.response.LoginResponse;
+import com.tambo.tambo_delivery_backend.auth.entities.RefreshToken;
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+import com.tambo.tambo_delivery_backend.auth.helper.JWTTokenHelper;
+import com.tambo.tambo_delivery_backend.auth.repositories.RefreshTokenRepository;
+import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Emite y rota refresh tokens. El access token dura poco y se valida sin estado;
+// renovarlo no pasa por AuthenticationManager ni por el PasswordEncoder: basta
+// un hash SHA-256, un UPDATE condicional y el usuario por id.
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserDetailRepository userDetailRepository;
+    private final JWTTokenHelper jwtTokenHelper;
+    private final Duration expiresIn;
+    private final Duration maxLifetime;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+            UserDetailRepository userDetailRepository,
+            JWTTokenHelper jwtTokenHelper,
+            @Value("${jwt.auth.refresh.expires-in:P14D}") Duration expiresIn,
+            @Value("${jwt.auth.refresh.max-lifetime:P30D}") Duration maxLifetime) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userDetailRepository = userDetailRepository;
+        this.jwtTokenHelper = jwtTokenHelper;
+        this.expiresIn = expiresIn;
+        this.maxLifetime = maxLifetime;
+    }
+
+    // Nueva sesión (login): primer token de una familia nueva
+    @Transactional
+    public String issue(User user) {
+        Date now = new Date();
+        return create(user.getId(), UUID.randomUUID(), user.getTokenVersion(), now,
+                new Date(now.getTime() + maxLifetime.toMillis()));
+    }
+
+    @Transactional
+    public LoginResponse refresh(String rawToken) {
+        Optional<RefreshToken> found = rawToken == null || rawToken.isBlank() ? Optional.empty()
+                : refreshTokenRepository.findByTokenHash(hash(rawToken));
+        if (found.isEmpty() || found.get().getRevokedAt() != null) {
+            return unauthorized("Sesión inválida. Inicia sesión nuevamente.");
+        }
+
+        RefreshToken current = found.get();
+        Date now = new Date();
+        // Un token ya usado (o usado a la vez por otra solicitud) indica que fue copiado
+        if (current.getUsedAt() != null) {
+            return reused(current, now);
+        }
+        if (!current.getExpiresAt().after(now) || !current.getSessionExpiresAt().after(now)) {
+            return unauthorized("La sesión expiró. Inicia sesión nuevamente.");
+        }
+        if (refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            return reused(current, now);
+        }
+
+        User user = userDetailRepository.findById(current.getUserId()).orElse(null);
+        if (user == null || !user.isEnabled() || user.getTokenVersion() != current.getTokenVersion()) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            return unauthorized("Sesión inválida. Inicia sesión nuevamente.");
+        }
+
+        String refreshToken = create(user.getId(), current.getFamilyId(), current.getTokenVersion(), now,
+                current.getSessionExpiresAt());
+        return LoginResponse.builder()
+                .code(200)
+                .message("Sesión renovada.")
+                .token(jwtTokenHelper.generateToken(user))
+                .refreshToken(refreshToken)
+                .build();
+    }
+
+    // Cierre de sesión: revoca la familia del token presentado
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), new Date()));
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${jwt.auth.refresh.cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(new Date());
+        if (deleted > 0) {
+            log.debug("Refresh tokens vencidos eliminados: {}", deleted);
+        }
+    }
+
+    private String create(UUID userId, UUID familyId, int tokenVersion, Date now, Date sessionExpiresAt) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Date expiresAt = new Date(Math.min(now.getTime() + expiresIn.toMillis(), sessionExpiresAt.getTime()));
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .userId(userId)
+                .tokenVersion(tokenVersion)
+                .createdAt(now)
+                .expiresAt(expiresAt)
+                .sessionExpiresAt(sessionExpiresAt)
+                .build());
+        return rawToken;
+    }
+
+    private LoginResponse reused(RefreshToken token, Date now) {
+        log.warn("Refresh token reutilizado; se revoca la sesión {} del usuario {}", token.getFamilyId(),
+                token.getUserId());
+        refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+        return unauthorized("Sesión inválida. Inicia sesión nuevamente.");
+    }
+
+    // El token tiene 256 bits aleatorios: un hash rápido basta, no hace falta BCrypt
+    private static String hash(String rawToken) {
+        return Hashing.sha256().hashString(rawToken, StandardCharsets.UTF_8).toString();
+    }
+
+    private static LoginResponse unauthorized(String message) {
+        return LoginResponse.builder()
+                .code(401)
+                .message(message)
+                .token(null)
+                .build();
+    }
+}
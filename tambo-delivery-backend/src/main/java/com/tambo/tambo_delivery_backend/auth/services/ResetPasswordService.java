@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Service;
 
 import com.tambo.tambo_delivery_backend.auth.entities.User;
 import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
+import com.tambo.tambo_delivery_backend.events.UserAccountChangedEvent;
 
 @Service
 public class ResetPasswordService {
@@ -25,6 +27,12 @@ public class ResetPasswordService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public ResponseEntity<?> resetPassword(String token, String newPassword) {
         User user = userDetailRepository.findByResetToken(token);
 
@@ -35,7 +43,10 @@ public class ResetPasswordService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setResetToken(null);
         user.setResetTokenExpiry(null);
+        // Las sesiones abiertas con la contraseña anterior se cierran
+        tokenVersionService.revokeTokens(user);
         userDetailRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getId(), user.getEmail()));
 
         return ResponseEntity.ok("Contraseña restablecida con éxito.");
     }
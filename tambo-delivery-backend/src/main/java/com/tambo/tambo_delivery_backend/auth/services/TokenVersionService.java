@@ -0,0 +1,68 @@
+package com.tambo.tambo_delivery_backend.auth.services;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
+import com.tambo.tambo_delivery_backend.events.UserAccountChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Versión vigente de los tokens de cada usuario, en memoria. Un token vale
+// solo si su claim "ver" coincide. Los cambios en esta instancia se ven al
+// instante (evento); los de otra instancia, como mucho tras el TTL.
+@Slf4j
+@Service
+public class TokenVersionService {
+
+    // Usuario eliminado: ningún token coincide
+    private static final int NO_USER = -1;
+
+    private final UserDetailRepository userDetailRepository;
+    private final LoadingCache<UUID, Integer> versions;
+
+    public TokenVersionService(UserDetailRepository userDetailRepository,
+            @Value("${auth.token-version.cache-size:10000}") long cacheSize,
+            @Value("${auth.token-version.cache-ttl:PT1M}") Duration cacheTtl) {
+        this.userDetailRepository = userDetailRepository;
+        this.versions = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build(CacheLoader.from(userId -> userDetailRepository.findTokenVersionById(userId)
+                        .orElse(NO_USER)));
+    }
+
+    public boolean isCurrent(UUID userId, int tokenVersion) {
+        try {
+            return versions.get(userId) == tokenVersion;
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // Sin base de datos no se puede saber si el token fue revocado
+            log.error("No se pudo consultar la versión de tokens del usuario {}", userId, e.getCause());
+            return false;
+        }
+    }
+
+    // Invalida los tokens emitidos hasta ahora; quien llama guarda el usuario
+    // y publica UserAccountChangedEvent
+    public void revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+    }
+
+    // fallbackExecution: también se publica fuera de transacciones
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        if (event.getUserId() != null) {
+            versions.invalidate(event.getUserId());
+        }
+    }
+}
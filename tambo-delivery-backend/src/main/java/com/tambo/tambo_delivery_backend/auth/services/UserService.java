@@ -1,8 +1,12 @@
 package com.tambo.tambo_delivery_backend.auth.services;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ServerErrorException;
@@ -14,6 +18,7 @@ import com.tambo.tambo_delivery_backend.auth.entities.User;
 import com.tambo.tambo_delivery_backend.auth.helper.VerificationCodeGenerator;
 import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
 import com.tambo.tambo_delivery_backend.dto.request.UserRequestDtoAdmin;
+import com.tambo.tambo_delivery_backend.events.UserAccountChangedEvent;
 
 @Service
 public class UserService {
@@ -30,6 +35,12 @@ public class UserService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Registro de usuarios
     public UserResponseDto createUser(RegistrationRequest request) {
 
@@ -105,8 +116,11 @@ public class UserService {
                     existing.setPhoneNumber(request.getPhoneNumber());
                     existing.setPassword(passwordEncoder.encode(request.getPassword()));
                     existing.setProvider("manual");
+                    // Cambió la contraseña
+                    tokenVersionService.revokeTokens(existing);
 
                     userDetailRepository.save(existing);
+                    accountChanged(existing, existing.getEmail());
                     emailService.sendEmail(existing);
 
                     return UserResponseDto.builder()
@@ -153,6 +167,7 @@ public class UserService {
         // Activa cuentas al verificar el código (cambia enabled a true)
         user.setEnabled(true);
         userDetailRepository.save(user);
+        accountChanged(user, userName);
     }
 
     // Actualizar usuario
@@ -195,6 +210,7 @@ public class UserService {
             }
 
             userDetailRepository.save(existing);
+            accountChanged(existing, existing.getEmail());
 
             return UserResponseDto.builder()
                     .code(200)
@@ -251,6 +267,9 @@ public class UserService {
 
         try {
             User user = userDetailRepository.findByEmail(email);
+            boolean wasEnabled = user.isEnabled();
+            Set<String> previousRoles = roleCodes(user);
+
             user.setFirstName(request.getFirstName());
             user.setLastName(request.getLastName());
             user.setProfileImageUrl(request.getProfileImageUrl());
@@ -262,7 +281,14 @@ public class UserService {
             }
             user.setAuthorities(authorityService.getRequestedAuthorities(request.getRoles()));
 
+            // Los tokens emitidos llevan email, roles y la cuenta habilitada
+            if (!email.equals(user.getEmail()) || !previousRoles.equals(roleCodes(user))
+                    || (wasEnabled && !user.isEnabled())) {
+                tokenVersionService.revokeTokens(user);
+            }
+
             User update = userDetailRepository.save(user);
+            accountChanged(update, email);
 
             return update;
 
@@ -279,7 +305,9 @@ public class UserService {
             throw new RuntimeException("Usuario no encontrado");
         }
         user.setEnabled(false);
+        tokenVersionService.revokeTokens(user);
         userDetailRepository.save(user);
+        accountChanged(user, email);
     }
 
     // Activar usuario
@@ -289,7 +317,9 @@ public class UserService {
             throw new RuntimeException("Usuario no encontrado");
         }
         user.setEnabled(true);
-        return userDetailRepository.save(user);
+        User activated = userDetailRepository.save(user);
+        accountChanged(activated, email);
+        return activated;
     }
 
     // Cambiar estado de usuario (toggle)
@@ -299,7 +329,23 @@ public class UserService {
             throw new RuntimeException("Usuario no encontrado");
         }
         user.setEnabled(!user.isEnabled());
-        return userDetailRepository.save(user);
+        if (!user.isEnabled()) {
+            tokenVersionService.revokeTokens(user);
+        }
+        User toggled = userDetailRepository.save(user);
+        accountChanged(toggled, email);
+        return toggled;
+    }
+
+    // Avisa a las cachés de la cuenta (versión de tokens) que deben recargarla
+    private void accountChanged(User user, String previousEmail) {
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getId(), previousEmail));
+    }
+
+    private static Set<String> roleCodes(User user) {
+        return user.getAuthorities() == null ? Set.of()
+                : user.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toSet());
     }
 
 }
@@ -0,0 +1,112 @@
+package com.tambo.tambo_delivery_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Pocos hilos y cola acotada: las exportaciones no deben competir con el
+    // checkout por conexiones a la base de datos
+    @Bean(name = "exportExecutor")
+    public ThreadPoolTaskExecutor exportExecutor(
+            @Value("${export.jobs.max-concurrent:2}") int maxConcurrent,
+            @Value("${export.jobs.queue-capacity:10}") int queueCapacity) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("export-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // Envío de comprobantes fuera de la transacción del pago. Si la cola se
+    // llena, el comprobante queda pendiente y lo toma el siguiente sondeo.
+    @Bean(name = "receiptExecutor")
+    public ThreadPoolTaskExecutor receiptExecutor(
+            @Value("${receipts.outbox.threads:2}") int threads,
+            @Value("${receipts.outbox.queue-capacity:100}") int queueCapacity) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("receipt-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // Hilos del cliente HTTP de PayPal: reciben las respuestas y encadenan la
+    // captura, así ninguna llamada bloquea un hilo mientras espera a PayPal
+    @Bean(name = "paypalExecutor")
+    public ThreadPoolTaskExecutor paypalExecutor(
+            @Value("${paypal.threads:4}") int threads,
+            @Value("${paypal.queue-capacity:200}") int queueCapacity) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("paypal-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // Un solo hilo aplica los cambios del catálogo en memoria; los cambios que
+    // llegan mientras trabaja se juntan en la pasada siguiente
+    @Bean(name = "catalogExecutor")
+    public ThreadPoolTaskExecutor catalogExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("catalog-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // Marcado de órdenes ya cobradas. Separado de los hilos de PayPal: una base
+    // de datos lenta no debe frenar las capturas de las demás órdenes.
+    @Bean(name = "paymentDbExecutor")
+    public ThreadPoolTaskExecutor paymentDbExecutor(
+            @Value("${payments.db.threads:4}") int threads,
+            @Value("${payments.db.queue-capacity:200}") int queueCapacity) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-db-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // Procesamiento de webhooks de PayPal después de guardarlos. Si la cola se
+    // llena, el evento queda pendiente y lo toma el siguiente sondeo.
+    @Bean(name = "paypalWebhookExecutor")
+    public ThreadPoolTaskExecutor paypalWebhookExecutor(
+            @Value("${paypal.webhook.threads:2}") int threads,
+            @Value("${paypal.webhook.queue-capacity:100}") int queueCapacity) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("paypal-webhook-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,20 +1,43 @@
 package com.tambo.tambo_delivery_backend.controllers;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.tambo.tambo_delivery_backend.auth.dto.response.ResponseDto;
+import com.tambo.tambo_delivery_backend.services.ExportJob;
+import com.tambo.tambo_delivery_backend.services.ExportJobService;
+import com.tambo.tambo_delivery_backend.services.ExportProgress;
 import com.tambo.tambo_delivery_backend.services.ExportService;
-import com.tambo.tambo_delivery_backend.services.OrderService;
-import com.tambo.tambo_delivery_backend.services.ProductService;
-import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
-import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.dto.request.ExportJobRequest;
+import com.tambo.tambo_delivery_backend.dto.request.OrderExportFilter;
+import com.tambo.tambo_delivery_backend.dto.response.ExportJobDTO;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentMethod;
+import com.tambo.tambo_delivery_backend.exceptions.ExportQueueFullEx;
+import com.tambo.tambo_delivery_backend.exceptions.ResourceNotFoundEx;
+import com.tambo.tambo_delivery_backend.export.ExportFileFormat;
+import com.tambo.tambo_delivery_backend.export.ExportOutput;
+import com.tambo.tambo_delivery_backend.specification.OrderSpecification;
 
 @RestController
 @RequestMapping("/api/export")
@@ -24,31 +47,172 @@ public class ExportController {
     private ExportService exportService;
 
     @Autowired
-    private OrderService orderService;
+    private ExportJobService exportJobService;
 
-    @Autowired
-    private ProductService productService;
+    // El archivo se escribe directamente en la respuesta mientras se leen las órdenes.
+    // Sin parámetros exporta todas las órdenes. format: xlsx (por defecto), csv o csv.gz
+    @GetMapping({ "/all-orders/excel", "/orders" })
+    public ResponseEntity<?> exportAllOrdersExcel(
+            @RequestParam(defaultValue = "xlsx") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Set<OrderStatus> status,
+            @RequestParam(required = false) PaymentMethod paymentMethod) {
 
-    @GetMapping("/all-orders/excel")
-    public ResponseEntity<byte[]> exportAllOrdersExcel() throws Exception {
-        List<Order> orders = orderService.getAllOrdersByDateDesc();
-        byte[] excelBytes = exportService.exportAllOrdersToExcel(orders);
+        OrderExportFilter filter = OrderExportFilter.builder()
+                .from(from)
+                .to(to)
+                .statuses(status)
+                .paymentMethod(paymentMethod)
+                .build();
+        try {
+            // Se valida antes de empezar a escribir la respuesta
+            ExportFileFormat fileFormat = ExportFileFormat.fromParam(format);
+            OrderSpecification.matches(filter);
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=orders.xlsx")
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(excelBytes);
+            return stream(fileFormat, "orders",
+                    (output, out) -> exportService.writeOrders(output, out, filter, ExportProgress.NONE));
+        } catch (IllegalArgumentException e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message("Error al exportar las órdenes: " + e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Una fila por item de orden, con los mismos filtros que la exportación de órdenes
+    @GetMapping("/order-items")
+    public ResponseEntity<?> exportOrderItems(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Set<OrderStatus> status,
+            @RequestParam(required = false) PaymentMethod paymentMethod) {
+
+        OrderExportFilter filter = OrderExportFilter.builder()
+                .from(from)
+                .to(to)
+                .statuses(status)
+                .paymentMethod(paymentMethod)
+                .build();
+        try {
+            ExportFileFormat fileFormat = ExportFileFormat.fromParam(format);
+            OrderSpecification.matches(filter);
+
+            return stream(fileFormat, "order-items",
+                    (output, out) -> exportService.writeOrderItems(output, out, filter));
+        } catch (IllegalArgumentException e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message("Error al exportar los items: " + e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // ------------------------------ EXPORTACIONES EN SEGUNDO PLANO ----------------------------
+
+    // Encolar una exportación; responde de inmediato con el id del trabajo
+    @PostMapping("/jobs")
+    public ResponseEntity<?> createExportJob(@RequestBody ExportJobRequest request) {
+        try {
+            ExportJobDTO job = exportJobService.submit(request.getType(), request.getOrderFilter());
+            return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+        } catch (ExportQueueFullEx e) {
+            return tooManyExports(e);
+        } catch (RuntimeException e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message("Error al crear la exportación: " + e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Consultar el avance de una exportación
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getExportJob(@PathVariable UUID id) {
+        try {
+            return new ResponseEntity<>(exportJobService.getJob(id), HttpStatus.OK);
+        } catch (ResourceNotFoundEx e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message(e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.NOT_FOUND);
+        }
     }
 
-    @GetMapping("/all-products/excel")
-    public ResponseEntity<byte[]> exportAllProductsExcel() throws Exception {
-        List<ProductDTO> product = productService.getAllProducts(null, null, null, null, null, null, null);
-        byte[] excelBytes = exportService.exportAllProductsExcel(product);
+    // Descargar el archivo de una exportación terminada
+    @GetMapping("/jobs/{id}/download")
+    public ResponseEntity<?> downloadExportJob(@PathVariable UUID id) {
+        try {
+            ExportJob job = exportJobService.getCompletedJob(id);
+
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getType().getFileName())
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(new FileSystemResource(job.getFile()));
+        } catch (ResourceNotFoundEx e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message(e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message(e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.CONFLICT);
+        }
+    }
+
+    // Los productos se leen por bloques mientras se escribe la respuesta
+    @GetMapping({ "/all-products/excel", "/products" })
+    public ResponseEntity<?> exportAllProductsExcel(@RequestParam(defaultValue = "xlsx") String format) {
+        try {
+            ExportFileFormat fileFormat = ExportFileFormat.fromParam(format);
+            String baseName = fileFormat == ExportFileFormat.XLSX ? "product" : "products";
+
+            return stream(fileFormat, baseName,
+                    (output, out) -> exportService.writeProducts(output, out, ExportProgress.NONE));
+        } catch (IllegalArgumentException e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message("Error al exportar los productos: " + e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private ResponseEntity<ResponseDto> tooManyExports(ExportQueueFullEx e) {
+        ResponseDto res = ResponseDto.builder()
+                .message(e.getMessage())
+                .build();
+        return new ResponseEntity<>(res, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    // Escribe el reporte en la respuesta; en csv.gz se comprime al vuelo. Cuenta
+    // contra el límite de exportaciones en streaming simultáneas: si no hay lugar,
+    // ExportQueueFullEx se lanza al empezar a escribir y responde 429.
+    private ResponseEntity<StreamingResponseBody> stream(ExportFileFormat format, String baseName,
+            ExportWriter writer) {
+        StreamingResponseBody body = exportJobService.limitStream(out -> {
+            if (format.isGzip()) {
+                GZIPOutputStream gzip = new GZIPOutputStream(out, 8192);
+                writer.write(format.getOutput(), gzip);
+                // finish y no close: el contenedor es quien cierra la respuesta
+                gzip.finish();
+                gzip.flush();
+            } else {
+                writer.write(format.getOutput(), out);
+            }
+        });
 
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=product.xlsx")
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(excelBytes);
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + format.fileName(baseName))
+                .contentType(format.getMediaType())
+                .body(body);
+    }
+
+    @FunctionalInterface
+    private interface ExportWriter {
+        void write(ExportOutput output, OutputStream out) throws IOException;
     }
 
 }
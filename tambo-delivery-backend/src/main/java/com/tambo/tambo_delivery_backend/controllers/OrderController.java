@@ -1,18 +1,24 @@
 package com.tambo.tambo_delivery_backend.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.tambo.tambo_delivery_backend.auth.dto.response.OrderResponse;
+import com.tambo.tambo_delivery_backend.auth.dto.response.ResponseDto;
 import com.tambo.tambo_delivery_backend.dto.request.OrderRequest;
 import com.tambo.tambo_delivery_backend.dto.response.OrderDetails;
 import com.tambo.tambo_delivery_backend.services.OrderService;
 import com.tambo.tambo_delivery_backend.entities.Order;
-import com.tambo.tambo_delivery_backend.services.BoletaPdfService;
-import com.tambo.tambo_delivery_backend.services.FacturaPdfService;
+import com.tambo.tambo_delivery_backend.entities.ReceiptType;
+import com.tambo.tambo_delivery_backend.exceptions.InsufficientStockEx;
+import com.tambo.tambo_delivery_backend.services.ReceiptDocument;
+import com.tambo.tambo_delivery_backend.services.ReceiptService;
 
 import java.security.Principal;
 import java.util.List;
@@ -27,53 +33,59 @@ public class OrderController {
     OrderService orderService;
 
     @Autowired
-    private BoletaPdfService boletaPdfService;
-
-    @Autowired
-    private FacturaPdfService facturaPdfService;
+    private ReceiptService receiptService;
 
     @PostMapping
     public ResponseEntity<?> createOrder(@RequestBody OrderRequest orderRequest, Principal principal) throws Exception {
-        OrderResponse orderResponse = orderService.createOrder(orderRequest, principal);
-        return new ResponseEntity<>(orderResponse, HttpStatus.OK);
+        try {
+            OrderResponse orderResponse = orderService.createOrder(orderRequest, principal);
+            return new ResponseEntity<>(orderResponse, HttpStatus.OK);
+        } catch (InsufficientStockEx e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message(e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.CONFLICT);
+        } catch (IllegalArgumentException e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message(e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+        }
     }
 
     // Endpoint para descargar boleta PDF
     @GetMapping("/{orderId}/boleta")
-    public ResponseEntity<byte[]> descargarBoleta(@PathVariable UUID orderId) {
-        try {
-            Order order = orderService.getOrderById(orderId);
-            if (order == null) {
-                return ResponseEntity.notFound().build();
-            }
-
-            byte[] pdf = boletaPdfService.generateBoletaPdf(order);
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=boleta_tambo.pdf")
-                    .header(HttpHeaders.CONTENT_TYPE, "application/pdf")
-                    .body(pdf);
-
-        } catch (Exception e) {
-            return ResponseEntity.status(500).build();
-        }
+    public ResponseEntity<Resource> descargarBoleta(@PathVariable UUID orderId, WebRequest webRequest) {
+        return descargarComprobante(orderId, ReceiptType.BOLETA, "boleta_tambo.pdf", webRequest);
     }
 
     // Endpoint para descargar factura PDF
     @GetMapping("/{orderId}/factura")
-    public ResponseEntity<byte[]> descargarFactura(@PathVariable UUID orderId) {
+    public ResponseEntity<Resource> descargarFactura(@PathVariable UUID orderId, WebRequest webRequest) {
+        return descargarComprobante(orderId, ReceiptType.FACTURA, "factura_tambo.pdf", webRequest);
+    }
+
+    // El comprobante se sirve desde el almacén de PDFs; con If-None-Match y el
+    // mismo ETag responde 304 sin cuerpo
+    private ResponseEntity<Resource> descargarComprobante(UUID orderId, ReceiptType type, String fileName,
+            WebRequest webRequest) {
         try {
             Order order = orderService.getOrderById(orderId);
             if (order == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            byte[] pdf = facturaPdfService.generateFacturaPdf(order);
+            ReceiptDocument receipt = receiptService.getReceipt(order, type);
+            if (webRequest.checkNotModified(receipt.getETag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
 
             return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=factura_tambo.pdf")
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
                     .header(HttpHeaders.CONTENT_TYPE, "application/pdf")
-                    .body(pdf);
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(receipt.getETag())
+                    .body(receipt.getContent());
 
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
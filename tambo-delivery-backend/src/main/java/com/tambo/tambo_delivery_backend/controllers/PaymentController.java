@@ -1,73 +1,148 @@
 package com.tambo.tambo_delivery_backend.controllers;
 
-import com.tambo.tambo_delivery_backend.entities.OrderStatus;
-import com.tambo.tambo_delivery_backend.services.OrderService;
-import com.tambo.tambo_delivery_backend.services.PayPalService;
-import com.paypal.orders.Order;
+import com.tambo.tambo_delivery_backend.exceptions.InsufficientStockEx;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentGatewayUnavailableEx;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentInProgressEx;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentUnfulfilledEx;
+import com.tambo.tambo_delivery_backend.exceptions.ResourceNotFoundEx;
+import com.tambo.tambo_delivery_backend.services.PayPalWebhookService;
+import com.tambo.tambo_delivery_backend.services.PayPalWebhookSignature;
+import com.tambo.tambo_delivery_backend.services.PaymentConfirmationResult;
+import com.tambo.tambo_delivery_backend.services.PaymentConfirmationService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/payment")
 public class PaymentController {
 
-    private final PayPalService paypalService;
-    private final OrderService orderService;
+    private final PaymentConfirmationService paymentConfirmationService;
+    private final PayPalWebhookService paypalWebhookService;
 
-    public PaymentController(PayPalService paypalService, OrderService orderService) {
-        this.paypalService = paypalService;
-        this.orderService = orderService;
+    public PaymentController(PaymentConfirmationService paymentConfirmationService,
+            PayPalWebhookService paypalWebhookService) {
+        this.paymentConfirmationService = paymentConfirmationService;
+        this.paypalWebhookService = paypalWebhookService;
     }
 
+    // Idempotente por paypalOrderId: los reintentos y clics repetidos reciben el
+    // mismo resultado sin volver a capturar el pago. La respuesta es asíncrona: el
+    // hilo de Tomcat queda libre mientras PayPal responde.
     @PostMapping("/paypal/confirm-payment")
-    public ResponseEntity<?> capturePayment(@RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<?>> capturePayment(@RequestBody Map<String, String> request) {
+        CompletableFuture<PaymentConfirmationResult> confirmation;
         try {
-            String orderIdStr = request.get("orderId");
-            String paypalOrderId = request.get("paypalOrderId");
-
-            UUID orderId = UUID.fromString(orderIdStr);
-
-            // 1. Verificar si la orden ya fue procesada
-            com.tambo.tambo_delivery_backend.entities.Order existingOrder = orderService.getOrderById(orderId);
-            if (existingOrder.getOrderStatus() == OrderStatus.PAID) {
-                return ResponseEntity.ok(Map.of(
-                        "status", "success",
-                        "message", "La orden ya estaba pagada"));
-            }
-
-            // 1. Capturar pago con PayPal
-            Order paypalOrder = paypalService.captureOrder(paypalOrderId);
+            UUID orderId = parseOrderId(request.get("orderId"));
+            confirmation = paymentConfirmationService.confirmAsync(orderId, request.get("paypalOrderId"));
+        } catch (RuntimeException e) {
+            confirmation = CompletableFuture.failedFuture(e);
+        }
+        return confirmation
+                .<ResponseEntity<?>>thenApply(PaymentController::confirmed)
+                .exceptionally(error -> confirmationFailed(unwrap(error)));
+    }
 
-            // 3. Validar estado
-            if (!"COMPLETED".equals(paypalOrder.status())) {
-                throw new RuntimeException("El pago no se completó. Estado: " + paypalOrder.status());
-            }
+    private static ResponseEntity<?> confirmed(PaymentConfirmationResult result) {
+        Map<String, String> body = new HashMap<>();
+        body.put("status", "success");
+        if (result.transactionId() != null) {
+            body.put("transactionId", result.transactionId());
+        }
+        if (result.message() != null) {
+            body.put("message", result.message());
+        }
+        return ResponseEntity.ok(body);
+    }
 
-            // 2. Actualizar orden
-            orderService.updateOrderStatus(
-                    orderId,
-                    OrderStatus.PAID,
-                    paypalOrder.id());
+    private static ResponseEntity<?> confirmationFailed(Throwable e) {
+        if (e instanceof IllegalArgumentException) {
+            log.error("Solicitud de confirmación de pago inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "status", "error",
+                    "message", e.getMessage()));
+        }
+        if (e instanceof InsufficientStockEx) {
+            // Se rechaza antes de capturar: no se cobró nada
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "status", "error",
+                    "message", e.getMessage()));
+        }
+        if (e instanceof PaymentInProgressEx) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "status", "error",
+                    "message", e.getMessage()));
+        }
+        if (e instanceof PaymentUnfulfilledEx) {
+            // Ya se cobró: reintentar no sirve, queda para reembolso o revisión
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "status", "error",
+                    "message", e.getMessage()));
+        }
+        if (e instanceof PaymentGatewayUnavailableEx) {
+            // PayPal no responde o hay demasiados pagos en curso: se puede reintentar
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "status", "error",
+                    "message", e.getMessage()));
+        }
+        if (e instanceof ResourceNotFoundEx) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "status", "error",
+                    "message", e.getMessage()));
+        }
+        log.error("Error al procesar pago", e);
+        return ResponseEntity.internalServerError().body(Map.of(
+                "status", "error",
+                "message", String.valueOf(e.getMessage())));
+    }
 
+    // Webhook de PayPal (sin sesión: la firma se verifica con PayPal al procesarlo).
+    // Solo guarda el evento; responder rápido evita que PayPal lo reenvíe.
+    @PostMapping("/paypal/webhook")
+    public ResponseEntity<?> receiveWebhook(@RequestBody String payload,
+            @RequestHeader(value = "PAYPAL-TRANSMISSION-ID", required = false) String transmissionId,
+            @RequestHeader(value = "PAYPAL-TRANSMISSION-TIME", required = false) String transmissionTime,
+            @RequestHeader(value = "PAYPAL-TRANSMISSION-SIG", required = false) String transmissionSig,
+            @RequestHeader(value = "PAYPAL-CERT-URL", required = false) String certUrl,
+            @RequestHeader(value = "PAYPAL-AUTH-ALGO", required = false) String authAlgo) {
+        try {
+            boolean received = paypalWebhookService.receive(payload, new PayPalWebhookSignature(transmissionId,
+                    transmissionTime, transmissionSig, certUrl, authAlgo));
             return ResponseEntity.ok(Map.of(
                     "status", "success",
-                    "transactionId", paypalOrder.id()));
-
+                    "message", received ? "Evento recibido" : "Evento ya recibido"));
         } catch (IllegalArgumentException e) {
-            log.error("ID de orden inválido", e);
+            log.warn("Webhook de PayPal inválido: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of(
-                    "status", "error",
-                    "message", "ID de orden inválido"));
-        } catch (Exception e) {
-            log.error("Error al procesar pago", e);
-            return ResponseEntity.internalServerError().body(Map.of(
                     "status", "error",
                     "message", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static UUID parseOrderId(String orderId) {
+        if (orderId == null) {
+            throw new IllegalArgumentException("ID de orden inválido");
+        }
+        try {
+            return UUID.fromString(orderId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("ID de orden inválido");
+        }
+    }
+}
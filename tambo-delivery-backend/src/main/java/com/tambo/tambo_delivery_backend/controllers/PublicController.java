@@ -11,17 +11,30 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.tambo.tambo_delivery_backend.auth.dto.response.ResponseDto;
+import com.tambo.tambo_delivery_backend.dto.request.CartPriceRequest;
+import com.tambo.tambo_delivery_backend.dto.response.CartPriceDTO;
 import com.tambo.tambo_delivery_backend.dto.response.CategoryDTO;
+import com.tambo.tambo_delivery_backend.dto.response.ProductAvailabilityDTO;
 import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
+import com.tambo.tambo_delivery_backend.dto.response.ProductPageDTO;
+import com.tambo.tambo_delivery_backend.dto.response.ProductSearchPageDTO;
 import com.tambo.tambo_delivery_backend.dto.response.ProductSectionDTO;
 import com.tambo.tambo_delivery_backend.services.AppConfigService;
+import com.tambo.tambo_delivery_backend.services.CatalogReadModel;
 import com.tambo.tambo_delivery_backend.services.CategoryService;
+import com.tambo.tambo_delivery_backend.services.PricingService;
 import com.tambo.tambo_delivery_backend.services.ProductService;
+import com.tambo.tambo_delivery_backend.services.StockReservationService;
+import com.tambo.tambo_delivery_backend.specification.ProductSortOrder;
 
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -30,6 +43,8 @@ import jakarta.servlet.http.HttpServletResponse;
 @CrossOrigin
 public class PublicController {
 
+    private static final int DEFAULT_CATEGORY_LIMIT = 6;
+
     @Autowired
     private ProductService productService;
 
@@ -39,6 +54,23 @@ public class PublicController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CatalogReadModel catalogReadModel;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    // Agrega el ETag de la versión actual del catálogo en memoria y devuelve true
+    // si el cliente ya la tiene (If-None-Match), para responder 304 sin cuerpo
+    private boolean isCatalogNotModified(WebRequest webRequest) {
+        return catalogReadModel.current()
+                .map(catalog -> webRequest.checkNotModified(catalog.getETag()))
+                .orElse(false);
+    }
+
     // ------------------------------ PRODUCT -----------------------------
 
     // Obtener todos los productos por filtros
@@ -51,9 +83,14 @@ public class PublicController {
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Boolean newArrival,
-            HttpServletResponse response) {
+            HttpServletResponse response,
+            WebRequest webRequest) {
 
         try {
+            if (isCatalogNotModified(webRequest)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+
             List<ProductDTO> productList = new ArrayList<>();
 
             if (StringUtils.isNotBlank(slug)) {
@@ -74,6 +111,92 @@ public class PublicController {
 
     }
 
+    // Obtener productos paginados por cursor (keyset)
+    @GetMapping("/product/page")
+    public ResponseEntity<?> getProductPage(
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) UUID typeId,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean newArrival,
+            @RequestParam(defaultValue = "NEWEST") ProductSortOrder sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer limit,
+            WebRequest webRequest) {
+
+        try {
+            if (isCatalogNotModified(webRequest)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+
+            ProductPageDTO page = productService.getProductPage(categoryId, typeId, name, minPrice, maxPrice, true,
+                    newArrival, sort, cursor, limit);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message("Error al obtener los productos: " + e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Buscar productos por texto (nombre, descripción, marca y categoría)
+    @GetMapping("/product/search")
+    public ResponseEntity<?> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "20") Integer size,
+            WebRequest webRequest) {
+
+        try {
+            if (isCatalogNotModified(webRequest)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+            }
+
+            ProductSearchPageDTO result = productService.searchProducts(q, page, size);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message("Error al buscar productos: " + e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Unidades que todavía se pueden vender (descuenta las reservadas por órdenes pendientes)
+    @GetMapping("/product/{id}/availability")
+    public ResponseEntity<?> getProductAvailability(@PathVariable UUID id) {
+        try {
+            ProductAvailabilityDTO availability = ProductAvailabilityDTO.builder()
+                    .productId(id)
+                    .available(stockReservationService.availableToSell(id).orElse(null))
+                    .build();
+            return new ResponseEntity<>(availability, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message("Error al obtener la disponibilidad del producto: " + e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // ------------------------------ CART ----------------------------
+
+    // Precios, descuentos y totales del carrito calculados en el servidor
+    @PostMapping("/cart/price")
+    public ResponseEntity<?> priceCart(@RequestBody CartPriceRequest request) {
+        try {
+            CartPriceDTO price = pricingService.priceCart(request.getItems());
+            return new ResponseEntity<>(price, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            ResponseDto res = ResponseDto.builder()
+                    .message("Error al calcular el precio del carrito: " + e.getMessage())
+                    .build();
+            return new ResponseEntity<>(res, HttpStatus.BAD_REQUEST);
+        }
+    }
+
     // ------------------------------ PRODUCT SECTIONS ----------------------------
 
     // Obtener las secciones de categorias
@@ -112,17 +235,20 @@ public class PublicController {
     @GetMapping("/product/by-category")
     public ResponseEntity<?> getProductsByCategory(
             @RequestParam UUID categoryId,
-            @RequestParam(defaultValue = "6") Integer limit) {
+            @RequestParam(defaultValue = "6") Integer limit,
+            WebRequest webRequest) {
         
         try {
-            List<ProductDTO> products = productService.getAllProducts(
-                categoryId, null, null, null, null, true, null
-            );
-            
-            // Limitar la cantidad de productos si se especifica
-            if (limit != null && limit > 0 && products.size() > limit) {
-                products = products.subList(0, limit);
+            if (isCatalogNotModified(webRequest)) {
+                return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
             }
+
+            // La base de datos solo devuelve los productos que se van a mostrar
+            ProductPageDTO page = productService.getProductPage(
+                categoryId, null, null, null, null, true, null,
+                ProductSortOrder.NEWEST, null, limit != null && limit > 0 ? limit : DEFAULT_CATEGORY_LIMIT
+            );
+            List<ProductDTO> products = page.getItems();
             
             return new ResponseEntity<>(products, HttpStatus.OK);
         } catch (RuntimeException e) {
@@ -0,0 +1,16 @@
+package com.tambo.tambo_delivery_backend.dto.request;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartPriceRequest {
+    private List<OrderItemRequest> items; // productos del carrito (productId y quantity)
+}
@@ -0,0 +1,17 @@
+package com.tambo.tambo_delivery_backend.dto.request;
+
+import com.tambo.tambo_delivery_backend.services.ExportJobType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportJobRequest {
+    private ExportJobType type;
+    private OrderExportFilter orderFilter; // solo para ORDERS_EXCEL; null exporta todas
+}
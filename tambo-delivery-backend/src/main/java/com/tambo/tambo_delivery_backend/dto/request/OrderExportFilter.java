@@ -0,0 +1,24 @@
+package com.tambo.tambo_delivery_backend.dto.request;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentMethod;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Filtros de la exportación de órdenes; los campos nulos o vacíos no filtran
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderExportFilter {
+    private LocalDate from; // inclusive
+    private LocalDate to; // inclusive
+    private Set<OrderStatus> statuses;
+    private PaymentMethod paymentMethod;
+}
@@ -0,0 +1,24 @@
+package com.tambo.tambo_delivery_backend.dto.response;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartLineDTO {
+    private UUID productId;
+    private String name;
+    private Integer quantity;
+    private BigDecimal unitPrice; // precio de lista
+    private BigDecimal discountPercentage;
+    private String discountName;
+    private BigDecimal discountedUnitPrice;
+    private BigDecimal lineTotal;
+}
@@ -0,0 +1,22 @@
+package com.tambo.tambo_delivery_backend.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CartPriceDTO {
+    private List<CartLineDTO> lines; // en el mismo orden que los items recibidos
+    private BigDecimal subtotal; // suma a precio de lista
+    private BigDecimal discount; // ahorro total por descuentos
+    private BigDecimal total;
+    private LocalDate pricedOn; // fecha con la que se resolvieron los descuentos
+}
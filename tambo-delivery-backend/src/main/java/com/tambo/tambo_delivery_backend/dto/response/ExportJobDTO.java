@@ -0,0 +1,24 @@
+package com.tambo.tambo_delivery_backend.dto.response;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import com.tambo.tambo_delivery_backend.services.ExportJobStatus;
+import com.tambo.tambo_delivery_backend.services.ExportJobType;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ExportJobDTO {
+    private UUID id;
+    private ExportJobType type;
+    private ExportJobStatus status;
+    private long rowsWritten;
+    private Long totalRows; // null mientras no se conozca
+    private Integer progress; // porcentaje
+    private String error;
+    private Instant createdAt;
+    private Instant expiresAt;
+}
@@ -0,0 +1,19 @@
+package com.tambo.tambo_delivery_backend.dto.response;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderDayTotalDTO {
+    private LocalDate day;
+    private long orders;
+    private double discount;
+    private double total;
+}
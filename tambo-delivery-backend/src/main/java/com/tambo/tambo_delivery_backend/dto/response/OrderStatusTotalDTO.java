@@ -0,0 +1,18 @@
+package com.tambo.tambo_delivery_backend.dto.response;
+
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusTotalDTO {
+    private OrderStatus status;
+    private long orders;
+    private double total;
+}
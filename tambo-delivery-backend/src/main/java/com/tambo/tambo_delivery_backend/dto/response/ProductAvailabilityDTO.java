@@ -0,0 +1,18 @@
+package com.tambo.tambo_delivery_backend.dto.response;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductAvailabilityDTO {
+    private UUID productId;
+    // Stock menos las unidades reservadas por órdenes pendientes de pago
+    private Integer available;
+}
@@ -0,0 +1,14 @@
+package com.tambo.tambo_delivery_backend.dto.response;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProductPageDTO {
+    private List<ProductDTO> items;
+    private String nextCursor; // null cuando no hay más páginas
+    private boolean hasMore;
+}
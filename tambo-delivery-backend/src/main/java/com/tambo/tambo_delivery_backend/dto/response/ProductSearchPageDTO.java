@@ -0,0 +1,16 @@
+package com.tambo.tambo_delivery_backend.dto.response;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ProductSearchPageDTO {
+    private String query;
+    private List<ProductDTO> items; // ordenados por relevancia
+    private int total;
+    private int page;
+    private int size;
+}
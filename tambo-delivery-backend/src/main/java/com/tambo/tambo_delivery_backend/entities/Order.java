@@ -10,7 +10,12 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Exportaciones y reportes filtran por rango de fechas
+        @Index(name = "idx_orders_order_date", columnList = "orderDate"),
+        // La conciliación de pagos busca órdenes pendientes con pago de PayPal
+        @Index(name = "idx_orders_status_paypal", columnList = "orderStatus, paypalOrderId")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,7 +23,7 @@ import java.util.UUID;
 public class Order {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @Temporal(TemporalType.TIMESTAMP)
@@ -54,6 +59,11 @@ public class Order {
     @Column(nullable = false)
     private PaymentMethod paymentMethod;
 
+    // Orden de PayPal con la que se está pagando, la última que informó el
+    // navegador o un webhook
+    @Column(nullable = true)
+    private String paypalOrderId;
+
     // Número de seguimiento del envío
     @Column(nullable = true)
     private String shipmentTrackingNumber;
@@ -0,0 +1,82 @@
+package com.tambo.tambo_delivery_backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Webhook de PayPal tal como llegó. Los datos del evento no se modifican
+// nunca (updatable = false); solo cambian las columnas del procesamiento.
+@Entity
+@Table(name = "paypal_webhook_events", uniqueConstraints = {
+        // PayPal reenvía el mismo evento hasta recibir un 2xx
+        @UniqueConstraint(name = "uk_paypal_webhook_events_event_id", columnNames = "eventId")
+}, indexes = {
+        // El procesador busca los pendientes cuyo próximo intento ya venció
+        @Index(name = "idx_paypal_webhook_events_status_next", columnList = "status, nextAttemptAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PayPalWebhookEvent {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(nullable = false, updatable = false, length = 64)
+    private String eventId;
+
+    @Column(nullable = false, updatable = false, length = 100)
+    private String eventType;
+
+    // Orden de PayPal a la que se refiere el evento (si se pudo leer)
+    @Column(updatable = false, length = 64)
+    private String paypalOrderId;
+
+    @Lob
+    @Column(nullable = false, updatable = false, columnDefinition = "TEXT")
+    @ToString.Exclude
+    private String payload;
+
+    // Cabeceras de la firma, para verificarla con PayPal al procesar
+    @Column(updatable = false, length = 100)
+    private String transmissionId;
+
+    @Column(updatable = false, length = 64)
+    private String transmissionTime;
+
+    @Column(updatable = false, length = 1000)
+    @ToString.Exclude
+    private String transmissionSig;
+
+    @Column(updatable = false, length = 500)
+    private String certUrl;
+
+    @Column(updatable = false, length = 64)
+    private String authAlgo;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false, updatable = false)
+    private Date receivedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PayPalWebhookEventStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Próximo reintento; mientras está en PROCESSING es el vencimiento de la reserva
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date processedAt;
+}
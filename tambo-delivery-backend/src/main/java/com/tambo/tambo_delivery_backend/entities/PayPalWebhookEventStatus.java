@@ -0,0 +1,10 @@
+package com.tambo.tambo_delivery_backend.entities;
+
+public enum PayPalWebhookEventStatus {
+    PENDING, // esperando procesamiento o reintento
+    PROCESSING, // tomado por un procesador
+    PROCESSED, // aplicado a la orden
+    IGNORED, // tipo de evento que no cambia órdenes
+    REJECTED, // la firma no es válida
+    FAILED // se agotaron los reintentos
+}
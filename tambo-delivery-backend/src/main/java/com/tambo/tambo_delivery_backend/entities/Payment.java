@@ -16,7 +16,7 @@ import java.util.UUID;
 public class Payment {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,47 @@
+package com.tambo.tambo_delivery_backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Clave de idempotencia de la confirmación de un pago de PayPal. Una orden de
+// PayPal se captura una sola vez; los reintentos devuelven el resultado guardado.
+@Entity
+@Table(name = "payment_confirmations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentConfirmation {
+
+    @Id
+    @Column(length = 64)
+    private String paypalOrderId;
+
+    // Nulo mientras no se guardó: así save() inserta y dos inserciones chocan por la clave
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private UUID orderId;
+
+    // varchar y no enum de MySQL: ddl-auto=update no agrega valores nuevos a un enum
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "varchar(32)")
+    private PaymentConfirmationStatus status;
+
+    private String transactionId;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date updatedAt;
+}
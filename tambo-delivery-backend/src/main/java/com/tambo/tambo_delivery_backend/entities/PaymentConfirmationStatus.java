@@ -0,0 +1,8 @@
+package com.tambo.tambo_delivery_backend.entities;
+
+public enum PaymentConfirmationStatus {
+    IN_PROGRESS, // captura en curso
+    SUCCEEDED, // pago capturado y orden marcada como pagada
+    FAILED, // falló; se puede volver a intentar
+    CAPTURED_UNFULFILLED // cobrado pero la orden no se pudo completar: reembolso o revisión manual
+}
@@ -39,6 +39,11 @@ public class Product {
     @Column(nullable = false)
     private Integer stock;
 
+    // Control optimista de concurrencia; el descuento de stock en bloque también lo incrementa
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "brand_id", nullable = false)
     @JsonIgnore
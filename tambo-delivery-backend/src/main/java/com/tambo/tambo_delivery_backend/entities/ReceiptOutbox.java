@@ -0,0 +1,60 @@
+package com.tambo.tambo_delivery_backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Comprobante pendiente de enviar por correo. Se inserta en la misma
+// transacción que marca la orden como pagada y lo despacha otro hilo.
+@Entity
+@Table(name = "receipt_outbox", uniqueConstraints = {
+        // Un solo envío por orden y tipo de comprobante
+        @UniqueConstraint(name = "uk_receipt_outbox_order_type", columnNames = { "order_id", "receiptType" })
+}, indexes = {
+        // El despachador busca los pendientes cuyo próximo intento ya venció
+        @Index(name = "idx_receipt_outbox_status_next", columnList = "status, nextAttemptAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReceiptOutbox {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    @ToString.Exclude
+    private Order order;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReceiptType receiptType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReceiptOutboxStatus status;
+
+    // Intentos de envío realizados
+    @Column(nullable = false)
+    private int attempts;
+
+    // Próximo reintento; mientras está en PROCESSING es el vencimiento de la reserva
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date sentAt;
+}
@@ -0,0 +1,8 @@
+package com.tambo.tambo_delivery_backend.entities;
+
+public enum ReceiptOutboxStatus {
+    PENDING, // esperando envío o reintento
+    PROCESSING, // tomado por un despachador
+    SENT, // comprobante enviado
+    FAILED // se agotaron los reintentos
+}
@@ -0,0 +1,52 @@
+package com.tambo.tambo_delivery_backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+import java.util.UUID;
+
+// Stock separado para una orden pendiente de pago. Mientras está activa y no
+// venció, esa cantidad no se puede vender a otra orden.
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        // Disponible = stock - reservas activas del producto
+        @Index(name = "idx_stock_reservations_product_status", columnList = "product_id, status"),
+        // El barrido busca reservas activas vencidas
+        @Index(name = "idx_stock_reservations_status_expires", columnList = "status, expiresAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    @ToString.Exclude
+    private Order order;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    @ToString.Exclude
+    private Product product;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StockReservationStatus status;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date expiresAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(nullable = false)
+    private Date createdAt;
+}
@@ -0,0 +1,7 @@
+package com.tambo.tambo_delivery_backend.entities;
+
+public enum StockReservationStatus {
+    ACTIVE, // separa stock hasta que vence
+    CONSUMED, // la orden se pagó y el stock se descontó
+    RELEASED // venció o la orden se canceló
+}
@@ -0,0 +1,16 @@
+package com.tambo.tambo_delivery_backend.entities;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+// Id UUID generado en memoria y ordenado por tiempo (UUIDv7). Las filas nuevas
+// se insertan al final del índice primario en lugar de en posiciones al azar.
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface TimeOrderedUuid {
+}
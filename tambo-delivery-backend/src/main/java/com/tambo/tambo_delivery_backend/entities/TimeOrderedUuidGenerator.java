@@ -0,0 +1,40 @@
+package com.tambo.tambo_delivery_backend.entities;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+// UUIDv7: 48 bits de milisegundos, versión, 74 bits aleatorios y variante.
+// Comparado byte a byte (BINARY(16) en MySQL) crece con el tiempo.
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    // Orden de ORDER BY id sobre BINARY(16) en MySQL: bytes sin signo. UUID.compareTo
+    // compara con signo y no coincide cuando el primer byte es >= 0x80.
+    public static final Comparator<UUID> BINARY_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (System.currentTimeMillis() << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
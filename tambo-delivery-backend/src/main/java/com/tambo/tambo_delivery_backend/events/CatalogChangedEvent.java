@@ -0,0 +1,34 @@
+package com.tambo.tambo_delivery_backend.events;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+import lombok.Getter;
+
+// Se publica cuando cambia algo que forma parte del catálogo público.
+// - productIds: productos creados, modificados o eliminados (parche incremental)
+// - fullRefresh: cambios en marcas, categorías o descuentos que afectan a muchos productos
+@Getter
+public class CatalogChangedEvent {
+
+    private final Set<UUID> productIds;
+    private final boolean fullRefresh;
+
+    private CatalogChangedEvent(Set<UUID> productIds, boolean fullRefresh) {
+        this.productIds = productIds;
+        this.fullRefresh = fullRefresh;
+    }
+
+    public static CatalogChangedEvent productsChanged(Collection<UUID> productIds) {
+        return new CatalogChangedEvent(Set.copyOf(productIds), false);
+    }
+
+    public static CatalogChangedEvent productChanged(UUID productId) {
+        return new CatalogChangedEvent(Set.of(productId), false);
+    }
+
+    public static CatalogChangedEvent fullRefresh() {
+        return new CatalogChangedEvent(Set.of(), true);
+    }
+}
@@ -0,0 +1,14 @@
+package com.tambo.tambo_delivery_backend.events;
+
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Se publica al guardar un webhook de PayPal; se procesa recién después del commit
+@Getter
+@RequiredArgsConstructor
+public class PayPalWebhookReceivedEvent {
+
+    private final UUID webhookEventId;
+}
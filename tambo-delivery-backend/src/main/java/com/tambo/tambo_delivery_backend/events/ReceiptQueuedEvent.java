@@ -0,0 +1,14 @@
+package com.tambo.tambo_delivery_backend.events;
+
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Se publica al encolar un comprobante; se despacha recién después del commit
+@Getter
+@RequiredArgsConstructor
+public class ReceiptQueuedEvent {
+
+    private final UUID outboxId;
+}
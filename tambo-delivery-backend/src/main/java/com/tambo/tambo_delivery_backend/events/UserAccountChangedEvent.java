@@ -0,0 +1,16 @@
+package com.tambo.tambo_delivery_backend.events;
+
+import java.util.UUID;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Se publica cuando cambia una cuenta (datos, contraseña, roles o estado).
+// email es el que tenía la cuenta antes del cambio.
+@Getter
+@RequiredArgsConstructor
+public class UserAccountChangedEvent {
+
+    private final UUID userId;
+    private final String email;
+}
@@ -0,0 +1,11 @@
+package com.tambo.tambo_delivery_backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockEx extends RuntimeException {
+    public InsufficientStockEx(String s) {
+        super(s);
+    }
+}
@@ -0,0 +1,15 @@
+package com.tambo.tambo_delivery_backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class LoginThrottledEx extends RuntimeException {
+    public LoginThrottledEx(String s) {
+        super(s);
+    }
+
+    public LoginThrottledEx(String s, Throwable cause) {
+        super(s, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.tambo.tambo_delivery_backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PaymentGatewayUnavailableEx extends RuntimeException {
+    public PaymentGatewayUnavailableEx(String s) {
+        super(s);
+    }
+
+    public PaymentGatewayUnavailableEx(String s, Throwable cause) {
+        super(s, cause);
+    }
+}
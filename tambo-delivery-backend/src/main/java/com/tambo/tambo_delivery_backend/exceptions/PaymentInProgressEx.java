@@ -0,0 +1,15 @@
+package com.tambo.tambo_delivery_backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PaymentInProgressEx extends RuntimeException {
+    public PaymentInProgressEx(String s) {
+        super(s);
+    }
+
+    public PaymentInProgressEx(String s, Throwable cause) {
+        super(s, cause);
+    }
+}
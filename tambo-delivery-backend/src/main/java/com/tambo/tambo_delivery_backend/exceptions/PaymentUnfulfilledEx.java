@@ -0,0 +1,17 @@
+package com.tambo.tambo_delivery_backend.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// El pago se cobró pero la orden no se puede completar: requiere reembolso o
+// revisión manual, reintentar no cambia el resultado
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PaymentUnfulfilledEx extends RuntimeException {
+    public PaymentUnfulfilledEx(String s) {
+        super(s);
+    }
+
+    public PaymentUnfulfilledEx(String s, Throwable cause) {
+        super(s, cause);
+    }
+}
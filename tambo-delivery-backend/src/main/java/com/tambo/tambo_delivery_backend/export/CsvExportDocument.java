@@ -0,0 +1,131 @@
+package com.tambo.tambo_delivery_backend.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Archivo CSV (RFC 4180, UTF-8 con BOM para que Excel reconozca las tildes).
+// Un CSV tiene una sola tabla: se escribe la primera hoja y el resto se ignora.
+final class CsvExportDocument implements ExportDocument {
+
+    private static final char SEPARATOR = ',';
+    private static final String LINE_END = "\r\n";
+
+    private final Writer writer;
+    private boolean hasSheet;
+
+    CsvExportDocument(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public <T> ExportSheet<T> addSheet(ExportTable<T> table, String subtitle) {
+        if (hasSheet) {
+            return new IgnoredSheet<>();
+        }
+        hasSheet = true;
+
+        write("\uFEFF");
+        writeLine(table.getColumns().stream().map(ExportColumn::getHeader).toList());
+        return new CsvSheet<>(table);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    // El OutputStream es del llamador: solo se vacía el buffer
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private void writeLine(List<?> values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(SEPARATOR);
+            }
+            line.append(escape(values.get(i)));
+        }
+        write(line.append(LINE_END).toString());
+    }
+
+    private void write(String text) {
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text;
+        if (value instanceof BigDecimal decimal) {
+            text = decimal.toPlainString();
+        } else if (value instanceof Double || value instanceof Float) {
+            // Evita la notación científica (1.0E7)
+            text = BigDecimal.valueOf(((Number) value).doubleValue()).toPlainString();
+        } else if (value instanceof Number) {
+            text = value.toString();
+        } else {
+            text = neutralizeFormula(value.toString());
+        }
+
+        if (text.indexOf(SEPARATOR) >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    // Un texto que empieza con =, +, -, @, tabulación o retorno de carro se abre en
+    // Excel como fórmula (nombres o descripciones cargados por usuarios): el
+    // apóstrofo inicial lo deja como texto. Los números negativos no pasan por aquí.
+    private static String neutralizeFormula(String text) {
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            return "'" + text;
+        }
+        return text;
+    }
+
+    private final class CsvSheet<T> implements ExportSheet<T> {
+
+        private final ExportTable<T> table;
+
+        private CsvSheet(ExportTable<T> table) {
+            this.table = table;
+        }
+
+        @Override
+        public void append(T row) {
+            writeLine(table.getColumns().stream().map(column -> column.valueOf(row)).toList());
+        }
+
+        @Override
+        public void appendFooter(Object... values) {
+            // Los totales no forman parte de los datos
+        }
+    }
+
+    private static final class IgnoredSheet<T> implements ExportSheet<T> {
+
+        @Override
+        public void append(T row) {
+        }
+
+        @Override
+        public void appendFooter(Object... values) {
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.tambo.tambo_delivery_backend.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+// Libro Excel con el formato de los reportes TAMBO. Los estilos se crean una
+// sola vez por libro (por tipo de fila y formato) y se reutilizan en todas las celdas.
+final class ExcelExportDocument implements ExportDocument {
+
+    // Filas que SXSSF mantiene en memoria; las anteriores se escriben a disco
+    private static final int ROW_WINDOW = 100;
+
+    private static final int FIRST_DATA_ROW = 4;
+    private static final int MAX_CELL_LENGTH = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    private enum RowKind {
+        TITLE, HEADER, DATA, FOOTER
+    }
+
+    private final Workbook workbook;
+    private final OutputStream out;
+    private final Map<RowKind, Map<ExportFormat, CellStyle>> styles = new EnumMap<>(RowKind.class);
+
+    ExcelExportDocument(boolean streaming, OutputStream out) {
+        if (streaming) {
+            SXSSFWorkbook streamingWorkbook = new SXSSFWorkbook(ROW_WINDOW);
+            streamingWorkbook.setCompressTempFiles(true);
+            this.workbook = streamingWorkbook;
+        } else {
+            this.workbook = new XSSFWorkbook();
+        }
+        this.out = out;
+    }
+
+    @Override
+    public <T> ExportSheet<T> addSheet(ExportTable<T> table, String subtitle) {
+        return new ExcelSheet<>(table, subtitle);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        workbook.write(out);
+    }
+
+    // En SXSSF close() también borra los archivos temporales de las filas ya escritas
+    @Override
+    public void close() throws IOException {
+        workbook.close();
+    }
+
+    private CellStyle style(RowKind kind, ExportFormat format) {
+        return styles.computeIfAbsent(kind, key -> new EnumMap<>(ExportFormat.class))
+                .computeIfAbsent(format, key -> createStyle(kind, format));
+    }
+
+    private CellStyle createStyle(RowKind kind, ExportFormat format) {
+        CellStyle style = workbook.createCellStyle();
+        Font font = workbook.createFont();
+
+        switch (kind) {
+            case TITLE -> {
+                font.setFontHeightInPoints((short) 16);
+                font.setBold(true);
+                font.setColor(IndexedColors.WHITE.getIndex());
+                style.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
+                style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+                style.setAlignment(HorizontalAlignment.CENTER);
+            }
+            case HEADER -> {
+                font.setBold(true);
+                font.setColor(IndexedColors.WHITE.getIndex());
+                style.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
+                style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+                setThinBorders(style);
+            }
+            case DATA -> setThinBorders(style);
+            case FOOTER -> {
+                font.setBold(true);
+                style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+                style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            }
+        }
+        style.setFont(font);
+
+        if (format.getExcelFormat() != null) {
+            style.setDataFormat(workbook.createDataFormat().getFormat(format.getExcelFormat()));
+        }
+        style.setWrapText(format.isWrapped());
+        return style;
+    }
+
+    private void setThinBorders(CellStyle style) {
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+    }
+
+    private void setCell(Row row, int column, Object value, CellStyle style) {
+        Cell cell = row.createCell(column);
+        if (value instanceof Number number) {
+            cell.setCellValue(number.doubleValue());
+        } else if (value instanceof Boolean bool) {
+            cell.setCellValue(bool);
+        } else if (value != null) {
+            String text = value.toString();
+            cell.setCellValue(text.length() > MAX_CELL_LENGTH ? text.substring(0, MAX_CELL_LENGTH) : text);
+        }
+        cell.setCellStyle(style);
+    }
+
+    private final class ExcelSheet<T> implements ExportSheet<T> {
+
+        private final ExportTable<T> table;
+        private final Sheet sheet;
+        private int nextRow = FIRST_DATA_ROW;
+
+        private ExcelSheet(ExportTable<T> table, String subtitle) {
+            this.table = table;
+            this.sheet = workbook.createSheet(table.getSheetName());
+            int lastColumn = table.getColumns().size() - 1;
+
+            // Título
+            Row titleRow = sheet.createRow(0);
+            setCell(titleRow, 0, table.getTitle(), style(RowKind.TITLE, ExportFormat.TEXT));
+            if (lastColumn > 0) {
+                sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, lastColumn));
+            }
+
+            // Subtítulo
+            if (subtitle != null) {
+                Row subtitleRow = sheet.createRow(1);
+                subtitleRow.createCell(0).setCellValue(subtitle);
+                if (lastColumn > 0) {
+                    sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, lastColumn));
+                }
+            }
+
+            // Cabeceras con ancho fijo: con streaming no se puede usar autoSizeColumn
+            Row headerRow = sheet.createRow(FIRST_DATA_ROW - 1);
+            for (int i = 0; i <= lastColumn; i++) {
+                ExportColumn<T> column = table.getColumns().get(i);
+                setCell(headerRow, i, column.getHeader(), style(RowKind.HEADER, ExportFormat.TEXT));
+                sheet.setColumnWidth(i, column.getWidth() * 256);
+            }
+
+            // Congelar cabeceras
+            sheet.createFreezePane(0, FIRST_DATA_ROW);
+        }
+
+        @Override
+        public void append(T row) {
+            Row excelRow = sheet.createRow(nextRow++);
+            for (int i = 0; i < table.getColumns().size(); i++) {
+                ExportColumn<T> column = table.getColumns().get(i);
+                setCell(excelRow, i, column.getFormat().excelValue(column.valueOf(row)),
+                        style(RowKind.DATA, column.getFormat()));
+            }
+        }
+
+        @Override
+        public void appendFooter(Object... values) {
+            Row excelRow = sheet.createRow(nextRow++);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    ExportFormat format = i < table.getColumns().size()
+                            ? table.getColumns().get(i).getFormat()
+                            : ExportFormat.TEXT;
+                    setCell(excelRow, i, values[i], style(RowKind.FOOTER, format));
+                }
+            }
+        }
+    }
+}
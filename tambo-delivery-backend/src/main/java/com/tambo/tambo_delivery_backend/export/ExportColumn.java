@@ -0,0 +1,26 @@
+package com.tambo.tambo_delivery_backend.export;
+
+import java.util.function.Function;
+
+import lombok.Getter;
+
+// Columna de un reporte: cabecera, ancho en caracteres, formato y cómo obtener el valor de una fila
+@Getter
+public final class ExportColumn<T> {
+
+    private final String header;
+    private final int width;
+    private final ExportFormat format;
+    private final Function<? super T, ?> extractor;
+
+    ExportColumn(String header, int width, ExportFormat format, Function<? super T, ?> extractor) {
+        this.header = header;
+        this.width = width;
+        this.format = format;
+        this.extractor = extractor;
+    }
+
+    public Object valueOf(T row) {
+        return extractor.apply(row);
+    }
+}
@@ -0,0 +1,15 @@
+package com.tambo.tambo_delivery_backend.export;
+
+import java.io.IOException;
+
+// Documento de exportación (libro Excel o archivo CSV) escrito sobre un OutputStream.
+// finish() vuelca el contenido; close() libera los recursos aunque haya fallado.
+public interface ExportDocument extends AutoCloseable {
+
+    <T> ExportSheet<T> addSheet(ExportTable<T> table, String subtitle);
+
+    void finish() throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
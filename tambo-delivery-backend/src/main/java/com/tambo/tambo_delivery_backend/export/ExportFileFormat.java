@@ -0,0 +1,48 @@
+package com.tambo.tambo_delivery_backend.export;
+
+import org.springframework.http.MediaType;
+
+// Formato de archivo que pide el cliente con ?format=
+public enum ExportFileFormat {
+    XLSX("xlsx", ExportOutput.SXSSF, false),
+    CSV("csv", ExportOutput.CSV, false),
+    CSV_GZ("csv.gz", ExportOutput.CSV, true);
+
+    private final String extension;
+    private final ExportOutput output;
+    private final boolean gzip;
+
+    ExportFileFormat(String extension, ExportOutput output, boolean gzip) {
+        this.extension = extension;
+        this.output = output;
+        this.gzip = gzip;
+    }
+
+    public static ExportFileFormat fromParam(String format) {
+        if (format == null || format.isBlank()) {
+            return XLSX;
+        }
+        for (ExportFileFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format.trim())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Formato no soportado: " + format + " (use xlsx, csv o csv.gz)");
+    }
+
+    public ExportOutput getOutput() {
+        return output;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public String fileName(String baseName) {
+        return baseName + "." + extension;
+    }
+
+    public MediaType getMediaType() {
+        return gzip ? MediaType.parseMediaType("application/gzip") : output.getMediaType();
+    }
+}
@@ -0,0 +1,38 @@
+package com.tambo.tambo_delivery_backend.export;
+
+// Cómo se presenta el valor de una columna en Excel. En CSV solo cambia el texto.
+public enum ExportFormat {
+    TEXT(null, false),
+    SHORT_ID(null, false), // Excel muestra los primeros 8 caracteres; el CSV, el id completo
+    WRAPPED_TEXT(null, true), // salto de línea dentro de la celda
+    INTEGER("0", false),
+    CURRENCY("\"S/\" #,##0.00", false),
+    PERCENT("0.##\"%\"", false); // el valor ya viene como porcentaje (10 -> 10%)
+
+    private static final int SHORT_ID_LENGTH = 8;
+
+    private final String excelFormat;
+    private final boolean wrapped;
+
+    ExportFormat(String excelFormat, boolean wrapped) {
+        this.excelFormat = excelFormat;
+        this.wrapped = wrapped;
+    }
+
+    public String getExcelFormat() {
+        return excelFormat;
+    }
+
+    public boolean isWrapped() {
+        return wrapped;
+    }
+
+    // Valor que se escribe en la celda de Excel
+    public Object excelValue(Object value) {
+        if (this == SHORT_ID && value != null) {
+            String id = value.toString();
+            return id.length() > SHORT_ID_LENGTH ? id.substring(0, SHORT_ID_LENGTH) : id;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,26 @@
+package com.tambo.tambo_delivery_backend.export;
+
+import org.springframework.http.MediaType;
+
+public enum ExportOutput {
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    // Mismo archivo que XLSX, pero con solo una ventana de filas en memoria
+    SXSSF("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    CSV("csv", "text/csv");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportOutput(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return MediaType.parseMediaType(contentType);
+    }
+}
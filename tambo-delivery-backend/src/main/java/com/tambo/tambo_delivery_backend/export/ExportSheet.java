@@ -0,0 +1,17 @@
+package com.tambo.tambo_delivery_backend.export;
+
+import java.util.stream.Stream;
+
+// Hoja abierta dentro de un documento de exportación; las filas se escriben en orden
+public interface ExportSheet<T> {
+
+    void append(T row);
+
+    default void appendAll(Stream<? extends T> rows) {
+        rows.forEach(this::append);
+    }
+
+    // Fila de totales con un valor por columna (null deja la celda vacía).
+    // En CSV se omite para que el archivo siga siendo solo datos.
+    void appendFooter(Object... values);
+}
@@ -0,0 +1,55 @@
+package com.tambo.tambo_delivery_backend.export;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.Getter;
+
+// Definición declarativa de una tabla exportable: nombre de hoja, título y columnas.
+// Es inmutable una vez construida y se puede reutilizar entre exportaciones.
+@Getter
+public final class ExportTable<T> {
+
+    private final String sheetName;
+    private final String title;
+    private final List<ExportColumn<T>> columns;
+
+    private ExportTable(String sheetName, String title, List<ExportColumn<T>> columns) {
+        this.sheetName = sheetName;
+        this.title = title;
+        this.columns = List.copyOf(columns);
+    }
+
+    public static <T> Builder<T> builder(String sheetName, String title) {
+        return new Builder<>(sheetName, title);
+    }
+
+    public static final class Builder<T> {
+
+        private final String sheetName;
+        private final String title;
+        private final List<ExportColumn<T>> columns = new ArrayList<>();
+
+        private Builder(String sheetName, String title) {
+            this.sheetName = sheetName;
+            this.title = title;
+        }
+
+        public Builder<T> column(String header, int width, ExportFormat format, Function<? super T, ?> extractor) {
+            columns.add(new ExportColumn<>(header, width, format, extractor));
+            return this;
+        }
+
+        public Builder<T> column(String header, int width, Function<? super T, ?> extractor) {
+            return column(header, width, ExportFormat.TEXT, extractor);
+        }
+
+        public ExportTable<T> build() {
+            if (columns.isEmpty()) {
+                throw new IllegalStateException("La tabla " + sheetName + " no tiene columnas");
+            }
+            return new ExportTable<>(sheetName, title, columns);
+        }
+    }
+}
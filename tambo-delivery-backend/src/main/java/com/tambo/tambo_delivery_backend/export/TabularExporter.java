@@ -0,0 +1,30 @@
+package com.tambo.tambo_delivery_backend.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+// Punto de entrada del motor de exportación tabular: abre el documento del
+// formato pedido y escribe filas a partir de una ExportTable.
+@Component
+public class TabularExporter {
+
+    public ExportDocument open(ExportOutput output, OutputStream out) {
+        return switch (output) {
+            case XLSX -> new ExcelExportDocument(false, out);
+            case SXSSF -> new ExcelExportDocument(true, out);
+            case CSV -> new CsvExportDocument(out);
+        };
+    }
+
+    // Atajo para reportes de una sola tabla
+    public <T> void write(ExportOutput output, OutputStream out, ExportTable<T> table, String subtitle,
+            Stream<? extends T> rows) throws IOException {
+        try (ExportDocument document = open(output, out)) {
+            document.addSheet(table, subtitle).appendAll(rows);
+            document.finish();
+        }
+    }
+}
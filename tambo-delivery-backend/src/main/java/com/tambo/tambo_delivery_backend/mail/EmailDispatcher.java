@@ -0,0 +1,246 @@
+package com.tambo.tambo_delivery_backend.mail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+// Envío de correos en segundo plano. Cada hilo mantiene abierta su propia
+// conexión SMTP y envía por ella lotes de la cola, así el saludo y STARTTLS se
+// pagan una vez y no por cada correo. La cola atiende primero los tipos más
+// urgentes (ver EmailType).
+@Slf4j
+@Component
+public class EmailDispatcher {
+
+    // Cada cuánto revisa la cola un hilo sin trabajo
+    private static final long POLL_MILLIS = 1000;
+
+    private final JavaMailSenderImpl mailSender;
+    private final MeterRegistry meterRegistry;
+    private final PriorityBlockingQueue<QueuedEmail> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final int capacity;
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration idleTimeout;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+
+    public EmailDispatcher(JavaMailSenderImpl mailSender, MeterRegistry meterRegistry,
+            @Value("${mail.dispatch.queue-capacity:1000}") int capacity,
+            @Value("${mail.dispatch.workers:2}") int workerCount,
+            @Value("${mail.dispatch.batch-size:20}") int batchSize,
+            @Value("${mail.dispatch.idle-timeout:PT30S}") Duration idleTimeout) {
+        this.mailSender = mailSender;
+        this.meterRegistry = meterRegistry;
+        this.capacity = capacity;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.idleTimeout = idleTimeout;
+
+        Gauge.builder("mail.queue.depth", queue, PriorityBlockingQueue::size)
+                .description("Correos esperando envío")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("mail.batch.size")
+                .description("Correos enviados por la misma conexión en un lote")
+                .register(meterRegistry);
+    }
+
+    // Encola el correo; el resultado se completa cuando el servidor SMTP lo acepta
+    public CompletableFuture<Void> submit(EmailType type, MimeMessage message) {
+        if (queue.size() >= capacity) {
+            throw new MailSendException("La cola de correos está llena");
+        }
+        QueuedEmail email = new QueuedEmail(type, message, sequence.incrementAndGet());
+        queue.add(email);
+        return email.getResult();
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= workerCount; i++) {
+            Thread worker = new Thread(this::work, "mail-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    // Termina de enviar lo encolado antes de cerrar; lo que no alcanza se marca como fallido
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+            worker.interrupt();
+        }
+        workers.clear();
+
+        QueuedEmail pending;
+        while ((pending = queue.poll()) != null) {
+            pending.getResult().completeExceptionally(new MessagingException("Aplicación detenida antes del envío"));
+        }
+    }
+
+    private void work() {
+        Transport transport = null;
+        long lastUsed = System.nanoTime();
+        List<QueuedEmail> batch = new ArrayList<>(batchSize);
+
+        try {
+            while (running || !queue.isEmpty()) {
+                QueuedEmail first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    // El servidor corta las sesiones inactivas; mejor cerrarla antes
+                    if (transport != null && System.nanoTime() - lastUsed > idleTimeout.toNanos()) {
+                        transport = close(transport);
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchSizes.record(batch.size());
+
+                for (QueuedEmail email : batch) {
+                    transport = deliver(transport, email);
+                }
+                batch.clear();
+                lastUsed = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(transport);
+        }
+    }
+
+    // Envía un correo por la conexión abierta. Si la conexión se había caído se
+    // reintenta una vez con una nueva; devuelve la conexión a usar en adelante.
+    private Transport deliver(Transport transport, QueuedEmail email) {
+        meterRegistry.timer("mail.queue.wait", "type", email.getType().name())
+                .record(System.nanoTime() - email.getEnqueuedAt(), TimeUnit.NANOSECONDS);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (transport == null) {
+                transport = connect();
+            }
+            try {
+                send(transport, email.getMessage());
+            } catch (MessagingException e) {
+                // isConnected hace un NOOP: solo se consulta cuando el envío falla
+                if (isConnected(transport)) {
+                    throw e;
+                }
+                close(transport);
+                transport = null;
+                transport = connect();
+                send(transport, email.getMessage());
+            }
+            sample.stop(sendTimer(email, "success"));
+            email.getResult().complete(null);
+        } catch (MessagingException | RuntimeException e) {
+            sample.stop(sendTimer(email, "failure"));
+            log.warn("No se pudo enviar el correo {}: {}", email.getType(), e.getMessage());
+            email.getResult().completeExceptionally(e);
+            if (transport != null && !isConnected(transport)) {
+                transport = close(transport);
+            }
+        }
+        return transport;
+    }
+
+    private Timer sendTimer(QueuedEmail email, String outcome) {
+        return Timer.builder("mail.send")
+                .description("Tiempo de envío de un correo por SMTP")
+                .tag("type", email.getType().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Igual que JavaMailSenderImpl al enviar: fecha y Message-ID estables
+    private void send(Transport transport, MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+        Address[] recipients = message.getAllRecipients();
+        transport.sendMessage(message, recipients != null ? recipients : new Address[0]);
+    }
+
+    private Transport connect() throws MessagingException {
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+
+        // Mismo criterio que JavaMailSenderImpl: sin protocolo explícito, el de la sesión o smtp
+        String protocol = mailSender.getProtocol();
+        if (protocol == null) {
+            protocol = mailSender.getSession().getProperty("mail.transport.protocol");
+            if (protocol == null) {
+                protocol = JavaMailSenderImpl.DEFAULT_PROTOCOL;
+            }
+        }
+        Transport opened = mailSender.getSession().getTransport(protocol);
+        opened.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        return opened;
+    }
+
+    private boolean isConnected(Transport transport) {
+        try {
+            return transport.isConnected();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error al cerrar la conexión SMTP", e);
+            }
+        }
+        return null;
+    }
+}
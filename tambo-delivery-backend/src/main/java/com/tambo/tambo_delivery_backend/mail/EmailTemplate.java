@@ -0,0 +1,18 @@
+package com.tambo.tambo_delivery_backend.mail;
+
+// Plantillas de correo en src/main/resources/templates
+public enum EmailTemplate {
+    VERIFICATION("email-verification"),
+    PASSWORD_RESET("reset-password-email"),
+    RECEIPT("receipt-email");
+
+    private final String templateName;
+
+    EmailTemplate(String templateName) {
+        this.templateName = templateName;
+    }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+}
@@ -0,0 +1,45 @@
+package com.tambo.tambo_delivery_backend.mail;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Renderiza las plantillas de correo. Thymeleaf guarda en caché cada plantilla
+// ya interpretada (spring.thymeleaf.cache), así que al arrancar se renderizan
+// todas una vez: el primer correo real ya no paga la lectura ni el parseo y
+// cada envío queda en reemplazar variables.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailTemplateRenderer {
+
+    private static final Locale LOCALE = Locale.forLanguageTag("es-PE");
+
+    private final ITemplateEngine templateEngine;
+
+    public String render(EmailTemplate template, Map<String, Object> variables) {
+        return templateEngine.process(template.getTemplateName(), new Context(LOCALE, variables));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        for (EmailTemplate template : EmailTemplate.values()) {
+            try {
+                // Todas las variables son opcionales: sin contexto solo se parsea y se cachea
+                render(template, Map.of());
+            } catch (RuntimeException e) {
+                log.error("No se pudo precargar la plantilla de correo {}", template.getTemplateName(), e);
+            }
+        }
+        log.info("Plantillas de correo precargadas en {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,8 @@
+package com.tambo.tambo_delivery_backend.mail;
+
+// Tipos de correo en orden de prioridad: el primero se envía antes
+public enum EmailType {
+    PASSWORD_RESET, // el usuario está esperando el enlace
+    VERIFICATION, // código de verificación del registro
+    RECEIPT // boletas y facturas, pueden esperar
+}
@@ -0,0 +1,43 @@
+package com.tambo.tambo_delivery_backend.mail;
+
+import java.util.concurrent.CompletableFuture;
+
+import jakarta.mail.internet.MimeMessage;
+
+// Correo en la cola: primero por prioridad del tipo, luego por orden de llegada
+class QueuedEmail implements Comparable<QueuedEmail> {
+
+    private final EmailType type;
+    private final MimeMessage message;
+    private final long sequence;
+    private final long enqueuedAt = System.nanoTime();
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    QueuedEmail(EmailType type, MimeMessage message, long sequence) {
+        this.type = type;
+        this.message = message;
+        this.sequence = sequence;
+    }
+
+    EmailType getType() {
+        return type;
+    }
+
+    MimeMessage getMessage() {
+        return message;
+    }
+
+    long getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    CompletableFuture<Void> getResult() {
+        return result;
+    }
+
+    @Override
+    public int compareTo(QueuedEmail other) {
+        int byType = type.compareTo(other.type);
+        return byType != 0 ? byType : Long.compare(sequence, other.sequence);
+    }
+}
@@ -2,6 +2,7 @@ package com.tambo.tambo_delivery_backend.mapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -18,6 +19,7 @@ import com.tambo.tambo_delivery_backend.entities.CategoryType;
 import com.tambo.tambo_delivery_backend.entities.Discount;
 import com.tambo.tambo_delivery_backend.entities.Product;
 import com.tambo.tambo_delivery_backend.entities.Resources;
+import com.tambo.tambo_delivery_backend.services.DiscountIndex;
 
 @Component
 public class ProductMapper {
@@ -113,40 +115,32 @@ public class ProductMapper {
 
         // Calcular el precio con descuento
         private static BigDecimal calculateDiscountedPrice(Product product) {
-                BigDecimal originalPrice = product.getPrice();
-                Discount activeDiscount = product.getDiscounts().stream()
-                                .filter(d -> d.getIsActive() != null && d.getIsActive() 
-                                                && d.getStartDate() != null && !d.getStartDate().isAfter(LocalDate.now())
-                                                && d.getEndDate() != null && !d.getEndDate().isBefore(LocalDate.now()))
-                                .findFirst()
-                                .orElse(null);
-
+                Discount activeDiscount = getActiveDiscount(product);
                 if (activeDiscount == null) {
-                        return originalPrice;
-                }
-
-                if (activeDiscount.getPercentage() != null) {
-                        return originalPrice
-                                        .subtract(originalPrice.multiply(activeDiscount.getPercentage())
-                                                        .divide(BigDecimal.valueOf(100)));
-                } else {
-                        return originalPrice;
+                        return product.getPrice();
                 }
+                return DiscountIndex.applyPercentage(product.getPrice(), activeDiscount.getPercentage());
         }
 
         // Obtener el porcentaje de descuento
         private static BigDecimal getPercentageDiscount(Product product) {
-                Discount activeDiscount = product.getDiscounts().stream()
-                                .filter(d -> d.getIsActive() != null && d.getIsActive() 
-                                                && d.getStartDate() != null && !d.getStartDate().isAfter(LocalDate.now())
-                                                && d.getEndDate() != null && !d.getEndDate().isBefore(LocalDate.now()))
-                                .findFirst()
-                                .orElse(null);
-
+                Discount activeDiscount = getActiveDiscount(product);
                 if (activeDiscount == null) {
                         return BigDecimal.ZERO;
                 }
-
                 return activeDiscount.getPercentage();
         }
+
+        // Descuento vigente hoy; si hay varios, el de mayor porcentaje (igual que PricingService)
+        private static Discount getActiveDiscount(Product product) {
+                LocalDate today = LocalDate.now();
+                return product.getDiscounts().stream()
+                                .filter(d -> d.getIsActive() != null && d.getIsActive()
+                                                && d.getPercentage() != null
+                                                && d.getStartDate() != null && !d.getStartDate().isAfter(today)
+                                                && d.getEndDate() != null && !d.getEndDate().isBefore(today))
+                                .max(Comparator.comparing(Discount::getPercentage)
+                                                .thenComparing(Discount::getId, Comparator.reverseOrder()))
+                                .orElse(null);
+        }
 }
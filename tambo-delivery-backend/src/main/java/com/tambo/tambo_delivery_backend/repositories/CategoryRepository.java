@@ -4,8 +4,11 @@ import com.tambo.tambo_delivery_backend.entities.Category;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,4 +20,8 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
 
     @EntityGraph(attributePaths = "categoryTypes")
     Optional<Category> findById(UUID id);
+
+    // Inicializa categoryTypes de varias categorías en una sola consulta
+    @Query("SELECT DISTINCT c FROM Category c LEFT JOIN FETCH c.categoryTypes WHERE c.id IN :ids")
+    List<Category> fetchCategoryTypesByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -2,7 +2,11 @@ package com.tambo.tambo_delivery_backend.repositories;
 
 import com.tambo.tambo_delivery_backend.entities.Discount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +15,17 @@ public interface DiscountRepository extends JpaRepository<Discount, UUID> {
 
     List<Discount> findAllById(UUID id);
 
+    String DISCOUNT_WINDOW = "SELECT p.id, d.id, d.name, d.percentage, d.startDate, d.endDate " +
+            "FROM Discount d JOIN d.products p " +
+            "WHERE d.isActive = true AND d.percentage IS NOT NULL AND d.startDate IS NOT NULL " +
+            "AND d.endDate >= :from";
+
+    // Descuentos activos que todavía no terminaron, uno por producto:
+    // [productId, discountId, nombre, porcentaje, inicio, fin]
+    @Query(DISCOUNT_WINDOW)
+    List<Object[]> findDiscountWindows(@Param("from") LocalDate from);
+
+    @Query(DISCOUNT_WINDOW + " AND p.id IN :productIds")
+    List<Object[]> findDiscountWindowsByProductIdIn(@Param("from") LocalDate from,
+            @Param("productIds") Collection<UUID> productIds);
 }
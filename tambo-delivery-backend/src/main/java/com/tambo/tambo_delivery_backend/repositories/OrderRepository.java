@@ -1,18 +1,34 @@
 package com.tambo.tambo_delivery_backend.repositories;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.tambo.tambo_delivery_backend.auth.entities.User;
 import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentConfirmationStatus;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, JpaSpecificationExecutor<Order>,
+        OrderSummaryRepository {
+
+    // Tamaño de cada bloque al recorrer órdenes para exportar
+    int EXPORT_WINDOW_SIZE = 500;
+
     // Obtener todas las ordenes por usuario
     List<Order> findByUser(User user);
 
@@ -24,4 +40,39 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
             "WHERE o.user = :user " +
             "ORDER BY o.orderDate DESC")
     List<Order> findByUserWithItemsAndAddress(@Param("user") User user);
+
+    // Recorre las órdenes que cumplen el filtro en bloques con keyset (fecha, id), sin OFFSET
+    default Window<Order> scrollForExport(Specification<Order> spec, ScrollPosition position) {
+        Sort sort = Sort.by(Sort.Direction.DESC, "orderDate").and(Sort.by(Sort.Direction.DESC, "id"));
+        return findBy(spec, query -> query.sortBy(sort).limit(EXPORT_WINDOW_SIZE).scroll(position));
+    }
+
+    // Carga en una sola consulta el cliente, los items y sus productos de un bloque de órdenes
+    @Query("SELECT DISTINCT o FROM Order o " +
+            "JOIN FETCH o.user " +
+            "LEFT JOIN FETCH o.orderItemList items " +
+            "LEFT JOIN FETCH items.product " +
+            "WHERE o.id IN :ids")
+    List<Order> fetchItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Solo mientras la orden sigue en el estado dado: una orden pagada no cambia de pago
+    @Modifying
+    @Query("UPDATE Order o SET o.paypalOrderId = :paypalOrderId " +
+            "WHERE o.id = :id AND o.orderStatus = :orderStatus " +
+            "AND (o.paypalOrderId IS NULL OR o.paypalOrderId <> :paypalOrderId)")
+    int assignPaypalOrderId(@Param("id") UUID id, @Param("paypalOrderId") String paypalOrderId,
+            @Param("orderStatus") OrderStatus orderStatus);
+
+    // Órdenes con pago de PayPal que siguen en el estado dado, tengan o no una
+    // confirmación. Se saltan las que tienen una confirmación terminada o que
+    // alguien intentó después de staleBefore.
+    @Query("SELECT o FROM Order o " +
+            "WHERE o.orderStatus = :orderStatus AND o.paypalOrderId IS NOT NULL " +
+            "AND o.orderDate < :staleBefore AND o.orderDate >= :createdAfter " +
+            "AND NOT EXISTS (SELECT c FROM PaymentConfirmation c WHERE c.paypalOrderId = o.paypalOrderId " +
+            "AND (c.status NOT IN :retryable OR c.updatedAt >= :staleBefore)) " +
+            "ORDER BY o.orderDate")
+    List<Order> findUnconfirmedPayPalOrders(@Param("orderStatus") OrderStatus orderStatus,
+            @Param("retryable") Collection<PaymentConfirmationStatus> retryable,
+            @Param("staleBefore") Date staleBefore, @Param("createdAfter") Date createdAfter, Pageable pageable);
 }
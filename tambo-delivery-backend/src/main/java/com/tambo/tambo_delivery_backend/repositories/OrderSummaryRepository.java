@@ -0,0 +1,17 @@
+package com.tambo.tambo_delivery_backend.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tambo.tambo_delivery_backend.dto.response.OrderDayTotalDTO;
+import com.tambo.tambo_delivery_backend.dto.response.OrderStatusTotalDTO;
+import com.tambo.tambo_delivery_backend.entities.Order;
+
+// Totales de órdenes calculados con GROUP BY en la base de datos
+public interface OrderSummaryRepository {
+
+    List<OrderDayTotalDTO> sumByDay(Specification<Order> spec);
+
+    List<OrderStatusTotalDTO> sumByStatus(Specification<Order> spec);
+}
@@ -0,0 +1,89 @@
+package com.tambo.tambo_delivery_backend.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tambo.tambo_delivery_backend.dto.response.OrderDayTotalDTO;
+import com.tambo.tambo_delivery_backend.dto.response.OrderStatusTotalDTO;
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class OrderSummaryRepositoryImpl implements OrderSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderDayTotalDTO> sumByDay(Specification<Order> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> root = query.from(Order.class);
+
+        // Día calendario en UTC (OrderSpecification.REPORT_ZONE). Se agrupa por año, mes
+        // y día en vez de DATE(order_date): un DATE leído por JDBC vuelve a pasar por la
+        // zona de la JVM y puede correrse un día.
+        Expression<Integer> year = cb.function("year", Integer.class, root.get("orderDate"));
+        Expression<Integer> month = cb.function("month", Integer.class, root.get("orderDate"));
+        Expression<Integer> dayOfMonth = cb.function("day", Integer.class, root.get("orderDate"));
+        Expression<Double> discount = cb.coalesce(root.<Double>get("discount"), 0.0);
+
+        query.multiselect(year, month, dayOfMonth, cb.count(root), cb.sum(discount),
+                cb.sum(root.<Double>get("totalAmount")))
+                .where(toPredicate(spec, root, query, cb))
+                .groupBy(year, month, dayOfMonth)
+                .orderBy(cb.asc(year), cb.asc(month), cb.asc(dayOfMonth));
+
+        return entityManager.createQuery(query).getResultStream()
+                .map(row -> OrderDayTotalDTO.builder()
+                        .day(LocalDate.of(row.get(0, Integer.class), row.get(1, Integer.class),
+                                row.get(2, Integer.class)))
+                        .orders(row.get(3, Long.class))
+                        .discount(valueOf(row.get(4, Double.class)))
+                        .total(valueOf(row.get(5, Double.class)))
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public List<OrderStatusTotalDTO> sumByStatus(Specification<Order> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> root = query.from(Order.class);
+
+        Expression<OrderStatus> status = root.get("orderStatus");
+
+        query.multiselect(status, cb.count(root), cb.sum(root.<Double>get("totalAmount")))
+                .where(toPredicate(spec, root, query, cb))
+                .groupBy(status)
+                .orderBy(cb.asc(status));
+
+        return entityManager.createQuery(query).getResultStream()
+                .map(row -> OrderStatusTotalDTO.builder()
+                        .status(row.get(0, OrderStatus.class))
+                        .orders(row.get(1, Long.class))
+                        .total(valueOf(row.get(2, Double.class)))
+                        .build())
+                .toList();
+    }
+
+    private Predicate toPredicate(Specification<Order> spec, Root<Order> root, CriteriaQuery<?> query,
+            CriteriaBuilder cb) {
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        return predicate != null ? predicate : cb.conjunction();
+    }
+
+    private double valueOf(Double sum) {
+        return sum != null ? sum : 0;
+    }
+}
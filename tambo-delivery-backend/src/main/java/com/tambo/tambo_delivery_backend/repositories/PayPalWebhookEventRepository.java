@@ -0,0 +1,44 @@
+package com.tambo.tambo_delivery_backend.repositories;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tambo.tambo_delivery_backend.entities.PayPalWebhookEvent;
+import com.tambo.tambo_delivery_backend.entities.PayPalWebhookEventStatus;
+
+@Repository
+public interface PayPalWebhookEventRepository extends JpaRepository<PayPalWebhookEvent, UUID> {
+
+    boolean existsByEventIdAndStatusNot(String eventId, PayPalWebhookEventStatus status);
+
+    // Se ejecuta en el momento, antes del INSERT del evento con el mismo id
+    @Modifying
+    @Query("DELETE FROM PayPalWebhookEvent e WHERE e.eventId = :eventId AND e.status = :status")
+    int deleteByEventIdAndStatus(@Param("eventId") String eventId, @Param("status") PayPalWebhookEventStatus status);
+
+    // Pendientes (o reservas vencidas) cuyo próximo intento ya llegó, los más antiguos primero
+    @Query("SELECT e.id FROM PayPalWebhookEvent e " +
+            "WHERE e.status IN :statuses AND e.nextAttemptAt <= :now " +
+            "ORDER BY e.nextAttemptAt")
+    List<UUID> findDueIds(@Param("statuses") Collection<PayPalWebhookEventStatus> statuses, @Param("now") Date now,
+            Pageable pageable);
+
+    // Reserva el evento con un UPDATE condicional: si otro hilo o instancia ya lo
+    // tomó, no actualiza ninguna fila y devuelve 0
+    @Modifying
+    @Query("UPDATE PayPalWebhookEvent e SET e.status = :processing, e.attempts = e.attempts + 1, " +
+            "e.nextAttemptAt = :leaseUntil " +
+            "WHERE e.id = :id AND e.status IN :statuses AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") UUID id, @Param("statuses") Collection<PayPalWebhookEventStatus> statuses,
+            @Param("processing") PayPalWebhookEventStatus processing, @Param("now") Date now,
+            @Param("leaseUntil") Date leaseUntil);
+}
@@ -0,0 +1,10 @@
+package com.tambo.tambo_delivery_backend.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.tambo.tambo_delivery_backend.entities.PaymentConfirmation;
+
+@Repository
+public interface PaymentConfirmationRepository extends JpaRepository<PaymentConfirmation, String> {
+}
@@ -0,0 +1,10 @@
+package com.tambo.tambo_delivery_backend.repositories;
+
+import java.util.Collection;
+import java.util.UUID;
+
+// Carga los tipos de las categorías de los productos del catálogo a través de CategoryRepository
+public interface ProductCategoryRepository {
+
+    void initializeCategoryTypes(Collection<UUID> categoryIds);
+}
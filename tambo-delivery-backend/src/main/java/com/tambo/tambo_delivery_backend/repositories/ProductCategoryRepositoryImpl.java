@@ -0,0 +1,17 @@
+package com.tambo.tambo_delivery_backend.repositories;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ProductCategoryRepositoryImpl implements ProductCategoryRepository {
+
+    private final CategoryRepository categoryRepository;
+
+    @Override
+    public void initializeCategoryTypes(Collection<UUID> categoryIds) {
+        categoryRepository.fetchCategoryTypesByIdIn(categoryIds);
+    }
+}
@@ -2,19 +2,63 @@ package com.tambo.tambo_delivery_backend.repositories;
 
 import com.tambo.tambo_delivery_backend.entities.CategoryType;
 import com.tambo.tambo_delivery_backend.entities.Product;
+import com.tambo.tambo_delivery_backend.specification.ProductSortOrder;
+import com.tambo.tambo_delivery_backend.specification.ProductSpecification;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product>,
+        ProductCategoryRepository {
+
+    // Tamaño de cada bloque al recorrer el catálogo para exportar
+    int EXPORT_WINDOW_SIZE = 500;
+
+    // Cantidad total del producto p en la orden (puede repetirse en varios items)
+    String ORDER_QUANTITY = "(SELECT SUM(oi.quantity) FROM OrderItem oi WHERE oi.order.id = :orderId AND oi.product = p)";
 
     Optional<Product> findBySlug(String slug);
 
+    // Carga y bloquea (SELECT ... FOR UPDATE) los productos de un carrito en una
+    // sola consulta, en orden de id para que dos compras no se bloqueen entre sí
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    // Descuenta en una sola sentencia el stock de todos los productos de la orden.
+    // La condición stock >= cantidad se evalúa sobre la fila bloqueada, así dos
+    // pagos simultáneos nunca dejan stock negativo. Devuelve cuántos productos se
+    // actualizaron: si es menor que los productos de la orden, faltó stock.
+    // isActive va antes que stock porque MySQL aplica las asignaciones en orden.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET " +
+            "p.isActive = CASE WHEN p.stock = " + ORDER_QUANTITY + " THEN false ELSE p.isActive END, " +
+            "p.stock = p.stock - " + ORDER_QUANTITY + ", " +
+            "p.version = p.version + 1, " +
+            "p.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE p.id IN (SELECT oi.product.id FROM OrderItem oi WHERE oi.order.id = :orderId) " +
+            "AND p.stock >= " + ORDER_QUANTITY)
+    int decrementStockForOrder(@Param("orderId") UUID orderId);
+
     List<Product> findAllByIsActiveTrue();
 
     Optional<Product> findBySlugAndIsActiveTrue(String slug);
@@ -25,4 +69,58 @@ public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpec
 
     List<Product> findByCategoryId(UUID categoryId);
 
+    // ------------------------------ CATÁLOGO (sin N+1) ------------------------------
+
+    // Cada consulta inicializa una colección de los productos que ya están en el
+    // contexto de persistencia. Se separan para no combinar dos "bags" en un fetch.
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.resources WHERE p.id IN :ids")
+    List<Product> fetchResourcesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.discounts WHERE p.id IN :ids")
+    List<Product> fetchDiscountsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Carga los productos del filtro junto con todo lo que usa ProductMapper.toDTO
+    // en un número constante de consultas (4), sin importar el tamaño de la página.
+    // limit <= 0 significa sin límite. Debe ejecutarse dentro de una transacción.
+    default List<Product> findAllForCatalog(Specification<Product> spec, Sort sort, int limit) {
+        Specification<Product> withAssociations = spec.and(ProductSpecification.fetchCatalogAssociations());
+
+        List<Product> products = limit > 0
+                ? findBy(withAssociations, query -> query.sortBy(sort).limit(limit).all())
+                : findBy(withAssociations, query -> query.sortBy(sort).all());
+
+        initializeCatalogAssociations(products);
+        return products;
+    }
+
+    // Recorre todos los productos en bloques con keyset (fecha de creación, id),
+    // con las mismas asociaciones cargadas que el catálogo
+    default Window<Product> scrollForExport(ScrollPosition position) {
+        Specification<Product> spec = ProductSpecification.fetchCatalogAssociations();
+
+        Window<Product> window = findBy(spec, query -> query.sortBy(ProductSortOrder.NEWEST.toSort())
+                .limit(EXPORT_WINDOW_SIZE)
+                .scroll(position));
+
+        initializeCatalogAssociations(window.getContent());
+        return window;
+    }
+
+    default void initializeCatalogAssociations(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> productIds = products.stream()
+                .map(Product::getId)
+                .collect(Collectors.toSet());
+        Set<UUID> categoryIds = products.stream()
+                .map(product -> product.getCategory().getId())
+                .collect(Collectors.toSet());
+
+        fetchResourcesByIdIn(productIds);
+        fetchDiscountsByIdIn(productIds);
+        initializeCategoryTypes(categoryIds);
+    }
+
 }
@@ -0,0 +1,41 @@
+package com.tambo.tambo_delivery_backend.repositories;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.ReceiptOutbox;
+import com.tambo.tambo_delivery_backend.entities.ReceiptOutboxStatus;
+import com.tambo.tambo_delivery_backend.entities.ReceiptType;
+
+@Repository
+public interface ReceiptOutboxRepository extends JpaRepository<ReceiptOutbox, UUID> {
+
+    boolean existsByOrderAndReceiptType(Order order, ReceiptType receiptType);
+
+    // Pendientes (o reservas vencidas) cuyo próximo intento ya llegó, los más antiguos primero
+    @Query("SELECT r.id FROM ReceiptOutbox r " +
+            "WHERE r.status IN :statuses AND r.nextAttemptAt <= :now " +
+            "ORDER BY r.nextAttemptAt")
+    List<UUID> findDueIds(@Param("statuses") Collection<ReceiptOutboxStatus> statuses, @Param("now") Date now,
+            Pageable pageable);
+
+    // Reserva el envío con un UPDATE condicional: si otro hilo o instancia ya lo
+    // tomó, no actualiza ninguna fila y devuelve 0
+    @Modifying
+    @Query("UPDATE ReceiptOutbox r SET r.status = :processing, r.attempts = r.attempts + 1, " +
+            "r.nextAttemptAt = :leaseUntil " +
+            "WHERE r.id = :id AND r.status IN :statuses AND r.nextAttemptAt <= :now")
+    int claim(@Param("id") UUID id, @Param("statuses") Collection<ReceiptOutboxStatus> statuses,
+            @Param("processing") ReceiptOutboxStatus processing, @Param("now") Date now,
+            @Param("leaseUntil") Date leaseUntil);
+}
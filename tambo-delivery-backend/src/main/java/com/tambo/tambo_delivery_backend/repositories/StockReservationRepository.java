@@ -0,0 +1,48 @@
+package com.tambo.tambo_delivery_backend.repositories;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tambo.tambo_delivery_backend.entities.StockReservation;
+import com.tambo.tambo_delivery_backend.entities.StockReservationStatus;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+    @Query("SELECT r FROM StockReservation r JOIN FETCH r.product WHERE r.order.id = :orderId AND r.status = :status")
+    List<StockReservation> findByOrderIdAndStatus(@Param("orderId") UUID orderId,
+            @Param("status") StockReservationStatus status);
+
+    // Cantidad separada y vigente por producto: [productId, cantidad]
+    @Query("SELECT r.product.id, SUM(r.quantity) FROM StockReservation r " +
+            "WHERE r.product.id IN :productIds AND r.status = :status AND r.expiresAt > :now " +
+            "GROUP BY r.product.id")
+    List<Object[]> sumLiveByProduct(@Param("productIds") Collection<UUID> productIds,
+            @Param("status") StockReservationStatus status, @Param("now") Date now);
+
+    // Cantidad separada por otras órdenes: [productId, cantidad]
+    @Query("SELECT r.product.id, SUM(r.quantity) FROM StockReservation r " +
+            "WHERE r.product.id IN :productIds AND r.status = :status AND r.expiresAt > :now " +
+            "AND r.order.id <> :orderId " +
+            "GROUP BY r.product.id")
+    List<Object[]> sumLiveByProductExcludingOrder(@Param("productIds") Collection<UUID> productIds,
+            @Param("status") StockReservationStatus status, @Param("now") Date now,
+            @Param("orderId") UUID orderId);
+
+    @Query("SELECT r FROM StockReservation r JOIN FETCH r.product JOIN FETCH r.order " +
+            "WHERE r.status = :status AND r.expiresAt > :now")
+    List<StockReservation> findLive(@Param("status") StockReservationStatus status, @Param("now") Date now);
+
+    @Query("SELECT r FROM StockReservation r JOIN FETCH r.product JOIN FETCH r.order " +
+            "WHERE r.status = :status AND r.expiresAt <= :now ORDER BY r.expiresAt")
+    List<StockReservation> findExpired(@Param("status") StockReservationStatus status, @Param("now") Date now,
+            Pageable pageable);
+}
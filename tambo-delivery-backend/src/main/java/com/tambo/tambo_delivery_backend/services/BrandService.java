@@ -7,6 +7,7 @@ import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.google.common.base.Preconditions;
@@ -16,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import com.tambo.tambo_delivery_backend.dto.request.BrandRequest;
 import com.tambo.tambo_delivery_backend.dto.response.BrandDTO;
 import com.tambo.tambo_delivery_backend.entities.Brand;
+import com.tambo.tambo_delivery_backend.events.CatalogChangedEvent;
 import com.tambo.tambo_delivery_backend.repositories.BrandRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -27,6 +29,7 @@ public class BrandService {
     private static final Logger log = LoggerFactory.getLogger(BrandService.class);
 
     private final BrandRepository brandRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public BrandDTO createBrand(BrandRequest request) {
         Preconditions.checkNotNull(request, "La solicitud no puede ser nula");
@@ -86,6 +89,9 @@ public class BrandService {
         BrandDTO updatedDTO = mapToDTO(updated);
         brandCache.put(id, updatedDTO);
 
+        // Los productos muestran los datos de su marca
+        eventPublisher.publishEvent(CatalogChangedEvent.fullRefresh());
+
         return updatedDTO;
     }
 
@@ -96,6 +102,7 @@ public class BrandService {
 
         // Invalidamos la entrada en el caché
         brandCache.invalidate(id);
+        eventPublisher.publishEvent(CatalogChangedEvent.fullRefresh());
     }
 
     private BrandDTO mapToDTO(Brand brand) {
@@ -0,0 +1,175 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
+import com.tambo.tambo_delivery_backend.entities.Product;
+import com.tambo.tambo_delivery_backend.events.CatalogChangedEvent;
+import com.tambo.tambo_delivery_backend.mapper.ProductMapper;
+import com.tambo.tambo_delivery_backend.repositories.ProductRepository;
+import com.tambo.tambo_delivery_backend.specification.ProductSortOrder;
+import com.tambo.tambo_delivery_backend.specification.ProductSpecification;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Mantiene en memoria el catálogo público (productos activos) para que las
+// lecturas no tengan que ir a la base de datos. Se carga al arrancar y se
+// actualiza en segundo plano cuando se confirma una transacción que modifica el
+// catálogo.
+@Slf4j
+@Service
+public class CatalogReadModel {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor catalogExecutor;
+
+    // Distingue los ETag de distintos arranques de la aplicación
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong versions = new AtomicLong();
+
+    // null mientras no haya una versión confiable: las lecturas van a la base de datos
+    private volatile CatalogSnapshot snapshot;
+
+    // Cambios confirmados que todavía no se aplicaron. Una ráfaga de pagos se
+    // junta en una sola actualización en vez de una nueva versión por orden.
+    private final Set<UUID> pendingIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fullRefreshPending = new AtomicBoolean();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    public CatalogReadModel(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+            @Qualifier("catalogExecutor") TaskExecutor catalogExecutor) {
+        this.productRepository = productRepository;
+        this.catalogExecutor = catalogExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Optional<CatalogSnapshot> current() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Los descuentos vigentes dependen de la fecha, por eso se recalcula a medianoche
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rebuildAtMidnight() {
+        rebuild();
+    }
+
+    // Solo se ejecuta después del commit, así nunca se publican cambios revertidos.
+    // No recarga en el hilo de quien confirmó: anota los ids y deja el trabajo al
+    // hilo del catálogo.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isFullRefresh()) {
+            fullRefreshPending.set(true);
+        } else if (!event.getProductIds().isEmpty()) {
+            pendingIds.addAll(event.getProductIds());
+        } else {
+            return;
+        }
+        if (refreshScheduled.compareAndSet(false, true)) {
+            try {
+                catalogExecutor.execute(this::applyPending);
+            } catch (TaskRejectedException e) {
+                refreshScheduled.set(false);
+                // Mejor ir a la base de datos que servir un catálogo desactualizado
+                snapshot = null;
+                log.warn("No se pudo programar la actualización del catálogo, se recargará en el próximo cambio");
+            }
+        }
+    }
+
+    // Se libera la marca antes de tomar los cambios: lo que llegue mientras se
+    // aplican programa otra pasada
+    void applyPending() {
+        refreshScheduled.set(false);
+        boolean full = fullRefreshPending.getAndSet(false);
+        Set<UUID> productIds = new HashSet<>();
+        for (Iterator<UUID> it = pendingIds.iterator(); it.hasNext();) {
+            productIds.add(it.next());
+            it.remove();
+        }
+
+        if (full || snapshot == null) {
+            rebuild();
+        } else if (!productIds.isEmpty()) {
+            patch(productIds);
+        }
+    }
+
+    public synchronized void rebuild() {
+        try {
+            List<ProductDTO> products = readOnlyTransaction
+                    .execute(status -> loadProducts(ProductSpecification.isActive()));
+            CatalogSnapshot loaded = CatalogSnapshot.of(versions.incrementAndGet(), instanceId, products);
+            // El índice de búsqueda se arma aquí y no en la primera búsqueda
+            loaded.getSearchIndex();
+            snapshot = loaded;
+            log.info("Catálogo en memoria cargado: {} productos (versión {})", snapshot.size(),
+                    snapshot.getVersion());
+        } catch (RuntimeException e) {
+            // Mientras no se pueda recargar, las lecturas van a la base de datos
+            snapshot = null;
+            log.error("No se pudo cargar el catálogo en memoria", e);
+        }
+    }
+
+    // Vuelve a leer solo los productos modificados; los que ya no existen o
+    // quedaron inactivos se quitan del catálogo
+    private synchronized void patch(Set<UUID> productIds) {
+        CatalogSnapshot base = snapshot;
+        if (base == null) {
+            rebuild();
+            return;
+        }
+        try {
+            List<ProductDTO> changed = readOnlyTransaction.execute(status -> loadProducts(
+                    ProductSpecification.isActive().and(ProductSpecification.hasIdIn(productIds))));
+
+            Set<UUID> removed = new HashSet<>(productIds);
+            removed.removeAll(changed.stream().map(ProductDTO::getId).collect(Collectors.toSet()));
+
+            CatalogSnapshot patched = base.withChanges(versions.incrementAndGet(), instanceId, changed, removed);
+            patched.getSearchIndex();
+            snapshot = patched;
+        } catch (RuntimeException e) {
+            // Mejor ir a la base de datos que servir un catálogo desactualizado
+            snapshot = null;
+            log.error("No se pudo actualizar el catálogo en memoria, se recargará en el próximo cambio", e);
+        }
+    }
+
+    private List<ProductDTO> loadProducts(Specification<Product> spec) {
+        return productRepository.findAllForCatalog(spec, ProductSortOrder.NEWEST.toSort(), 0).stream()
+                .map(ProductMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+}
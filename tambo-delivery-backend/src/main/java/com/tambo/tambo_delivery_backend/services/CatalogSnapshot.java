@@ -0,0 +1,214 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
+import com.tambo.tambo_delivery_backend.dto.response.ProductPageDTO;
+import com.tambo.tambo_delivery_backend.entities.TimeOrderedUuidGenerator;
+import com.tambo.tambo_delivery_backend.specification.ProductCursor;
+import com.tambo.tambo_delivery_backend.specification.ProductSortOrder;
+
+// Vista inmutable de los productos activos del catálogo, indexada por id, slug,
+// categoría y tipo de categoría. Cada cambio genera una instancia nueva, por lo
+// que los lectores nunca ven un estado a medio actualizar.
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final String eTag;
+    private final ImmutableList<ProductDTO> products; // más recientes primero
+    private final ImmutableMap<UUID, ProductDTO> byId;
+    private final ImmutableMap<String, ProductDTO> bySlug;
+    private final ImmutableListMultimap<UUID, ProductDTO> byCategory;
+    private final ImmutableListMultimap<UUID, ProductDTO> byCategoryType;
+
+    // Se construye una sola vez por versión; CatalogReadModel lo arma antes de
+    // publicar la versión para que ninguna búsqueda pague la construcción
+    private final Supplier<ProductSearchIndex> searchIndex;
+
+    private CatalogSnapshot(long version, String instanceId, ImmutableList<ProductDTO> products,
+            ProductSearchIndex previousIndex) {
+        this.version = version;
+        this.eTag = "\"catalog-" + instanceId + "-" + version + "\"";
+        this.products = products;
+        this.byId = products.stream().collect(ImmutableMap.toImmutableMap(ProductDTO::getId, p -> p));
+        this.bySlug = products.stream().collect(ImmutableMap.toImmutableMap(ProductDTO::getSlug, p -> p));
+        this.byCategory = products.stream()
+                .filter(p -> p.getCategory() != null)
+                .collect(ImmutableListMultimap.toImmutableListMultimap(p -> p.getCategory().getId(), p -> p));
+        this.byCategoryType = products.stream()
+                .filter(p -> p.getCategoryType() != null)
+                .collect(ImmutableListMultimap.toImmutableListMultimap(p -> p.getCategoryType().getId(), p -> p));
+        this.searchIndex = Suppliers.memoize(() -> previousIndex != null
+                ? previousIndex.withProducts(this.products)
+                : ProductSearchIndex.build(this.products));
+    }
+
+    public static CatalogSnapshot of(long version, String instanceId, Collection<ProductDTO> products) {
+        return new CatalogSnapshot(version, instanceId,
+                ImmutableList.sortedCopyOf(comparator(ProductSortOrder.NEWEST), products), null);
+    }
+
+    // Nueva versión con los productos modificados reemplazados y los eliminados quitados.
+    // Si solo cambian datos que no se indexan (el stock tras un pago, el precio),
+    // los productos se reemplazan en su lugar y se reutiliza el índice de búsqueda.
+    public CatalogSnapshot withChanges(long newVersion, String instanceId, Collection<ProductDTO> upserts,
+            Collection<UUID> removedIds) {
+        if (removedIds.isEmpty() && upserts.stream().allMatch(this::keepsPosition)) {
+            Map<UUID, ProductDTO> replaced = upserts.stream()
+                    .collect(Collectors.toMap(ProductDTO::getId, product -> product, (a, b) -> b));
+            ImmutableList<ProductDTO> updated = products.stream()
+                    .map(product -> replaced.getOrDefault(product.getId(), product))
+                    .collect(ImmutableList.toImmutableList());
+            boolean sameText = upserts.stream()
+                    .allMatch(product -> ProductSearchIndex.sameIndexedText(byId.get(product.getId()), product));
+            return new CatalogSnapshot(newVersion, instanceId, updated, sameText ? getSearchIndex() : null);
+        }
+
+        Map<UUID, ProductDTO> merged = new LinkedHashMap<>(byId);
+        removedIds.forEach(merged::remove);
+        upserts.forEach(product -> merged.put(product.getId(), product));
+        return of(newVersion, instanceId, merged.values());
+    }
+
+    // Producto ya publicado que no cambia de lugar en el orden NEWEST
+    private boolean keepsPosition(ProductDTO product) {
+        ProductDTO current = byId.get(product.getId());
+        return current != null && Objects.equals(current.getCreatedAt(), product.getCreatedAt());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    public List<ProductDTO> getProducts() {
+        return products;
+    }
+
+    public ProductSearchIndex getSearchIndex() {
+        return searchIndex.get();
+    }
+
+    public Optional<ProductDTO> findById(UUID id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<ProductDTO> findBySlug(String slug) {
+        return Optional.ofNullable(bySlug.get(slug));
+    }
+
+    // Mismos filtros que ProductSpecification, evaluados en memoria
+    public List<ProductDTO> filter(UUID categoryId, UUID typeId, String name, BigDecimal minPrice,
+            BigDecimal maxPrice, Boolean newArrival) {
+        return candidates(categoryId, typeId)
+                .filter(matches(categoryId, typeId, name, minPrice, maxPrice, newArrival))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    public ProductPageDTO page(UUID categoryId, UUID typeId, String name, BigDecimal minPrice, BigDecimal maxPrice,
+            Boolean newArrival, ProductSortOrder sort, String cursor, int limit) {
+
+        Comparator<ProductDTO> order = comparator(sort);
+        Stream<ProductDTO> rows = candidates(categoryId, typeId)
+                .filter(matches(categoryId, typeId, name, minPrice, maxPrice, newArrival));
+
+        if (StringUtils.isNotBlank(cursor)) {
+            ProductCursor position = ProductCursor.decode(cursor, sort);
+            rows = rows.filter(product -> isAfter(product, position));
+        }
+
+        // Los índices ya están en orden NEWEST; el resto se ordena al vuelo
+        if (sort != ProductSortOrder.NEWEST) {
+            rows = rows.sorted(order);
+        }
+
+        List<ProductDTO> window = rows.limit(limit + 1L).collect(Collectors.toList());
+        boolean hasMore = window.size() > limit;
+        List<ProductDTO> page = hasMore ? window.subList(0, limit) : window;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ProductDTO last = page.get(page.size() - 1);
+            nextCursor = ProductCursor.of(sort, sortKey(sort, last), last.getId()).encode();
+        }
+
+        return ProductPageDTO.builder()
+                .items(ImmutableList.copyOf(page))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Parte del índice más selectivo disponible
+    private Stream<ProductDTO> candidates(UUID categoryId, UUID typeId) {
+        if (typeId != null) {
+            return byCategoryType.get(typeId).stream();
+        }
+        if (categoryId != null) {
+            return byCategory.get(categoryId).stream();
+        }
+        return products.stream();
+    }
+
+    private static Predicate<ProductDTO> matches(UUID categoryId, UUID typeId, String name, BigDecimal minPrice,
+            BigDecimal maxPrice, Boolean newArrival) {
+        String term = StringUtils.isNotBlank(name) ? name.toLowerCase() : null;
+
+        return product -> (categoryId == null
+                || (product.getCategory() != null && categoryId.equals(product.getCategory().getId())))
+                && (typeId == null
+                        || (product.getCategoryType() != null && typeId.equals(product.getCategoryType().getId())))
+                && (term == null || product.getName().toLowerCase().contains(term))
+                && (minPrice == null || product.getPrice().compareTo(minPrice) >= 0)
+                && (maxPrice == null || product.getPrice().compareTo(maxPrice) <= 0)
+                && (newArrival == null || newArrival.equals(product.getIsNewArrival()));
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static boolean isAfter(ProductDTO product, ProductCursor cursor) {
+        Comparable key = sortKey(cursor.getSort(), product);
+        int result = key.compareTo(cursor.getValue());
+        if (result == 0) {
+            // Desempate igual que ORDER BY id en MySQL (bytes sin signo)
+            result = TimeOrderedUuidGenerator.BINARY_ORDER.compare(product.getId(), cursor.getId());
+        }
+        return cursor.getSort().isDescending() ? result < 0 : result > 0;
+    }
+
+    private static Comparable<?> sortKey(ProductSortOrder sort, ProductDTO product) {
+        return sort.isByPrice() ? product.getPrice() : product.getCreatedAt();
+    }
+
+    private static Comparator<ProductDTO> comparator(ProductSortOrder sort) {
+        Comparator<ProductDTO> comparator = sort.isByPrice()
+                ? Comparator.comparing(ProductDTO::getPrice)
+                : Comparator.comparing(ProductDTO::getCreatedAt);
+        comparator = comparator.thenComparing(ProductDTO::getId, TimeOrderedUuidGenerator.BINARY_ORDER);
+        return sort.isDescending() ? comparator.reversed() : comparator;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,6 +13,7 @@ import com.tambo.tambo_delivery_backend.dto.request.CategoryRequestDTO;
 import com.tambo.tambo_delivery_backend.dto.response.CategoryDTO;
 import com.tambo.tambo_delivery_backend.entities.Category;
 import com.tambo.tambo_delivery_backend.entities.CategoryType;
+import com.tambo.tambo_delivery_backend.events.CatalogChangedEvent;
 import com.tambo.tambo_delivery_backend.mapper.CategoryMapper;
 import com.tambo.tambo_delivery_backend.repositories.CategoryRepository;
 import com.tambo.tambo_delivery_backend.repositories.CategoryTypeRepository;
@@ -23,6 +25,8 @@ public class CategoryService {
     private CategoryRepository categoryRepository;
     @Autowired
     private CategoryTypeRepository categoryTypeRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     // Obtener todas las categorias
     public List<CategoryDTO> getAllCategories() {
@@ -45,6 +49,7 @@ public class CategoryService {
         Category category = CategoryMapper.toEntity(request, categoryTypeRepository);
 
         Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.fullRefresh());
         return CategoryMapper.toDTO(saved);
     }
 
@@ -74,6 +79,7 @@ public class CategoryService {
         }
 
         Category updated = categoryRepository.save(existing);
+        eventPublisher.publishEvent(CatalogChangedEvent.fullRefresh());
         return CategoryMapper.toDTO(updated);
     }
 
@@ -83,5 +89,6 @@ public class CategoryService {
             throw new RuntimeException("Category not found");
         }
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangedEvent.fullRefresh());
     }
 }
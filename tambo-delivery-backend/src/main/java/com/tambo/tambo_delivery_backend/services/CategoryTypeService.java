@@ -5,6 +5,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,6 +13,7 @@ import com.tambo.tambo_delivery_backend.dto.request.CategoryTypeRequestDTO;
 import com.tambo.tambo_delivery_backend.dto.response.CategoryTypeDTO;
 import com.tambo.tambo_delivery_backend.entities.Category;
 import com.tambo.tambo_delivery_backend.entities.CategoryType;
+import com.tambo.tambo_delivery_backend.events.CatalogChangedEvent;
 import com.tambo.tambo_delivery_backend.mapper.CategoryTypeMapper;
 import com.tambo.tambo_delivery_backend.repositories.CategoryRepository;
 import com.tambo.tambo_delivery_backend.repositories.CategoryTypeRepository;
@@ -25,6 +27,9 @@ public class CategoryTypeService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Obtener todos los tipos de categoría
     public List<CategoryTypeDTO> getAllCategoryTypes() {
         return categoryTypeRepository.findAll().stream()
@@ -59,7 +64,8 @@ public class CategoryTypeService {
         // Crear el tipo de categoría
         CategoryType categoryType = CategoryTypeMapper.toEntity(dto, category);
         CategoryType saved = categoryTypeRepository.save(categoryType);
-        
+        eventPublisher.publishEvent(CatalogChangedEvent.fullRefresh());
+
         return CategoryTypeMapper.toDTO(saved);
     }
 
@@ -81,6 +87,7 @@ public class CategoryTypeService {
         existing.setDescription(dto.getDescription());
 
         CategoryType updated = categoryTypeRepository.save(existing);
+        eventPublisher.publishEvent(CatalogChangedEvent.fullRefresh());
         return CategoryTypeMapper.toDTO(updated);
     }
 
@@ -91,5 +98,6 @@ public class CategoryTypeService {
             throw new RuntimeException("Tipo de categoría con id " + id + " no encontrado");
         }
         categoryTypeRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangedEvent.fullRefresh());
     }
 }
@@ -0,0 +1,91 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+
+// Descuentos vigentes por producto. Guarda las ventanas de fechas de cada
+// descuento y, ya resuelto, el descuento que aplica a cada producto en el día
+// para el que se construyó. Es inmutable: cada cambio genera una instancia nueva.
+public final class DiscountIndex {
+
+    // Si varios descuentos coinciden en la fecha, aplica el de mayor porcentaje
+    static final Comparator<DiscountWindow> BEST_FIRST = Comparator
+            .comparing(DiscountWindow::percentage, Comparator.reverseOrder())
+            .thenComparing(DiscountWindow::discountId);
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final LocalDate day;
+    private final ImmutableListMultimap<UUID, DiscountWindow> windows;
+    private final ImmutableMap<UUID, DiscountWindow> today;
+
+    private DiscountIndex(LocalDate day, ImmutableListMultimap<UUID, DiscountWindow> windows) {
+        this.day = day;
+        this.windows = windows;
+        Map<UUID, DiscountWindow> resolved = new HashMap<>();
+        for (UUID productId : windows.keySet()) {
+            best(windows.get(productId), day).ifPresent(window -> resolved.put(productId, window));
+        }
+        this.today = ImmutableMap.copyOf(resolved);
+    }
+
+    public static DiscountIndex build(LocalDate day, Collection<DiscountWindow> windows) {
+        return new DiscountIndex(day, windows.stream()
+                .collect(ImmutableListMultimap.toImmutableListMultimap(DiscountWindow::productId, w -> w)));
+    }
+
+    // Nueva versión con las ventanas de estos productos reemplazadas
+    public DiscountIndex withProducts(Collection<UUID> productIds, Collection<DiscountWindow> productWindows) {
+        ImmutableListMultimap.Builder<UUID, DiscountWindow> builder = ImmutableListMultimap.builder();
+        windows.entries().stream()
+                .filter(entry -> !productIds.contains(entry.getKey()))
+                .forEach(builder::put);
+        productWindows.forEach(window -> builder.put(window.productId(), window));
+        return new DiscountIndex(day, builder.build());
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    // El día del índice sale del mapa ya resuelto; otras fechas recorren las ventanas
+    public Optional<DiscountWindow> find(UUID productId, LocalDate date) {
+        if (date.equals(day)) {
+            return Optional.ofNullable(today.get(productId));
+        }
+        return best(windows.get(productId), date);
+    }
+
+    // Precio con descuento, redondeado a céntimos
+    public static BigDecimal applyPercentage(BigDecimal price, BigDecimal percentage) {
+        if (percentage == null || percentage.signum() == 0) {
+            return price.setScale(2, RoundingMode.HALF_UP);
+        }
+        return price.subtract(price.multiply(percentage).divide(HUNDRED))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static Optional<DiscountWindow> best(Collection<DiscountWindow> candidates, LocalDate date) {
+        return candidates.stream()
+                .filter(window -> window.isActiveOn(date))
+                .min(BEST_FIRST);
+    }
+
+    public record DiscountWindow(UUID productId, UUID discountId, String name, BigDecimal percentage,
+            LocalDate startDate, LocalDate endDate) {
+
+        public boolean isActiveOn(LocalDate date) {
+            return !startDate.isAfter(date) && !endDate.isBefore(date);
+        }
+    }
+}
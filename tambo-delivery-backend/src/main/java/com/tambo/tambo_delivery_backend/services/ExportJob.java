@@ -0,0 +1,93 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Estado de una exportación en segundo plano. Lo escribe el hilo de la
+// exportación y lo leen las consultas de avance.
+public class ExportJob implements ExportProgress {
+
+    private final UUID id;
+    private final ExportJobType type;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    private volatile long totalRows = -1; // -1 mientras no se conozca
+    private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+    private volatile Path file;
+    private volatile String error;
+    private volatile Instant expiresAt;
+
+    public ExportJob(UUID id, ExportJobType type) {
+        this.id = id;
+        this.type = type;
+    }
+
+    @Override
+    public void start(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    @Override
+    public void rowWritten() {
+        rowsWritten.incrementAndGet();
+    }
+
+    void markRunning() {
+        status = ExportJobStatus.RUNNING;
+    }
+
+    void complete(Path file, Instant expiresAt) {
+        this.file = file;
+        this.expiresAt = expiresAt;
+        this.status = ExportJobStatus.COMPLETED;
+    }
+
+    void fail(String error, Instant expiresAt) {
+        this.error = error;
+        this.expiresAt = expiresAt;
+        this.status = ExportJobStatus.FAILED;
+    }
+
+    boolean isExpired(Instant now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public ExportJobType getType() {
+        return type;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public ExportJobStatus getStatus() {
+        return status;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,217 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.tambo.tambo_delivery_backend.dto.request.OrderExportFilter;
+import com.tambo.tambo_delivery_backend.dto.response.ExportJobDTO;
+import com.tambo.tambo_delivery_backend.exceptions.ExportQueueFullEx;
+import com.tambo.tambo_delivery_backend.exceptions.ResourceNotFoundEx;
+import com.tambo.tambo_delivery_backend.export.ExportOutput;
+import com.tambo.tambo_delivery_backend.specification.OrderSpecification;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+// Exportaciones en segundo plano: se encolan en un pool acotado, escriben el
+// archivo en disco y se pueden descargar hasta que vence su TTL. También
+// limita cuántas exportaciones en streaming (directas a la respuesta) corren a la vez.
+@Slf4j
+@Service
+public class ExportJobService {
+
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    private final ExportService exportService;
+    private final ThreadPoolTaskExecutor exportExecutor;
+    private final Path directory;
+    private final Duration ttl;
+    private final Semaphore streamPermits;
+
+    public ExportJobService(ExportService exportService,
+            @Qualifier("exportExecutor") ThreadPoolTaskExecutor exportExecutor,
+            @Value("${export.jobs.directory:${java.io.tmpdir}/tambo-exports}") String directory,
+            @Value("${export.jobs.ttl:1h}") Duration ttl,
+            @Value("${export.stream.max-concurrent:4}") int maxConcurrentStreams) {
+        this.exportService = exportService;
+        this.exportExecutor = exportExecutor;
+        this.directory = Paths.get(directory);
+        this.ttl = ttl;
+        this.streamPermits = new Semaphore(maxConcurrentStreams);
+    }
+
+    // Los trabajos viven en memoria: los archivos de un arranque anterior ya no
+    // se pueden descargar. Solo se borran los que tienen el nombre de un trabajo,
+    // por si el directorio configurado es compartido.
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                file -> Files.isRegularFile(file) && isJobFile(file.getFileName().toString()))) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    // Limita las exportaciones en streaming simultáneas. El lugar se reserva al
+    // empezar a escribir y no al crear la respuesta: si el contenedor nunca llega
+    // a escribirla (timeout, cliente desconectado), no queda un lugar tomado.
+    // Sin lugar, la excepción llega antes del primer byte y responde 429.
+    public StreamingResponseBody limitStream(StreamingResponseBody body) {
+        return out -> {
+            if (!streamPermits.tryAcquire()) {
+                throw new ExportQueueFullEx(
+                        "Hay demasiadas exportaciones en curso, intente nuevamente en unos minutos");
+            }
+            try {
+                body.writeTo(out);
+            } finally {
+                streamPermits.release();
+            }
+        };
+    }
+
+    public ExportJobDTO submit(ExportJobType type, OrderExportFilter orderFilter) {
+        if (type == null) {
+            throw new IllegalArgumentException("Debe indicar el tipo de exportación");
+        }
+        if (type == ExportJobType.ORDERS_EXCEL) {
+            // Un filtro inválido se rechaza aquí y no cuando el trabajo ya está en cola
+            OrderSpecification.matches(orderFilter);
+        }
+
+        ExportJob job = new ExportJob(UUID.randomUUID(), type);
+        jobs.put(job.getId(), job);
+        try {
+            exportExecutor.execute(() -> run(job, orderFilter));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            throw new ExportQueueFullEx("Hay demasiadas exportaciones en curso, intente nuevamente en unos minutos", e);
+        }
+        return toDTO(job);
+    }
+
+    public ExportJobDTO getJob(UUID id) {
+        return toDTO(findJob(id));
+    }
+
+    // Archivo terminado listo para descargar
+    public ExportJob getCompletedJob(UUID id) {
+        ExportJob job = findJob(id);
+        if (job.getStatus() != ExportJobStatus.COMPLETED) {
+            throw new IllegalStateException("La exportación todavía no está lista");
+        }
+        return job;
+    }
+
+    // Borra los trabajos vencidos junto con sus archivos
+    @Scheduled(fixedDelayString = "${export.jobs.cleanup-interval:PT5M}")
+    public void removeExpiredJobs() {
+        Instant now = Instant.now();
+        jobs.values().removeIf(job -> {
+            if (!job.isExpired(now)) {
+                return false;
+            }
+            if (job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+            return true;
+        });
+    }
+
+    private void run(ExportJob job, OrderExportFilter orderFilter) {
+        job.markRunning();
+        Path file = directory.resolve(job.getId() + "-" + job.getType().getFileName());
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            switch (job.getType()) {
+                case ORDERS_EXCEL -> exportService.writeOrders(ExportOutput.SXSSF, out, orderFilter, job);
+                case PRODUCTS_EXCEL -> exportService.writeProducts(ExportOutput.SXSSF, out, job);
+            }
+        } catch (Exception e) {
+            log.error("Error en la exportación {} ({})", job.getId(), job.getType(), e);
+            deleteQuietly(file);
+            job.fail("No se pudo generar la exportación: " + e.getMessage(), Instant.now().plus(ttl));
+            return;
+        }
+        job.complete(file, Instant.now().plus(ttl));
+    }
+
+    // Mismo nombre que arma run(): <id del trabajo>-<archivo del tipo>
+    private static boolean isJobFile(String name) {
+        // Un UUID ocupa 36 caracteres
+        if (name.length() <= 37 || name.charAt(36) != '-') {
+            return false;
+        }
+        try {
+            UUID.fromString(name.substring(0, 36));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        String typeFileName = name.substring(37);
+        for (ExportJobType type : ExportJobType.values()) {
+            if (type.getFileName().equals(typeFileName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ExportJob findJob(UUID id) {
+        ExportJob job = jobs.get(id);
+        if (job == null || job.isExpired(Instant.now())) {
+            throw new ResourceNotFoundEx("Exportación no encontrada o vencida");
+        }
+        return job;
+    }
+
+    private ExportJobDTO toDTO(ExportJob job) {
+        long total = job.getTotalRows();
+        Integer progress = null;
+        if (job.getStatus() == ExportJobStatus.COMPLETED) {
+            progress = 100;
+        } else if (total > 0) {
+            progress = (int) Math.min(99, job.getRowsWritten() * 100 / total);
+        }
+
+        return ExportJobDTO.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .rowsWritten(job.getRowsWritten())
+                .totalRows(total >= 0 ? total : null)
+                .progress(progress)
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .expiresAt(job.getExpiresAt())
+                .build();
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el archivo de exportación {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.tambo.tambo_delivery_backend.services;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
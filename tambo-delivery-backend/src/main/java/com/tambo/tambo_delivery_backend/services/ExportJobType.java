@@ -0,0 +1,16 @@
+package com.tambo.tambo_delivery_backend.services;
+
+public enum ExportJobType {
+    ORDERS_EXCEL("orders.xlsx"),
+    PRODUCTS_EXCEL("product.xlsx");
+
+    private final String fileName;
+
+    ExportJobType(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+}
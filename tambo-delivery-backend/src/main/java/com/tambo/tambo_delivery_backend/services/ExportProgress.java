@@ -0,0 +1,20 @@
+package com.tambo.tambo_delivery_backend.services;
+
+// Avance de una exportación: filas escritas sobre el total esperado
+public interface ExportProgress {
+
+    // Para exportaciones que nadie está siguiendo
+    ExportProgress NONE = new ExportProgress() {
+        @Override
+        public void start(long totalRows) {
+        }
+
+        @Override
+        public void rowWritten() {
+        }
+    };
+
+    void start(long totalRows);
+
+    void rowWritten();
+}
@@ -1,211 +1,199 @@
 package com.tambo.tambo_delivery_backend.services;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.apache.poi.ss.usermodel.BorderStyle;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.Font;
-import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.tambo.tambo_delivery_backend.dto.response.BrandDTO;
+import com.tambo.tambo_delivery_backend.dto.request.OrderExportFilter;
+import com.tambo.tambo_delivery_backend.dto.response.OrderDayTotalDTO;
+import com.tambo.tambo_delivery_backend.dto.response.OrderStatusTotalDTO;
 import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
 import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderItem;
 import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.export.ExportDocument;
+import com.tambo.tambo_delivery_backend.export.ExportFormat;
+import com.tambo.tambo_delivery_backend.export.ExportOutput;
+import com.tambo.tambo_delivery_backend.export.ExportSheet;
+import com.tambo.tambo_delivery_backend.export.ExportTable;
+import com.tambo.tambo_delivery_backend.export.TabularExporter;
+import com.tambo.tambo_delivery_backend.specification.OrderSpecification;
 
 @Service
 public class ExportService {
 
-    // Exportar todos los pedidos en Excel
-    public byte[] exportAllOrdersToExcel(List<Order> orders) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter ORDER_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    // ===== DEFINICIÓN DE LOS REPORTES =====
+
+    private static final ExportTable<Order> ORDER_TABLE = ExportTable
+            .<Order>builder("Reporte TAMBO", "REPORTE DE ÓRDENES - TAMBO")
+            .column("ID ORDEN", 12, ExportFormat.SHORT_ID, Order::getId)
+            .column("FECHA", 18, order -> order.getOrderDate().toInstant()
+                    .atZone(OrderSpecification.REPORT_ZONE).toLocalDateTime().format(ORDER_DATE_FORMAT))
+            .column("CLIENTE", 32, order -> order.getUser().getEmail())
+            .column("PRODUCTOS", 45, ExportFormat.WRAPPED_TEXT, order -> order.getOrderItemList().stream()
+                    .map(item -> item.getProduct().getName() + " (" + item.getQuantity() + ")")
+                    .collect(Collectors.joining("\n")))
+            .column("SUBTOTAL", 14, ExportFormat.CURRENCY, order -> order.getTotalAmount() / 1.18)
+            .column("DESCUENTO", 14, ExportFormat.CURRENCY,
+                    order -> order.getDiscount() != null ? order.getDiscount() : 0)
+            .column("TOTAL", 14, ExportFormat.CURRENCY, Order::getTotalAmount)
+            .column("ESTADO", 16, order -> translateStatus(order.getOrderStatus()))
+            .build();
+
+    // Una fila por item, para cargar en herramientas de análisis
+    private static final ExportTable<OrderItem> ORDER_ITEM_TABLE = ExportTable
+            .<OrderItem>builder("Items TAMBO", "REPORTE DE ITEMS DE ÓRDENES - TAMBO")
+            .column("ID ORDEN", 38, item -> item.getOrder().getId())
+            .column("FECHA", 18, item -> item.getOrder().getOrderDate().toInstant()
+                    .atZone(OrderSpecification.REPORT_ZONE).toLocalDateTime().format(ORDER_DATE_FORMAT))
+            .column("CLIENTE", 32, item -> item.getOrder().getUser().getEmail())
+            .column("ESTADO", 16, item -> translateStatus(item.getOrder().getOrderStatus()))
+            .column("ID PRODUCTO", 38, item -> item.getProduct().getId())
+            .column("PRODUCTO", 30, item -> item.getProduct().getName())
+            .column("CANTIDAD", 10, ExportFormat.INTEGER, OrderItem::getQuantity)
+            .column("PRECIO UNITARIO", 16, ExportFormat.CURRENCY, OrderItem::getItemPrice)
+            .column("IMPORTE", 16, ExportFormat.CURRENCY,
+                    item -> item.getItemPrice() != null ? item.getItemPrice() * item.getQuantity() : null)
+            .build();
+
+    private static final ExportTable<OrderDayTotalDTO> ORDER_DAY_TABLE = ExportTable
+            .<OrderDayTotalDTO>builder("Resumen por día", "RESUMEN DE ÓRDENES POR DÍA")
+            .column("DÍA", 14, day -> day.getDay().format(DAY_FORMAT))
+            .column("ÓRDENES", 12, ExportFormat.INTEGER, OrderDayTotalDTO::getOrders)
+            .column("DESCUENTO", 16, ExportFormat.CURRENCY, OrderDayTotalDTO::getDiscount)
+            .column("TOTAL", 16, ExportFormat.CURRENCY, OrderDayTotalDTO::getTotal)
+            .build();
+
+    private static final ExportTable<OrderStatusTotalDTO> ORDER_STATUS_TABLE = ExportTable
+            .<OrderStatusTotalDTO>builder("Resumen por estado", "RESUMEN DE ÓRDENES POR ESTADO")
+            .column("ESTADO", 18, status -> translateStatus(status.getStatus()))
+            .column("ÓRDENES", 12, ExportFormat.INTEGER, OrderStatusTotalDTO::getOrders)
+            .column("TOTAL", 16, ExportFormat.CURRENCY, OrderStatusTotalDTO::getTotal)
+            .build();
+
+    private static final ExportTable<ProductDTO> PRODUCT_TABLE = ExportTable
+            .<ProductDTO>builder("Reporte TAMBO", "REPORTE DE PRODUCTOS - TAMBO")
+            .column("ID PRODUCTO", 12, product -> product.getId().toString().substring(0, 9))
+            .column("SLUG", 24, ProductDTO::getSlug)
+            .column("NOMBRE", 30, ProductDTO::getName)
+            .column("DESCRIPCIÓN", 50, ExportFormat.WRAPPED_TEXT, ProductDTO::getDescription)
+            .column("PRECIO", 14, ExportFormat.CURRENCY, ProductDTO::getPrice)
+            .column("DESCUENTO", 12, ExportFormat.PERCENT, ProductDTO::getDiscountPercentage)
+            .column("PRECIO CON DESCUENTO", 22, ExportFormat.CURRENCY, ProductDTO::getDiscountedPrice)
+            .column("STOCK", 10, ExportFormat.INTEGER, ProductDTO::getStock)
+            .column("ESTADO", 12, product -> Boolean.TRUE.equals(product.getIsActive()) ? "ACTIVO" : "INACTIVO")
+            .column("CATEGORIA", 20, product -> product.getCategory() != null ? product.getCategory().getName() : null)
+            .build();
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TabularExporter exporter;
+
+    // Exportar los pedidos del filtro. Las órdenes se leen por bloques y se
+    // escriben a medida que llegan, sin cargarlas todas en memoria. El conteo, las
+    // filas y los totales comparten una transacción de solo lectura para que el
+    // resumen cuadre con las filas aunque entren órdenes durante la exportación.
+    @Transactional(readOnly = true)
+    public void writeOrders(ExportOutput output, OutputStream out, OrderExportFilter filter,
+            ExportProgress progress) throws IOException {
+        if (progress != ExportProgress.NONE) {
+            progress.start(orderService.countOrders(filter));
+        }
+
+        try (ExportDocument document = exporter.open(output, out)) {
+            ExportSheet<Order> sheet = document.addSheet(ORDER_TABLE, subtitle(filter));
+            orderService.forEachOrderBatch(filter, orders -> orders.forEach(order -> {
+                sheet.append(order);
+                progress.rowWritten();
+            }));
+
+            // Los totales salen de la base de datos (GROUP BY), no de sumar filas en Java
+            if (output != ExportOutput.CSV) {
+                List<OrderDayTotalDTO> dailyTotals = orderService.getDailyTotals(filter);
+                List<OrderStatusTotalDTO> statusTotals = orderService.getStatusTotals(filter);
+                double grandTotal = statusTotals.stream().mapToDouble(OrderStatusTotalDTO::getTotal).sum();
+                long orderCount = statusTotals.stream().mapToLong(OrderStatusTotalDTO::getOrders).sum();
+
+                sheet.appendFooter(null, null, null, null, null, "TOTAL GENERAL:", grandTotal);
+
+                document.addSheet(ORDER_DAY_TABLE, subtitle(filter)).appendAll(dailyTotals.stream());
+
+                ExportSheet<OrderStatusTotalDTO> statusSheet = document.addSheet(ORDER_STATUS_TABLE,
+                        subtitle(filter));
+                statusSheet.appendAll(statusTotals.stream());
+                statusSheet.appendFooter("TOTAL GENERAL:", orderCount, grandTotal);
+            }
+
+            document.finish();
+        }
+    }
+
+    // Exportar los items de las órdenes del filtro, una fila por item
+    public void writeOrderItems(ExportOutput output, OutputStream out, OrderExportFilter filter)
+            throws IOException {
+        try (ExportDocument document = exporter.open(output, out)) {
+            ExportSheet<OrderItem> sheet = document.addSheet(ORDER_ITEM_TABLE, subtitle(filter));
+            orderService.forEachOrderBatch(filter, orders -> orders.forEach(
+                    order -> sheet.appendAll(order.getOrderItemList().stream())));
+            document.finish();
+        }
+    }
+
+    // Exportar todo el catálogo, leído por bloques desde la base de datos
+    public void writeProducts(ExportOutput output, OutputStream out, ExportProgress progress) throws IOException {
+        if (progress != ExportProgress.NONE) {
+            progress.start(productService.countProducts());
+        }
 
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE ÓRDENES - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 7));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID ORDEN", "FECHA", "CLIENTE", "PRODUCTOS", "SUBTOTAL", "DESCUENTO", "TOTAL",
-                    "ESTADO" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Datos
-            int rowNum = 4;
-            double grandTotal = 0;
-
-            for (Order order : orders) {
-                Row row = sheet.createRow(rowNum++);
-
-                // ID
-                Cell idCell = row.createCell(0);
-                idCell.setCellValue(order.getId().toString().substring(0, 8));
-                idCell.setCellStyle(dataStyle);
-
-                // Fecha
-                // Formato para las fechas
-                LocalDateTime localDateTime = order.getOrderDate().toInstant().atZone(ZoneId.systemDefault())
-                        .toLocalDateTime();
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-                Cell dateCell = row.createCell(1);
-                dateCell.setCellValue(localDateTime.format(formatter));
-                dateCell.setCellStyle(dataStyle);
-
-                // Cliente
-                Cell clientCell = row.createCell(2);
-                clientCell.setCellValue(order.getUser().getEmail());
-                clientCell.setCellStyle(dataStyle);
-
-                // Productos
-                Cell productsCell = row.createCell(3);
-                String products = order.getOrderItemList().stream()
-                        .map(item -> item.getProduct().getName() + " (" + item.getQuantity() + ")")
-                        .collect(Collectors.joining("\n"));
-                productsCell.setCellValue(products);
-                productsCell.setCellStyle(wrapStyle);
-
-                // Montos
-                // Subtotal
-                Cell subtotalCell = row.createCell(4);
-                subtotalCell.setCellValue(order.getTotalAmount() / 1.18);
-                subtotalCell.setCellStyle(dataStyle);
-
-                // Descuento
-                Cell discountCell = row.createCell(5);
-                discountCell.setCellValue(order.getDiscount() != null ? order.getDiscount() : 0);
-                discountCell.setCellStyle(dataStyle);
-
-                // Total
-                Cell totalCell = row.createCell(6);
-                totalCell.setCellValue(order.getTotalAmount());
-                totalCell.setCellStyle(dataStyle);
-                grandTotal += order.getTotalAmount();
-
-                // Estado
-                Cell statusCell = row.createCell(7);
-                statusCell.setCellValue(translateStatus(order.getOrderStatus()));
-                statusCell.setCellStyle(dataStyle);
-            }
-
-            // Totales
-            Row totalRow = sheet.createRow(rowNum);
-            Cell totalLabelCell = totalRow.createCell(5);
-            totalLabelCell.setCellValue("TOTAL GENERAL:");
-            totalLabelCell.setCellStyle(totalStyle);
-
-            Cell totalValueCell = totalRow.createCell(6);
-            totalValueCell.setCellValue(grandTotal);
-            totalValueCell.setCellStyle(totalStyle);
-
-            // Formato de moneda
-            for (int i = 4; i <= 6; i++) {
-                for (int j = 4; j <= rowNum; j++) {
-                    Row row = sheet.getRow(j);
-                    if (row != null) {
-                        Cell cell = row.getCell(i);
-                        if (cell != null) {
-                            CellStyle currencyStyle = workbook.createCellStyle();
-                            currencyStyle.cloneStyleFrom(cell.getCellStyle());
-                            currencyStyle.setDataFormat(workbook.createDataFormat().getFormat("\"S/\" #,##0.00"));
-                            cell.setCellStyle(currencyStyle);
-                        }
-                    }
-                }
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
+        try (ExportDocument document = exporter.open(output, out)) {
+            ExportSheet<ProductDTO> sheet = document.addSheet(PRODUCT_TABLE, subtitle(null));
+            productService.forEachProductBatch(products -> products.forEach(product -> {
+                sheet.append(product);
+                progress.rowWritten();
+            }));
+            document.finish();
+        }
+    }
 
-            workbook.write(out);
-            return out.toByteArray();
+    // Fecha de generación y filtros aplicados, para el subtítulo del reporte
+    private String subtitle(OrderExportFilter filter) {
+        StringBuilder text = new StringBuilder("Generado el: ").append(LocalDate.now().format(DAY_FORMAT));
+        if (filter == null) {
+            return text.toString();
+        }
+        if (filter.getFrom() != null) {
+            text.append(" | Desde: ").append(filter.getFrom().format(DAY_FORMAT));
+        }
+        if (filter.getTo() != null) {
+            text.append(" | Hasta: ").append(filter.getTo().format(DAY_FORMAT));
+        }
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            text.append(" | Estados: ").append(filter.getStatuses().stream()
+                    .map(ExportService::translateStatus)
+                    .collect(Collectors.joining(", ")));
+        }
+        if (filter.getPaymentMethod() != null) {
+            text.append(" | Pago: ").append(filter.getPaymentMethod());
         }
+        return text.toString();
     }
 
-    private String translateStatus(OrderStatus status) {
+    private static String translateStatus(OrderStatus status) {
         switch (status) {
             case PENDING:
                 return "PENDIENTE";
@@ -225,2015 +213,4 @@ public class ExportService {
                 return status.name();
         }
     }
-
-    // Exportar todos los productos en Excel
-    public byte[] exportAllProductsExcel(List<ProductDTO> products) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE PRODUCTOS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Datos
-            int rowNum = 4;
-
-            for (ProductDTO product : products) {
-                Row row = sheet.createRow(rowNum++);
-
-                // ID
-                Cell idCell = row.createCell(0);
-                idCell.setCellValue(product.getId().toString().substring(0, 9));
-                idCell.setCellStyle(dataStyle);
-
-                // Slug
-                Cell slugCell = row.createCell(1);
-                slugCell.setCellValue(product.getSlug());
-                slugCell.setCellStyle(dataStyle);
-
-                // Nombre
-                Cell nameCell = row.createCell(2);
-                nameCell.setCellValue(product.getName());
-                nameCell.setCellStyle(dataStyle);
-
-                // Descripcion
-                Cell descriptionCell = row.createCell(3);
-                descriptionCell.setCellValue(product.getDescription());
-                descriptionCell.setCellStyle(dataStyle);
-
-                // Precio
-                Cell priceCell = row.createCell(4);
-                priceCell.setCellValue(product.getPrice().toString());
-                priceCell.setCellStyle(dataStyle);
-
-                // Descuento
-                Cell discountCell = row.createCell(5);
-                discountCell.setCellValue(product.getDiscountPercentage().toString().concat("%"));
-                discountCell.setCellStyle(dataStyle);
-
-                // Precio con Descuento
-                Cell discountPriceCell = row.createCell(6);
-                discountPriceCell.setCellValue(product.getDiscountedPrice().toString());
-                discountPriceCell.setCellStyle(dataStyle);
-
-                // Stock
-                Cell stockCell = row.createCell(7);
-                stockCell.setCellValue(product.getStock().toString());
-                stockCell.setCellStyle(dataStyle);
-
-                // Estado
-                Cell statusCell = row.createCell(8);
-                statusCell.setCellValue(product.getIsActive() ? "ACTIVO" : "INACTIVO");
-                statusCell.setCellStyle(dataStyle);
-
-                // Categoria
-                Cell categoryCell = row.createCell(9);
-                categoryCell.setCellValue(product.getCategory().getName());
-                categoryCell.setCellStyle(dataStyle);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel2(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel3(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel4(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel5(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel6(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel7(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel8(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel9(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel10(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel11(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel13(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel14(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel15(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel16(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel17(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel18(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel19(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel20(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
-    // Exportar todas las marcas en Excel
-    public byte[] exportAllBrandsExcel21(List<BrandDTO> brands) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-            Sheet sheet = workbook.createSheet("Reporte TAMBO");
-
-            // ===== ESTILOS =====
-            // Estilo para el título
-            CellStyle titleStyle = workbook.createCellStyle();
-            Font titleFont = workbook.createFont();
-            titleFont.setFontHeightInPoints((short) 16);
-            titleFont.setBold(true);
-            titleFont.setColor(IndexedColors.WHITE.getIndex());
-            titleStyle.setFont(titleFont);
-            titleStyle.setFillForegroundColor(IndexedColors.VIOLET.getIndex());
-            titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            titleStyle.setAlignment(HorizontalAlignment.CENTER);
-
-            // Estilo para cabeceras
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerFont.setColor(IndexedColors.WHITE.getIndex());
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_50_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-            headerStyle.setBorderTop(BorderStyle.THIN);
-            headerStyle.setBorderRight(BorderStyle.THIN);
-            headerStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para datos
-            CellStyle dataStyle = workbook.createCellStyle();
-            dataStyle.setBorderBottom(BorderStyle.THIN);
-            dataStyle.setBorderTop(BorderStyle.THIN);
-            dataStyle.setBorderRight(BorderStyle.THIN);
-            dataStyle.setBorderLeft(BorderStyle.THIN);
-
-            // Estilo para salto de linea
-            CellStyle wrapStyle = workbook.createCellStyle();
-            wrapStyle.cloneStyleFrom(dataStyle);
-            wrapStyle.setWrapText(true); // Activar salto de línea automático
-
-            // Estilo para totales
-            CellStyle totalStyle = workbook.createCellStyle();
-            Font totalFont = workbook.createFont();
-            totalFont.setBold(true);
-            totalStyle.setFont(totalFont);
-            totalStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            totalStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            // ===== CONTENIDO =====
-            // Título
-            Row titleRow = sheet.createRow(0);
-            Cell titleCell = titleRow.createCell(0);
-            titleCell.setCellValue("REPORTE DE MARCAS - TAMBO");
-            titleCell.setCellStyle(titleStyle);
-            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 9));
-
-            // Subtítulo
-            Row subtitleRow = sheet.createRow(1);
-            Cell subtitleCell = subtitleRow.createCell(0);
-            subtitleCell
-                    .setCellValue("Generado el: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 6));
-
-            // Cabeceras
-            Row headerRow = sheet.createRow(3);
-            String[] headers = { "ID PRODUCTO", "SLUG", "NOMBRE", "DESCRIPCIÓN", "PRECIO", "DESCUENTO",
-                    "PRECIO CON DESCUENTO",
-                    "STOCK", "ESTADO", "CATEGORIA" };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
-            }
-
-            // Autoajustar columnas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Congelar cabeceras
-            sheet.createFreezePane(0, 4);
-
-            workbook.write(out);
-            return out.toByteArray();
-        }
-    }
-
 }
@@ -1,35 +1,54 @@
 package com.tambo.tambo_delivery_backend.services;
 
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import org.apache.coyote.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.tambo.tambo_delivery_backend.auth.dto.response.OrderResponse;
 import com.tambo.tambo_delivery_backend.auth.entities.User;
-import com.tambo.tambo_delivery_backend.auth.services.EmailService;
+import com.tambo.tambo_delivery_backend.dto.request.OrderExportFilter;
+import com.tambo.tambo_delivery_backend.dto.request.OrderItemRequest;
 import com.tambo.tambo_delivery_backend.dto.request.OrderRequest;
+import com.tambo.tambo_delivery_backend.dto.response.CartLineDTO;
+import com.tambo.tambo_delivery_backend.dto.response.CartPriceDTO;
+import com.tambo.tambo_delivery_backend.dto.response.OrderDayTotalDTO;
 import com.tambo.tambo_delivery_backend.dto.response.OrderDetails;
 import com.tambo.tambo_delivery_backend.dto.response.OrderItemDetail;
+import com.tambo.tambo_delivery_backend.dto.response.OrderStatusTotalDTO;
 import com.tambo.tambo_delivery_backend.entities.Order;
 import com.tambo.tambo_delivery_backend.entities.OrderItem;
 import com.tambo.tambo_delivery_backend.entities.OrderStatus;
 import com.tambo.tambo_delivery_backend.entities.Payment;
 import com.tambo.tambo_delivery_backend.entities.PaymentStatus;
 import com.tambo.tambo_delivery_backend.entities.Product;
-import com.tambo.tambo_delivery_backend.entities.ReceiptType;
+import com.tambo.tambo_delivery_backend.events.CatalogChangedEvent;
+import com.tambo.tambo_delivery_backend.exceptions.InsufficientStockEx;
+import com.tambo.tambo_delivery_backend.exceptions.ResourceNotFoundEx;
 import com.tambo.tambo_delivery_backend.mapper.ProductMapper;
 import com.tambo.tambo_delivery_backend.repositories.OrderRepository;
 import com.tambo.tambo_delivery_backend.repositories.ProductRepository;
+import com.tambo.tambo_delivery_backend.specification.OrderSpecification;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -44,9 +63,6 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
-    @Autowired
-    private ProductService productService;
-
     @Autowired
     ProductMapper productMapper;
 
@@ -54,13 +70,19 @@ public class OrderService {
     private ProductRepository productRepository;
 
     @Autowired
-    private EmailService emailService;
+    private ReceiptOutboxService receiptOutboxService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
 
     @Autowired
-    private BoletaPdfService boletaPdfService;
+    private PricingService pricingService;
 
     @Autowired
-    private FacturaPdfService facturaPdfService;
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Transactional
     public OrderResponse createOrder(OrderRequest orderRequest, Principal principal) throws Exception {
@@ -78,11 +100,9 @@ public class OrderService {
                 .latitude(orderRequest.getLatitude())
                 .longitude(orderRequest.getLongitude())
                 .deliveryMethod(orderRequest.getDeliveryMethod())
-                .totalAmount(orderRequest.getTotalAmount())
                 .orderStatus(OrderStatus.PENDING)
                 .paymentMethod(orderRequest.getPaymentMethod())
                 .expectedDeliveryDate(orderRequest.getExpectedDeliveryDate())
-                .discount(orderRequest.getDiscount())
                 .receiptType(orderRequest.getReceiptType())
                 .docType(orderRequest.getDocType())
                 .docNumber(orderRequest.getDocNumber())
@@ -90,29 +110,53 @@ public class OrderService {
                 .razonSocial(orderRequest.getBusinessName())
                 .build();
 
-        List<OrderItem> orderItems = orderRequest.getOrderItemRequests().stream().map(orderItemRequest -> {
-            try {
-                Product product = productService.getProductEntityById(orderItemRequest.getProductId());
-                
-                // Si no viene itemPrice, usar el precio del producto
-                Double itemPrice = orderItemRequest.getItemPrice() != null 
-                    ? orderItemRequest.getItemPrice() 
-                    : product.getPrice().doubleValue();
-                
-                OrderItem orderItem = OrderItem.builder()
-                        .product(product)
-                        .quantity(orderItemRequest.getQuantity())
-                        .order(order)
-                        .itemPrice(itemPrice)
-                        .build();
-                return orderItem;
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+        List<OrderItemRequest> itemRequests = orderRequest.getOrderItemRequests();
+        if (itemRequests == null || itemRequests.isEmpty()) {
+            throw new IllegalArgumentException("La orden debe tener al menos un producto");
+        }
+        Set<UUID> productIds = new HashSet<>();
+        for (OrderItemRequest itemRequest : itemRequests) {
+            if (itemRequest.getProductId() == null) {
+                throw new IllegalArgumentException("Cada producto de la orden debe tener un ID");
             }
-        }).toList();
+            productIds.add(itemRequest.getProductId());
+        }
+
+        // Todo el carrito en una sola consulta (que además bloquea los productos
+        // para validar el stock más abajo); el resto se valida en memoria
+        Map<UUID, Product> products = stockReservationService.lockForCheckout(productIds);
+
+        for (Product product : products.values()) {
+            if (!product.isActive()) {
+                throw new IllegalArgumentException("El producto ya no está disponible: " + product.getName());
+            }
+        }
+
+        // Precios y totales se calculan en el servidor; los del cliente no se usan
+        CartPriceDTO pricing = pricingService.priceOrder(itemRequests, products);
+        if (orderRequest.getTotalAmount() != null
+                && Math.abs(orderRequest.getTotalAmount() - pricing.getTotal().doubleValue()) >= 0.01) {
+            log.warn("El total enviado por el cliente ({}) no coincide con el calculado ({})",
+                    orderRequest.getTotalAmount(), pricing.getTotal());
+        }
+        order.setTotalAmount(pricing.getTotal().doubleValue());
+        order.setDiscount(pricing.getDiscount().doubleValue());
+
+        List<OrderItem> orderItems = new ArrayList<>(itemRequests.size());
+        for (CartLineDTO line : pricing.getLines()) {
+            orderItems.add(OrderItem.builder()
+                    .product(products.get(line.getProductId()))
+                    .quantity(line.getQuantity())
+                    .order(order)
+                    .itemPrice(line.getDiscountedUnitPrice().doubleValue())
+                    .build());
+        }
 
         order.setOrderItemList(orderItems);
 
+        // Valida el disponible (productos ya bloqueados) antes de insertar la orden
+        stockReservationService.checkAvailable(order);
+
         Payment payment = new Payment();
         payment.setOrder(order);
         payment.setPaymentDate(new Date());
@@ -122,6 +166,8 @@ public class OrderService {
         order.setPayment(payment);
 
         Order savedOrder = orderRepository.save(order);
+        // El stock queda separado hasta que la orden se pague o venza la reserva
+        stockReservationService.reserve(savedOrder);
 
         OrderResponse orderResponse = OrderResponse.builder()
                 .paymentMethod(orderRequest.getPaymentMethod())
@@ -132,85 +178,68 @@ public class OrderService {
 
     }
 
+    // Si algo falla (transición no permitida, stock insuficiente) la excepción
+    // llega al llamador y la transacción completa se revierte
     @Transactional
     public void updateOrderStatus(UUID orderId, OrderStatus status, String transactionId) {
-        try {
-            // 1. Validar parámetros
-            if (orderId == null) {
-                throw new IllegalArgumentException("ID de orden no puede ser nulo");
-            }
-
-            if (status == null) {
-                throw new IllegalArgumentException("Estado no puede ser nulo");
-            }
-
-            // 2. Obtener la orden
-            Order order = orderRepository.findById(orderId)
-                    .orElseThrow(() -> new BadRequestException("Orden no encontrada"));
-
-            // 3. Actualizar stock si el status es PAID
-            if (status == OrderStatus.PAID) {
-                List<OrderItem> orderItems = order.getOrderItemList();
-
-                for (OrderItem item : orderItems) {
-                    // Obtener el producto asociado al item
-                    Product product = item.getProduct();
-
-                    // Validar que haya suficiente stock
-                    if (product.getStock() < item.getQuantity()) {
-                        throw new IllegalStateException(
-                                "Stock insuficiente para el producto: " + product.getName() +
-                                        ". Stock actual: " + product.getStock() +
-                                        ", cantidad solicitada: " + item.getQuantity());
-                    }
+        // 1. Validar parámetros
+        if (orderId == null) {
+            throw new IllegalArgumentException("ID de orden no puede ser nulo");
+        }
 
-                    // Actualizar el stock restando la cantidad comprada
-                    int newStock = product.getStock() - item.getQuantity();
-                    product.setStock(newStock);
+        if (status == null) {
+            throw new IllegalArgumentException("Estado no puede ser nulo");
+        }
 
-                    if (newStock == 0) {
-                        product.setActive(false);
-                    }
+        // 2. Obtener la orden
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundEx("Orden no encontrada"));
 
-                    // Guardar el producto actualizado
-                    productRepository.save(product);
-                }
+        // 3. Validar transición de estado (antes de tocar el stock)
+        if (!isValidStatusTransition(order.getOrderStatus(), status)) {
+            throw new IllegalStateException("Transición de estado no permitida");
+        }
 
+        // 4. Descontar stock al pasar a PAID (una sola vez por orden)
+        if (status == OrderStatus.PAID && order.getOrderStatus() != OrderStatus.PAID) {
+            List<OrderItem> orderItems = order.getOrderItemList();
+            Set<UUID> productIds = orderItems.stream()
+                    .map(item -> item.getProduct().getId())
+                    .collect(Collectors.toSet());
+
+            // La reserva se convierte en descuento (si venció, se revalida el disponible)
+            stockReservationService.consume(order);
+
+            // Un UPDATE condicional para toda la orden; si algún producto no
+            // alcanza, la excepción revierte la transacción completa
+            int updated = productRepository.decrementStockForOrder(orderId);
+            if (updated != productIds.size()) {
+                throw new InsufficientStockEx("Stock insuficiente para completar la orden " + orderId);
             }
 
-            // 4. Validar transición de estado
-            if (!isValidStatusTransition(order.getOrderStatus(), status)) {
-                throw new IllegalStateException("Transición de estado no permitida");
-            }
+            // El stock (y el estado activo) de estos productos cambió en el catálogo
+            eventPublisher.publishEvent(CatalogChangedEvent.productsChanged(productIds));
+        }
 
-            // 5. Actualizar estado
-            order.setOrderStatus(status);
+        // Una orden que no se va a pagar devuelve el stock reservado
+        if (status == OrderStatus.CANCELLED || status == OrderStatus.FAILED) {
+            stockReservationService.release(orderId);
+        }
 
-            // 6. Actualizar pago si existe
-            if (order.getPayment() != null) {
-                updatePaymentStatus(order.getPayment(), status, transactionId);
-            }
+        // 5. Actualizar estado
+        order.setOrderStatus(status);
 
-            orderRepository.save(order);
-            // Si se pagó, enviar boleta
-            if (status == OrderStatus.PAID) {
-
-                try {
-                    if (order.getReceiptType() == ReceiptType.BOLETA) {
-                        byte[] pdf = boletaPdfService.generateBoletaPdf(order);
-                        emailService.sendBoletaEmail(order, pdf);
-                    } else if (order.getReceiptType() == ReceiptType.FACTURA) {
-                        byte[] pdf = facturaPdfService.generateFacturaPdf(order);
-                        emailService.sendFacturaEmail(order, pdf);
-                    }
-                } catch (Exception e) {
-                    log.error("Error al enviar el comprobante de pago: {}", e.getMessage());
-                }
-            }
-        } catch (Exception e) {
-            System.out.println("Error al actualizar el estado de la orden: " + e.getMessage());
+        // 6. Actualizar pago si existe
+        if (order.getPayment() != null) {
+            updatePaymentStatus(order.getPayment(), status, transactionId);
         }
 
+        orderRepository.save(order);
+        // Si se pagó, el comprobante se encola en esta misma transacción y se
+        // genera y envía por correo después del commit
+        if (status == OrderStatus.PAID) {
+            receiptOutboxService.enqueue(order);
+        }
     }
 
     private void updatePaymentStatus(Payment payment, OrderStatus status, String transactionId) {
@@ -236,6 +265,13 @@ public class OrderService {
         return true;
     }
 
+    // Anota la orden de PayPal apenas se conoce, antes de capturar: así la
+    // conciliación encuentra la orden aunque nunca se llegue a confirmar
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void assignPaypalOrder(UUID orderId, String paypalOrderId) {
+        orderRepository.assignPaypalOrderId(orderId, paypalOrderId, OrderStatus.PENDING);
+    }
+
     // Método adicional para obtener la orden
     public Order getOrderById(UUID orderId) {
         return orderRepository.findById(orderId)
@@ -314,6 +350,43 @@ public class OrderService {
         return orderRepository.findAllByOrderByOrderDateDesc();
     }
 
+    public long countOrders(OrderExportFilter filter) {
+        return orderRepository.count(OrderSpecification.matches(filter));
+    }
+
+    // Recorre las órdenes del filtro (más recientes primero) en bloques con cliente
+    // e items ya cargados. Tras cada bloque se limpia el contexto de persistencia
+    // para que la memoria no crezca con el total de órdenes.
+    @Transactional(readOnly = true)
+    public void forEachOrderBatch(OrderExportFilter filter, Consumer<List<Order>> batchConsumer) {
+        Specification<Order> spec = OrderSpecification.matches(filter);
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Order> window;
+        do {
+            window = orderRepository.scrollForExport(spec, position);
+            if (window.isEmpty()) {
+                return;
+            }
+
+            orderRepository.fetchItemsByIdIn(window.stream().map(Order::getId).toList());
+            batchConsumer.accept(window.getContent());
+
+            position = window.positionAt(window.size() - 1);
+            entityManager.clear();
+        } while (window.hasNext());
+    }
+
+    // Totales por día y por estado, agregados en la base de datos
+    @Transactional(readOnly = true)
+    public List<OrderDayTotalDTO> getDailyTotals(OrderExportFilter filter) {
+        return orderRepository.sumByDay(OrderSpecification.matches(filter));
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderStatusTotalDTO> getStatusTotals(OrderExportFilter filter) {
+        return orderRepository.sumByStatus(OrderSpecification.matches(filter));
+    }
+
     public boolean canOrderBeCancelled(UUID orderId) {
         Order order = orderRepository.findById(orderId).orElse(null);
 
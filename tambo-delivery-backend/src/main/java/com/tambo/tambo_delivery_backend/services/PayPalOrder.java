@@ -0,0 +1,5 @@
+package com.tambo.tambo_delivery_backend.services;
+
+// Lo que usamos de una orden de PayPal: su id y estado (APPROVED, COMPLETED, ...)
+public record PayPalOrder(String id, String status) {
+}
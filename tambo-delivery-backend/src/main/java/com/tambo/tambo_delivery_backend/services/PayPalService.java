@@ -1,70 +1,398 @@
 package com.tambo.tambo_delivery_backend.services;
 
-import com.paypal.orders.*;
-import com.paypal.http.HttpResponse;
-import com.paypal.http.exceptions.HttpException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.paypal.core.PayPalEnvironment;
-import com.paypal.core.PayPalHttpClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentGatewayUnavailableEx;
+import com.tambo.tambo_delivery_backend.resilience.CircuitBreaker;
 
-import java.io.IOException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 
+// Cliente de la API REST de PayPal sobre HttpClient asíncrono. Cada llamada
+// tiene timeouts de conexión y de respuesta, pasa por un circuit breaker y por
+// un bulkhead que limita las capturas simultáneas: si PayPal se pone lento solo
+// se ocupan esos permisos y el resto de la aplicación sigue atendiendo.
+@Slf4j
 @Service
 public class PayPalService {
 
-    private final PayPalHttpClient client;
+    private static final String LIVE_URL = "https://api-m.paypal.com";
+    private static final String SANDBOX_URL = "https://api-m.sandbox.paypal.com";
+
+    // El token se renueva un poco antes de que PayPal lo dé por vencido
+    private static final Duration TOKEN_MARGIN = Duration.ofSeconds(60);
+
+    private final String baseUrl;
+    private final String basicAuth;
+    private final Duration readTimeout;
+    private final Duration callTimeout;
+    private final Duration bulkheadWait;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+
+    // Token vigente o pedido en curso, compartido por todas las llamadas
+    private final AtomicReference<CompletableFuture<AccessToken>> token = new AtomicReference<>();
 
     public PayPalService(
             @Value("${paypal.client.id}") String clientId,
             @Value("${paypal.client.secret}") String clientSecret,
-            @Value("${paypal.mode}") String mode) {
+            @Value("${paypal.mode}") String mode,
+            @Value("${paypal.base-url:}") String baseUrl,
+            @Value("${paypal.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${paypal.read-timeout:PT10S}") Duration readTimeout,
+            @Value("${paypal.call-timeout:PT30S}") Duration callTimeout,
+            @Value("${paypal.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${paypal.bulkhead-wait:PT0.5S}") Duration bulkheadWait,
+            @Value("${paypal.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${paypal.circuit.open-duration:PT30S}") Duration openDuration,
+            @Qualifier("paypalExecutor") Executor paypalExecutor,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+
+        this.baseUrl = !baseUrl.isBlank() ? baseUrl
+                : "live".equalsIgnoreCase(mode.trim()) ? LIVE_URL : SANDBOX_URL;
+        this.basicAuth = "Basic " + Base64.getEncoder()
+                .encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
+        this.readTimeout = readTimeout;
+        this.callTimeout = callTimeout;
+        this.bulkheadWait = bulkheadWait;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .executor(paypalExecutor)
+                .build();
+
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
 
-        PayPalEnvironment environment = "live".equalsIgnoreCase(mode)
-                ? new PayPalEnvironment.Live(clientId, clientSecret)
-                : new PayPalEnvironment.Sandbox(clientId, clientSecret);
+        Gauge.builder("paypal.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 = cerrado, 1 = semiabierto, 2 = abierto")
+                .register(meterRegistry);
+        Gauge.builder("paypal.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .register(meterRegistry);
+    }
+
+    // Versión bloqueante (conciliación, webhooks); espera como máximo callTimeout
+    public PayPalOrder captureOrder(String paypalOrderId) throws IOException {
+        return await(captureOrderAsync(paypalOrderId), "Captura del pago interrumpida");
+    }
 
-        this.client = new PayPalHttpClient(environment);
+    // Pide a PayPal que verifique la firma de un webhook recibido
+    public boolean verifyWebhookSignature(String webhookId, PayPalWebhookSignature signature, String body)
+            throws IOException {
+        return await(verifyWebhookSignatureAsync(webhookId, signature, body), "Verificación del webhook interrumpida");
     }
 
-    public Order captureOrder(String paypalOrderId) throws IOException {
+    // Las llamadas asíncronas ya vencen a los callTimeout (ver withCallTimeout)
+    private <T> T await(CompletableFuture<T> call, String interruptedMessage) throws IOException {
         try {
-            // 1. Primero verificar el estado actual de la orden
-            OrdersGetRequest getRequest = new OrdersGetRequest(paypalOrderId);
-            HttpResponse<Order> getResponse = client.execute(getRequest);
-            Order order = getResponse.result();
+            return call.get();
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e.getCause());
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Error en PayPal: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(interruptedMessage);
+        }
+    }
+
+    // Límite total de la llamada (token, consulta y captura) sin ocupar un hilo
+    // esperando. Vencerlo no aborta el intercambio HTTP en curso: ese termina por
+    // su propio timeout (readTimeout) y recién entonces devuelve el permiso del
+    // bulkhead y cuenta para el circuit breaker.
+    private <T> CompletableFuture<T> withCallTimeout(CompletableFuture<T> call) {
+        return call.orTimeout(callTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> CompletableFuture.failedFuture(
+                        unwrap(error) instanceof TimeoutException
+                                ? new HttpTimeoutException(
+                                        "PayPal no respondió en " + callTimeout.toSeconds() + " segundos")
+                                : unwrap(error)));
+    }
 
-            // 2. Si ya está completada, retornarla directamente
+    // Consulta la orden y la captura si está aprobada; si ya estaba capturada la devuelve
+    public CompletableFuture<PayPalOrder> captureOrderAsync(String paypalOrderId) {
+        return withCallTimeout(guarded(() -> getOrder(paypalOrderId).thenCompose(order -> {
+            // Si ya está completada, retornarla directamente
             if ("COMPLETED".equals(order.status())) {
-                return order;
+                return CompletableFuture.completedFuture(order);
             }
-
-            // 3. Si no está aprobada, no podemos capturarla
+            // Si no está aprobada, no podemos capturarla
             if (!"APPROVED".equals(order.status())) {
-                throw new RuntimeException("La orden no está en estado aprobado. Estado actual: " + order.status());
+                throw new IllegalStateException(
+                        "La orden no está en estado aprobado. Estado actual: " + order.status());
             }
+            return capture(paypalOrderId);
+        })));
+    }
 
-            // 4. Intentar capturar solo si está aprobada
-            OrdersCaptureRequest captureRequest = new OrdersCaptureRequest(paypalOrderId);
-            captureRequest.requestBody(new OrderRequest());
+    public CompletableFuture<Boolean> verifyWebhookSignatureAsync(String webhookId, PayPalWebhookSignature signature,
+            String body) {
+        return withCallTimeout(guarded(() -> {
+            ObjectNode request = objectMapper.createObjectNode()
+                    .put("auth_algo", signature.authAlgo())
+                    .put("cert_url", signature.certUrl())
+                    .put("transmission_id", signature.transmissionId())
+                    .put("transmission_sig", signature.transmissionSig())
+                    .put("transmission_time", signature.transmissionTime())
+                    .put("webhook_id", webhookId);
+            request.set("webhook_event", readTree(body));
 
-            HttpResponse<Order> captureResponse = client.execute(captureRequest);
+            return authorized("verify_webhook", accessToken -> HttpRequest
+                    .newBuilder(URI.create(baseUrl + "/v1/notifications/verify-webhook-signature"))
+                    .timeout(readTimeout)
+                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(request.toString()))
+                    .build())
+                    .thenApply(response -> {
+                        checkStatus(response, "verificar el webhook");
+                        return "SUCCESS".equals(readTree(response.body()).path("verification_status").asText());
+                    });
+        }));
+    }
+
+    // Toda llamada pasa por el bulkhead y el circuit breaker. Solo las fallas de
+    // PayPal (IOException: red, timeout, 5xx) cuentan para abrir el circuito.
+    private <T> CompletableFuture<T> guarded(Supplier<CompletableFuture<T>> call) {
+        if (!acquireBulkhead()) {
+            reject("bulkhead_full");
+            return CompletableFuture.failedFuture(new PaymentGatewayUnavailableEx(
+                    "Hay demasiados pagos en proceso, intente nuevamente en unos segundos"));
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            reject("circuit_open");
+            return CompletableFuture.failedFuture(new PaymentGatewayUnavailableEx(
+                    "PayPal no está disponible en este momento, intente nuevamente en unos minutos"));
+        }
+
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
 
-            if (captureResponse.statusCode() != 201) {
-                throw new RuntimeException("Error al capturar pago. Código: " + captureResponse.statusCode());
+        return result.whenComplete((value, error) -> {
+            bulkhead.release();
+            if (error != null && unwrap(error) instanceof IOException) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
             }
+        });
+    }
+
+    private CompletableFuture<PayPalOrder> getOrder(String paypalOrderId) {
+        return authorized("get_order", accessToken -> HttpRequest
+                .newBuilder(URI.create(baseUrl + "/v2/checkout/orders/" + encode(paypalOrderId)))
+                .timeout(readTimeout)
+                .header("Authorization", "Bearer " + accessToken)
+                .GET()
+                .build())
+                .thenApply(response -> {
+                    checkStatus(response, "consultar la orden");
+                    return parseOrder(response.body());
+                });
+    }
+
+    private CompletableFuture<PayPalOrder> capture(String paypalOrderId) {
+        return authorized("capture", accessToken -> HttpRequest
+                .newBuilder(URI.create(baseUrl + "/v2/checkout/orders/" + encode(paypalOrderId) + "/capture"))
+                .timeout(readTimeout)
+                .header("Authorization", "Bearer " + accessToken)
+                .header("Content-Type", "application/json")
+                // PayPal no repite una captura con el mismo Request-Id
+                .header("PayPal-Request-Id", "tambo-capture-" + paypalOrderId)
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build())
+                .thenCompose(response -> {
+                    // Si ya estaba capturada, obtener los detalles nuevamente
+                    if (response.statusCode() == 422 && response.body().contains("ORDER_ALREADY_CAPTURED")) {
+                        return getOrder(paypalOrderId);
+                    }
+                    checkStatus(response, "capturar el pago");
+                    return CompletableFuture.completedFuture(parseOrder(response.body()));
+                });
+    }
+
+    // Envía la petición con el token vigente; si PayPal lo rechaza (401) pide
+    // uno nuevo y reintenta una vez
+    private CompletableFuture<HttpResponse<String>> authorized(String operation,
+            Function<String, HttpRequest> request) {
+        return accessToken()
+                .thenCompose(accessToken -> send(operation, request.apply(accessToken)))
+                .thenCompose(response -> {
+                    if (response.statusCode() != 401) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    token.set(null);
+                    return accessToken().thenCompose(accessToken -> send(operation, request.apply(accessToken)));
+                });
+    }
+
+    private CompletableFuture<String> accessToken() {
+        CompletableFuture<AccessToken> current = token.get();
+        if (current != null && (!current.isDone()
+                || (!current.isCompletedExceptionally() && current.join().isValid()))) {
+            return current.thenApply(AccessToken::value);
+        }
 
-            return captureResponse.result();
-        } catch (HttpException e) {
-            // Manejo específico de errores de PayPal
-            if (e.getMessage().contains("ORDER_ALREADY_CAPTURED")) {
-                // Si ya estaba capturada, obtener los detalles nuevamente
-                OrdersGetRequest getRequest = new OrdersGetRequest(paypalOrderId);
-                HttpResponse<Order> getResponse = client.execute(getRequest);
-                return getResponse.result();
+        CompletableFuture<AccessToken> fresh = new CompletableFuture<>();
+        if (!token.compareAndSet(current, fresh)) {
+            return accessToken();
+        }
+        requestToken().whenComplete((accessToken, error) -> {
+            if (error != null) {
+                token.compareAndSet(fresh, null);
+                fresh.completeExceptionally(unwrap(error));
+            } else {
+                fresh.complete(accessToken);
             }
-            throw new IOException("Error en PayPal: " + e.getMessage());
+        });
+        return fresh.thenApply(AccessToken::value);
+    }
+
+    private CompletableFuture<AccessToken> requestToken() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/v1/oauth2/token"))
+                .timeout(readTimeout)
+                .header("Authorization", basicAuth)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("grant_type=client_credentials"))
+                .build();
+        return send("token", request).thenApply(response -> {
+            checkStatus(response, "obtener el token de acceso");
+            JsonNode body = readTree(response.body());
+            long expiresIn = body.path("expires_in").asLong(0);
+            return new AccessToken(body.path("access_token").asText(),
+                    System.nanoTime() + Duration.ofSeconds(expiresIn).minus(TOKEN_MARGIN).toNanos());
+        });
+    }
+
+    // Envía la petición y registra su latencia por operación y resultado
+    private CompletableFuture<HttpResponse<String>> send(String operation, HttpRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> sample.stop(Timer.builder("paypal.request")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome(response, error))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+    }
+
+    // 5xx y 429 son fallas de PayPal (cuentan para el circuit breaker); el resto
+    // de errores son de la solicitud
+    private static void checkStatus(HttpResponse<String> response, String action) {
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            return;
+        }
+        String detail = "Error en PayPal al " + action + ". Código: " + status;
+        if (status >= 500 || status == 429) {
+            throw new CompletionException(new IOException(detail));
+        }
+        throw new IllegalStateException(detail + " - " + abbreviate(response.body()));
+    }
+
+    private PayPalOrder parseOrder(String body) {
+        JsonNode order = readTree(body);
+        return new PayPalOrder(order.path("id").asText(null), order.path("status").asText(null));
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Respuesta inválida de PayPal", e);
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        try {
+            return bulkhead.tryAcquire(bulkheadWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reject(String reason) {
+        Counter.builder("paypal.rejected").tag("reason", reason).register(meterRegistry).increment();
+        log.warn("Llamada a PayPal rechazada ({})", reason);
+    }
+
+    private static String outcome(HttpResponse<String> response, Throwable error) {
+        if (error != null) {
+            return unwrap(error) instanceof HttpTimeoutException ? "timeout" : "error";
+        }
+        int status = response.statusCode();
+        if (status < 300) {
+            return "success";
+        }
+        return status < 500 ? "client_error" : "server_error";
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String abbreviate(String body) {
+        return body != null && body.length() > 300 ? body.substring(0, 300) : body;
+    }
+
+    private record AccessToken(String value, long expiresAtNanos) {
+
+        boolean isValid() {
+            return System.nanoTime() < expiresAtNanos;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,329 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tambo.tambo_delivery_backend.entities.PayPalWebhookEvent;
+import com.tambo.tambo_delivery_backend.entities.PayPalWebhookEventStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentConfirmation;
+import com.tambo.tambo_delivery_backend.events.PayPalWebhookReceivedEvent;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentUnfulfilledEx;
+import com.tambo.tambo_delivery_backend.repositories.PayPalWebhookEventRepository;
+import com.tambo.tambo_delivery_backend.repositories.PaymentConfirmationRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Webhooks de PayPal: el endpoint solo guarda el evento (una vez por id de
+// evento) y responde; la verificación de la firma y el cambio de estado de la
+// orden se hacen después del commit, en otro hilo, con reintentos. Así la orden
+// avanza aunque el navegador nunca llame a confirm-payment.
+@Slf4j
+@Service
+public class PayPalWebhookService {
+
+    // El pago quedó capturado en PayPal: la orden se marca como pagada
+    static final String CAPTURE_COMPLETED = "PAYMENT.CAPTURE.COMPLETED";
+    // El cliente aprobó el pago pero no volvió a la tienda: se captura desde aquí
+    static final String ORDER_APPROVED = "CHECKOUT.ORDER.APPROVED";
+
+    // Estados que el procesador puede tomar (PROCESSING solo con la reserva vencida)
+    private static final Set<PayPalWebhookEventStatus> CLAIMABLE = EnumSet.of(PayPalWebhookEventStatus.PENDING,
+            PayPalWebhookEventStatus.PROCESSING);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final PayPalWebhookEventRepository webhookEventRepository;
+    private final PaymentConfirmationRepository confirmationRepository;
+    private final PaymentConfirmationService paymentConfirmationService;
+    private final PayPalService paypalService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolTaskExecutor webhookExecutor;
+    private final TransactionTemplate transaction;
+
+    private final String webhookId;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final int batchSize;
+    private final int maxPayloadBytes;
+
+    public PayPalWebhookService(PayPalWebhookEventRepository webhookEventRepository,
+            PaymentConfirmationRepository confirmationRepository,
+            PaymentConfirmationService paymentConfirmationService,
+            PayPalService paypalService,
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier("paypalWebhookExecutor") ThreadPoolTaskExecutor webhookExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${paypal.webhook.id:}") String webhookId,
+            @Value("${paypal.webhook.max-attempts:10}") int maxAttempts,
+            @Value("${paypal.webhook.backoff:PT1M}") Duration backoff,
+            @Value("${paypal.webhook.max-backoff:PT1H}") Duration maxBackoff,
+            @Value("${paypal.webhook.lease:PT5M}") Duration lease,
+            @Value("${paypal.webhook.batch-size:20}") int batchSize,
+            @Value("${paypal.webhook.max-payload-bytes:65536}") int maxPayloadBytes) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.confirmationRepository = confirmationRepository;
+        this.paymentConfirmationService = paymentConfirmationService;
+        this.paypalService = paypalService;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.webhookExecutor = webhookExecutor;
+        this.webhookId = webhookId;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.maxPayloadBytes = maxPayloadBytes;
+
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Guarda el webhook tal como llegó. Devuelve false si el evento ya se había
+    // recibido (PayPal lo reenvía hasta recibir un 2xx).
+    // El endpoint no tiene sesión y la firma se verifica recién al procesar, así
+    // que antes de guardar se descarta lo que PayPal nunca enviaría: cuerpos
+    // grandes, eventos sin cabeceras de firma y tipos que no se procesan.
+    public boolean receive(String payload, PayPalWebhookSignature signature) {
+        if (payload == null || payload.getBytes(StandardCharsets.UTF_8).length > maxPayloadBytes) {
+            throw new IllegalArgumentException("El webhook está vacío o supera el tamaño permitido");
+        }
+        if (signature.transmissionSig() == null || signature.transmissionId() == null) {
+            throw new IllegalArgumentException("El webhook no tiene cabeceras de firma");
+        }
+        JsonNode event = parse(payload);
+        String eventId = event.path("id").asText("");
+        String eventType = event.path("event_type").asText("");
+        if (eventId.isBlank() || eventType.isBlank()) {
+            throw new IllegalArgumentException("El webhook no tiene id o tipo de evento");
+        }
+        if (!CAPTURE_COMPLETED.equals(eventType) && !ORDER_APPROVED.equals(eventType)) {
+            return true;
+        }
+        // Un evento rechazado por firma inválida no bloquea al verdadero con el mismo id
+        if (webhookEventRepository.existsByEventIdAndStatusNot(eventId, PayPalWebhookEventStatus.REJECTED)) {
+            return false;
+        }
+
+        Date now = new Date();
+        PayPalWebhookEvent entry = PayPalWebhookEvent.builder()
+                .eventId(eventId)
+                .eventType(eventType)
+                .paypalOrderId(paypalOrderIdOf(eventType, event.path("resource")))
+                .payload(payload)
+                .transmissionId(signature.transmissionId())
+                .transmissionTime(signature.transmissionTime())
+                .transmissionSig(signature.transmissionSig())
+                .certUrl(signature.certUrl())
+                .authAlgo(signature.authAlgo())
+                .receivedAt(now)
+                .status(PayPalWebhookEventStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .build();
+        try {
+            transaction.executeWithoutResult(status -> {
+                webhookEventRepository.deleteByEventIdAndStatus(eventId, PayPalWebhookEventStatus.REJECTED);
+                webhookEventRepository.save(entry);
+                eventPublisher.publishEvent(new PayPalWebhookReceivedEvent(entry.getId()));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Llegó el mismo evento dos veces a la vez
+            return false;
+        }
+        return true;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onWebhookReceived(PayPalWebhookReceivedEvent event) {
+        submit(event.getWebhookEventId());
+    }
+
+    // Reintentos vencidos, eventos rechazados por cola llena y reservas de hilos
+    // que murieron a mitad del procesamiento
+    @Scheduled(fixedDelayString = "${paypal.webhook.poll-interval:PT30S}")
+    public void processDue() {
+        List<UUID> due = webhookEventRepository.findDueIds(CLAIMABLE, new Date(), PageRequest.of(0, batchSize));
+        due.forEach(this::submit);
+    }
+
+    private void submit(UUID webhookEventId) {
+        try {
+            webhookExecutor.execute(() -> process(webhookEventId));
+        } catch (TaskRejectedException e) {
+            log.warn("Cola de webhooks de PayPal llena, el evento {} queda para el próximo sondeo", webhookEventId);
+        }
+    }
+
+    void process(UUID webhookEventId) {
+        Date now = new Date();
+        Integer claimed = transaction.execute(status -> webhookEventRepository.claim(webhookEventId, CLAIMABLE,
+                PayPalWebhookEventStatus.PROCESSING, now, new Date(now.getTime() + lease.toMillis())));
+        if (claimed == null || claimed == 0) {
+            // Ya lo tomó otro hilo o instancia
+            return;
+        }
+
+        PayPalWebhookEventStatus result;
+        try {
+            PayPalWebhookEvent event = webhookEventRepository.findById(webhookEventId)
+                    .orElseThrow(() -> new IllegalStateException("Webhook de PayPal no encontrado"));
+            result = apply(event);
+        } catch (Exception e) {
+            transaction.executeWithoutResult(status -> markFailed(webhookEventId, e));
+            return;
+        }
+        transaction.executeWithoutResult(status -> markDone(webhookEventId, result));
+    }
+
+    private PayPalWebhookEventStatus apply(PayPalWebhookEvent event) throws IOException {
+        if (!CAPTURE_COMPLETED.equals(event.getEventType()) && !ORDER_APPROVED.equals(event.getEventType())) {
+            return PayPalWebhookEventStatus.IGNORED;
+        }
+        if (webhookId.isBlank()) {
+            log.error("Webhook {} sin verificar: falta configurar paypal.webhook.id", event.getEventId());
+            return PayPalWebhookEventStatus.REJECTED;
+        }
+
+        // Solo se confía en el evento si PayPal confirma la firma
+        if (event.getTransmissionSig() == null || event.getTransmissionId() == null) {
+            log.warn("Webhook de PayPal {} sin cabeceras de firma", event.getEventId());
+            return PayPalWebhookEventStatus.REJECTED;
+        }
+        PayPalWebhookSignature signature = new PayPalWebhookSignature(event.getTransmissionId(),
+                event.getTransmissionTime(), event.getTransmissionSig(), event.getCertUrl(), event.getAuthAlgo());
+        if (!paypalService.verifyWebhookSignature(webhookId, signature, event.getPayload())) {
+            log.warn("Webhook de PayPal {} con firma inválida", event.getEventId());
+            return PayPalWebhookEventStatus.REJECTED;
+        }
+
+        String paypalOrderId = event.getPaypalOrderId();
+        if (paypalOrderId == null) {
+            throw new IllegalStateException("El webhook no indica la orden de PayPal");
+        }
+        UUID orderId = findOrderId(paypalOrderId, parse(event.getPayload()).path("resource"))
+                .orElseThrow(() -> new IllegalStateException(
+                        "No se encontró la orden de la tienda para el pago " + paypalOrderId));
+
+        // Mismas claves de idempotencia que confirm-payment: si el navegador ya
+        // confirmó, no se vuelve a capturar ni a descontar stock
+        try {
+            if (CAPTURE_COMPLETED.equals(event.getEventType())) {
+                paymentConfirmationService.recordCapture(orderId, paypalOrderId);
+            } else {
+                paymentConfirmationService.confirm(orderId, paypalOrderId);
+            }
+        } catch (PaymentUnfulfilledEx e) {
+            // El pago quedó para reembolso o revisión manual: reintentar el evento no cambia nada
+            log.warn("Webhook de PayPal {}: {}", event.getEventId(), e.getMessage());
+        }
+        return PayPalWebhookEventStatus.PROCESSED;
+    }
+
+    // La orden de la tienda viaja en custom_id (o reference_id) de la orden de
+    // PayPal; si no, se busca en la confirmación iniciada por el navegador
+    private Optional<UUID> findOrderId(String paypalOrderId, JsonNode resource) {
+        JsonNode unit = resource.path("purchase_units").path(0);
+        for (JsonNode candidate : List.of(resource.path("custom_id"), unit.path("custom_id"),
+                unit.path("reference_id"))) {
+            Optional<UUID> orderId = parseUuid(candidate.asText(""));
+            if (orderId.isPresent()) {
+                return orderId;
+            }
+        }
+        return confirmationRepository.findById(paypalOrderId).map(PaymentConfirmation::getOrderId);
+    }
+
+    private void markDone(UUID webhookEventId, PayPalWebhookEventStatus status) {
+        webhookEventRepository.findById(webhookEventId).ifPresent(entry -> {
+            entry.setStatus(status);
+            entry.setProcessedAt(new Date());
+            entry.setLastError(null);
+        });
+    }
+
+    private void markFailed(UUID webhookEventId, Exception error) {
+        webhookEventRepository.findById(webhookEventId).ifPresent(entry -> {
+            String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+            entry.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+
+            if (entry.getAttempts() >= maxAttempts) {
+                entry.setStatus(PayPalWebhookEventStatus.FAILED);
+                log.error("No se pudo procesar el webhook de PayPal {} tras {} intentos", entry.getEventId(),
+                        entry.getAttempts(), error);
+                return;
+            }
+
+            Duration wait = backoffFor(entry.getAttempts());
+            entry.setStatus(PayPalWebhookEventStatus.PENDING);
+            entry.setNextAttemptAt(new Date(System.currentTimeMillis() + wait.toMillis()));
+            log.warn("Falló el webhook de PayPal {} (intento {}), se reintentará en {}: {}", entry.getEventId(),
+                    entry.getAttempts(), wait, message);
+        });
+    }
+
+    // 1, 2, 4, 8... veces la espera base, con un máximo
+    private Duration backoffFor(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration wait = backoff.multipliedBy(1L << exponent);
+        return wait.compareTo(maxBackoff) > 0 ? maxBackoff : wait;
+    }
+
+    private JsonNode parse(String payload) {
+        if (payload == null || payload.isBlank()) {
+            throw new IllegalArgumentException("El webhook está vacío");
+        }
+        try {
+            return objectMapper.readTree(payload);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("El webhook no es un JSON válido", e);
+        }
+    }
+
+    // Una captura apunta a su orden en supplementary_data; un evento de orden es la orden misma
+    private static String paypalOrderIdOf(String eventType, JsonNode resource) {
+        String id = eventType.startsWith("PAYMENT.CAPTURE.")
+                ? resource.path("supplementary_data").path("related_ids").path("order_id").asText("")
+                : eventType.startsWith("CHECKOUT.ORDER.") ? resource.path("id").asText("") : "";
+        return id.isBlank() || id.length() > 64 ? null : id;
+    }
+
+    private static Optional<UUID> parseUuid(String value) {
+        if (value.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(value));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
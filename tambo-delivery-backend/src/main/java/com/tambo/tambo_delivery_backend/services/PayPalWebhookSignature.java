@@ -0,0 +1,6 @@
+package com.tambo.tambo_delivery_backend.services;
+
+// Cabeceras PAYPAL-* con las que PayPal firma cada webhook
+public record PayPalWebhookSignature(String transmissionId, String transmissionTime, String transmissionSig,
+        String certUrl, String authAlgo) {
+}
@@ -0,0 +1,8 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.util.UUID;
+
+// Resultado de confirmar un pago; se comparte entre las llamadas concurrentes
+// y se repite en los reintentos
+public record PaymentConfirmationResult(UUID orderId, String transactionId, String message) {
+}
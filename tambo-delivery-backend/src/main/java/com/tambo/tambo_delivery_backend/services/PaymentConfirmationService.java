@@ -0,0 +1,306 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.util.concurrent.Striped;
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentConfirmation;
+import com.tambo.tambo_delivery_backend.entities.PaymentConfirmationStatus;
+import com.tambo.tambo_delivery_backend.exceptions.InsufficientStockEx;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentInProgressEx;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentUnfulfilledEx;
+import com.tambo.tambo_delivery_backend.exceptions.ResourceNotFoundEx;
+import com.tambo.tambo_delivery_backend.repositories.PaymentConfirmationRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Confirmación idempotente de pagos de PayPal. Las llamadas concurrentes para
+// la misma orden de PayPal (doble clic, reintentos del cliente) comparten una
+// sola captura en curso; las posteriores reciben el resultado guardado en
+// payment_confirmations sin volver a llamar a PayPal.
+@Slf4j
+@Service
+public class PaymentConfirmationService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    // Captura en curso por orden de PayPal; los que llegan mientras tanto esperan su resultado
+    private final Map<String, CompletableFuture<PaymentConfirmationResult>> inFlight = new ConcurrentHashMap<>();
+
+    // Serializa solo la lectura y reserva de la clave de idempotencia por orden de
+    // PayPal; la captura corre sin el lock
+    private final Striped<Lock> locks = Striped.lock(64);
+
+    private final PaymentConfirmationRepository confirmationRepository;
+    private final PayPalService paypalService;
+    private final OrderService orderService;
+    private final StockReservationService stockReservationService;
+    private final Executor paymentDbExecutor;
+    private final TransactionTemplate transaction;
+    private final Duration lease;
+
+    public PaymentConfirmationService(PaymentConfirmationRepository confirmationRepository,
+            PayPalService paypalService,
+            OrderService orderService,
+            StockReservationService stockReservationService,
+            @Qualifier("paymentDbExecutor") Executor paymentDbExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${payments.confirmation.lease:PT2M}") Duration lease) {
+        this.confirmationRepository = confirmationRepository;
+        this.paypalService = paypalService;
+        this.orderService = orderService;
+        this.stockReservationService = stockReservationService;
+        this.paymentDbExecutor = paymentDbExecutor;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lease = lease;
+    }
+
+    // Versión bloqueante (conciliación, pruebas)
+    public PaymentConfirmationResult confirm(UUID orderId, String paypalOrderId) {
+        return await(confirmAsync(orderId, paypalOrderId));
+    }
+
+    // La lectura y reserva de la clave corren en el hilo que llama; la captura, en
+    // los hilos del cliente HTTP de PayPal, y el marcado de la orden, en el pool
+    // de la base de datos
+    public CompletableFuture<PaymentConfirmationResult> confirmAsync(UUID orderId, String paypalOrderId) {
+        return execute(orderId, paypalOrderId, true, this::capture);
+    }
+
+    // Captura que PayPal ya informó (webhook): marca la orden como pagada sin
+    // volver a llamar a PayPal, con la misma clave de idempotencia que confirm
+    public PaymentConfirmationResult recordCapture(UUID orderId, String paypalOrderId) {
+        return await(execute(orderId, paypalOrderId, false,
+                (id, paypalId) -> fulfill(id, paypalId, paypalId)));
+    }
+
+    private CompletableFuture<PaymentConfirmationResult> execute(UUID orderId, String paypalOrderId,
+            boolean holdStock, BiFunction<UUID, String, CompletableFuture<PaymentConfirmationResult>> action) {
+        if (orderId == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("ID de orden inválido"));
+        }
+        if (paypalOrderId == null || paypalOrderId.isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("ID de orden de PayPal inválido"));
+        }
+
+        CompletableFuture<PaymentConfirmationResult> call = new CompletableFuture<>();
+        CompletableFuture<PaymentConfirmationResult> running = inFlight.putIfAbsent(paypalOrderId, call);
+        if (running != null) {
+            return running.thenApply(result -> checkOrder(result, orderId));
+        }
+
+        CompletableFuture<PaymentConfirmationResult> result;
+        try {
+            PaymentConfirmationResult previousResult = checkAndClaim(orderId, paypalOrderId, holdStock);
+            // Sin el lock: la llamada a PayPal puede tardar y el lock es compartido
+            // por todas las órdenes de la misma franja. La clave IN_PROGRESS ya evita
+            // una segunda captura.
+            result = previousResult != null
+                    ? CompletableFuture.completedFuture(previousResult)
+                    : action.apply(orderId, paypalOrderId);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        // Se quita antes de completar: quien espere el resultado y vuelva a llamar
+        // ya encuentra el estado final guardado en la clave
+        result.whenComplete((value, error) -> {
+            inFlight.remove(paypalOrderId, call);
+            if (error != null) {
+                call.completeExceptionally(unwrap(error));
+            } else {
+                call.complete(value);
+            }
+        });
+        return call;
+    }
+
+    // Lee la clave de idempotencia y la reserva; devuelve el resultado guardado si
+    // la orden ya estaba pagada, o null si esta llamada debe ejecutar la acción.
+    // Antes de una captura renueva la reserva de stock: si ya no hay stock, el
+    // pago se rechaza aquí y no después de cobrar.
+    private PaymentConfirmationResult checkAndClaim(UUID orderId, String paypalOrderId, boolean holdStock) {
+        Lock lock = locks.get(paypalOrderId);
+        lock.lock();
+        try {
+            Optional<PaymentConfirmation> previous = confirmationRepository.findById(paypalOrderId);
+            if (previous.isPresent()) {
+                PaymentConfirmation confirmation = previous.get();
+                if (!confirmation.getOrderId().equals(orderId)) {
+                    throw new IllegalArgumentException("El pago de PayPal pertenece a otra orden");
+                }
+                if (confirmation.getStatus() == PaymentConfirmationStatus.CAPTURED_UNFULFILLED) {
+                    throw new PaymentUnfulfilledEx(
+                            "El pago se cobró pero la orden no se pudo completar; quedó en revisión para el reembolso");
+                }
+                if (confirmation.getStatus() == PaymentConfirmationStatus.SUCCEEDED) {
+                    return new PaymentConfirmationResult(orderId, confirmation.getTransactionId(),
+                            "La orden ya estaba pagada");
+                }
+                // Otra instancia la está capturando (si no venció su reserva)
+                if (confirmation.getStatus() == PaymentConfirmationStatus.IN_PROGRESS
+                        && confirmation.getUpdatedAt().getTime() + lease.toMillis() > System.currentTimeMillis()) {
+                    throw new PaymentInProgressEx("El pago se está procesando, intente nuevamente en unos segundos");
+                }
+            }
+
+            Order order = orderService.getOrderById(orderId);
+            if (order == null) {
+                throw new ResourceNotFoundEx("Orden no encontrada");
+            }
+            if (previous.isEmpty() && order.getOrderStatus() == OrderStatus.PAID) {
+                return new PaymentConfirmationResult(orderId, null, "La orden ya estaba pagada");
+            }
+            orderService.assignPaypalOrder(orderId, paypalOrderId);
+            if (holdStock) {
+                stockReservationService.holdForPayment(orderId);
+            }
+
+            claim(previous, orderId, paypalOrderId);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Inserta (o retoma) la clave en IN_PROGRESS en su propia transacción. Si otra
+    // instancia la tomó primero, la clave primaria o la versión lo detectan.
+    private void claim(Optional<PaymentConfirmation> previous, UUID orderId, String paypalOrderId) {
+        Date now = new Date();
+        PaymentConfirmation confirmation = previous.orElseGet(() -> PaymentConfirmation.builder()
+                .paypalOrderId(paypalOrderId)
+                .orderId(orderId)
+                .createdAt(now)
+                .build());
+        confirmation.setStatus(PaymentConfirmationStatus.IN_PROGRESS);
+        confirmation.setLastError(null);
+        confirmation.setUpdatedAt(now);
+        try {
+            transaction.executeWithoutResult(status -> confirmationRepository.save(confirmation));
+        } catch (DataIntegrityViolationException | ObjectOptimisticLockingFailureException e) {
+            throw new PaymentInProgressEx("El pago se está procesando, intente nuevamente en unos segundos", e);
+        }
+    }
+
+    private CompletableFuture<PaymentConfirmationResult> capture(UUID orderId, String paypalOrderId) {
+        return paypalService.captureOrderAsync(paypalOrderId)
+                .thenApply(paypalOrder -> {
+                    if (!"COMPLETED".equals(paypalOrder.status())) {
+                        throw new IllegalStateException("El pago no se completó. Estado: " + paypalOrder.status());
+                    }
+                    return paypalOrder.id();
+                })
+                .exceptionallyCompose(error -> failed(orderId, paypalOrderId, null, unwrap(error)))
+                .thenCompose(transactionId -> fulfill(orderId, paypalOrderId, transactionId));
+    }
+
+    // El pago ya se cobró. Marcar la orden bloquea filas en la base de datos, así
+    // que corre en su propio pool y no en los hilos que atienden a PayPal.
+    private CompletableFuture<PaymentConfirmationResult> fulfill(UUID orderId, String paypalOrderId,
+            String transactionId) {
+        CompletableFuture<PaymentConfirmationResult> marked;
+        try {
+            marked = CompletableFuture.supplyAsync(() -> markPaid(orderId, paypalOrderId, transactionId),
+                    paymentDbExecutor);
+        } catch (RejectedExecutionException e) {
+            marked = CompletableFuture.failedFuture(e);
+        }
+        return marked.exceptionallyCompose(error -> {
+            Throwable cause = unwrap(error);
+            if (!isPermanent(cause)) {
+                return failed(orderId, paypalOrderId, transactionId, cause);
+            }
+            // Reintentar no cambia el resultado: no vuelve a la conciliación
+            log.error("Pago {} de la orden {} cobrado ({}) pero la orden no se pudo completar; requiere reembolso "
+                    + "o revisión manual", paypalOrderId, orderId, transactionId, cause);
+            finish(paypalOrderId, PaymentConfirmationStatus.CAPTURED_UNFULFILLED, transactionId, cause.getMessage());
+            return CompletableFuture.failedFuture(new PaymentUnfulfilledEx(
+                    "El pago se cobró pero la orden no se pudo completar; quedó en revisión para el reembolso", cause));
+        });
+    }
+
+    // Falla que se puede reintentar (PayPal, conexión, base de datos ocupada)
+    private <T> CompletableFuture<T> failed(UUID orderId, String paypalOrderId, String transactionId,
+            Throwable cause) {
+        log.error("Error al confirmar el pago {} de la orden {}", paypalOrderId, orderId, cause);
+        finish(paypalOrderId, PaymentConfirmationStatus.FAILED, transactionId, cause.getMessage());
+        return CompletableFuture.failedFuture(cause instanceof RuntimeException runtime ? runtime
+                : new IllegalStateException("Error en PayPal: " + cause.getMessage(), cause));
+    }
+
+    private PaymentConfirmationResult markPaid(UUID orderId, String paypalOrderId, String transactionId) {
+        // Si falla por algo pasajero, el pago quedó capturado: al reintentar,
+        // PayPal lo devuelve como COMPLETED
+        orderService.updateOrderStatus(orderId, OrderStatus.PAID, transactionId);
+
+        finish(paypalOrderId, PaymentConfirmationStatus.SUCCEEDED, transactionId, null);
+        return new PaymentConfirmationResult(orderId, transactionId, null);
+    }
+
+    // Sin stock para descontar, orden cancelada o inexistente: no se arregla reintentando
+    private static boolean isPermanent(Throwable cause) {
+        return cause instanceof InsufficientStockEx || cause instanceof ResourceNotFoundEx
+                || cause instanceof IllegalStateException;
+    }
+
+    private void finish(String paypalOrderId, PaymentConfirmationStatus status, String transactionId,
+            String error) {
+        transaction.executeWithoutResult(tx -> confirmationRepository.findById(paypalOrderId)
+                .ifPresent(confirmation -> {
+                    confirmation.setStatus(status);
+                    confirmation.setTransactionId(transactionId);
+                    confirmation.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                            ? error.substring(0, MAX_ERROR_LENGTH)
+                            : error);
+                    confirmation.setUpdatedAt(new Date());
+                }));
+    }
+
+    private static PaymentConfirmationResult checkOrder(PaymentConfirmationResult result, UUID orderId) {
+        if (!result.orderId().equals(orderId)) {
+            throw new IllegalArgumentException("El pago de PayPal pertenece a otra orden");
+        }
+        return result;
+    }
+
+    private static PaymentConfirmationResult await(CompletableFuture<PaymentConfirmationResult> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (unwrap(e) instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,134 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentConfirmationStatus;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentGatewayUnavailableEx;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentInProgressEx;
+import com.tambo.tambo_delivery_backend.repositories.OrderRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Retoma las órdenes que siguen PENDING aunque ya tienen una orden de PayPal
+// (la captura falló, se rechazó antes de cobrar o el navegador se cortó a mitad).
+// Se buscan en las órdenes y no en las confirmaciones, así también aparecen las
+// que nunca llegaron a crear una. Confirmar es idempotente:
+// si PayPal ya había capturado el pago, solo se marca la orden como pagada.
+// Las capturas corren en el pool de webhooks de PayPal: el hilo de @Scheduled
+// solo consulta y encola, así no frena las demás tareas programadas.
+@Slf4j
+@Service
+public class PaymentReconciliationService {
+
+    private final OrderRepository orderRepository;
+    private final PaymentConfirmationService paymentConfirmationService;
+    private final TaskExecutor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration staleAfter;
+    private final Duration maxAge;
+    private final int batchSize;
+
+    // Órdenes de PayPal encoladas y sin terminar; la próxima pasada no las repite
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    public PaymentReconciliationService(OrderRepository orderRepository,
+            PaymentConfirmationService paymentConfirmationService,
+            @Qualifier("paypalWebhookExecutor") TaskExecutor executor,
+            PlatformTransactionManager transactionManager,
+            @Value("${payments.reconcile.stale-after:PT10M}") Duration staleAfter,
+            @Value("${payments.reconcile.max-age:PT24H}") Duration maxAge,
+            @Value("${payments.reconcile.batch-size:50}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.paymentConfirmationService = paymentConfirmationService;
+        this.executor = executor;
+        this.staleAfter = staleAfter;
+        this.maxAge = maxAge;
+        this.batchSize = batchSize;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Cada intento que llega a PayPal actualiza la confirmación, así una orden se
+    // reintenta como mucho una vez cada staleAfter y se abandona pasado maxAge.
+    // Las cobradas sin completar (CAPTURED_UNFULFILLED) no se reintentan.
+    @Scheduled(fixedDelayString = "${payments.reconcile.interval:PT5M}")
+    public void reconcile() {
+        long now = System.currentTimeMillis();
+        List<Order> stale = readOnlyTransaction.execute(status -> orderRepository.findUnconfirmedPayPalOrders(
+                OrderStatus.PENDING,
+                EnumSet.of(PaymentConfirmationStatus.IN_PROGRESS, PaymentConfirmationStatus.FAILED),
+                new Date(now - staleAfter.toMillis()),
+                new Date(now - maxAge.toMillis()),
+                PageRequest.of(0, batchSize)));
+
+        // Si PayPal no responde, las confirmaciones aún en cola de esta pasada se
+        // saltan y esperan a la próxima
+        AtomicBoolean gatewayDown = new AtomicBoolean();
+        int submitted = 0;
+        for (Order order : stale) {
+            UUID orderId = order.getId();
+            String paypalOrderId = order.getPaypalOrderId();
+            if (!queued.add(paypalOrderId)) {
+                continue;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        reconcile(orderId, paypalOrderId, gatewayDown);
+                    } finally {
+                        queued.remove(paypalOrderId);
+                    }
+                });
+                submitted++;
+            } catch (TaskRejectedException e) {
+                queued.remove(paypalOrderId);
+                log.warn("Cola de PayPal llena, la conciliación de {} queda para la próxima pasada", paypalOrderId);
+                break;
+            }
+        }
+        if (submitted > 0) {
+            log.info("Conciliación de pagos PayPal: {} pendientes encolados", submitted);
+        }
+    }
+
+    private void reconcile(UUID orderId, String paypalOrderId, AtomicBoolean gatewayDown) {
+        if (gatewayDown.get()) {
+            return;
+        }
+        try {
+            paymentConfirmationService.confirm(orderId, paypalOrderId);
+            log.info("Pago {} conciliado: orden {} pagada", paypalOrderId, orderId);
+        } catch (PaymentGatewayUnavailableEx e) {
+            // PayPal no responde: el resto espera a la próxima pasada
+            if (gatewayDown.compareAndSet(false, true)) {
+                log.warn("Conciliación de pagos interrumpida: {}", e.getMessage());
+            }
+        } catch (PaymentInProgressEx e) {
+            // Lo está confirmando otro hilo o instancia
+        } catch (RuntimeException e) {
+            log.warn("No se pudo conciliar el pago {} de la orden {}: {}", paypalOrderId, orderId, e.getMessage());
+        }
+    }
+}
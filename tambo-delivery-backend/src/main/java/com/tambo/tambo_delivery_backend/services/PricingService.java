@@ -0,0 +1,235 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tambo.tambo_delivery_backend.dto.request.OrderItemRequest;
+import com.tambo.tambo_delivery_backend.dto.response.CartLineDTO;
+import com.tambo.tambo_delivery_backend.dto.response.CartPriceDTO;
+import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
+import com.tambo.tambo_delivery_backend.entities.Product;
+import com.tambo.tambo_delivery_backend.events.CatalogChangedEvent;
+import com.tambo.tambo_delivery_backend.exceptions.ResourceNotFoundEx;
+import com.tambo.tambo_delivery_backend.repositories.DiscountRepository;
+import com.tambo.tambo_delivery_backend.repositories.ProductRepository;
+import com.tambo.tambo_delivery_backend.services.DiscountIndex.DiscountWindow;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Calcula en el servidor los precios del carrito y los totales de la orden.
+// Los descuentos salen de un índice en memoria que se arma una vez por día (y
+// cuando cambian los descuentos), no de recorrer los descuentos de cada producto.
+@Slf4j
+@Service
+public class PricingService {
+
+    private final DiscountRepository discountRepository;
+    private final ProductRepository productRepository;
+    private final CatalogReadModel catalogReadModel;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // null mientras no se haya podido cargar: se reintenta en la próxima consulta
+    private volatile DiscountIndex index;
+
+    public PricingService(DiscountRepository discountRepository, ProductRepository productRepository,
+            CatalogReadModel catalogReadModel, PlatformTransactionManager transactionManager) {
+        this.discountRepository = discountRepository;
+        this.productRepository = productRepository;
+        this.catalogReadModel = catalogReadModel;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // El descuento que aplica a cada producto depende de la fecha
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rebuildAtMidnight() {
+        rebuild();
+    }
+
+    // Los cambios en descuentos llegan como recarga completa; al editar un
+    // producto pueden cambiar sus descuentos asignados
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.isFullRefresh() || index == null) {
+            rebuild();
+        } else if (!event.getProductIds().isEmpty()) {
+            patch(event.getProductIds());
+        }
+    }
+
+    public synchronized void rebuild() {
+        try {
+            LocalDate today = LocalDate.now();
+            List<DiscountWindow> windows = readOnlyTransaction
+                    .execute(status -> toWindows(discountRepository.findDiscountWindows(today)));
+            index = DiscountIndex.build(today, windows);
+            log.info("Índice de descuentos cargado: {} descuentos por producto ({})", windows.size(), today);
+        } catch (RuntimeException e) {
+            index = null;
+            log.error("No se pudo cargar el índice de descuentos", e);
+        }
+    }
+
+    private synchronized void patch(Set<UUID> productIds) {
+        DiscountIndex base = index;
+        if (base == null) {
+            rebuild();
+            return;
+        }
+        try {
+            List<DiscountWindow> windows = readOnlyTransaction.execute(status -> toWindows(
+                    discountRepository.findDiscountWindowsByProductIdIn(base.getDay(), productIds)));
+            index = base.withProducts(productIds, windows);
+        } catch (RuntimeException e) {
+            index = null;
+            log.error("No se pudo actualizar el índice de descuentos, se recargará en la próxima consulta", e);
+        }
+    }
+
+    // Precio del carrito para el frontend: los productos salen del catálogo en
+    // memoria (o de la base de datos si no está disponible)
+    public CartPriceDTO priceCart(List<OrderItemRequest> items) {
+        Set<UUID> productIds = validateItems(items);
+
+        Map<UUID, PricedProduct> products = new HashMap<>();
+        catalogReadModel.current().ifPresent(catalog -> productIds.forEach(id -> catalog.findById(id)
+                .ifPresent(product -> products.put(id, PricedProduct.of(product)))));
+
+        Set<UUID> missing = new HashSet<>(productIds);
+        missing.removeAll(products.keySet());
+        if (!missing.isEmpty()) {
+            productRepository.findAllById(missing).stream()
+                    .filter(Product::isActive)
+                    .forEach(product -> products.put(product.getId(), PricedProduct.of(product)));
+        }
+        return price(items, products);
+    }
+
+    // Precio de una orden con los productos ya cargados (y validados) por la orden
+    public CartPriceDTO priceOrder(List<OrderItemRequest> items, Map<UUID, Product> products) {
+        validateItems(items);
+        Map<UUID, PricedProduct> priced = new HashMap<>();
+        products.forEach((id, product) -> priced.put(id, PricedProduct.of(product)));
+        return price(items, priced);
+    }
+
+    private CartPriceDTO price(List<OrderItemRequest> items, Map<UUID, PricedProduct> products) {
+        LocalDate today = LocalDate.now();
+        DiscountIndex discounts = currentIndex();
+
+        List<CartLineDTO> lines = new ArrayList<>(items.size());
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItemRequest item : items) {
+            PricedProduct product = products.get(item.getProductId());
+            if (product == null) {
+                throw new ResourceNotFoundEx("Product Not Found!");
+            }
+            if (product.price() == null) {
+                throw new IllegalArgumentException("El producto no tiene precio: " + product.name());
+            }
+
+            Optional<DiscountWindow> discount = discounts.find(product.id(), today);
+            BigDecimal percentage = discount.map(DiscountWindow::percentage).orElse(BigDecimal.ZERO);
+            BigDecimal unitPrice = DiscountIndex.applyPercentage(product.price(), BigDecimal.ZERO);
+            BigDecimal discountedUnitPrice = DiscountIndex.applyPercentage(product.price(), percentage);
+            BigDecimal quantity = BigDecimal.valueOf(item.getQuantity());
+            BigDecimal lineTotal = discountedUnitPrice.multiply(quantity);
+
+            lines.add(CartLineDTO.builder()
+                    .productId(product.id())
+                    .name(product.name())
+                    .quantity(item.getQuantity())
+                    .unitPrice(unitPrice)
+                    .discountPercentage(percentage)
+                    .discountName(discount.map(DiscountWindow::name).orElse(null))
+                    .discountedUnitPrice(discountedUnitPrice)
+                    .lineTotal(lineTotal)
+                    .build());
+            subtotal = subtotal.add(unitPrice.multiply(quantity));
+            total = total.add(lineTotal);
+        }
+
+        return CartPriceDTO.builder()
+                .lines(lines)
+                .subtotal(subtotal)
+                .discount(subtotal.subtract(total))
+                .total(total)
+                .pricedOn(today)
+                .build();
+    }
+
+    private DiscountIndex currentIndex() {
+        DiscountIndex current = index;
+        if (current == null) {
+            rebuild();
+            current = index;
+        }
+        if (current == null) {
+            throw new IllegalStateException("No se pudieron cargar los descuentos vigentes");
+        }
+        return current;
+    }
+
+    private static Set<UUID> validateItems(List<OrderItemRequest> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("El carrito debe tener al menos un producto");
+        }
+        Set<UUID> productIds = new HashSet<>();
+        for (OrderItemRequest item : items) {
+            if (item.getProductId() == null) {
+                throw new IllegalArgumentException("Cada producto del carrito debe tener un ID");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Cantidad inválida para el producto: " + item.getProductId());
+            }
+            productIds.add(item.getProductId());
+        }
+        return productIds;
+    }
+
+    private static List<DiscountWindow> toWindows(Collection<Object[]> rows) {
+        List<DiscountWindow> windows = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            windows.add(new DiscountWindow((UUID) row[0], (UUID) row[1], (String) row[2], (BigDecimal) row[3],
+                    (LocalDate) row[4], (LocalDate) row[5]));
+        }
+        return windows;
+    }
+
+    // Lo único que el cálculo necesita de un producto, venga del catálogo o de la base
+    private record PricedProduct(UUID id, String name, BigDecimal price) {
+
+        static PricedProduct of(ProductDTO product) {
+            return new PricedProduct(product.getId(), product.getName(), product.getPrice());
+        }
+
+        static PricedProduct of(Product product) {
+            return new PricedProduct(product.getId(), product.getName(), product.getPrice());
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.ImmutableList;
+import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
+
+// Índice invertido en memoria sobre nombre, descripción, marca y categoría de
+// los productos. Es inmutable: se construye a partir de una versión del
+// catálogo y se descarta cuando el catálogo cambia.
+public final class ProductSearchIndex {
+
+    // Peso de cada campo en la relevancia
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float BRAND_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // Penalización según cómo coincidió el término
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.8;
+    private static final double FUZZY_MATCH = 0.6;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final List<ProductDTO> products;
+
+    // término -> (posición del producto -> frecuencia ponderada por campo)
+    private final NavigableMap<String, Map<Integer, Float>> postings;
+
+    // Vocabulario en el orden de postings, y por largo de término: bigrama ->
+    // (posición del término en el vocabulario -> veces que lo contiene). La búsqueda
+    // con errores solo mide la distancia contra términos de largo parecido que
+    // comparten suficientes bigramas.
+    private final List<String> vocabulary;
+    private final Map<Integer, Map<String, Map<Integer, Integer>>> bigramsByLength;
+
+    private ProductSearchIndex(List<ProductDTO> products, NavigableMap<String, Map<Integer, Float>> postings) {
+        this.products = products;
+        this.postings = postings;
+        this.vocabulary = ImmutableList.copyOf(postings.keySet());
+        this.bigramsByLength = new HashMap<>();
+        for (int id = 0; id < vocabulary.size(); id++) {
+            int termId = id;
+            Map<String, Map<Integer, Integer>> bigrams = bigramsByLength
+                    .computeIfAbsent(vocabulary.get(id).length(), key -> new HashMap<>());
+            bigramCounts(vocabulary.get(id)).forEach((bigram, count) -> bigrams
+                    .computeIfAbsent(bigram, key -> new HashMap<>()).put(termId, count));
+        }
+    }
+
+    private ProductSearchIndex(List<ProductDTO> products, ProductSearchIndex base) {
+        this.products = products;
+        this.postings = base.postings;
+        this.vocabulary = base.vocabulary;
+        this.bigramsByLength = base.bigramsByLength;
+    }
+
+    public static ProductSearchIndex build(List<ProductDTO> products) {
+        NavigableMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+
+        for (int doc = 0; doc < products.size(); doc++) {
+            ProductDTO product = products.get(doc);
+            addField(postings, doc, product.getName(), NAME_WEIGHT);
+            addField(postings, doc, product.getDescription(), DESCRIPTION_WEIGHT);
+            if (product.getBrand() != null) {
+                addField(postings, doc, product.getBrand().getName(), BRAND_WEIGHT);
+            }
+            if (product.getCategory() != null) {
+                addField(postings, doc, product.getCategory().getName(), CATEGORY_WEIGHT);
+            }
+            if (product.getCategoryType() != null) {
+                addField(postings, doc, product.getCategoryType().getName(), CATEGORY_WEIGHT);
+            }
+        }
+        return new ProductSearchIndex(ImmutableList.copyOf(products), postings);
+    }
+
+    // Mismo índice sobre otra versión de los productos, para cambios que no tocan
+    // el texto indexado (stock, precio). Cada producto debe seguir en su posición.
+    public ProductSearchIndex withProducts(List<ProductDTO> updated) {
+        if (updated.size() != products.size()) {
+            throw new IllegalArgumentException("La cantidad de productos no coincide con el índice");
+        }
+        return new ProductSearchIndex(ImmutableList.copyOf(updated), this);
+    }
+
+    // true si el cambio no afecta lo que se indexa del producto
+    static boolean sameIndexedText(ProductDTO a, ProductDTO b) {
+        return Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && Objects.equals(a.getBrand() != null ? a.getBrand().getName() : null,
+                        b.getBrand() != null ? b.getBrand().getName() : null)
+                && Objects.equals(a.getCategory() != null ? a.getCategory().getName() : null,
+                        b.getCategory() != null ? b.getCategory().getName() : null)
+                && Objects.equals(a.getCategoryType() != null ? a.getCategoryType().getName() : null,
+                        b.getCategoryType() != null ? b.getCategoryType().getName() : null);
+    }
+
+    // Productos que contienen todos los términos de la consulta, del más al menos relevante
+    public List<ProductDTO> search(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Double> scores = null;
+        for (String term : terms) {
+            Map<Integer, Double> termScores = scoreTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                // Todos los términos deben aparecer en el producto
+                Map<Integer, Double> previous = scores;
+                scores = new HashMap<>();
+                for (Map.Entry<Integer, Double> entry : termScores.entrySet()) {
+                    Double score = previous.get(entry.getKey());
+                    if (score != null) {
+                        scores.put(entry.getKey(), score + entry.getValue());
+                    }
+                }
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Integer, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(entry -> products.get(entry.getKey()).getName()));
+
+        List<ProductDTO> result = new ArrayList<>(ranked.size());
+        ranked.forEach(entry -> result.add(products.get(entry.getKey())));
+        return result;
+    }
+
+    // Puntaje de cada producto para un término: coincidencia exacta, por prefijo
+    // o con errores de tipeo. Se queda con la mejor variante por producto.
+    private Map<Integer, Double> scoreTerm(String term) {
+        Map<Integer, Double> scores = new HashMap<>();
+
+        Map<Integer, Float> exact = postings.get(term);
+        if (exact != null) {
+            accumulate(scores, exact, EXACT_MATCH);
+        }
+
+        for (Map.Entry<String, Map<Integer, Float>> entry : postings
+                .subMap(term, false, term + Character.MAX_VALUE, false).entrySet()) {
+            accumulate(scores, entry.getValue(), PREFIX_MATCH);
+        }
+
+        int maxEdits = allowedEdits(term);
+        if (maxEdits > 0) {
+            for (String candidate : fuzzyCandidates(term, maxEdits)) {
+                accumulate(scores, postings.get(candidate), FUZZY_MATCH);
+            }
+        }
+        return scores;
+    }
+
+    // Términos a lo sumo a maxEdits ediciones. Cada edición rompe como mucho dos
+    // bigramas, así que dos términos cercanos comparten al menos
+    // max(largo) - 1 - 2 * maxEdits de ellos; con allowedEdits ese mínimo nunca
+    // baja de uno y basta con recorrer los términos que comparten algún bigrama.
+    private List<String> fuzzyCandidates(String term, int maxEdits) {
+        Map<String, Integer> termBigrams = bigramCounts(term);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (int length = term.length() - maxEdits; length <= term.length() + maxEdits; length++) {
+            Map<String, Map<Integer, Integer>> bigrams = bigramsByLength.get(length);
+            if (bigrams == null) {
+                continue;
+            }
+            termBigrams.forEach((bigram, count) -> {
+                Map<Integer, Integer> terms = bigrams.get(bigram);
+                if (terms != null) {
+                    terms.forEach((termId, termCount) -> shared.merge(termId, Math.min(count, termCount),
+                            Integer::sum));
+                }
+            });
+        }
+
+        List<String> candidates = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+            String candidate = vocabulary.get(entry.getKey());
+            if (candidate.equals(term)) {
+                continue;
+            }
+            int required = Math.max(candidate.length(), term.length()) - 1 - 2 * maxEdits;
+            if (entry.getValue() >= required && withinDistance(term, candidate, maxEdits)) {
+                candidates.add(candidate);
+            }
+        }
+        return candidates;
+    }
+
+    private void accumulate(Map<Integer, Double> scores, Map<Integer, Float> posting, double matchWeight) {
+        // Los términos que aparecen en pocos productos pesan más (idf)
+        double idf = Math.log(1.0 + (double) products.size() / posting.size());
+        for (Map.Entry<Integer, Float> entry : posting.entrySet()) {
+            double score = matchWeight * entry.getValue() * idf;
+            scores.merge(entry.getKey(), score, Math::max);
+        }
+    }
+
+    private static void addField(Map<String, Map<Integer, Float>> postings, int doc, String text, float weight) {
+        for (String term : tokenize(text)) {
+            postings.computeIfAbsent(term, key -> new HashMap<>()).merge(doc, weight, Float::sum);
+        }
+    }
+
+    // Minúsculas y sin tildes: "Café Añejo" -> [cafe, anejo]
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded))
+                .filter(term -> !term.isEmpty())
+                .toList();
+    }
+
+    // "leche" -> {le=1, ec=1, ch=1, he=1}
+    private static Map<String, Integer> bigramCounts(String term) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i + 2 <= term.length(); i++) {
+            counts.merge(term.substring(i, i + 2), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    // Palabras cortas deben escribirse bien; las largas admiten uno o dos errores
+    private static int allowedEdits(String term) {
+        if (term.length() >= 8) {
+            return 2;
+        }
+        return term.length() >= 4 ? 1 : 0;
+    }
+
+    // Distancia de Levenshtein acotada: corta en cuanto se supera el máximo
+    private static boolean withinDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= max;
+    }
+}
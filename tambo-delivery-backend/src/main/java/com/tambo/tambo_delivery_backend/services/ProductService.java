@@ -2,11 +2,15 @@ package com.tambo.tambo_delivery_backend.services;
 
 import com.tambo.tambo_delivery_backend.dto.request.CreateProductDtoAdmin;
 import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
+import com.tambo.tambo_delivery_backend.dto.response.ProductPageDTO;
+import com.tambo.tambo_delivery_backend.dto.response.ProductSearchPageDTO;
 import com.tambo.tambo_delivery_backend.entities.Product;
+import com.tambo.tambo_delivery_backend.specification.ProductSortOrder;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ProductService {
 
@@ -15,6 +19,16 @@ public interface ProductService {
     public List<ProductDTO> getAllProducts(UUID categoryId, UUID typeId, String name, BigDecimal minPrice,
             BigDecimal maxPrice, Boolean active, Boolean newArrival);
 
+    ProductPageDTO getProductPage(UUID categoryId, UUID typeId, String name, BigDecimal minPrice,
+            BigDecimal maxPrice, Boolean active, Boolean newArrival, ProductSortOrder sort, String cursor,
+            int limit);
+
+    ProductSearchPageDTO searchProducts(String query, int page, int size);
+
+    long countProducts();
+
+    void forEachProductBatch(Consumer<List<ProductDTO>> batchConsumer);
+
     ProductDTO getProductBySlug(String slug);
 
     ProductDTO getProductById(UUID id);
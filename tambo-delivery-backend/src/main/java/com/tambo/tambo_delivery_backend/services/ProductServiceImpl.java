@@ -2,7 +2,10 @@ package com.tambo.tambo_delivery_backend.services;
 
 import com.tambo.tambo_delivery_backend.dto.request.CreateProductDtoAdmin;
 import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
+import com.tambo.tambo_delivery_backend.dto.response.ProductPageDTO;
+import com.tambo.tambo_delivery_backend.dto.response.ProductSearchPageDTO;
 import com.tambo.tambo_delivery_backend.entities.*;
+import com.tambo.tambo_delivery_backend.events.CatalogChangedEvent;
 import com.tambo.tambo_delivery_backend.exceptions.ResourceNotFoundEx;
 import com.tambo.tambo_delivery_backend.mapper.ProductMapper;
 import com.tambo.tambo_delivery_backend.repositories.BrandRepository;
@@ -10,21 +13,31 @@ import com.tambo.tambo_delivery_backend.repositories.CategoryRepository;
 import com.tambo.tambo_delivery_backend.repositories.CategoryTypeRepository;
 import com.tambo.tambo_delivery_backend.repositories.DiscountRepository;
 import com.tambo.tambo_delivery_backend.repositories.ProductRepository;
+import com.tambo.tambo_delivery_backend.specification.ProductCursor;
+import com.tambo.tambo_delivery_backend.specification.ProductSortOrder;
 import com.tambo.tambo_delivery_backend.specification.ProductSpecification;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,6 +50,14 @@ public class ProductServiceImpl implements ProductService {
         private final CategoryTypeRepository categoryTypeRepository;
         private final DiscountRepository discountRepository;
         private final BrandRepository brandRepository;
+        private final CatalogReadModel catalogReadModel;
+        private final ApplicationEventPublisher eventPublisher;
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        // Tamaño máximo de página del catálogo paginado
+        private static final int MAX_PAGE_SIZE = 100;
 
         // Obtener todos los productos por filtros
         @Override
@@ -44,7 +65,120 @@ public class ProductServiceImpl implements ProductService {
         public List<ProductDTO> getAllProducts(UUID categoryId, UUID typeId, String name, BigDecimal minPrice,
                         BigDecimal maxPrice, Boolean active, Boolean newArrival) {
 
-                Specification<Product> spec = Specification.where(null);
+                // El catálogo activo se sirve desde memoria
+                Optional<CatalogSnapshot> catalog = activeCatalog(active);
+                if (catalog.isPresent()) {
+                        return catalog.get().filter(categoryId, typeId, name, minPrice, maxPrice, newArrival);
+                }
+
+                Specification<Product> spec = buildSpecification(categoryId, typeId, name, minPrice, maxPrice, active,
+                                newArrival);
+
+                return productRepository.findAllForCatalog(spec, Sort.unsorted(), 0).stream()
+                                .map(ProductMapper::toDTO)
+                                .collect(Collectors.toList());
+        }
+
+        // Obtener una página de productos usando un cursor keyset (orden, id)
+        @Override
+        @Transactional(readOnly = true)
+        public ProductPageDTO getProductPage(UUID categoryId, UUID typeId, String name, BigDecimal minPrice,
+                        BigDecimal maxPrice, Boolean active, Boolean newArrival, ProductSortOrder sort,
+                        String cursor, int limit) {
+
+                ProductSortOrder order = sort != null ? sort : ProductSortOrder.NEWEST;
+                int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+                Optional<CatalogSnapshot> catalog = activeCatalog(active);
+                if (catalog.isPresent()) {
+                        return catalog.get().page(categoryId, typeId, name, minPrice, maxPrice, newArrival, order,
+                                        cursor, pageSize);
+                }
+
+                Specification<Product> spec = buildSpecification(categoryId, typeId, name, minPrice, maxPrice, active,
+                                newArrival);
+                if (StringUtils.isNotBlank(cursor)) {
+                        spec = spec.and(ProductSpecification.isAfter(ProductCursor.decode(cursor, order)));
+                }
+
+                // Se pide un registro extra para saber si hay otra página sin ejecutar un COUNT
+                List<Product> rows = productRepository.findAllForCatalog(spec, order.toSort(), pageSize + 1);
+
+                boolean hasMore = rows.size() > pageSize;
+                List<Product> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+                return ProductPageDTO.builder()
+                                .items(page.stream().map(ProductMapper::toDTO).collect(Collectors.toList()))
+                                .nextCursor(hasMore
+                                                ? ProductCursor.after(order, page.get(page.size() - 1)).encode()
+                                                : null)
+                                .hasMore(hasMore)
+                                .build();
+        }
+
+        // Búsqueda de texto sobre el índice del catálogo en memoria
+        @Override
+        @Transactional(readOnly = true)
+        public ProductSearchPageDTO searchProducts(String query, int page, int size) {
+                if (StringUtils.isBlank(query)) {
+                        throw new IllegalArgumentException("El texto de búsqueda no puede estar vacío");
+                }
+                int pageNumber = Math.max(page, 0);
+                int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+                // Sin catálogo cargado se recurre al LIKE por nombre, sin ranking
+                List<ProductDTO> matches = catalogReadModel.current()
+                                .map(catalog -> catalog.getSearchIndex().search(query))
+                                .orElseGet(() -> getAllProducts(null, null, query, null, null, true, null));
+
+                int from = (int) Math.min((long) pageNumber * pageSize, matches.size());
+                int to = Math.min(from + pageSize, matches.size());
+
+                return ProductSearchPageDTO.builder()
+                                .query(query)
+                                .items(List.copyOf(matches.subList(from, to)))
+                                .total(matches.size())
+                                .page(pageNumber)
+                                .size(pageSize)
+                                .build();
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public long countProducts() {
+                return productRepository.count();
+        }
+
+        // Recorre todo el catálogo (activos e inactivos) en bloques ya mapeados a DTO.
+        // Tras cada bloque se limpia el contexto de persistencia para que la memoria
+        // no crezca con el total de productos.
+        @Override
+        @Transactional(readOnly = true)
+        public void forEachProductBatch(Consumer<List<ProductDTO>> batchConsumer) {
+                ScrollPosition position = ScrollPosition.keyset();
+                Window<Product> window;
+                do {
+                        window = productRepository.scrollForExport(position);
+                        if (window.isEmpty()) {
+                                return;
+                        }
+
+                        batchConsumer.accept(window.stream().map(ProductMapper::toDTO).collect(Collectors.toList()));
+
+                        position = window.positionAt(window.size() - 1);
+                        entityManager.clear();
+                } while (window.hasNext());
+        }
+
+        // Snapshot en memoria, solo cuando se consultan productos activos y ya está cargado
+        private Optional<CatalogSnapshot> activeCatalog(Boolean active) {
+                return Boolean.TRUE.equals(active) ? catalogReadModel.current() : Optional.empty();
+        }
+
+        private Specification<Product> buildSpecification(UUID categoryId, UUID typeId, String name,
+                        BigDecimal minPrice, BigDecimal maxPrice, Boolean active, Boolean newArrival) {
+
+                Specification<Product> spec = Specification.unrestricted();
 
                 if (categoryId != null) {
                         spec = spec.and(ProductSpecification.hasCategoryId(categoryId));
@@ -68,10 +202,7 @@ public class ProductServiceImpl implements ProductService {
                         spec = spec.and(newArrival ? ProductSpecification.isNewArrival()
                                         : ProductSpecification.isNotNewArrival());
                 }
-
-                return productRepository.findAll(spec).stream()
-                                .map(ProductMapper::toDTO)
-                                .collect(Collectors.toList());
+                return spec;
         }
 
         // Agregar un nuevo producto
@@ -91,6 +222,7 @@ public class ProductServiceImpl implements ProductService {
 
                 Product product = ProductMapper.toEntity(dto, category, categoryType, brand, discounts);
                 Product saved = productRepository.save(product);
+                eventPublisher.publishEvent(CatalogChangedEvent.productChanged(saved.getId()));
                 return ProductMapper.toDTO(saved);
         }
 
@@ -98,6 +230,12 @@ public class ProductServiceImpl implements ProductService {
         @Override
         @Transactional(readOnly = true)
         public ProductDTO getProductBySlug(String slug) {
+                Optional<ProductDTO> cached = catalogReadModel.current().flatMap(catalog -> catalog.findBySlug(slug));
+                if (cached.isPresent()) {
+                        return cached.get();
+                }
+
+                // Los productos inactivos no están en memoria pero se siguen pudiendo consultar por slug
                 Product product = productRepository.findBySlug(slug)
                                 .orElseThrow(() -> new RuntimeException("Product not found"));
                 return ProductMapper.toDTO(product);
@@ -197,6 +335,7 @@ public class ProductServiceImpl implements ProductService {
 
                 // ========== GUARDAR ==========
                 Product updated = productRepository.save(existing);
+                eventPublisher.publishEvent(CatalogChangedEvent.productChanged(id));
                 return ProductMapper.toDTO(updated);
         }
 
@@ -220,6 +359,7 @@ public class ProductServiceImpl implements ProductService {
 
                         // Eliminar producto de la base de datos
                         productRepository.deleteById(id);
+                        eventPublisher.publishEvent(CatalogChangedEvent.productChanged(id));
                         return true;
 
                 } catch (Exception e) {
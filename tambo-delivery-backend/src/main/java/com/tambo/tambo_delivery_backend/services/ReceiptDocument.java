@@ -0,0 +1,47 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+// PDF de un comprobante listo para descargar o adjuntar, con su ETag
+public class ReceiptDocument {
+
+    private final Resource content;
+    private final String eTag;
+
+    private ReceiptDocument(Resource content, String sha256) {
+        this.content = content;
+        this.eTag = "\"" + sha256 + "\"";
+    }
+
+    static ReceiptDocument stored(StoredReceipt receipt) {
+        return new ReceiptDocument(new FileSystemResource(receipt.getFile()), receipt.getSha256());
+    }
+
+    static ReceiptDocument rendered(byte[] pdf) {
+        return new ReceiptDocument(new ByteArrayResource(pdf), ReceiptStore.sha256(pdf));
+    }
+
+    public Resource getContent() {
+        return content;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public byte[] toByteArray() {
+        try {
+            return content instanceof FileSystemResource file
+                    ? Files.readAllBytes(file.getFile().toPath())
+                    : content.getContentAsByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el comprobante", e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tambo.tambo_delivery_backend.auth.services.EmailService;
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.ReceiptOutbox;
+import com.tambo.tambo_delivery_backend.entities.ReceiptOutboxStatus;
+import com.tambo.tambo_delivery_backend.entities.ReceiptType;
+import com.tambo.tambo_delivery_backend.events.ReceiptQueuedEvent;
+import com.tambo.tambo_delivery_backend.repositories.ReceiptOutboxRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Outbox de comprobantes: la confirmación del pago solo inserta una fila y el
+// PDF se genera y se envía por correo después del commit, en otro hilo, con
+// reintentos y espera exponencial.
+@Slf4j
+@Service
+public class ReceiptOutboxService {
+
+    // Estados que el despachador puede tomar (PROCESSING solo con la reserva vencida)
+    private static final Set<ReceiptOutboxStatus> CLAIMABLE = EnumSet.of(ReceiptOutboxStatus.PENDING,
+            ReceiptOutboxStatus.PROCESSING);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ReceiptOutboxRepository receiptOutboxRepository;
+    private final ReceiptService receiptService;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolTaskExecutor receiptExecutor;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final int batchSize;
+
+    public ReceiptOutboxService(ReceiptOutboxRepository receiptOutboxRepository,
+            ReceiptService receiptService,
+            EmailService emailService,
+            ApplicationEventPublisher eventPublisher,
+            @Qualifier("receiptExecutor") ThreadPoolTaskExecutor receiptExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${receipts.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${receipts.outbox.backoff:PT1M}") Duration backoff,
+            @Value("${receipts.outbox.max-backoff:PT2H}") Duration maxBackoff,
+            @Value("${receipts.outbox.lease:PT5M}") Duration lease,
+            @Value("${receipts.outbox.batch-size:20}") int batchSize) {
+        this.receiptOutboxRepository = receiptOutboxRepository;
+        this.receiptService = receiptService;
+        this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.receiptExecutor = receiptExecutor;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.batchSize = batchSize;
+
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Encola el comprobante de la orden dentro de la transacción de quien llama
+    @Transactional
+    public void enqueue(Order order) {
+        if (receiptOutboxRepository.existsByOrderAndReceiptType(order, order.getReceiptType())) {
+            return;
+        }
+
+        Date now = new Date();
+        ReceiptOutbox entry = receiptOutboxRepository.save(ReceiptOutbox.builder()
+                .order(order)
+                .receiptType(order.getReceiptType())
+                .status(ReceiptOutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+
+        eventPublisher.publishEvent(new ReceiptQueuedEvent(entry.getId()));
+    }
+
+    // Recién con la orden confirmada como pagada se intenta el envío
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReceiptQueued(ReceiptQueuedEvent event) {
+        submit(event.getOutboxId());
+    }
+
+    // Reintentos vencidos, envíos rechazados por cola llena y reservas de hilos
+    // que murieron a mitad del envío
+    @Scheduled(fixedDelayString = "${receipts.outbox.poll-interval:PT30S}")
+    public void dispatchDue() {
+        List<UUID> due = receiptOutboxRepository.findDueIds(CLAIMABLE, new Date(), PageRequest.of(0, batchSize));
+        due.forEach(this::submit);
+    }
+
+    private void submit(UUID outboxId) {
+        try {
+            receiptExecutor.execute(() -> dispatch(outboxId));
+        } catch (TaskRejectedException e) {
+            log.warn("Cola de comprobantes llena, el envío {} queda para el próximo sondeo", outboxId);
+        }
+    }
+
+    void dispatch(UUID outboxId) {
+        Date now = new Date();
+        Integer claimed = transaction.execute(status -> receiptOutboxRepository.claim(outboxId, CLAIMABLE,
+                ReceiptOutboxStatus.PROCESSING, now, new Date(now.getTime() + lease.toMillis())));
+        if (claimed == null || claimed == 0) {
+            // Ya lo tomó otro hilo o instancia
+            return;
+        }
+
+        try {
+            // El PDF se genera con la transacción abierta; el correo se envía sin conexión tomada
+            PreparedReceipt receipt = readOnlyTransaction.execute(status -> prepare(outboxId));
+            emailService.sendReceiptEmail(receipt.order(), receipt.type(), receipt.pdf());
+        } catch (Exception e) {
+            transaction.executeWithoutResult(status -> markFailed(outboxId, e));
+            return;
+        }
+        transaction.executeWithoutResult(status -> markSent(outboxId));
+    }
+
+    private PreparedReceipt prepare(UUID outboxId) {
+        ReceiptOutbox entry = receiptOutboxRepository.findById(outboxId)
+                .orElseThrow(() -> new IllegalStateException("Comprobante pendiente no encontrado"));
+        Order order = entry.getOrder();
+        // El correo usa el cliente fuera de la transacción
+        Hibernate.initialize(order.getUser());
+
+        byte[] pdf = receiptService.getReceipt(order, entry.getReceiptType()).toByteArray();
+        return new PreparedReceipt(order, entry.getReceiptType(), pdf);
+    }
+
+    private void markSent(UUID outboxId) {
+        receiptOutboxRepository.findById(outboxId).ifPresent(entry -> {
+            entry.setStatus(ReceiptOutboxStatus.SENT);
+            entry.setSentAt(new Date());
+            entry.setLastError(null);
+        });
+    }
+
+    private void markFailed(UUID outboxId, Exception error) {
+        receiptOutboxRepository.findById(outboxId).ifPresent(entry -> {
+            String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+            entry.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+
+            if (entry.getAttempts() >= maxAttempts) {
+                entry.setStatus(ReceiptOutboxStatus.FAILED);
+                log.error("No se pudo enviar el comprobante {} tras {} intentos", outboxId, entry.getAttempts(),
+                        error);
+                return;
+            }
+
+            Duration wait = backoffFor(entry.getAttempts());
+            entry.setStatus(ReceiptOutboxStatus.PENDING);
+            entry.setNextAttemptAt(new Date(System.currentTimeMillis() + wait.toMillis()));
+            log.warn("Falló el envío del comprobante {} (intento {}), se reintentará en {}: {}", outboxId,
+                    entry.getAttempts(), wait, message);
+        });
+    }
+
+    // 1, 2, 4, 8... veces la espera base, con un máximo
+    private Duration backoffFor(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration wait = backoff.multipliedBy(1L << exponent);
+        return wait.compareTo(maxBackoff) > 0 ? maxBackoff : wait;
+    }
+
+    private record PreparedReceipt(Order order, ReceiptType type, byte[] pdf) {
+    }
+}
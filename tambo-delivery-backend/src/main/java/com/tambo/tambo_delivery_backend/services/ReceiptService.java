@@ -0,0 +1,91 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import org.springframework.stereotype.Service;
+
+import com.google.common.util.concurrent.Striped;
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderItem;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.ReceiptType;
+
+import lombok.RequiredArgsConstructor;
+
+// Boletas y facturas: una vez pagada la orden el comprobante no cambia, así que
+// se genera una sola vez y luego se sirve desde el almacén en disco. Solo se
+// vuelve a generar si cambian los datos de la orden que aparecen en el PDF.
+@Service
+@RequiredArgsConstructor
+public class ReceiptService {
+
+    // Estados en los que el comprobante ya es definitivo
+    private static final Set<OrderStatus> FINAL_STATUSES = EnumSet.of(OrderStatus.PAID, OrderStatus.IN_PROGRESS,
+            OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+
+    private final ReceiptStore receiptStore;
+    private final BoletaPdfService boletaPdfService;
+    private final FacturaPdfService facturaPdfService;
+
+    // Dos descargas simultáneas de la misma orden no generan el PDF dos veces
+    private final Striped<Lock> locks = Striped.lock(64);
+
+    public ReceiptDocument getReceipt(Order order, ReceiptType type) {
+        if (!FINAL_STATUSES.contains(order.getOrderStatus())) {
+            return ReceiptDocument.rendered(render(order, type));
+        }
+
+        String revision = revisionOf(order);
+        Lock lock = locks.get(order.getId() + "-" + type);
+        lock.lock();
+        try {
+            Optional<StoredReceipt> stored = receiptStore.find(order.getId(), type)
+                    .filter(receipt -> receipt.getRevision().equals(revision));
+            if (stored.isPresent()) {
+                return ReceiptDocument.stored(stored.get());
+            }
+            return ReceiptDocument.stored(receiptStore.save(order.getId(), type, revision, render(order, type)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] render(Order order, ReceiptType type) {
+        return type == ReceiptType.FACTURA
+                ? facturaPdfService.generateFacturaPdf(order)
+                : boletaPdfService.generateBoletaPdf(order);
+    }
+
+    // Huella de los datos facturados: si alguno cambia, la orden fue modificada
+    // y el comprobante guardado deja de valer. El avance del envío no cuenta.
+    private static String revisionOf(Order order) {
+        StringBuilder data = new StringBuilder()
+                .append(order.getUser().getId()).append('|')
+                .append(order.getOrderDate() != null ? order.getOrderDate().getTime() : null).append('|')
+                .append(order.getReceiptType()).append('|')
+                .append(order.getDocType()).append('|')
+                .append(order.getDocNumber()).append('|')
+                .append(order.getRuc()).append('|')
+                .append(order.getRazonSocial()).append('|')
+                .append(order.getPaymentMethod()).append('|')
+                .append(order.getTotalAmount()).append('|')
+                .append(order.getDiscount());
+
+        order.getOrderItemList().stream()
+                .sorted(Comparator.comparing(item -> item.getProduct().getId()))
+                .forEach(item -> appendItem(data, item));
+
+        return ReceiptStore.sha256(data.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendItem(StringBuilder data, OrderItem item) {
+        data.append('|').append(item.getProduct().getId())
+                .append(':').append(item.getQuantity())
+                .append(':').append(item.getItemPrice());
+    }
+}
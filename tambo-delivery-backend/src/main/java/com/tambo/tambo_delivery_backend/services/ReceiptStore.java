@@ -0,0 +1,197 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.io.BufferedReader;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Striped;
+import com.tambo.tambo_delivery_backend.entities.ReceiptType;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+// Almacén local de comprobantes direccionado por contenido:
+// - blobs/<aa>/<sha256>.pdf guarda los bytes del PDF
+// - refs/<orderId>-<tipo>.ref apunta al blob vigente de cada orden y tipo
+// Los archivos se escriben en un temporal y se mueven, nunca quedan a medias.
+// Varias órdenes pueden apuntar al mismo blob (mismo PDF): un blob se borra
+// solo cuando ya ninguna referencia lo usa.
+@Slf4j
+@Service
+public class ReceiptStore {
+
+    private final Path blobs;
+    private final Path refs;
+
+    // Evita leer el archivo .ref en cada descarga; acotada, las órdenes viejas se
+    // vuelven a leer del disco
+    private final Cache<String, StoredReceipt> refCache;
+
+    // Serializa por blob la escritura de referencias y el borrado, así no se borra
+    // un blob que otra orden acaba de empezar a usar
+    private final Striped<Lock> blobLocks = Striped.lock(64);
+
+    public ReceiptStore(@Value("${receipts.store.directory:${user.home}/tambo-receipts}") String directory,
+            @Value("${receipts.store.ref-cache-size:10000}") long refCacheSize) {
+        Path root = Paths.get(directory);
+        this.blobs = root.resolve("blobs");
+        this.refs = root.resolve("refs");
+        this.refCache = CacheBuilder.newBuilder()
+                .maximumSize(refCacheSize)
+                .build();
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(blobs);
+        Files.createDirectories(refs);
+    }
+
+    // Comprobante guardado para la orden y tipo, si existe
+    public Optional<StoredReceipt> find(UUID orderId, ReceiptType type) {
+        String key = key(orderId, type);
+        StoredReceipt cached = refCache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Path ref = refs.resolve(key + ".ref");
+        if (!Files.exists(ref)) {
+            return Optional.empty();
+        }
+        try {
+            List<String> lines = Files.readAllLines(ref, StandardCharsets.UTF_8);
+            String sha256 = lines.get(0);
+            Path blob = blobPath(sha256);
+            if (lines.size() < 2 || !Files.exists(blob)) {
+                log.warn("Referencia de comprobante inválida {}, se volverá a generar", ref);
+                return Optional.empty();
+            }
+            StoredReceipt receipt = new StoredReceipt(sha256, lines.get(1), blob);
+            refCache.put(key, receipt);
+            return Optional.of(receipt);
+        } catch (IOException | IndexOutOfBoundsException e) {
+            log.warn("No se pudo leer la referencia de comprobante {}", ref, e);
+            return Optional.empty();
+        }
+    }
+
+    // Guarda el PDF y lo deja como vigente para la orden y tipo
+    public StoredReceipt save(UUID orderId, ReceiptType type, String revision, byte[] pdf) {
+        String sha256 = sha256(pdf);
+        Path blob = blobPath(sha256);
+        String key = key(orderId, type);
+        Optional<StoredReceipt> previous = find(orderId, type);
+
+        Lock lock = blobLocks.get(sha256);
+        lock.lock();
+        try {
+            if (!Files.exists(blob)) {
+                Files.createDirectories(blob.getParent());
+                writeAtomically(blob, pdf);
+            }
+            writeAtomically(refs.resolve(key + ".ref"),
+                    (sha256 + "\n" + revision + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar el comprobante", e);
+        } finally {
+            lock.unlock();
+        }
+
+        StoredReceipt receipt = new StoredReceipt(sha256, revision, blob);
+        refCache.put(key, receipt);
+
+        // El PDF anterior de una orden modificada puede seguir en uso por otra orden
+        previous.filter(old -> !old.getSha256().equals(sha256))
+                .ifPresent(this::deleteIfUnreferenced);
+        return receipt;
+    }
+
+    // Borra el blob si ninguna referencia apunta a él. Recorre refs/: solo pasa
+    // cuando cambia el comprobante de una orden, no en cada descarga.
+    private void deleteIfUnreferenced(StoredReceipt old) {
+        Lock lock = blobLocks.get(old.getSha256());
+        lock.lock();
+        try {
+            if (!isReferenced(old.getSha256())) {
+                deleteQuietly(old.getFile());
+            }
+        } catch (IOException e) {
+            // Ante la duda se conserva: un blob huérfano solo ocupa espacio
+            log.warn("No se pudo revisar si el comprobante {} sigue en uso", old.getFile(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isReferenced(String sha256) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(refs, "*.ref")) {
+            for (Path ref : files) {
+                try (BufferedReader reader = Files.newBufferedReader(ref, StandardCharsets.UTF_8)) {
+                    if (sha256.equals(reader.readLine())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private Path blobPath(String sha256) {
+        return blobs.resolve(sha256.substring(0, 2)).resolve(sha256 + ".pdf");
+    }
+
+    private void writeAtomically(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "tmp-", ".part");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el comprobante {}", file, e);
+        }
+    }
+
+    private static String key(UUID orderId, ReceiptType type) {
+        return orderId + "-" + type.name().toLowerCase(Locale.ROOT);
+    }
+
+    static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+// Reservas activas en memoria, por producto y orden. Sirve para consultar el
+// disponible sin ir a la base de datos; las reservas se validan siempre contra
+// la tabla con la fila del producto bloqueada.
+@Component
+public class StockReservationIndex {
+
+    // producto -> (orden -> reserva)
+    private final Map<UUID, Map<UUID, Hold>> holds = new ConcurrentHashMap<>();
+
+    public void put(UUID productId, UUID orderId, int quantity, long expiresAt) {
+        holds.computeIfAbsent(productId, key -> new ConcurrentHashMap<>())
+                .put(orderId, new Hold(quantity, expiresAt));
+    }
+
+    public void remove(UUID productId, UUID orderId) {
+        holds.computeIfPresent(productId, (key, byOrder) -> {
+            byOrder.remove(orderId);
+            return byOrder.isEmpty() ? null : byOrder;
+        });
+    }
+
+    public void clear() {
+        holds.clear();
+    }
+
+    // Cantidad separada y todavía vigente; las vencidas no cuentan aunque el
+    // barrido aún no las haya liberado
+    public int reserved(UUID productId, long now) {
+        Map<UUID, Hold> byOrder = holds.get(productId);
+        if (byOrder == null) {
+            return 0;
+        }
+        int total = 0;
+        for (Hold hold : byOrder.values()) {
+            if (hold.expiresAt() > now) {
+                total += hold.quantity();
+            }
+        }
+        return total;
+    }
+
+    private record Hold(int quantity, long expiresAt) {
+    }
+}
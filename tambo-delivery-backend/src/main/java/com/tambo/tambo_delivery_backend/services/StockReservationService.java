@@ -0,0 +1,295 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderItem;
+import com.tambo.tambo_delivery_backend.entities.Product;
+import com.tambo.tambo_delivery_backend.entities.StockReservation;
+import com.tambo.tambo_delivery_backend.entities.StockReservationStatus;
+import com.tambo.tambo_delivery_backend.entities.TimeOrderedUuidGenerator;
+import com.tambo.tambo_delivery_backend.exceptions.InsufficientStockEx;
+import com.tambo.tambo_delivery_backend.exceptions.ResourceNotFoundEx;
+import com.tambo.tambo_delivery_backend.repositories.ProductRepository;
+import com.tambo.tambo_delivery_backend.repositories.StockReservationRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+// Separa el stock de una orden al crearla y lo libera si no se paga a tiempo.
+// Disponible para vender = stock - reservas activas de otras órdenes. Las
+// validaciones se hacen con las filas de los productos bloqueadas, así dos
+// órdenes simultáneas no pueden separar la misma unidad.
+@Slf4j
+@Service
+public class StockReservationService {
+
+    // Mismo orden que ORDER BY id en MySQL
+    private static final Comparator<UUID> LOCK_ORDER = TimeOrderedUuidGenerator.BINARY_ORDER;
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final StockReservationIndex index;
+    private final CatalogReadModel catalogReadModel;
+    private final TransactionTemplate transaction;
+    private final Duration ttl;
+    private final int sweepBatchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+            ProductRepository productRepository,
+            StockReservationIndex index,
+            CatalogReadModel catalogReadModel,
+            PlatformTransactionManager transactionManager,
+            @Value("${stock.reservations.ttl:PT15M}") Duration ttl,
+            @Value("${stock.reservations.sweep-batch-size:200}") int sweepBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.index = index;
+        this.catalogReadModel = catalogReadModel;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    // Carga y bloquea los productos del carrito con una sola consulta. Debe ser la
+    // primera lectura de esos productos en la transacción, así llegan con el
+    // stock actual y checkAvailable no necesita volver a leerlos.
+    @Transactional
+    public Map<UUID, Product> lockForCheckout(Collection<UUID> productIds) {
+        List<Product> products = productRepository.findAllByIdForUpdate(productIds);
+        if (products.size() != productIds.size()) {
+            throw new ResourceNotFoundEx("Product Not Found!");
+        }
+        return products.stream().collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    // Bloquea los productos de una orden nueva y comprueba que alcance el stock.
+    // Va antes de guardar la orden: en MySQL insertar sus items toma un bloqueo
+    // compartido sobre cada producto, y pedir después el exclusivo produce deadlocks.
+    @Transactional
+    public void checkAvailable(Order order) {
+        checkAvailable(order, quantitiesByProduct(order), new Date());
+    }
+
+    // Separa las cantidades de la orden ya guardada (después de checkAvailable)
+    @Transactional
+    public void reserve(Order order) {
+        hold(order, quantitiesByProduct(order), new Date());
+    }
+
+    // Antes de capturar el pago: renueva la reserva para que dure lo que tarda
+    // la captura. Si venció, vuelve a separar el stock; si ya no alcanza, lanza
+    // InsufficientStockEx y el pago se rechaza sin haber cobrado.
+    @Transactional
+    public void holdForPayment(UUID orderId) {
+        Order order = entityManager.find(Order.class, orderId);
+        if (order == null) {
+            throw new ResourceNotFoundEx("Orden no encontrada");
+        }
+        Map<UUID, Integer> quantities = quantitiesByProduct(order);
+        Date now = new Date();
+        List<StockReservation> reservations = reservationRepository.findByOrderIdAndStatus(orderId,
+                StockReservationStatus.ACTIVE);
+
+        if (!isLive(reservations, quantities, now)) {
+            // Las reservas de esta orden no cuentan contra sí misma
+            checkAvailable(order, quantities, now);
+            reservations.forEach(reservation -> reservation.setStatus(StockReservationStatus.RELEASED));
+            hold(order, quantities, now);
+            return;
+        }
+
+        Date expiresAt = new Date(now.getTime() + ttl.toMillis());
+        reservations.forEach(reservation -> reservation.setExpiresAt(expiresAt));
+        afterCommit(() -> quantities.forEach((productId, quantity) -> index.put(productId, orderId, quantity,
+                expiresAt.getTime())));
+    }
+
+    // Al pagar, la reserva se convierte en descuento de stock. El pago ya se
+    // cobró: aunque la reserva haya vencido no se vuelve a comprobar contra las
+    // reservas de otras órdenes, solo se bloquean las filas para el descuento.
+    @Transactional
+    public void consume(Order order) {
+        Map<UUID, Integer> quantities = quantitiesByProduct(order);
+        List<StockReservation> reservations = reservationRepository.findByOrderIdAndStatus(order.getId(),
+                StockReservationStatus.ACTIVE);
+
+        lockProducts(quantities);
+
+        reservations.forEach(reservation -> reservation.setStatus(StockReservationStatus.CONSUMED));
+        afterCommit(() -> quantities.keySet().forEach(productId -> index.remove(productId, order.getId())));
+    }
+
+    // Orden cancelada o fallida: el stock vuelve a estar disponible
+    @Transactional
+    public void release(UUID orderId) {
+        List<StockReservation> reservations = reservationRepository.findByOrderIdAndStatus(orderId,
+                StockReservationStatus.ACTIVE);
+        reservations.forEach(reservation -> reservation.setStatus(StockReservationStatus.RELEASED));
+        afterCommit(() -> reservations.forEach(reservation -> index.remove(reservation.getProduct().getId(),
+                orderId)));
+    }
+
+    // Disponible para vender sin ir a la base de datos (catálogo en memoria + índice)
+    public Optional<Integer> availableToSell(UUID productId) {
+        Optional<ProductDTO> product = catalogReadModel.current().flatMap(catalog -> catalog.findById(productId));
+        Integer stock = product.isPresent()
+                ? product.get().getStock()
+                : productRepository.findById(productId).map(Product::getStock)
+                        .orElseThrow(() -> new ResourceNotFoundEx("Product Not Found!"));
+        if (stock == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Math.max(0, stock - index.reserved(productId, System.currentTimeMillis())));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        transaction.executeWithoutResult(status -> {
+            List<StockReservation> live = reservationRepository.findLive(StockReservationStatus.ACTIVE, new Date());
+            index.clear();
+            live.forEach(reservation -> index.put(reservation.getProduct().getId(), reservation.getOrder().getId(),
+                    reservation.getQuantity(), reservation.getExpiresAt().getTime()));
+            log.info("Reservas de stock activas cargadas: {}", live.size());
+        });
+    }
+
+    // Libera las reservas vencidas por bloques
+    @Scheduled(fixedDelayString = "${stock.reservations.sweep-interval:PT1M}")
+    public void releaseExpired() {
+        int released;
+        do {
+            List<StockReservation> expired = transaction.execute(status -> {
+                List<StockReservation> batch = reservationRepository.findExpired(StockReservationStatus.ACTIVE,
+                        new Date(), PageRequest.of(0, sweepBatchSize));
+                batch.forEach(reservation -> reservation.setStatus(StockReservationStatus.RELEASED));
+                return batch;
+            });
+            expired.forEach(reservation -> index.remove(reservation.getProduct().getId(),
+                    reservation.getOrder().getId()));
+            released = expired.size();
+            if (released > 0) {
+                log.info("Reservas de stock vencidas liberadas: {}", released);
+            }
+        } while (released == sweepBatchSize);
+    }
+
+    private void hold(Order order, Map<UUID, Integer> quantities, Date now) {
+        Date expiresAt = new Date(now.getTime() + ttl.toMillis());
+        List<StockReservation> reservations = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            reservations.add(StockReservation.builder()
+                    .order(order)
+                    .product(productRepository.getReferenceById(entry.getKey()))
+                    .quantity(entry.getValue())
+                    .status(StockReservationStatus.ACTIVE)
+                    .expiresAt(expiresAt)
+                    .createdAt(now)
+                    .build());
+        }
+        reservationRepository.saveAll(reservations);
+
+        afterCommit(() -> quantities.forEach((productId, quantity) -> index.put(productId, order.getId(), quantity,
+                expiresAt.getTime())));
+    }
+
+    // Vigente si cubre todos los productos de la orden y ninguna venció
+    private static boolean isLive(List<StockReservation> reservations, Map<UUID, Integer> quantities, Date now) {
+        return reservations.size() == quantities.size()
+                && reservations.stream().allMatch(reservation -> reservation.getExpiresAt().after(now));
+    }
+
+    // Bloquea los productos y comprueba stock - reservas de otras órdenes >= cantidad
+    private void checkAvailable(Order order, Map<UUID, Integer> quantities, Date now) {
+        List<Product> products = lockProducts(quantities);
+
+        List<Object[]> rows = order.getId() == null
+                ? reservationRepository.sumLiveByProduct(quantities.keySet(), StockReservationStatus.ACTIVE, now)
+                : reservationRepository.sumLiveByProductExcludingOrder(quantities.keySet(),
+                        StockReservationStatus.ACTIVE, now, order.getId());
+        Map<UUID, Long> reservedByOthers = new HashMap<>();
+        for (Object[] row : rows) {
+            reservedByOthers.put((UUID) row[0], ((Number) row[1]).longValue());
+        }
+
+        for (Product product : products) {
+            long available = product.getStock() - reservedByOthers.getOrDefault(product.getId(), 0L);
+            int requested = quantities.get(product.getId());
+            if (!product.isActive() || available < requested) {
+                throw new InsufficientStockEx("Stock insuficiente para el producto: " + product.getName()
+                        + ". Disponible: " + Math.max(0, available) + ", cantidad solicitada: " + requested);
+            }
+        }
+    }
+
+    // SELECT ... FOR UPDATE de cada producto que todavía no esté bloqueado, en el
+    // mismo orden que findAllByIdForUpdate para que dos órdenes con los mismos
+    // productos no se bloqueen entre sí. refresh y no una consulta: los productos
+    // ya cargados en la sesión podrían tener stock viejo.
+    private List<Product> lockProducts(Map<UUID, Integer> quantities) {
+        List<Product> products = new ArrayList<>();
+        for (UUID productId : quantities.keySet().stream().sorted(LOCK_ORDER).toList()) {
+            Product product = entityManager.find(Product.class, productId);
+            if (product == null) {
+                throw new ResourceNotFoundEx("Product Not Found!");
+            }
+            // Los del carrito ya llegan bloqueados y actualizados (lockForCheckout)
+            if (entityManager.getLockMode(product) != LockModeType.PESSIMISTIC_WRITE) {
+                entityManager.refresh(product, LockModeType.PESSIMISTIC_WRITE);
+            }
+            products.add(product);
+        }
+        return products;
+    }
+
+    // Un producto puede venir en varios items de la orden
+    private static Map<UUID, Integer> quantitiesByProduct(Order order) {
+        Map<UUID, Integer> quantities = new HashMap<>();
+        for (OrderItem item : order.getOrderItemList()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.nio.file.Path;
+
+// Comprobante guardado en disco. El nombre del archivo es el SHA-256 de su
+// contenido, así que el mismo hash sirve como ETag.
+public class StoredReceipt {
+
+    private final String sha256;
+    private final String revision;
+    private final Path file;
+
+    StoredReceipt(String sha256, String revision, Path file) {
+        this.sha256 = sha256;
+        this.revision = revision;
+        this.file = file;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    // Huella de los datos de la orden con los que se generó el PDF
+    public String getRevision() {
+        return revision;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,67 @@
+package com.tambo.tambo_delivery_backend.specification;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Date;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tambo.tambo_delivery_backend.dto.request.OrderExportFilter;
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentMethod;
+
+public class OrderSpecification {
+
+    // Zona de los reportes: la conexión guarda order_date en UTC (serverTimezone y
+    // hibernate.jdbc.time_zone), así que DATE(order_date) agrupa por días UTC y los
+    // filtros por día deben cortar en la misma zona
+    public static final ZoneId REPORT_ZONE = ZoneOffset.UTC;
+
+    public static Specification<Order> placedOnOrAfter(Date from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("orderDate"), from);
+    }
+
+    public static Specification<Order> placedBefore(Date to) {
+        return (root, query, cb) -> cb.lessThan(root.get("orderDate"), to);
+    }
+
+    public static Specification<Order> hasStatusIn(Collection<OrderStatus> statuses) {
+        return (root, query, cb) -> root.get("orderStatus").in(statuses);
+    }
+
+    public static Specification<Order> hasPaymentMethod(PaymentMethod paymentMethod) {
+        return (root, query, cb) -> cb.equal(root.get("paymentMethod"), paymentMethod);
+    }
+
+    // Combina los filtros de la exportación; el rango de fechas usa días completos
+    public static Specification<Order> matches(OrderExportFilter filter) {
+        Specification<Order> spec = Specification.unrestricted();
+        if (filter == null) {
+            return spec;
+        }
+
+        if (filter.getFrom() != null && filter.getTo() != null && filter.getFrom().isAfter(filter.getTo())) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+        if (filter.getFrom() != null) {
+            spec = spec.and(placedOnOrAfter(startOfDay(filter.getFrom())));
+        }
+        if (filter.getTo() != null) {
+            spec = spec.and(placedBefore(startOfDay(filter.getTo().plusDays(1))));
+        }
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            spec = spec.and(hasStatusIn(filter.getStatuses()));
+        }
+        if (filter.getPaymentMethod() != null) {
+            spec = spec.and(hasPaymentMethod(filter.getPaymentMethod()));
+        }
+        return spec;
+    }
+
+    private static Date startOfDay(LocalDate day) {
+        return Date.from(day.atStartOfDay(REPORT_ZONE).toInstant());
+    }
+}
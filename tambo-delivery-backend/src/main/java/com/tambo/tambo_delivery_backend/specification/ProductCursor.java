@@ -0,0 +1,82 @@
+package com.tambo.tambo_delivery_backend.specification;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import com.tambo.tambo_delivery_backend.entities.Product;
+
+// Posición de keyset dentro del catálogo: valor de la columna de orden + id del
+// último producto entregado. Se serializa como un token opaco (Base64 URL-safe).
+public final class ProductCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final ProductSortOrder sort;
+    private final Comparable<?> value;
+    private final UUID id;
+
+    private ProductCursor(ProductSortOrder sort, Comparable<?> value, UUID id) {
+        this.sort = sort;
+        this.value = value;
+        this.id = id;
+    }
+
+    // Cursor que apunta justo después del producto indicado
+    public static ProductCursor after(ProductSortOrder sort, Product product) {
+        Comparable<?> value = sort.isByPrice() ? product.getPrice() : product.getCreatedAt();
+        return new ProductCursor(sort, value, product.getId());
+    }
+
+    public static ProductCursor of(ProductSortOrder sort, Comparable<?> value, UUID id) {
+        return new ProductCursor(sort, value, id);
+    }
+
+    public String encode() {
+        String rawValue = sort.isByPrice()
+                ? ((BigDecimal) value).toPlainString()
+                : String.valueOf(((Date) value).getTime());
+        String raw = sort.name() + SEPARATOR + rawValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Decodifica un token generado por encode(); el orden debe coincidir con el solicitado
+    public static ProductCursor decode(String token, ProductSortOrder expectedSort) {
+        ProductCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Formato de cursor desconocido");
+            }
+
+            ProductSortOrder sort = ProductSortOrder.valueOf(parts[0]);
+            Comparable<?> value = sort.isByPrice()
+                    ? new BigDecimal(parts[1])
+                    : new Date(Long.parseLong(parts[1]));
+            cursor = new ProductCursor(sort, value, UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // Base64, UUID, enum y números inválidos lanzan IllegalArgumentException
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+
+        if (cursor.sort != expectedSort) {
+            throw new IllegalArgumentException("El cursor no corresponde al orden solicitado");
+        }
+        return cursor;
+    }
+
+    public ProductSortOrder getSort() {
+        return sort;
+    }
+
+    public Comparable<?> getValue() {
+        return value;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
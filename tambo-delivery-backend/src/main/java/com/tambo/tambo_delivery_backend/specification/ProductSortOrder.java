@@ -0,0 +1,37 @@
+package com.tambo.tambo_delivery_backend.specification;
+
+import org.springframework.data.domain.Sort;
+
+// Ordenamientos soportados por el catálogo paginado. Cada uno usa el id como
+// desempate para que el cursor (keyset) sea estable entre páginas.
+public enum ProductSortOrder {
+
+    NEWEST("createdAt", Sort.Direction.DESC),
+    OLDEST("createdAt", Sort.Direction.ASC),
+    PRICE_ASC("price", Sort.Direction.ASC),
+    PRICE_DESC("price", Sort.Direction.DESC);
+
+    private final String property;
+    private final Sort.Direction direction;
+
+    ProductSortOrder(String property, Sort.Direction direction) {
+        this.property = property;
+        this.direction = direction;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public boolean isDescending() {
+        return direction == Sort.Direction.DESC;
+    }
+
+    public boolean isByPrice() {
+        return "price".equals(property);
+    }
+
+    public Sort toSort() {
+        return Sort.by(direction, property).and(Sort.by(direction, "id"));
+    }
+}
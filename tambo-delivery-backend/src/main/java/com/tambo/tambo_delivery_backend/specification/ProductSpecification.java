@@ -1,9 +1,15 @@
 package com.tambo.tambo_delivery_backend.specification;
 
 import com.tambo.tambo_delivery_backend.entities.Product;
+
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.UUID;
 
 public class ProductSpecification {
@@ -28,6 +34,10 @@ public class ProductSpecification {
         return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
     }
 
+    public static Specification<Product> hasIdIn(Collection<UUID> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
     public static Specification<Product> isActive() {
         return (root, query, cb) -> cb.isTrue(root.get("isActive"));
     }
@@ -44,4 +54,35 @@ public class ProductSpecification {
         return (root, query, cb) -> cb.isFalse(root.get("isNewArrival"));
     }
 
+    // Keyset: productos posteriores al cursor según el orden (columna de orden, id)
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static Specification<Product> isAfter(ProductCursor cursor) {
+        return (root, query, cb) -> {
+            Path<Comparable> key = root.get(cursor.getSort().getProperty());
+            Comparable value = cursor.getValue();
+            Path<UUID> id = root.get("id");
+
+            if (cursor.getSort().isDescending()) {
+                return cb.or(cb.lessThan(key, value),
+                        cb.and(cb.equal(key, value), cb.lessThan(id, cursor.getId())));
+            }
+            return cb.or(cb.greaterThan(key, value),
+                    cb.and(cb.equal(key, value), cb.greaterThan(id, cursor.getId())));
+        };
+    }
+
+    // Trae en la misma consulta las relaciones *-a-uno que usa ProductMapper.toDTO
+    public static Specification<Product> fetchCatalogAssociations() {
+        return (root, query, cb) -> {
+            // Las consultas COUNT no admiten fetch joins
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("brand", JoinType.LEFT);
+                root.fetch("category", JoinType.LEFT);
+                Fetch<Object, Object> categoryType = root.fetch("categoryType", JoinType.LEFT);
+                categoryType.fetch("category", JoinType.LEFT);
+            }
+            return cb.conjunction();
+        };
+    }
+
 }
@@ -0,0 +1,128 @@
+package com.tambo.tambo_delivery_backend.auth.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.tambo.tambo_delivery_backend.auth.entities.Authority;
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+import com.tambo.tambo_delivery_backend.auth.helper.AuthenticatedUser;
+import com.tambo.tambo_delivery_backend.auth.helper.JWTTokenHelper;
+import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
+import com.tambo.tambo_delivery_backend.auth.services.TokenVersionService;
+import com.tambo.tambo_delivery_backend.events.UserAccountChangedEvent;
+
+public class JWTAuthenticationFilterTest {
+
+    private JWTTokenHelper jwtTokenHelper;
+    private UserDetailsService userDetailsService;
+    private UserDetailRepository userDetailRepository;
+    private TokenVersionService tokenVersionService;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        jwtTokenHelper = new JWTTokenHelper("tambo-test",
+                "Y2xhdmUtZGUtcHJ1ZWJhcy1wYXJhLXRva2Vucy1qd3QtMDEyMzQ1Njc4OQ==", 3600, 100);
+
+        userDetailsService = mock(UserDetailsService.class);
+        userDetailRepository = mock(UserDetailRepository.class);
+        tokenVersionService = new TokenVersionService(userDetailRepository, 100, Duration.ofMinutes(1));
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email("cliente@tambo.pe")
+                .enabled(true)
+                .authorities(List.of(Authority.builder().roleCode("USER").roleDescription("Cliente").build()))
+                .build();
+        when(userDetailRepository.findTokenVersionById(user.getId())).thenReturn(Optional.of(0));
+        when(userDetailsService.loadUserByUsername(user.getEmail())).thenReturn(user);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testStatelessModeAuthenticatesFromClaimsWithoutLoadingTheUser() throws Exception {
+        String token = jwtTokenHelper.generateToken(user);
+
+        Authentication first = authenticate(token, true);
+        Authentication second = authenticate(token, true);
+
+        assertInstanceOf(AuthenticatedUser.class, first.getPrincipal());
+        assertEquals("cliente@tambo.pe", first.getName(), "Los controladores usan principal.getName()");
+        assertEquals(List.of("USER"), first.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertNotNull(second);
+        verify(userDetailsService, never()).loadUserByUsername(any());
+        // La versión de tokens se consulta una vez y luego sale de la caché
+        verify(userDetailRepository, times(1)).findTokenVersionById(user.getId());
+    }
+
+    @Test
+    public void testRevokedTokenIsRejectedAfterAccountChange() throws Exception {
+        String token = jwtTokenHelper.generateToken(user);
+        assertNotNull(authenticate(token, true));
+
+        // Cambio de contraseña: versión 1 en la base y evento que limpia la caché
+        when(userDetailRepository.findTokenVersionById(user.getId())).thenReturn(Optional.of(1));
+        tokenVersionService.onUserAccountChanged(new UserAccountChangedEvent(user.getId(), user.getEmail()));
+
+        assertNull(authenticate(token, true));
+    }
+
+    @Test
+    public void testDatabaseModeLoadsTheUser() throws Exception {
+        String token = jwtTokenHelper.generateToken(user);
+
+        Authentication authentication = authenticate(token, false);
+
+        assertEquals(user, authentication.getPrincipal());
+        verify(userDetailsService, times(1)).loadUserByUsername(user.getEmail());
+    }
+
+    @Test
+    public void testInvalidTokenIsNotAuthenticated() throws Exception {
+        String token = jwtTokenHelper.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(authenticate(tampered, true));
+        assertNull(authenticate("no-es-un-token", true));
+    }
+
+    private Authentication authenticate(String token, boolean stateless) throws Exception {
+        SecurityContextHolder.clearContext();
+        JWTAuthenticationFilter filter = new JWTAuthenticationFilter(jwtTokenHelper, userDetailsService,
+                tokenVersionService, stateless);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/profile");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,74 @@
+package com.tambo.tambo_delivery_backend.auth.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.tambo.tambo_delivery_backend.exceptions.LoginThrottledEx;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InstrumentedPasswordEncoderTest {
+
+    @Test
+    public void testRecordsWallAndCpuTimePerOperation() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InstrumentedPasswordEncoder encoder = new InstrumentedPasswordEncoder(new BCryptPasswordEncoder(4), 2,
+                Duration.ofSeconds(1), meterRegistry);
+
+        String hash = encoder.encode("secreta");
+        assertTrue(encoder.matches("secreta", hash));
+
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count());
+        assertTrue(meterRegistry.get("auth.password.hash.cpu").tag("operation", "matches").timer()
+                .totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    public void testRejectsWhenAllHashSlotsAreBusy() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InstrumentedPasswordEncoder encoder = new InstrumentedPasswordEncoder(slow, 1, Duration.ofMillis(50),
+                meterRegistry);
+
+        Thread busy = new Thread(() -> encoder.matches("a", "a"));
+        busy.start();
+        started.await();
+
+        assertThrows(LoginThrottledEx.class, () -> encoder.matches("b", "b"));
+        assertEquals(1.0, meterRegistry.get("auth.password.hash.rejected").counter().count());
+        // Registro y cambio de contraseña no compiten con los logins
+        assertEquals("d", encoder.encode("d"));
+
+        release.countDown();
+        busy.join();
+        assertTrue(encoder.matches("c", "c"), "El permiso se libera al terminar");
+    }
+}
@@ -0,0 +1,115 @@
+package com.tambo.tambo_delivery_backend.auth.helper;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tambo.tambo_delivery_backend.auth.entities.Authority;
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+// Throughput de generar, leer y validar tokens. "legacy" reproduce el helper
+// anterior (clave y parser nuevos en cada llamada, tres lecturas por solicitud
+// en el filtro); "shared" usa la clave y el parser creados al arrancar; "cached"
+// además la caché de tokens verificados.
+// mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JWTTokenBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JWTTokenBenchmark {
+
+    private static final String SECRET = "Y2xhdmUtZGUtcHJ1ZWJhcy1wYXJhLXRva2Vucy1qd3QtMDEyMzQ1Njc4OQ==";
+
+    @Param({ "legacy", "shared", "cached" })
+    private String mode;
+
+    private JWTTokenHelper helper;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        helper = new JWTTokenHelper("tambo-bench", SECRET, 3600, "cached".equals(mode) ? 10_000 : 0);
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email("cliente@tambo.pe")
+                .enabled(true)
+                .authorities(List.of(Authority.builder().roleCode("USER").roleDescription("Cliente").build()))
+                .build();
+        token = helper.generateToken(user);
+    }
+
+    @Benchmark
+    public String generate() {
+        if ("legacy".equals(mode)) {
+            return Jwts.builder()
+                    .issuer("tambo-bench")
+                    .subject(user.getEmail())
+                    .claim(JWTTokenHelper.CLAIM_USER_ID, user.getId().toString())
+                    .claim(JWTTokenHelper.CLAIM_ROLES, List.of("USER"))
+                    .claim(JWTTokenHelper.CLAIM_VERSION, user.getTokenVersion())
+                    .issuedAt(new Date())
+                    .expiration(new Date(System.currentTimeMillis() + 3600_000L))
+                    .signWith(legacySigningKey())
+                    .compact();
+        }
+        return helper.generateToken(user);
+    }
+
+    @Benchmark
+    public Object parse() {
+        if ("legacy".equals(mode)) {
+            return legacyClaims(token);
+        }
+        return helper.parseToken(token);
+    }
+
+    // Lo que hace el filtro con cada solicitud autenticada
+    @Benchmark
+    public boolean validate() {
+        if ("legacy".equals(mode)) {
+            // getUserNameFromToken + validateToken (isTokenExpired) del helper anterior
+            String username = legacyClaims(token).getSubject();
+            return username != null && username.equals(legacyClaims(token).getSubject())
+                    && !legacyClaims(token).getExpiration().before(new Date());
+        }
+        TokenClaims claims = helper.parseToken(token);
+        return claims != null && claims.isStateless();
+    }
+
+    private static SecretKey legacySigningKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(legacySigningKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
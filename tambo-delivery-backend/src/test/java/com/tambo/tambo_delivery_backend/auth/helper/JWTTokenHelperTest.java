@@ -0,0 +1,85 @@
+package com.tambo.tambo_delivery_backend.auth.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.tambo.tambo_delivery_backend.auth.entities.Authority;
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+
+public class JWTTokenHelperTest {
+
+    private static final String SECRET = "Y2xhdmUtZGUtcHJ1ZWJhcy1wYXJhLXRva2Vucy1qd3QtMDEyMzQ1Njc4OQ==";
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email("cliente@tambo.pe")
+                .enabled(true)
+                .authorities(List.of(Authority.builder().roleCode("ADMIN").roleDescription("Admin").build()))
+                .build();
+    }
+
+    @Test
+    public void testVerifiedTokenIsServedFromCache() {
+        JWTTokenHelper helper = new JWTTokenHelper("tambo-test", SECRET, 3600, 100);
+        String token = helper.generateToken(user);
+
+        TokenClaims first = helper.parseToken(token);
+        TokenClaims second = helper.parseToken(token);
+
+        assertNotNull(first);
+        assertSame(first, second, "La segunda lectura no debería volver a verificar el token");
+        assertEquals(user.getId(), first.userId());
+        assertEquals(List.of("ADMIN"), first.roles());
+        assertEquals(0, first.version());
+    }
+
+    @Test
+    public void testTamperedTokenIsRejectedEvenAfterTheOriginalIsCached() {
+        JWTTokenHelper helper = new JWTTokenHelper("tambo-test", SECRET, 3600, 100);
+        String token = helper.generateToken(user);
+        assertNotNull(helper.parseToken(token));
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(helper.parseToken(tampered));
+    }
+
+    @Test
+    public void testCachedTokenIsRejectedOnceExpired() throws InterruptedException {
+        JWTTokenHelper helper = new JWTTokenHelper("tambo-test", SECRET, 1, 100);
+        String token = helper.generateToken(user);
+        assertNotNull(helper.parseToken(token));
+
+        // El claim exp tiene resolución de segundos
+        Thread.sleep(2100);
+
+        assertNull(helper.parseToken(token));
+    }
+
+    @Test
+    public void testTokensFromAnotherKeyAreRejected() {
+        JWTTokenHelper other = new JWTTokenHelper("tambo-test",
+                "b3RyYS1jbGF2ZS1kZS1wcnVlYmFzLXBhcmEtdG9rZW5zLWp3dC0wMTIzNDU2Nzg5", 3600, 0);
+        JWTTokenHelper helper = new JWTTokenHelper("tambo-test", SECRET, 3600, 0);
+
+        assertNull(helper.parseToken(other.generateToken(user)));
+    }
+
+    @Test
+    public void testShortSecretFailsAtStartup() {
+        assertThrows(IllegalStateException.class, () -> new JWTTokenHelper("tambo-test", "Y29ydGE=", 3600, 0));
+    }
+}
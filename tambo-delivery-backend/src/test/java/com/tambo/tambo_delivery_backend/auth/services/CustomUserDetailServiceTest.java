@@ -0,0 +1,103 @@
+package com.tambo.tambo_delivery_backend.auth.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.tambo.tambo_delivery_backend.auth.entities.Authority;
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
+import com.tambo.tambo_delivery_backend.events.UserAccountChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CustomUserDetailServiceTest {
+
+    private static final String EMAIL = "cliente@tambo.pe";
+
+    private UserDetailRepository userDetailRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomUserDetailService service;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        userDetailRepository = mock(UserDetailRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CustomUserDetailService(userDetailRepository, 100, Duration.ofMinutes(5), meterRegistry);
+
+        user = user(true);
+        when(userDetailRepository.findByEmail(EMAIL)).thenReturn(user);
+    }
+
+    @Test
+    public void testRepeatedLookupsHitTheCache() {
+        service.loadUserByUsername(EMAIL);
+        service.loadUserByUsername(EMAIL);
+        service.loadUserByUsername(EMAIL);
+
+        verify(userDetailRepository, times(1)).findByEmail(EMAIL);
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "auth.user-details").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    public void testCallersGetCopiesOfTheCachedUser() {
+        service.loadUserByUsername(EMAIL);
+        User first = (User) service.loadUserByUsername(EMAIL);
+        first.setFirstName("Modificado");
+
+        User second = (User) service.loadUserByUsername(EMAIL);
+
+        assertEquals("Ana", second.getFirstName());
+    }
+
+    @Test
+    public void testAccountChangeInvalidatesTheEntry() {
+        service.loadUserByUsername(EMAIL);
+        User disabled = user(false);
+        when(userDetailRepository.findByEmail(EMAIL)).thenReturn(disabled);
+
+        service.onUserAccountChanged(new UserAccountChangedEvent(user.getId(), EMAIL));
+
+        assertFalse(service.loadUserByUsername(EMAIL).isEnabled(), "El usuario deshabilitado pierde acceso al instante");
+        verify(userDetailRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    public void testDisabledUsersAreNotCached() {
+        when(userDetailRepository.findByEmail(EMAIL)).thenReturn(user(false));
+
+        service.loadUserByUsername(EMAIL);
+        service.loadUserByUsername(EMAIL);
+
+        verify(userDetailRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    public void testUnknownUserIsNotFound() {
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("nadie@tambo.pe"));
+    }
+
+    private User user(boolean enabled) {
+        return User.builder()
+                .id(user != null ? user.getId() : UUID.randomUUID())
+                .email(EMAIL)
+                .firstName("Ana")
+                .enabled(enabled)
+                .authorities(List.of(Authority.builder().roleCode("USER").roleDescription("Cliente").build()))
+                .build();
+    }
+}
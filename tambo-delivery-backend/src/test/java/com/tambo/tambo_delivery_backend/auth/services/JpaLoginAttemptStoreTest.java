@@ -0,0 +1,56 @@
+package com.tambo.tambo_delivery_backend.auth.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tambo_login_attempts;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "auth.login.throttle.store=db"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaLoginAttemptStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class JpaLoginAttemptStoreTest {
+
+    @Autowired
+    private JpaLoginAttemptStore store;
+
+    @Test
+    public void testCountsOnlyFailuresInsideTheWindow() {
+        String key = "account:" + UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        store.recordFailure(key, new Date(now - 60_000));
+        store.recordFailure(key, new Date(now - 2_000));
+        store.recordFailure(key, new Date(now - 1_000));
+
+        LoginAttempts attempts = store.failuresSince(key, new Date(now - 10_000));
+
+        assertEquals(2, attempts.count());
+        assertEquals(now - 1_000, attempts.lastFailureAt().getTime());
+    }
+
+    @Test
+    public void testResetForgetsTheKey() {
+        String key = "account:" + UUID.randomUUID();
+        store.recordFailure(key, new Date());
+
+        store.reset(key);
+
+        assertEquals(LoginAttempts.NONE, store.failuresSince(key, new Date(0)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.tambo.tambo_delivery_backend.auth.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LoginThrottleServiceTest {
+
+    private static final String ACCOUNT = "cliente@tambo.pe";
+    private static final String IP = "203.0.113.7";
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottleService service;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = throttle(Duration.ofMinutes(15));
+    }
+
+    @Test
+    public void testFreeAttemptsAreNotDelayed() {
+        service.recordFailure(ACCOUNT, IP);
+        service.recordFailure(ACCOUNT, IP);
+
+        assertEquals(Duration.ZERO, service.check(ACCOUNT, IP));
+    }
+
+    @Test
+    public void testAccountIsDelayedAfterTheFreeAttempts() {
+        for (int i = 0; i < 3; i++) {
+            service.recordFailure(ACCOUNT, IP);
+        }
+
+        Duration wait = service.check(ACCOUNT, IP);
+
+        assertTrue(wait.compareTo(Duration.ZERO) > 0 && wait.compareTo(Duration.ofSeconds(1)) <= 0);
+        assertEquals(1.0, meterRegistry.get("auth.login.throttled").tag("scope", "account").counter().count());
+        // Otra cuenta desde la misma IP todavía puede intentar
+        assertEquals(Duration.ZERO, service.check("otro@tambo.pe", IP));
+    }
+
+    @Test
+    public void testDelayDoublesUpToTheMaximum() {
+        assertEquals(Duration.ofSeconds(1), service.delay(0));
+        assertEquals(Duration.ofSeconds(8), service.delay(3));
+        assertEquals(Duration.ofMinutes(15), service.delay(20));
+        assertEquals(Duration.ofMinutes(15), service.delay(200));
+    }
+
+    @Test
+    public void testIpIsDelayedAcrossAccounts() {
+        // Credential stuffing: una cuenta distinta en cada intento
+        for (int i = 0; i < 20; i++) {
+            service.recordFailure("cliente" + i + "@tambo.pe", IP);
+        }
+
+        assertTrue(service.check("nueva@tambo.pe", IP).compareTo(Duration.ZERO) > 0);
+        assertEquals(Duration.ZERO, service.check("nueva@tambo.pe", "198.51.100.1"));
+    }
+
+    @Test
+    public void testSuccessfulLoginResetsTheAccount() {
+        for (int i = 0; i < 3; i++) {
+            service.recordFailure(ACCOUNT, IP);
+        }
+
+        service.recordSuccess(ACCOUNT.toUpperCase());
+
+        assertEquals(Duration.ZERO, service.check(ACCOUNT, IP));
+    }
+
+    @Test
+    public void testFailuresLeaveTheWindow() throws InterruptedException {
+        service = throttle(Duration.ofMillis(200));
+        for (int i = 0; i < 3; i++) {
+            service.recordFailure(ACCOUNT, IP);
+        }
+        assertTrue(service.check(ACCOUNT, IP).compareTo(Duration.ZERO) > 0);
+
+        Thread.sleep(300);
+
+        assertEquals(Duration.ZERO, service.check(ACCOUNT, IP));
+    }
+
+    private LoginThrottleService throttle(Duration window) {
+        return new LoginThrottleService(new InMemoryLoginAttemptStore(window, 1000), window, 3, 20,
+                Duration.ofSeconds(1), Duration.ofMinutes(15), meterRegistry);
+    }
+}
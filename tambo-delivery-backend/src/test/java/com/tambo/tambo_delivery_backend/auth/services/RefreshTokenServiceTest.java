@@ -0,0 +1,116 @@
+package com.tambo.tambo_delivery_backend.auth.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tambo.tambo_delivery_backend.auth.dto.response.LoginResponse;
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+import com.tambo.tambo_delivery_backend.auth.helper.JWTTokenHelper;
+import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tambo_refresh;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "jwt.auth.app=tambo-test",
+        "jwt.auth.secret_key=Y2xhdmUtZGUtcHJ1ZWJhcy1wYXJhLXRva2Vucy1qd3QtMDEyMzQ1Njc4OQ==",
+        "jwt.auth.expires_in=900"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ RefreshTokenService.class, JWTTokenHelper.class })
+// Cada operación del servicio corre en su propia transacción, como en una solicitud
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JWTTokenHelper jwtTokenHelper;
+
+    @Autowired
+    private UserDetailRepository userDetailRepository;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        user = userDetailRepository.save(User.builder()
+                .email("cliente-" + UUID.randomUUID() + "@tambo.pe")
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    public void testRefreshRotatesTheToken() {
+        String first = refreshTokenService.issue(user);
+
+        LoginResponse response = refreshTokenService.refresh(first);
+
+        assertEquals(200, response.getCode());
+        assertNotNull(jwtTokenHelper.parseToken(response.getToken()));
+        assertNotEquals(first, response.getRefreshToken());
+        assertEquals(200, refreshTokenService.refresh(response.getRefreshToken()).getCode());
+    }
+
+    @Test
+    public void testReusedTokenRevokesTheWholeFamily() {
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.refresh(first).getRefreshToken();
+
+        // El token viejo vuelve a aparecer: alguien lo copió
+        assertEquals(401, refreshTokenService.refresh(first).getCode());
+        assertEquals(401, refreshTokenService.refresh(second).getCode(),
+                "El token vigente de la misma sesión también queda revocado");
+    }
+
+    @Test
+    public void testOtherSessionsSurviveAReuse() {
+        String stolen = refreshTokenService.issue(user);
+        String otherDevice = refreshTokenService.issue(user);
+        refreshTokenService.refresh(stolen);
+        refreshTokenService.refresh(stolen);
+
+        assertEquals(200, refreshTokenService.refresh(otherDevice).getCode());
+    }
+
+    @Test
+    public void testPasswordChangeEndsTheSession() {
+        String token = refreshTokenService.issue(user);
+
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userDetailRepository.save(user);
+
+        assertEquals(401, refreshTokenService.refresh(token).getCode());
+    }
+
+    @Test
+    public void testLogoutRevokesTheSession() {
+        String token = refreshTokenService.issue(user);
+
+        refreshTokenService.revoke(token);
+
+        assertEquals(401, refreshTokenService.refresh(token).getCode());
+    }
+
+    @Test
+    public void testUnknownTokenIsRejected() {
+        assertEquals(401, refreshTokenService.refresh("no-existe").getCode());
+        assertEquals(401, refreshTokenService.refresh(null).getCode());
+    }
+}
@@ -0,0 +1,71 @@
+package com.tambo.tambo_delivery_backend.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvExportDocumentTest {
+
+    private static final ExportTable<List<Object>> TABLE = ExportTable
+            .<List<Object>>builder("Datos", "DATOS")
+            .column("NOMBRE", 20, row -> row.get(0))
+            .column("IMPORTE", 12, ExportFormat.CURRENCY, row -> row.get(1))
+            .build();
+
+    @Test
+    public void testFormulaLikeTextIsNeutralized() throws IOException {
+        String csv = write(
+                List.of("=HYPERLINK(\"http://x\",\"clic\")", -3.5),
+                List.of("+51 999", new BigDecimal("-10.00")),
+                List.of("-2+3", 0),
+                List.of("@SUM(A1)", 1),
+                List.of("\tTab", 2),
+                List.of("Leche - Gloria", 3));
+
+        assertEquals(String.join("\r\n",
+                "\uFEFFNOMBRE,IMPORTE",
+                "\"'=HYPERLINK(\"\"http://x\"\",\"\"clic\"\")\",-3.5",
+                "'+51 999,-10.00",
+                "'-2+3,0",
+                "'@SUM(A1),1",
+                "'\tTab,2",
+                "Leche - Gloria,3",
+                ""), csv);
+    }
+
+    // El id se abrevia solo en Excel: en CSV sale completo para poder cruzarlo
+    @Test
+    public void testShortIdKeepsTheFullIdInCsv() throws IOException {
+        UUID id = UUID.fromString("0192f3a4-5b6c-7d8e-9f00-112233445566");
+        ExportTable<UUID> table = ExportTable.<UUID>builder("Órdenes", "ÓRDENES")
+                .column("ID ORDEN", 12, ExportFormat.SHORT_ID, row -> row)
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportDocument document = new CsvExportDocument(out)) {
+            document.addSheet(table, null).appendAll(Stream.of(id));
+            document.finish();
+        }
+
+        assertEquals("\uFEFFID ORDEN\r\n" + id + "\r\n", out.toString(StandardCharsets.UTF_8));
+        assertEquals("0192f3a4", ExportFormat.SHORT_ID.excelValue(id));
+    }
+
+    @SafeVarargs
+    private static String write(List<Object>... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportDocument document = new CsvExportDocument(out)) {
+            document.addSheet(TABLE, null).appendAll(Stream.of(rows));
+            document.finish();
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
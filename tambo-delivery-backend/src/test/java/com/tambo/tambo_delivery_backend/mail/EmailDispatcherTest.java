@@ -0,0 +1,109 @@
+package com.tambo.tambo_delivery_backend.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+public class EmailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EmailDispatcher dispatcher;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    public void testPasswordResetIsSentBeforeQueuedReceipts() throws Exception {
+        dispatcher = newDispatcher(greenMail.getSmtp().getPort(), 1);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            results.add(dispatcher.submit(EmailType.RECEIPT, message("Boleta " + i)));
+        }
+        results.add(dispatcher.submit(EmailType.PASSWORD_RESET, message("Recuperación")));
+
+        dispatcher.start();
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(4, received.length);
+        assertEquals("Recuperación", received[0].getSubject(), "La recuperación de contraseña debería salir primero");
+        assertEquals("Boleta 1", received[1].getSubject(), "Los de igual prioridad salen por orden de llegada");
+    }
+
+    @Test
+    public void testQueuedMessagesAreSentAsOneBatch() throws Exception {
+        dispatcher = newDispatcher(greenMail.getSmtp().getPort(), 1);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            results.add(dispatcher.submit(EmailType.VERIFICATION, message("Código " + i)));
+        }
+
+        dispatcher.start();
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertEquals(5, meterRegistry.summary("mail.batch.size").max(),
+                "Los correos encolados deberían enviarse por la misma conexión");
+        assertEquals(5, meterRegistry.timer("mail.send", "type", "VERIFICATION", "outcome", "success").count());
+    }
+
+    @Test
+    public void testUnreachableServerFailsTheDelivery() throws Exception {
+        // Puerto sin servidor SMTP
+        dispatcher = newDispatcher(greenMail.getSmtp().getPort() + 1, 1);
+        dispatcher.start();
+
+        CompletableFuture<Void> result = dispatcher.submit(EmailType.RECEIPT, message("Factura"));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(MessagingException.class, error.getCause());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    private EmailDispatcher newDispatcher(int port, int workers) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        return new EmailDispatcher(mailSender, meterRegistry, 100, workers, 20, Duration.ofSeconds(30));
+    }
+
+    private MimeMessage message(String subject) throws MessagingException {
+        MimeMessage message = new JavaMailSenderImpl().createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "utf-8");
+        helper.setFrom("tienda@tambo.test");
+        helper.setTo("cliente@tambo.test");
+        helper.setSubject(subject);
+        helper.setText("Contenido de prueba");
+        return message;
+    }
+}
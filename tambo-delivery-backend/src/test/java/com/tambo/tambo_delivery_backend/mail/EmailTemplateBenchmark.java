@@ -0,0 +1,90 @@
+package com.tambo.tambo_delivery_backend.mail;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+// Costo de renderizar cada correo con y sin la caché de plantillas.
+// mvn -Pbenchmark test-compile exec:exec -Dbenchmark=EmailTemplateBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    @Param({ "true", "false" })
+    private boolean cached;
+
+    private EmailTemplateRenderer renderer;
+    private Map<String, Object> verification;
+    private Map<String, Object> passwordReset;
+    private Map<String, Object> receipt;
+
+    @Setup
+    public void setUp() {
+        // Misma configuración que arma Spring Boot para src/main/resources/templates
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(cached);
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.setEnableSpringELCompiler(true);
+
+        renderer = new EmailTemplateRenderer(engine);
+        if (cached) {
+            renderer.warmUp();
+        }
+
+        verification = new HashMap<>();
+        verification.put("username", "cliente@tambo.pe");
+        verification.put("verificationCode", "482913");
+        verification.put("baseUrl", "http://localhost:8080");
+
+        passwordReset = new HashMap<>();
+        passwordReset.put("username", "cliente@tambo.pe");
+        passwordReset.put("resetUrl", "http://localhost:5173/v1/reset-password?token=abc");
+
+        receipt = new HashMap<>();
+        receipt.put("username", "cliente@tambo.pe");
+        receipt.put("receiptName", "boleta");
+        receipt.put("totalAmount", "S/ 57.9");
+        receipt.put("orderDate", new Date());
+    }
+
+    @Benchmark
+    public String verificationEmail() {
+        return renderer.render(EmailTemplate.VERIFICATION, verification);
+    }
+
+    @Benchmark
+    public String passwordResetEmail() {
+        return renderer.render(EmailTemplate.PASSWORD_RESET, passwordReset);
+    }
+
+    @Benchmark
+    public String receiptEmail() {
+        return renderer.render(EmailTemplate.RECEIPT, receipt);
+    }
+}
@@ -0,0 +1,101 @@
+package com.tambo.tambo_delivery_backend.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
+import com.tambo.tambo_delivery_backend.dto.request.OrderExportFilter;
+import com.tambo.tambo_delivery_backend.dto.response.OrderDayTotalDTO;
+import com.tambo.tambo_delivery_backend.entities.DeliveryMethod;
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentMethod;
+import com.tambo.tambo_delivery_backend.entities.ReceiptType;
+import com.tambo.tambo_delivery_backend.specification.OrderSpecification;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tambo_summary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class OrderSummaryRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 11);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserDetailRepository userDetailRepository;
+
+    private TimeZone defaultZone;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        // Una JVM fuera de UTC no debe mover ni los filtros ni la agrupación por día
+        defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Lima"));
+
+        user = userDetailRepository.save(User.builder()
+                .email("resumen-" + UUID.randomUUID() + "@tambo.pe")
+                .enabled(true)
+                .build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TimeZone.setDefault(defaultZone);
+    }
+
+    @Test
+    public void testDayFilterAndDayBucketsUseTheSameZone() {
+        // En Lima ambas son del 10 de marzo; en UTC la segunda ya es del 11
+        order("2026-03-10T23:30:00Z", 10.0);
+        order("2026-03-11T02:00:00Z", 25.0);
+
+        OrderExportFilter filter = OrderExportFilter.builder().from(DAY).to(DAY).build();
+        List<OrderDayTotalDTO> days = orderRepository.sumByDay(OrderSpecification.matches(filter));
+
+        assertEquals(1, orderRepository.count(OrderSpecification.matches(filter)));
+        assertEquals(1, days.size());
+        assertEquals(DAY, days.get(0).getDay());
+        assertEquals(1, days.get(0).getOrders());
+        assertEquals(25.0, days.get(0).getTotal());
+
+        List<OrderDayTotalDTO> all = orderRepository.sumByDay(OrderSpecification.matches(null));
+        assertEquals(List.of(DAY.minusDays(1), DAY), all.stream().map(OrderDayTotalDTO::getDay).toList());
+    }
+
+    private void order(String placedAt, double total) {
+        orderRepository.save(Order.builder()
+                .orderDate(Date.from(Instant.parse(placedAt)))
+                .user(user)
+                .deliveryMethod(DeliveryMethod.STORE)
+                .totalAmount(total)
+                .orderStatus(OrderStatus.PAID)
+                .paymentMethod(PaymentMethod.PAYPAL)
+                .receiptType(ReceiptType.BOLETA)
+                .docType("DNI")
+                .docNumber(12345678L)
+                .build());
+    }
+}
@@ -0,0 +1,151 @@
+package com.tambo.tambo_delivery_backend.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
+import com.tambo.tambo_delivery_backend.entities.Brand;
+import com.tambo.tambo_delivery_backend.entities.Category;
+import com.tambo.tambo_delivery_backend.entities.CategoryType;
+import com.tambo.tambo_delivery_backend.entities.Discount;
+import com.tambo.tambo_delivery_backend.entities.Product;
+import com.tambo.tambo_delivery_backend.entities.Resources;
+import com.tambo.tambo_delivery_backend.mapper.ProductMapper;
+import com.tambo.tambo_delivery_backend.specification.ProductSortOrder;
+import com.tambo.tambo_delivery_backend.specification.ProductSpecification;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tambo_catalog;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Sin carga por lotes: la prueba mide solo las consultas dedicadas del catálogo
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ProductRepositoryTest {
+
+    private static final int PRODUCT_COUNT = 60;
+
+    // producto + recursos + descuentos + tipos de categoría
+    private static final long MAX_CATALOG_STATEMENTS = 4;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        Brand brand = entityManager.persist(Brand.builder().name("Tambo").description("Marca propia").build());
+
+        List<Category> categories = new ArrayList<>();
+        List<CategoryType> types = new ArrayList<>();
+        for (int c = 0; c < 3; c++) {
+            Category category = entityManager.persist(Category.builder().name("Categoria " + c).build());
+            for (int t = 0; t < 2; t++) {
+                CategoryType type = entityManager.persist(CategoryType.builder()
+                        .name("Tipo " + c + "-" + t)
+                        .category(category)
+                        .build());
+                category.getCategoryTypes().add(type);
+                types.add(type);
+            }
+            categories.add(category);
+        }
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Product product = Product.builder()
+                    .slug("producto-" + i)
+                    .name("Producto " + i)
+                    .description("Descripción " + i)
+                    .price(BigDecimal.valueOf(10 + i))
+                    .stock(100)
+                    .brand(brand)
+                    .isNewArrival(i % 2 == 0)
+                    .category(categories.get(i % categories.size()))
+                    .categoryType(types.get(i % types.size()))
+                    .resources(new ArrayList<>())
+                    .discounts(new ArrayList<>())
+                    .build();
+            product.getResources().add(Resources.builder().name("principal").url("https://img/" + i)
+                    .isPrimary(true).type("image").product(product).build());
+            product.getResources().add(Resources.builder().name("detalle").url("https://img/" + i + "-2")
+                    .isPrimary(false).type("image").product(product).build());
+            products.add(entityManager.persist(product));
+        }
+
+        Discount discount = Discount.builder()
+                .name("Campaña")
+                .percentage(BigDecimal.TEN)
+                .startDate(LocalDate.now().minusDays(1))
+                .endDate(LocalDate.now().plusDays(1))
+                .isActive(true)
+                .products(products)
+                .build();
+        entityManager.persist(discount);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testCatalogStatementsAreBoundedRegardlessOfPageSize() {
+        long smallPage = countStatementsForPage(5);
+        long largePage = countStatementsForPage(PRODUCT_COUNT);
+
+        assertTrue(smallPage <= MAX_CATALOG_STATEMENTS,
+                "Una página pequeña no debería ejecutar más de " + MAX_CATALOG_STATEMENTS + " consultas");
+        assertEquals(smallPage, largePage,
+                "La cantidad de consultas no debería depender del tamaño de la página");
+    }
+
+    @Test
+    public void testCatalogLoadsEveryAssociationUsedByMapper() {
+        List<Product> products = productRepository.findAllForCatalog(Specification.unrestricted(),
+                ProductSortOrder.NEWEST.toSort(), 10);
+
+        ProductDTO dto = ProductMapper.toDTO(products.get(0));
+
+        assertEquals(2, dto.getResources().size(), "Debería mapear los recursos del producto");
+        assertEquals(1, dto.getDiscounts().size(), "Debería mapear los descuentos del producto");
+        assertEquals(2, dto.getCategory().getCategoryTypes().size(), "Debería mapear los tipos de la categoría");
+    }
+
+    private long countStatementsForPage(int pageSize) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<Product> products = productRepository.findAllForCatalog(
+                ProductSpecification.isActive(), ProductSortOrder.NEWEST.toSort(), pageSize);
+        products.forEach(ProductMapper::toDTO);
+
+        assertEquals(pageSize, products.size(), "Debería devolver la página completa");
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,68 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.tambo.tambo_delivery_backend.services.DiscountIndex.DiscountWindow;
+
+public class DiscountIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    private final UUID productId = UUID.randomUUID();
+
+    @Test
+    public void testHighestPercentageWins() {
+        DiscountIndex index = DiscountIndex.build(DAY, List.of(
+                window("Campaña", "10", DAY.minusDays(5), DAY.plusDays(5)),
+                window("Liquidación", "25", DAY, DAY),
+                window("Vencido", "50", DAY.minusDays(10), DAY.minusDays(1))));
+
+        assertEquals("Liquidación", index.find(productId, DAY).orElseThrow().name());
+        // Fuera del índice del día se recorren las ventanas
+        assertEquals("Campaña", index.find(productId, DAY.plusDays(1)).orElseThrow().name());
+        assertEquals("Vencido", index.find(productId, DAY.minusDays(1)).orElseThrow().name());
+        assertTrue(index.find(productId, DAY.plusDays(6)).isEmpty());
+        assertTrue(index.find(UUID.randomUUID(), DAY).isEmpty());
+    }
+
+    @Test
+    public void testWithProductsReplacesOnlyThoseProducts() {
+        UUID other = UUID.randomUUID();
+        DiscountIndex index = DiscountIndex.build(DAY, List.of(
+                window("Campaña", "10", DAY, DAY),
+                new DiscountWindow(other, UUID.randomUUID(), "Otro", new BigDecimal("5"), DAY, DAY)));
+
+        DiscountIndex patched = index.withProducts(List.of(productId),
+                List.of(window("Nuevo", "30", DAY, DAY)));
+
+        assertEquals("Nuevo", patched.find(productId, DAY).orElseThrow().name());
+        assertEquals("Otro", patched.find(other, DAY).orElseThrow().name());
+        assertEquals("Campaña", index.find(productId, DAY).orElseThrow().name(), "El índice anterior no cambia");
+    }
+
+    @Test
+    public void testPercentageIsRoundedToCents() {
+        assertEquals(new BigDecimal("10.00"), DiscountIndex.applyPercentage(new BigDecimal("10"), BigDecimal.ZERO));
+        assertEquals(new BigDecimal("10.00"), DiscountIndex.applyPercentage(new BigDecimal("10"), null));
+        // 9.99 - 1.4985 = 8.4915
+        assertEquals(new BigDecimal("8.49"),
+                DiscountIndex.applyPercentage(new BigDecimal("9.99"), new BigDecimal("15")));
+        // 0.05 - 0.025 = 0.025, la mitad sube
+        assertEquals(new BigDecimal("0.03"),
+                DiscountIndex.applyPercentage(new BigDecimal("0.05"), new BigDecimal("50")));
+        assertEquals(new BigDecimal("6.67"),
+                DiscountIndex.applyPercentage(new BigDecimal("10"), new BigDecimal("33.33")));
+    }
+
+    private DiscountWindow window(String name, String percentage, LocalDate start, LocalDate end) {
+        return new DiscountWindow(productId, UUID.randomUUID(), name, new BigDecimal(percentage), start, end);
+    }
+}
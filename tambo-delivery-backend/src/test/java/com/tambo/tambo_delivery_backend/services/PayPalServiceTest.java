@@ -0,0 +1,199 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentGatewayUnavailableEx;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// PayPal simulado con un servidor HTTP local al que se le puede inyectar
+// demora y errores 5xx
+public class PayPalServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    private volatile String orderStatus = "APPROVED";
+    private volatile int serverErrorsLeft;
+    private volatile long delayMillis;
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private final CountDownLatch requestArrived = new CountDownLatch(1);
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private ExecutorService clientThreads;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        serverThreads = Executors.newCachedThreadPool();
+        clientThreads = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverThreads);
+        server.createContext("/v1/oauth2/token",
+                exchange -> respond(exchange, "token", 200, "{\"access_token\":\"T\",\"expires_in\":3600}"));
+        server.createContext("/v2/checkout/orders/", this::handleOrder);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+        clientThreads.shutdownNow();
+    }
+
+    @Test
+    public void testCapturesApprovedOrderAndReusesToken() throws Exception {
+        PayPalService paypal = newService(Duration.ofSeconds(5), 20, 5);
+
+        PayPalOrder first = paypal.captureOrder("ORDER-1");
+        orderStatus = "APPROVED";
+        PayPalOrder second = paypal.captureOrder("ORDER-2");
+
+        assertEquals("ORDER-1", first.id());
+        assertEquals("COMPLETED", first.status());
+        assertEquals("ORDER-2", second.id());
+        assertEquals(1, count("token"), "El token debería pedirse una sola vez");
+        assertEquals(2, count("capture"));
+
+        Timer timer = meterRegistry.find("paypal.request")
+                .tags("operation", "capture", "outcome", "success").timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    public void testCompletedOrderIsNotCapturedAgain() throws Exception {
+        orderStatus = "COMPLETED";
+        PayPalService paypal = newService(Duration.ofSeconds(5), 20, 5);
+
+        PayPalOrder order = paypal.captureOrder("ORDER-1");
+
+        assertEquals("COMPLETED", order.status());
+        assertEquals(0, count("capture"));
+    }
+
+    @Test
+    public void testSlowResponseTimesOut() throws Exception {
+        PayPalService paypal = newService(Duration.ofMillis(300), 20, 5);
+        delayMillis = 2_000;
+
+        long start = System.nanoTime();
+        assertThrows(IOException.class, () -> paypal.captureOrder("ORDER-1"));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsed < 1_500, "La llamada debería cortarse por el timeout de respuesta: " + elapsed + " ms");
+    }
+
+    @Test
+    public void testCircuitOpensAfterConsecutiveFailures() throws Exception {
+        PayPalService paypal = newService(Duration.ofSeconds(5), 20, 3);
+        serverErrorsLeft = Integer.MAX_VALUE;
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IOException.class, () -> paypal.captureOrder("ORDER-1"));
+        }
+        int before = count("get_order");
+        assertThrows(PaymentGatewayUnavailableEx.class, () -> paypal.captureOrder("ORDER-1"));
+
+        assertEquals(before, count("get_order"), "Con el circuito abierto no debería llamarse a PayPal");
+        assertEquals(1.0, meterRegistry.counter("paypal.rejected", "reason", "circuit_open").count());
+    }
+
+    @Test
+    public void testBulkheadRejectsWhenAllPermitsAreBusy() throws Exception {
+        PayPalService paypal = newService(Duration.ofSeconds(5), 1, 5);
+        release = new CountDownLatch(1);
+
+        CompletableFuture<PayPalOrder> first = paypal.captureOrderAsync("ORDER-1");
+        assertTrue(requestArrived.await(5, TimeUnit.SECONDS));
+
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> paypal.captureOrderAsync("ORDER-2").get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PaymentGatewayUnavailableEx.class, rejected.getCause());
+
+        release.countDown();
+        assertEquals("COMPLETED", first.get(5, TimeUnit.SECONDS).status());
+        assertEquals(1.0, meterRegistry.counter("paypal.rejected", "reason", "bulkhead_full").count());
+    }
+
+    private PayPalService newService(Duration readTimeout, int maxConcurrentCalls, int failureThreshold) {
+        return new PayPalService("client", "secret", "sandbox",
+                "http://127.0.0.1:" + server.getAddress().getPort(),
+                Duration.ofSeconds(2), readTimeout, Duration.ofSeconds(10),
+                maxConcurrentCalls, Duration.ofMillis(50),
+                failureThreshold, Duration.ofMinutes(1),
+                clientThreads, new ObjectMapper(), meterRegistry);
+    }
+
+    private void handleOrder(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String id = path.substring("/v2/checkout/orders/".length()).replace("/capture", "");
+        boolean capture = path.endsWith("/capture");
+
+        requestArrived.countDown();
+        try {
+            if (!release.await(10, TimeUnit.SECONDS)) {
+                throw new IOException("La prueba no liberó la respuesta");
+            }
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (serverErrorsLeft > 0) {
+            serverErrorsLeft--;
+            respond(exchange, capture ? "capture" : "get_order", 500, "{}");
+            return;
+        }
+        if (capture) {
+            orderStatus = "COMPLETED";
+        }
+        respond(exchange, capture ? "capture" : "get_order", 200,
+                "{\"id\":\"" + id + "\",\"status\":\"" + orderStatus + "\"}");
+    }
+
+    private void respond(HttpExchange exchange, String operation, int status, String body) throws IOException {
+        requests.computeIfAbsent(operation, key -> new AtomicInteger()).incrementAndGet();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private int count(String operation) {
+        AtomicInteger count = requests.get(operation);
+        return count == null ? 0 : count.get();
+    }
+}
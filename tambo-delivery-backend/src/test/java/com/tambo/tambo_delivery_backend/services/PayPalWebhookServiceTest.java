@@ -0,0 +1,209 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PayPalWebhookEvent;
+import com.tambo.tambo_delivery_backend.entities.PayPalWebhookEventStatus;
+import com.tambo.tambo_delivery_backend.repositories.PayPalWebhookEventRepository;
+import com.tambo.tambo_delivery_backend.repositories.PaymentConfirmationRepository;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tambo_webhooks;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Los eventos y las confirmaciones se guardan en sus propias transacciones
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PayPalWebhookServiceTest {
+
+    private static final PayPalWebhookSignature SIGNATURE = new PayPalWebhookSignature("transmission-1",
+            "2026-01-01T00:00:00Z", "firma", "https://api.paypal.com/cert", "SHA256withRSA");
+
+    @Autowired
+    private PayPalWebhookEventRepository webhookEventRepository;
+
+    @Autowired
+    private PaymentConfirmationRepository confirmationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StubPayPalService paypal;
+    private OrderService orderService;
+    private PaymentConfirmationService confirmationService;
+    private PayPalWebhookService service;
+    private UUID orderId;
+    private String paypalOrderId;
+
+    @BeforeEach
+    public void setUp() {
+        paypal = new StubPayPalService();
+        orderService = mock(OrderService.class);
+        confirmationService = new PaymentConfirmationService(confirmationRepository, paypal, orderService,
+                mock(StockReservationService.class), Runnable::run, transactionManager, Duration.ofMinutes(2));
+        service = new PayPalWebhookService(webhookEventRepository, confirmationRepository, confirmationService,
+                paypal, new ObjectMapper(), mock(ApplicationEventPublisher.class),
+                mock(ThreadPoolTaskExecutor.class), transactionManager, "WEBHOOK-ID", 3,
+                Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofMinutes(5), 20, 4096);
+
+        orderId = UUID.randomUUID();
+        paypalOrderId = "PAYPAL-" + UUID.randomUUID().toString().substring(0, 8);
+        when(orderService.getOrderById(orderId))
+                .thenReturn(Order.builder().id(orderId).orderStatus(OrderStatus.PENDING).build());
+    }
+
+    @Test
+    public void testRedeliveredEventIsStoredOnce() {
+        String eventId = "WH-" + UUID.randomUUID();
+
+        assertTrue(service.receive(captureCompleted(eventId), SIGNATURE));
+        assertFalse(service.receive(captureCompleted(eventId), SIGNATURE));
+
+        assertEquals(1, webhookEventRepository.findAll().stream()
+                .filter(event -> event.getEventId().equals(eventId)).count());
+    }
+
+    @Test
+    public void testUnsignedOrOversizedEventsAreNotStored() {
+        PayPalWebhookSignature unsigned = new PayPalWebhookSignature(null, null, null, null, null);
+        long stored = webhookEventRepository.count();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.receive(captureCompleted("WH-" + UUID.randomUUID()), unsigned));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.receive("{\"id\":\"WH-1\",\"relleno\":\"" + "x".repeat(5000) + "\"}", SIGNATURE));
+
+        assertEquals(stored, webhookEventRepository.count());
+    }
+
+    // Un evento falso que llegó primero con el id de uno real no lo bloquea
+    @Test
+    public void testRejectedEventDoesNotBlockTheGenuineOne() {
+        String eventId = "WH-" + UUID.randomUUID();
+        paypal.rejectSignatures();
+        PayPalWebhookEvent forged = receive(captureCompleted(eventId));
+        service.process(forged.getId());
+        assertEquals(PayPalWebhookEventStatus.REJECTED, reload(forged).getStatus());
+
+        paypal.acceptSignatures();
+        PayPalWebhookEvent genuine = receive(captureCompleted(eventId));
+        service.process(genuine.getId());
+
+        assertEquals(PayPalWebhookEventStatus.PROCESSED, reload(genuine).getStatus());
+        verify(orderService, times(1)).updateOrderStatus(orderId, OrderStatus.PAID, paypalOrderId);
+    }
+
+    @Test
+    public void testCaptureEventMarksOrderPaidWithoutCallingCapture() {
+        PayPalWebhookEvent event = receive(captureCompleted("WH-" + UUID.randomUUID()));
+
+        service.process(event.getId());
+
+        assertEquals(PayPalWebhookEventStatus.PROCESSED, reload(event).getStatus());
+        verify(orderService, times(1)).updateOrderStatus(orderId, OrderStatus.PAID, paypalOrderId);
+        assertEquals(0, paypal.getCaptures(), "El webhook ya informa la captura");
+    }
+
+    @Test
+    public void testCaptureEventAfterBrowserConfirmationDoesNotPayTwice() {
+        confirmationService.confirm(orderId, paypalOrderId);
+        PayPalWebhookEvent event = receive(captureCompleted("WH-" + UUID.randomUUID()));
+
+        service.process(event.getId());
+
+        assertEquals(PayPalWebhookEventStatus.PROCESSED, reload(event).getStatus());
+        verify(orderService, times(1)).updateOrderStatus(eq(orderId), eq(OrderStatus.PAID), any());
+    }
+
+    @Test
+    public void testApprovedOrderIsCapturedWhenTheBrowserNeverConfirms() {
+        PayPalWebhookEvent event = receive(orderApproved("WH-" + UUID.randomUUID()));
+
+        service.process(event.getId());
+
+        assertEquals(PayPalWebhookEventStatus.PROCESSED, reload(event).getStatus());
+        assertEquals(1, paypal.getCaptures());
+        verify(orderService, times(1)).updateOrderStatus(orderId, OrderStatus.PAID, "CAPTURE-" + paypalOrderId);
+    }
+
+    @Test
+    public void testEventWithInvalidSignatureIsRejected() {
+        paypal.rejectSignatures();
+        PayPalWebhookEvent event = receive(captureCompleted("WH-" + UUID.randomUUID()));
+
+        service.process(event.getId());
+
+        assertEquals(PayPalWebhookEventStatus.REJECTED, reload(event).getStatus());
+        verify(orderService, never()).updateOrderStatus(any(), any(), any());
+    }
+
+    @Test
+    public void testEventWithUnknownOrderIsRetried() {
+        orderId = null;
+        PayPalWebhookEvent event = receive(captureCompleted("WH-" + UUID.randomUUID()));
+
+        service.process(event.getId());
+
+        PayPalWebhookEvent failed = reload(event);
+        assertEquals(PayPalWebhookEventStatus.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getNextAttemptAt().after(failed.getReceivedAt()));
+    }
+
+    private PayPalWebhookEvent receive(String payload) {
+        assertTrue(service.receive(payload, SIGNATURE));
+        String eventId = payload.substring(payload.indexOf("\"id\":\"") + 6, payload.indexOf("\","));
+        return webhookEventRepository.findAll().stream()
+                .filter(event -> event.getEventId().equals(eventId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private PayPalWebhookEvent reload(PayPalWebhookEvent event) {
+        return webhookEventRepository.findById(event.getId()).orElseThrow();
+    }
+
+    private String captureCompleted(String eventId) {
+        return "{\"id\":\"" + eventId + "\",\"event_type\":\"PAYMENT.CAPTURE.COMPLETED\",\"resource\":{"
+                + "\"id\":\"CAPTURE-1\",\"status\":\"COMPLETED\""
+                + (orderId != null ? ",\"custom_id\":\"" + orderId + "\"" : "")
+                + ",\"supplementary_data\":{\"related_ids\":{\"order_id\":\"" + paypalOrderId + "\"}}}}";
+    }
+
+    private String orderApproved(String eventId) {
+        return "{\"id\":\"" + eventId + "\",\"event_type\":\"CHECKOUT.ORDER.APPROVED\",\"resource\":{"
+                + "\"id\":\"" + paypalOrderId + "\",\"status\":\"APPROVED\","
+                + "\"purchase_units\":[{\"reference_id\":\"default\",\"custom_id\":\"" + orderId + "\"}]}}";
+    }
+}
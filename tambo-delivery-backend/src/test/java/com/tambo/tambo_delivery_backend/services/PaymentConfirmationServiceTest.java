@@ -0,0 +1,169 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentConfirmation;
+import com.tambo.tambo_delivery_backend.entities.PaymentConfirmationStatus;
+import com.tambo.tambo_delivery_backend.exceptions.InsufficientStockEx;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentUnfulfilledEx;
+import com.tambo.tambo_delivery_backend.repositories.PaymentConfirmationRepository;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tambo_payments;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Las claves de idempotencia se confirman en sus propias transacciones
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PaymentConfirmationServiceTest {
+
+    private static final int CALLERS = 10;
+
+    @Autowired
+    private PaymentConfirmationRepository confirmationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StubPayPalService paypal;
+    private OrderService orderService;
+    private StockReservationService stockReservationService;
+    private PaymentConfirmationService service;
+    private UUID orderId;
+    private String paypalOrderId;
+
+    @BeforeEach
+    public void setUp() {
+        paypal = new StubPayPalService();
+        orderService = mock(OrderService.class);
+        stockReservationService = mock(StockReservationService.class);
+        service = new PaymentConfirmationService(confirmationRepository, paypal, orderService,
+                stockReservationService, Runnable::run, transactionManager,
+                Duration.ofMinutes(2));
+
+        orderId = UUID.randomUUID();
+        paypalOrderId = "PAYPAL-" + UUID.randomUUID();
+        when(orderService.getOrderById(orderId))
+                .thenReturn(Order.builder().id(orderId).orderStatus(OrderStatus.PENDING).build());
+    }
+
+    @Test
+    public void testConcurrentConfirmationsShareOneCapture() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        paypal.holdCaptures();
+
+        List<Future<PaymentConfirmationResult>> results = new ArrayList<>();
+        results.add(pool.submit(() -> service.confirm(orderId, paypalOrderId)));
+        assertTrue(paypal.awaitCaptureStarted(), "La primera confirmación debería llegar a PayPal");
+
+        // El resto llega mientras la captura está en curso (doble clic, reintentos)
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(pool.submit(() -> service.confirm(orderId, paypalOrderId)));
+        }
+        Thread.sleep(200);
+        paypal.releaseCaptures();
+
+        for (Future<PaymentConfirmationResult> result : results) {
+            assertEquals("CAPTURE-" + paypalOrderId, result.get(30, TimeUnit.SECONDS).transactionId());
+        }
+        pool.shutdown();
+
+        assertEquals(1, paypal.getCaptures(), "PayPal debería recibir una sola captura");
+        verify(orderService, times(1)).updateOrderStatus(orderId, OrderStatus.PAID, "CAPTURE-" + paypalOrderId);
+        PaymentConfirmation confirmation = confirmationRepository.findById(paypalOrderId).orElseThrow();
+        assertEquals(PaymentConfirmationStatus.SUCCEEDED, confirmation.getStatus());
+    }
+
+    @Test
+    public void testRetryAfterSuccessReturnsStoredResult() {
+        PaymentConfirmationResult first = service.confirm(orderId, paypalOrderId);
+        PaymentConfirmationResult retry = service.confirm(orderId, paypalOrderId);
+
+        assertEquals(first.transactionId(), retry.transactionId());
+        assertEquals("La orden ya estaba pagada", retry.message());
+        assertEquals(1, paypal.getCaptures(), "El reintento no debería volver a llamar a PayPal");
+    }
+
+    @Test
+    public void testFailedCaptureCanBeRetried() {
+        paypal.failNext(1);
+
+        assertThrows(RuntimeException.class, () -> service.confirm(orderId, paypalOrderId));
+        assertEquals(PaymentConfirmationStatus.FAILED,
+                confirmationRepository.findById(paypalOrderId).orElseThrow().getStatus());
+
+        PaymentConfirmationResult retry = service.confirm(orderId, paypalOrderId);
+
+        assertEquals("CAPTURE-" + paypalOrderId, retry.transactionId());
+        assertEquals(2, paypal.getCaptures());
+    }
+
+    @Test
+    public void testStockShortageRefusesBeforeCapture() {
+        doThrow(new InsufficientStockEx("Stock insuficiente para el producto: Papas"))
+                .when(stockReservationService).holdForPayment(orderId);
+
+        assertThrows(InsufficientStockEx.class, () -> service.confirm(orderId, paypalOrderId));
+
+        assertEquals(0, paypal.getCaptures(), "No se cobra una orden que no se puede entregar");
+        assertTrue(confirmationRepository.findById(paypalOrderId).isEmpty());
+        verify(orderService, never()).updateOrderStatus(any(), any(), any());
+    }
+
+    @Test
+    public void testOrderThatCannotBeCompletedAfterCaptureIsNotRetried() {
+        doThrow(new InsufficientStockEx("Stock insuficiente para completar la orden"))
+                .when(orderService).updateOrderStatus(orderId, OrderStatus.PAID, "CAPTURE-" + paypalOrderId);
+
+        assertThrows(PaymentUnfulfilledEx.class, () -> service.confirm(orderId, paypalOrderId));
+        PaymentConfirmation confirmation = confirmationRepository.findById(paypalOrderId).orElseThrow();
+        assertEquals(PaymentConfirmationStatus.CAPTURED_UNFULFILLED, confirmation.getStatus());
+        assertEquals("CAPTURE-" + paypalOrderId, confirmation.getTransactionId());
+
+        // Ya se cobró: el reintento no vuelve a capturar ni a marcar la orden
+        assertThrows(PaymentUnfulfilledEx.class, () -> service.confirm(orderId, paypalOrderId));
+        assertEquals(1, paypal.getCaptures());
+        verify(orderService, times(1)).updateOrderStatus(any(), any(), any());
+    }
+
+    @Test
+    public void testPaymentCannotBeReusedForAnotherOrder() {
+        service.confirm(orderId, paypalOrderId);
+
+        assertThrows(IllegalArgumentException.class, () -> service.confirm(UUID.randomUUID(), paypalOrderId));
+        assertEquals(1, paypal.getCaptures());
+    }
+}
@@ -0,0 +1,198 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+import com.tambo.tambo_delivery_backend.auth.repositories.UserDetailRepository;
+import com.tambo.tambo_delivery_backend.entities.DeliveryMethod;
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentConfirmation;
+import com.tambo.tambo_delivery_backend.entities.PaymentConfirmationStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentMethod;
+import com.tambo.tambo_delivery_backend.entities.ReceiptType;
+import com.tambo.tambo_delivery_backend.exceptions.PaymentGatewayUnavailableEx;
+import com.tambo.tambo_delivery_backend.repositories.OrderRepository;
+import com.tambo.tambo_delivery_backend.repositories.PaymentConfirmationRepository;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tambo_reconcile;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// La consulta de pendientes corre en su propia transacción de solo lectura
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PaymentReconciliationServiceTest {
+
+    private static final Duration STALE_AFTER = Duration.ofMinutes(10);
+    private static final Duration MAX_AGE = Duration.ofHours(24);
+
+    @Autowired
+    private PaymentConfirmationRepository confirmationRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserDetailRepository userDetailRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private PaymentConfirmationService confirmationService;
+    private List<Runnable> submitted;
+    private PaymentReconciliationService service;
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        confirmationRepository.deleteAll();
+        orderRepository.deleteAll();
+        confirmationService = mock(PaymentConfirmationService.class);
+        submitted = new ArrayList<>();
+        TaskExecutor executor = submitted::add;
+        service = new PaymentReconciliationService(orderRepository, confirmationService, executor,
+                transactionManager, STALE_AFTER, MAX_AGE, 50);
+
+        user = userDetailRepository.save(User.builder()
+                .email("cliente-" + UUID.randomUUID() + "@tambo.pe")
+                .enabled(true)
+                .build());
+    }
+
+    @Test
+    public void testOnlyStalePendingConfirmationsAreRetried() {
+        long now = System.currentTimeMillis();
+        PaymentConfirmation stale = confirmation(OrderStatus.PENDING, PaymentConfirmationStatus.FAILED,
+                now - Duration.ofHours(1).toMillis(), now - Duration.ofMinutes(30).toMillis());
+        confirmation(OrderStatus.PENDING, PaymentConfirmationStatus.IN_PROGRESS,
+                now - Duration.ofMinutes(2).toMillis(), now - Duration.ofMinutes(1).toMillis());
+        confirmation(OrderStatus.PENDING, PaymentConfirmationStatus.FAILED,
+                now - Duration.ofDays(2).toMillis(), now - Duration.ofDays(1).toMillis());
+        confirmation(OrderStatus.PAID, PaymentConfirmationStatus.FAILED,
+                now - Duration.ofHours(1).toMillis(), now - Duration.ofMinutes(30).toMillis());
+
+        service.reconcile();
+
+        // El hilo programado solo encola; la captura corre en el pool
+        verify(confirmationService, never()).confirm(any(), anyString());
+        assertEquals(1, submitted.size());
+
+        submitted.forEach(Runnable::run);
+
+        verify(confirmationService, times(1)).confirm(stale.getOrderId(), stale.getPaypalOrderId());
+    }
+
+    // El navegador se cortó o el pago se rechazó antes de crear la confirmación:
+    // la orden igual tiene su orden de PayPal y se retoma
+    @Test
+    public void testPendingOrderWithoutConfirmationIsRetried() {
+        long now = System.currentTimeMillis();
+        Order order = order(OrderStatus.PENDING, now - Duration.ofHours(1).toMillis(), "PAYPAL-SIN-CONFIRMAR");
+        order(OrderStatus.PENDING, now - Duration.ofHours(1).toMillis(), null);
+
+        service.reconcile();
+        submitted.forEach(Runnable::run);
+
+        assertEquals(1, submitted.size());
+        verify(confirmationService, times(1)).confirm(order.getId(), "PAYPAL-SIN-CONFIRMAR");
+    }
+
+    @Test
+    public void testCapturedButUnfulfilledPaymentIsNotRetried() {
+        long now = System.currentTimeMillis();
+        confirmation(OrderStatus.PENDING, PaymentConfirmationStatus.CAPTURED_UNFULFILLED,
+                now - Duration.ofHours(1).toMillis(), now - Duration.ofMinutes(30).toMillis());
+
+        service.reconcile();
+
+        assertEquals(0, submitted.size());
+    }
+
+    @Test
+    public void testQueuedConfirmationIsNotSubmittedTwice() {
+        long now = System.currentTimeMillis();
+        confirmation(OrderStatus.PENDING, PaymentConfirmationStatus.FAILED,
+                now - Duration.ofHours(1).toMillis(), now - Duration.ofMinutes(30).toMillis());
+
+        service.reconcile();
+        service.reconcile();
+        assertEquals(1, submitted.size(), "Sigue en cola desde la pasada anterior");
+
+        submitted.forEach(Runnable::run);
+        service.reconcile();
+        assertEquals(2, submitted.size());
+    }
+
+    @Test
+    public void testGatewayOutageSkipsTheRestOfThePass() {
+        long now = System.currentTimeMillis();
+        PaymentConfirmation first = confirmation(OrderStatus.PENDING, PaymentConfirmationStatus.FAILED,
+                now - Duration.ofHours(2).toMillis(), now - Duration.ofMinutes(50).toMillis());
+        PaymentConfirmation second = confirmation(OrderStatus.PENDING, PaymentConfirmationStatus.FAILED,
+                now - Duration.ofHours(1).toMillis(), now - Duration.ofMinutes(30).toMillis());
+        doThrow(new PaymentGatewayUnavailableEx("PayPal no responde"))
+                .when(confirmationService).confirm(first.getOrderId(), first.getPaypalOrderId());
+
+        service.reconcile();
+        submitted.forEach(Runnable::run);
+
+        verify(confirmationService, times(1)).confirm(first.getOrderId(), first.getPaypalOrderId());
+        verify(confirmationService, never()).confirm(second.getOrderId(), second.getPaypalOrderId());
+    }
+
+    private PaymentConfirmation confirmation(OrderStatus orderStatus, PaymentConfirmationStatus status,
+            long createdAt, long updatedAt) {
+        String paypalOrderId = "PAYPAL-" + UUID.randomUUID().toString().substring(0, 8);
+        Order order = order(orderStatus, createdAt, paypalOrderId);
+        return confirmationRepository.save(PaymentConfirmation.builder()
+                .paypalOrderId(paypalOrderId)
+                .orderId(order.getId())
+                .status(status)
+                .createdAt(new Date(createdAt))
+                .updatedAt(new Date(updatedAt))
+                .build());
+    }
+
+    private Order order(OrderStatus orderStatus, long createdAt, String paypalOrderId) {
+        return orderRepository.save(Order.builder()
+                .orderDate(new Date(createdAt))
+                .paypalOrderId(paypalOrderId)
+                .user(user)
+                .deliveryMethod(DeliveryMethod.STORE)
+                .totalAmount(25.0)
+                .orderStatus(orderStatus)
+                .paymentMethod(PaymentMethod.PAYPAL)
+                .receiptType(ReceiptType.BOLETA)
+                .docType("DNI")
+                .docNumber(12345678L)
+                .build());
+    }
+}
@@ -0,0 +1,138 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.tambo.tambo_delivery_backend.dto.request.OrderItemRequest;
+import com.tambo.tambo_delivery_backend.dto.response.CartLineDTO;
+import com.tambo.tambo_delivery_backend.dto.response.CartPriceDTO;
+import com.tambo.tambo_delivery_backend.entities.Product;
+import com.tambo.tambo_delivery_backend.repositories.DiscountRepository;
+import com.tambo.tambo_delivery_backend.repositories.ProductRepository;
+
+public class PricingServiceTest {
+
+    private DiscountRepository discountRepository;
+    private ProductRepository productRepository;
+    private PricingService pricingService;
+
+    private Product soda;
+    private Product chips;
+
+    @BeforeEach
+    public void setUp() {
+        discountRepository = mock(DiscountRepository.class);
+        productRepository = mock(ProductRepository.class);
+        CatalogReadModel catalogReadModel = mock(CatalogReadModel.class);
+        when(catalogReadModel.current()).thenReturn(Optional.empty());
+        pricingService = new PricingService(discountRepository, productRepository, catalogReadModel,
+                mock(PlatformTransactionManager.class));
+
+        soda = product("Gaseosa", "4.99");
+        chips = product("Papas", "3.35");
+        when(productRepository.findAllById(any())).thenReturn(List.of(soda, chips));
+    }
+
+    @Test
+    public void testHighestPercentageDiscountApplies() {
+        LocalDate today = LocalDate.now();
+        discounts(
+                window(soda, "Campaña", "10", today.minusDays(1), today.plusDays(1)),
+                window(soda, "Liquidación", "20", today.minusDays(1), today.plusDays(1)),
+                window(chips, "Futuro", "50", today.plusDays(2), today.plusDays(3)));
+
+        CartPriceDTO price = pricingService.priceCart(List.of(item(soda, 1), item(chips, 1)));
+
+        CartLineDTO sodaLine = price.getLines().get(0);
+        assertEquals("Liquidación", sodaLine.getDiscountName());
+        assertEquals(new BigDecimal("20"), sodaLine.getDiscountPercentage());
+        // 4.99 - 0.998 = 3.992
+        assertEquals(new BigDecimal("3.99"), sodaLine.getDiscountedUnitPrice());
+
+        CartLineDTO chipsLine = price.getLines().get(1);
+        assertEquals(null, chipsLine.getDiscountName(), "El descuento todavía no empieza");
+        assertEquals(new BigDecimal("3.35"), chipsLine.getDiscountedUnitPrice());
+    }
+
+    @Test
+    public void testTotalsAddRoundedLines() {
+        LocalDate today = LocalDate.now();
+        discounts(window(chips, "Campaña", "15", today.minusDays(1), today.plusDays(1)));
+
+        CartPriceDTO price = pricingService.priceCart(List.of(item(soda, 3), item(chips, 3)));
+
+        // Papas: 3.35 - 0.5025 = 2.8475 -> 2.85 por unidad, antes de multiplicar
+        assertEquals(new BigDecimal("2.85"), price.getLines().get(1).getDiscountedUnitPrice());
+        assertEquals(new BigDecimal("8.55"), price.getLines().get(1).getLineTotal());
+        assertEquals(new BigDecimal("25.02"), price.getSubtotal());
+        assertEquals(new BigDecimal("23.52"), price.getTotal());
+        assertEquals(new BigDecimal("1.50"), price.getDiscount());
+        assertEquals(price.getSubtotal(), price.getTotal().add(price.getDiscount()));
+    }
+
+    @Test
+    public void testOrderAndCartAgree() {
+        LocalDate today = LocalDate.now();
+        discounts(
+                window(soda, "Campaña", "12.5", today.minusDays(1), today.plusDays(1)),
+                window(chips, "Campaña", "7", today.minusDays(1), today.plusDays(1)));
+        List<OrderItemRequest> items = List.of(item(soda, 2), item(chips, 5), item(soda, 1));
+
+        CartPriceDTO cart = pricingService.priceCart(items);
+        CartPriceDTO order = pricingService.priceOrder(items, Map.of(soda.getId(), soda, chips.getId(), chips));
+
+        assertEquals(cart, order, "Lo que ve el carrito es lo que se cobra en la orden");
+        assertEquals(3, order.getLines().size(), "Una línea por item recibido, en el mismo orden");
+    }
+
+    @Test
+    public void testInvalidItemsAreRejected() {
+        discounts();
+
+        assertThrows(IllegalArgumentException.class, () -> pricingService.priceCart(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> pricingService.priceCart(List.of(item(soda, 0))));
+        assertThrows(IllegalArgumentException.class, () -> pricingService.priceOrder(
+                List.of(OrderItemRequest.builder().quantity(1).build()), Map.of()));
+    }
+
+    private void discounts(Object[]... rows) {
+        List<Object[]> windows = new ArrayList<>(List.of(rows));
+        when(discountRepository.findDiscountWindows(any())).thenReturn(windows);
+        pricingService.rebuild();
+    }
+
+    private static Object[] window(Product product, String name, String percentage, LocalDate start,
+            LocalDate end) {
+        return new Object[] { product.getId(), UUID.randomUUID(), name, new BigDecimal(percentage), start, end };
+    }
+
+    private static Product product(String name, String price) {
+        return Product.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .price(new BigDecimal(price))
+                .build();
+    }
+
+    private static OrderItemRequest item(Product product, int quantity) {
+        return OrderItemRequest.builder()
+                .productId(product.getId())
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.tambo.tambo_delivery_backend.dto.response.ProductDTO;
+
+public class ProductSearchIndexTest {
+
+    @Test
+    public void testTyposAreMatched() {
+        ProductSearchIndex index = ProductSearchIndex.build(List.of(
+                product("Leche Gloria"),
+                product("Chocolate Sublime"),
+                product("Pan de molde")));
+
+        // Error en la primera letra
+        assertEquals(List.of("Leche Gloria"), names(index.search("keche")));
+        // Dos errores en una palabra larga
+        assertEquals(List.of("Chocolate Sublime"), names(index.search("chcolatte")));
+        // Las palabras cortas deben escribirse bien
+        assertTrue(index.search("pam").isEmpty());
+        assertEquals(List.of("Pan de molde"), names(index.search("pan")));
+    }
+
+    // El filtro por largo y bigramas no debe perder ningún término que la
+    // distancia de Levenshtein aceptaría
+    @Test
+    public void testFuzzyMatchesAgreeWithFullScan() {
+        Random random = new Random(42);
+        List<ProductDTO> products = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            products.add(product(word(random, 3 + random.nextInt(8))));
+        }
+        ProductSearchIndex index = ProductSearchIndex.build(products);
+
+        for (int i = 0; i < 300; i++) {
+            String query = i % 2 == 0
+                    ? mutate(random, products.get(random.nextInt(products.size())).getName())
+                    : word(random, 4 + random.nextInt(7));
+            int maxEdits = query.length() >= 8 ? 2 : query.length() >= 4 ? 1 : 0;
+
+            Set<String> expected = products.stream()
+                    .map(ProductDTO::getName)
+                    .filter(name -> name.startsWith(query) || levenshtein(query, name) <= maxEdits)
+                    .collect(Collectors.toSet());
+
+            assertEquals(expected, Set.copyOf(names(index.search(query))), query);
+        }
+    }
+
+    // Un pago solo cambia el stock: el índice se reutiliza pero devuelve los productos nuevos
+    @Test
+    public void testStockChangeKeepsIndexWithUpdatedProducts() {
+        ProductDTO milk = product("Leche Gloria");
+        ProductDTO bread = product("Pan de molde");
+        CatalogSnapshot snapshot = CatalogSnapshot.of(1, "test", List.of(milk, bread));
+        snapshot.getSearchIndex();
+
+        ProductDTO sold = copy(milk, milk.getName(), 3);
+        CatalogSnapshot patched = snapshot.withChanges(2, "test", List.of(sold), Set.of());
+        assertEquals(3, patched.getSearchIndex().search("leche").get(0).getStock());
+        assertEquals(10, snapshot.getSearchIndex().search("leche").get(0).getStock(), "La versión anterior no cambia");
+
+        ProductDTO renamed = copy(milk, "Yogurt Gloria", 3);
+        CatalogSnapshot reindexed = patched.withChanges(3, "test", List.of(renamed), Set.of());
+        assertNotSame(patched.getSearchIndex(), reindexed.getSearchIndex());
+        assertTrue(reindexed.getSearchIndex().search("leche").isEmpty());
+        assertEquals(List.of("Yogurt Gloria"), names(reindexed.getSearchIndex().search("yogurt")));
+    }
+
+    private static ProductDTO product(String name) {
+        return ProductDTO.builder().id(UUID.randomUUID()).name(name).slug(name).stock(10).createdAt(new Date())
+                .build();
+    }
+
+    private static ProductDTO copy(ProductDTO product, String name, int stock) {
+        return ProductDTO.builder().id(product.getId()).name(name).slug(product.getSlug()).stock(stock)
+                .createdAt(product.getCreatedAt()).build();
+    }
+
+    private static List<String> names(List<ProductDTO> products) {
+        return products.stream().map(ProductDTO::getName).toList();
+    }
+
+    // Alfabeto chico para que haya muchos términos cercanos entre sí
+    private static String word(Random random, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append("abcdelmo".charAt(random.nextInt(8)));
+        }
+        return word.toString();
+    }
+
+    private static String mutate(Random random, String word) {
+        StringBuilder mutated = new StringBuilder(word);
+        int edits = 1 + random.nextInt(2);
+        for (int i = 0; i < edits && mutated.length() > 1; i++) {
+            int position = random.nextInt(mutated.length());
+            switch (random.nextInt(3)) {
+                case 0 -> mutated.deleteCharAt(position);
+                case 1 -> mutated.insert(position, "abcdelmo".charAt(random.nextInt(8)));
+                default -> mutated.setCharAt(position, "abcdelmo".charAt(random.nextInt(8)));
+            }
+        }
+        return mutated.toString();
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] distance = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    distance[i][j] = i + j;
+                } else {
+                    int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    distance[i][j] = Math.min(Math.min(distance[i - 1][j] + 1, distance[i][j - 1] + 1),
+                            distance[i - 1][j - 1] + cost);
+                }
+            }
+        }
+        return distance[a.length()][b.length()];
+    }
+}
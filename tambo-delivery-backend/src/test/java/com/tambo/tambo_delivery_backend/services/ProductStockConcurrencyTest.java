@@ -0,0 +1,221 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+import com.tambo.tambo_delivery_backend.entities.Brand;
+import com.tambo.tambo_delivery_backend.entities.Category;
+import com.tambo.tambo_delivery_backend.entities.DeliveryMethod;
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderItem;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentMethod;
+import com.tambo.tambo_delivery_backend.entities.Product;
+import com.tambo.tambo_delivery_backend.entities.ReceiptType;
+import com.tambo.tambo_delivery_backend.exceptions.InsufficientStockEx;
+import com.tambo.tambo_delivery_backend.mapper.ProductMapper;
+import com.tambo.tambo_delivery_backend.repositories.ProductRepository;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tambo_stock;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ OrderService.class, StockReservationService.class, StockReservationIndex.class })
+// Cada pago corre en su propia transacción confirmada, como en producción
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProductStockConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 100;
+    private static final int ORDER_COUNT = 300;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @MockitoBean
+    private ProductMapper productMapper;
+
+    @MockitoBean
+    private ReceiptOutboxService receiptOutboxService;
+
+    @MockitoBean
+    private PricingService pricingService;
+
+    @MockitoBean
+    private CatalogReadModel catalogReadModel;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private UUID productId;
+    private final List<UUID> orderIds = new ArrayList<>();
+    private final List<Integer> orderQuantities = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        orderIds.clear();
+        orderQuantities.clear();
+
+        transaction.executeWithoutResult(status -> {
+            User user = User.builder().email("stock-" + UUID.randomUUID() + "@tambo.test").build();
+            entityManager.persist(user);
+            Brand brand = Brand.builder().name("Tambo-" + UUID.randomUUID()).description("Marca propia").build();
+            entityManager.persist(brand);
+            Category category = Category.builder().name("Bebidas-" + UUID.randomUUID()).build();
+            entityManager.persist(category);
+
+            Product product = Product.builder()
+                    .slug("gaseosa-" + UUID.randomUUID())
+                    .name("Gaseosa")
+                    .description("Producto con alta demanda")
+                    .price(BigDecimal.valueOf(5))
+                    .stock(INITIAL_STOCK)
+                    .brand(brand)
+                    .category(category)
+                    .build();
+            entityManager.persist(product);
+            productId = product.getId();
+
+            for (int i = 0; i < ORDER_COUNT; i++) {
+                Order order = Order.builder()
+                        .orderDate(new Date())
+                        .user(user)
+                        .deliveryMethod(DeliveryMethod.STORE)
+                        .totalAmount(5.0)
+                        .orderStatus(OrderStatus.PENDING)
+                        .paymentMethod(PaymentMethod.PAYPAL)
+                        .receiptType(ReceiptType.BOLETA)
+                        .docType("DNI")
+                        .docNumber(12345678L)
+                        .build();
+                entityManager.persist(order);
+
+                // Una de cada cinco órdenes repite el producto en dos items (1 + 2)
+                entityManager.persist(item(order, product, 1));
+                int quantity = 1;
+                if (i % 5 == 0) {
+                    entityManager.persist(item(order, product, 2));
+                    quantity = 3;
+                }
+                orderIds.add(order.getId());
+                orderQuantities.add(quantity);
+            }
+        });
+    }
+
+    @Test
+    public void testParallelPaymentsNeverOversell() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            UUID orderId = orderIds.get(i);
+            int quantity = orderQuantities.get(i);
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    orderService.updateOrderStatus(orderId, OrderStatus.PAID, null);
+                    return quantity;
+                } catch (InsufficientStockEx e) {
+                    return 0;
+                }
+            }));
+        }
+
+        start.countDown();
+        int sold = 0;
+        int paidOrders = 0;
+        for (Future<Integer> result : results) {
+            int quantity = result.get(60, TimeUnit.SECONDS);
+            sold += quantity;
+            paidOrders += quantity > 0 ? 1 : 0;
+        }
+        pool.shutdown();
+
+        Product product = transaction.execute(status -> productRepository.findById(productId).orElseThrow());
+
+        assertTrue(product.getStock() >= 0, "El stock nunca debería quedar negativo");
+        assertEquals(INITIAL_STOCK - sold, product.getStock(), "Cada pago confirmado descuenta exactamente su cantidad");
+        assertTrue(sold <= INITIAL_STOCK, "No se puede vender más que el stock inicial");
+        assertEquals(paidOrders, product.getVersion(), "Cada descuento incrementa la versión");
+        if (product.getStock() == 0) {
+            assertFalse(product.isActive(), "Un producto agotado queda inactivo");
+        }
+    }
+
+    @Test
+    public void testOrderWithoutEnoughStockChangesNothing() {
+        UUID bigOrderId = transaction.execute(status -> {
+            Product product = entityManager.find(Product.class, productId);
+            Order order = entityManager.find(Order.class, orderIds.get(1));
+            entityManager.persist(item(order, product, INITIAL_STOCK));
+            return order.getId();
+        });
+
+        // La orden pide más que el stock disponible: el error llega al llamador
+        assertThrows(InsufficientStockEx.class,
+                () -> orderService.updateOrderStatus(bigOrderId, OrderStatus.PAID, null));
+
+        Order order = transaction.execute(status -> entityManager.find(Order.class, bigOrderId));
+        assertEquals(OrderStatus.PENDING, order.getOrderStatus(), "La orden no queda pagada");
+        Product product = transaction.execute(status -> productRepository.findById(productId).orElseThrow());
+        assertEquals(INITIAL_STOCK, product.getStock());
+        assertEquals(0, product.getVersion());
+    }
+
+    private OrderItem item(Order order, Product product, int quantity) {
+        return OrderItem.builder()
+                .order(order)
+                .product(product)
+                .quantity(quantity)
+                .itemPrice(5.0)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class StockReservationIndexTest {
+
+    private final StockReservationIndex index = new StockReservationIndex();
+
+    @Test
+    public void testExpiredHoldsDoNotCount() {
+        UUID productId = UUID.randomUUID();
+        index.put(productId, UUID.randomUUID(), 2, 1_000);
+        index.put(productId, UUID.randomUUID(), 3, 5_000);
+
+        assertEquals(5, index.reserved(productId, 500));
+        // Vencida aunque el barrido todavía no la haya liberado
+        assertEquals(3, index.reserved(productId, 1_000));
+        assertEquals(0, index.reserved(productId, 5_000));
+    }
+
+    @Test
+    public void testRemoveReleasesOnlyThatOrder() {
+        UUID productId = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        index.put(productId, first, 2, Long.MAX_VALUE);
+        index.put(productId, second, 1, Long.MAX_VALUE);
+
+        index.remove(productId, first);
+        assertEquals(1, index.reserved(productId, 0));
+
+        index.remove(productId, second);
+        index.remove(productId, second);
+        assertEquals(0, index.reserved(productId, 0));
+    }
+
+    @Test
+    public void testSameOrderReplacesItsHold() {
+        UUID productId = UUID.randomUUID();
+        UUID orderId = UUID.randomUUID();
+        index.put(productId, orderId, 2, Long.MAX_VALUE);
+        index.put(productId, orderId, 4, Long.MAX_VALUE);
+
+        assertEquals(4, index.reserved(productId, 0));
+    }
+}
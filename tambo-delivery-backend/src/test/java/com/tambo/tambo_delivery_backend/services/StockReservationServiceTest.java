@@ -0,0 +1,243 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tambo.tambo_delivery_backend.auth.entities.User;
+import com.tambo.tambo_delivery_backend.entities.Brand;
+import com.tambo.tambo_delivery_backend.entities.Category;
+import com.tambo.tambo_delivery_backend.entities.DeliveryMethod;
+import com.tambo.tambo_delivery_backend.entities.Order;
+import com.tambo.tambo_delivery_backend.entities.OrderItem;
+import com.tambo.tambo_delivery_backend.entities.OrderStatus;
+import com.tambo.tambo_delivery_backend.entities.PaymentMethod;
+import com.tambo.tambo_delivery_backend.entities.Product;
+import com.tambo.tambo_delivery_backend.entities.ReceiptType;
+import com.tambo.tambo_delivery_backend.entities.StockReservation;
+import com.tambo.tambo_delivery_backend.entities.StockReservationStatus;
+import com.tambo.tambo_delivery_backend.exceptions.InsufficientStockEx;
+import com.tambo.tambo_delivery_backend.repositories.StockReservationRepository;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tambo_reservations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ StockReservationService.class, StockReservationIndex.class })
+// El índice en memoria se actualiza después del commit, como en producción
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StockReservationServiceTest {
+
+    private static final int STOCK = 5;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private StockReservationIndex index;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private CatalogReadModel catalogReadModel;
+
+    private TransactionTemplate transaction;
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    public void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        index.clear();
+
+        transaction.executeWithoutResult(status -> {
+            user = User.builder().email("reservas-" + UUID.randomUUID() + "@tambo.test").build();
+            entityManager.persist(user);
+            Brand brand = Brand.builder().name("Tambo-" + UUID.randomUUID()).description("Marca propia").build();
+            entityManager.persist(brand);
+            Category category = Category.builder().name("Snacks-" + UUID.randomUUID()).build();
+            entityManager.persist(category);
+
+            product = Product.builder()
+                    .slug("papas-" + UUID.randomUUID())
+                    .name("Papas")
+                    .description("Pocas unidades")
+                    .price(BigDecimal.valueOf(3))
+                    .stock(STOCK)
+                    .brand(brand)
+                    .category(category)
+                    .build();
+            entityManager.persist(product);
+        });
+    }
+
+    @Test
+    public void testReserveOverCapacityIsRejected() {
+        UUID first = order(4);
+        UUID second = order(2);
+
+        withOrder(first, order -> {
+            reservationService.checkAvailable(order);
+            reservationService.reserve(order);
+        });
+        assertEquals(4, index.reserved(product.getId(), System.currentTimeMillis()));
+
+        // Quedan 5 - 4 = 1 unidad para el resto de órdenes
+        assertThrows(InsufficientStockEx.class, () -> withOrder(second, reservationService::checkAvailable));
+        // La misma orden no compite con su propia reserva
+        withOrder(first, reservationService::checkAvailable);
+    }
+
+    @Test
+    public void testConsumeOnPaidClosesTheReservation() {
+        UUID orderId = order(3);
+        withOrder(orderId, order -> {
+            reservationService.checkAvailable(order);
+            reservationService.reserve(order);
+        });
+
+        withOrder(orderId, reservationService::consume);
+
+        assertEquals(List.of(StockReservationStatus.CONSUMED), statuses(orderId));
+        assertEquals(0, index.reserved(product.getId(), System.currentTimeMillis()),
+                "Después de pagar el stock ya se descontó: la reserva no cuenta dos veces");
+    }
+
+    @Test
+    public void testExpiredReservationIsReleased() {
+        UUID expiring = order(4);
+        UUID later = order(3);
+        withOrder(expiring, order -> {
+            reservationService.checkAvailable(order);
+            reservationService.reserve(order);
+        });
+        assertThrows(InsufficientStockEx.class, () -> withOrder(later, reservationService::checkAvailable));
+
+        // El carrito se abandonó y venció la reserva
+        expire(expiring);
+
+        reservationService.releaseExpired();
+
+        assertEquals(List.of(StockReservationStatus.RELEASED), statuses(expiring));
+        assertEquals(0, index.reserved(product.getId(), System.currentTimeMillis()));
+        withOrder(later, reservationService::checkAvailable);
+    }
+
+    @Test
+    public void testHoldForPaymentRenewsAnExpiredReservation() {
+        UUID slowPayer = order(4);
+        withOrder(slowPayer, order -> {
+            reservationService.checkAvailable(order);
+            reservationService.reserve(order);
+        });
+        expire(slowPayer);
+
+        reservationService.holdForPayment(slowPayer);
+
+        assertEquals(4, index.reserved(product.getId(), System.currentTimeMillis()));
+        assertThrows(InsufficientStockEx.class, () -> withOrder(order(2), reservationService::checkAvailable));
+        withOrder(slowPayer, reservationService::consume);
+        assertEquals(List.of(StockReservationStatus.CONSUMED, StockReservationStatus.RELEASED),
+                statuses(slowPayer).stream().sorted().toList());
+    }
+
+    @Test
+    public void testHoldForPaymentRefusesWhenTheStockWasTaken() {
+        UUID slowPayer = order(4);
+        withOrder(slowPayer, order -> {
+            reservationService.checkAvailable(order);
+            reservationService.reserve(order);
+        });
+        expire(slowPayer);
+
+        // Mientras tanto otra orden separó el stock liberado
+        UUID other = order(3);
+        withOrder(other, order -> {
+            reservationService.checkAvailable(order);
+            reservationService.reserve(order);
+        });
+
+        assertThrows(InsufficientStockEx.class, () -> reservationService.holdForPayment(slowPayer));
+        assertEquals(3, index.reserved(product.getId(), System.currentTimeMillis()));
+    }
+
+    // Vence la reserva en la base y en el índice
+    private void expire(UUID orderId) {
+        Date past = new Date(System.currentTimeMillis() - 1000);
+        transaction.executeWithoutResult(status -> reservationRepository.findAll().stream()
+                .filter(reservation -> reservation.getOrder().getId().equals(orderId))
+                .forEach(reservation -> {
+                    reservation.setExpiresAt(past);
+                    index.put(reservation.getProduct().getId(), orderId, reservation.getQuantity(), past.getTime());
+                }));
+    }
+
+    private UUID order(int quantity) {
+        return transaction.execute(status -> {
+            Order order = Order.builder()
+                    .orderDate(new Date())
+                    .user(user)
+                    .deliveryMethod(DeliveryMethod.STORE)
+                    .totalAmount(3.0 * quantity)
+                    .orderStatus(OrderStatus.PENDING)
+                    .paymentMethod(PaymentMethod.PAYPAL)
+                    .receiptType(ReceiptType.BOLETA)
+                    .docType("DNI")
+                    .docNumber(12345678L)
+                    .build();
+            entityManager.persist(order);
+            OrderItem item = OrderItem.builder()
+                    .order(order)
+                    .product(entityManager.getReference(Product.class, product.getId()))
+                    .quantity(quantity)
+                    .itemPrice(3.0)
+                    .build();
+            entityManager.persist(item);
+            order.setOrderItemList(List.of(item));
+            return order.getId();
+        });
+    }
+
+    // Cada llamada corre en su propia transacción, con la orden y sus items cargados
+    private void withOrder(UUID orderId, Consumer<Order> action) {
+        transaction.executeWithoutResult(status -> action.accept(entityManager.find(Order.class, orderId)));
+    }
+
+    private List<StockReservationStatus> statuses(UUID orderId) {
+        return transaction.execute(status -> reservationRepository.findAll().stream()
+                .filter(reservation -> reservation.getOrder().getId().equals(orderId))
+                .map(StockReservation::getStatus)
+                .toList());
+    }
+}
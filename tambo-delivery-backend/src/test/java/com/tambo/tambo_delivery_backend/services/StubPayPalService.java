@@ -0,0 +1,95 @@
+package com.tambo.tambo_delivery_backend.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// PayPal local para pruebas: cuenta las capturas, puede retener la respuesta
+// hasta que la prueba la libere, fallar las primeras llamadas y rechazar las
+// firmas de webhooks
+public class StubPayPalService extends PayPalService {
+
+    private final AtomicInteger captures = new AtomicInteger();
+    private final CountDownLatch captureStarted = new CountDownLatch(1);
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private volatile int failuresLeft;
+    private volatile boolean validSignatures = true;
+
+    public StubPayPalService() {
+        super("stub-client", "stub-secret", "sandbox", "http://localhost:0", Duration.ofSeconds(1),
+                Duration.ofSeconds(1), Duration.ofSeconds(1), 20, Duration.ZERO, 5, Duration.ofSeconds(30),
+                Runnable::run, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Override
+    public CompletableFuture<PayPalOrder> captureOrderAsync(String paypalOrderId) {
+        // Como el cliente HTTP: la respuesta llega en otro hilo
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return capture(paypalOrderId);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private PayPalOrder capture(String paypalOrderId) throws IOException {
+        captures.incrementAndGet();
+        captureStarted.countDown();
+        try {
+            if (!release.await(30, TimeUnit.SECONDS)) {
+                throw new IOException("La prueba no liberó la captura");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Captura interrumpida", e);
+        }
+        if (failuresLeft > 0) {
+            failuresLeft--;
+            throw new IOException("Error en PayPal: servicio no disponible");
+        }
+        return new PayPalOrder("CAPTURE-" + paypalOrderId, "COMPLETED");
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String webhookId, PayPalWebhookSignature signature, String body) {
+        return validSignatures;
+    }
+
+    public void rejectSignatures() {
+        validSignatures = false;
+    }
+
+    public void acceptSignatures() {
+        validSignatures = true;
+    }
+
+    // Las capturas quedan retenidas hasta llamar a releaseCaptures()
+    public void holdCaptures() {
+        release = new CountDownLatch(1);
+    }
+
+    public void releaseCaptures() {
+        release.countDown();
+    }
+
+    public void failNext(int failures) {
+        failuresLeft = failures;
+    }
+
+    public boolean awaitCaptureStarted() throws InterruptedException {
+        return captureStarted.await(30, TimeUnit.SECONDS);
+    }
+
+    public int getCaptures() {
+        return captures.get();
+    }
+}
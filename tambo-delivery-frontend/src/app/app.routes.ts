@@ -29,6 +29,10 @@ export const routes: Routes = [
     path: 'auth/verify',
     loadComponent: () => import('./features/auth/pages/verify.component').then(c => c.VerifyComponent)
   },
+  {
+    path: 'oauth2/callback',
+    loadComponent: () => import('./features/auth/pages/oauth2-callback.component').then(c => c.OAuth2CallbackComponent)
+  },
   {
     path: 'auth',
     redirectTo: 'auth/login',
@@ -8,7 +8,9 @@ export const API_ENDPOINTS = {
     REGISTER: '/auth/register',
     VERIFY: '/auth/verify',
     FORGOT_PASSWORD: '/auth/forgot-password',
-    RESET_PASSWORD: '/auth/reset-password'
+    RESET_PASSWORD: '/auth/reset-password',
+    REFRESH: '/auth/refresh',
+    LOGOUT: '/auth/logout'
   },
 
   // Productos públicos (PublicController)
@@ -1,5 +1,8 @@
-import { HttpInterceptorFn } from '@angular/common/http';
+import { HttpErrorResponse, HttpInterceptorFn } from '@angular/common/http';
+import { inject } from '@angular/core';
+import { catchError, switchMap, throwError } from 'rxjs';
 import { APP_CONSTANTS } from '../../constants/app.constants';
+import { AuthService } from '../services/auth.service';
 
 export const jwtInterceptor: HttpInterceptorFn = (req, next) => {
   // Rutas públicas que NO deben llevar JWT
@@ -31,7 +34,21 @@ export const jwtInterceptor: HttpInterceptorFn = (req, next) => {
       },
     });
 
-    return next(authReq);
+    const authService = inject(AuthService);
+    return next(authReq).pipe(
+      catchError((error: HttpErrorResponse) => {
+        // Access token vencido: se renueva con el refresh token y se reintenta una vez
+        if (error.status !== 401 || !authService.refreshToken) {
+          return throwError(() => error);
+        }
+        return authService.refreshSession().pipe(
+          switchMap((newToken) =>
+            next(req.clone({ setHeaders: { Authorization: `Bearer ${newToken}` } }))
+          ),
+          catchError(() => throwError(() => error))
+        );
+      })
+    );
   }
 
   return next(req);
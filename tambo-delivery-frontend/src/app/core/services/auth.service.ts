@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { Observable, BehaviorSubject, throwError, of } from 'rxjs';
-import { tap, catchError, map, switchMap } from 'rxjs/operators';
+import { tap, catchError, map, switchMap, shareReplay, finalize } from 'rxjs/operators';
 import { User } from '../../models/user.model';
 import { API_ENDPOINTS, APP_CONSTANTS } from '../../constants/app.constants';
 
@@ -15,6 +15,7 @@ export interface LoginResponse {
   code: number;
   message: string;
   token: string;
+  refreshToken?: string;
 }
 
 export interface RegisterRequest {
@@ -62,6 +63,10 @@ export class AuthService {
   private currentUserSubject = new BehaviorSubject<User | null>(null);
   public currentUser$ = this.currentUserSubject.asObservable();
 
+  // Renovación en curso: las peticiones que reciben 401 a la vez la comparten,
+  // porque el refresh token es de un solo uso
+  private refreshInFlight: Observable<string> | null = null;
+
   constructor(private http: HttpClient) {
     // Load user from localStorage on service initialization
     this.loadUserFromStorage();
@@ -86,7 +91,7 @@ export class AuthService {
       .pipe(
         tap((response) => {
           if (response.code === 200 && response.token) {
-            this.setAuthToken(response.token);
+            this.setAuthToken(response.token, response.refreshToken);
           }
         }),
         catchError(this.handleError)
@@ -129,6 +134,21 @@ export class AuthService {
     );
   }
 
+  /**
+   * Completa el login con Google: guarda los tokens que el backend envió en el
+   * fragmento de la redirección y carga el perfil
+   */
+  completeOAuthLogin(token: string, refreshToken: string): Observable<string> {
+    this.setAuthToken(token, refreshToken);
+    return this.loadCurrentUser().pipe(
+      map(() => this.getRedirectRouteForUser()),
+      catchError((error) => {
+        this.clearAuthData();
+        return throwError(() => error);
+      })
+    );
+  }
+
   register(userData: RegisterRequest): Observable<UserResponseDto> {
     return this.http
       .post<UserResponseDto>(
@@ -170,9 +190,44 @@ export class AuthService {
   }
 
   logout(): void {
+    const refreshToken = this.refreshToken;
+    if (refreshToken) {
+      // Revoca la sesión en el backend; si falla, el token vence solo
+      this.http
+        .post(`${API_ENDPOINTS.BASE_URL}${API_ENDPOINTS.AUTH.LOGOUT}`, { refreshToken })
+        .subscribe({ error: () => {} });
+    }
     this.clearAuthData();
   }
 
+  /**
+   * Cambia el refresh token por un access token nuevo (y otro refresh token)
+   */
+  refreshSession(): Observable<string> {
+    const refreshToken = this.refreshToken;
+    if (!refreshToken) {
+      return throwError(() => new Error('Sin sesión para renovar'));
+    }
+
+    if (!this.refreshInFlight) {
+      this.refreshInFlight = this.http
+        .post<LoginResponse>(`${API_ENDPOINTS.BASE_URL}${API_ENDPOINTS.AUTH.REFRESH}`, { refreshToken })
+        .pipe(
+          map((response) => {
+            this.setAuthToken(response.token, response.refreshToken);
+            return response.token;
+          }),
+          catchError((error) => {
+            this.clearAuthData();
+            return throwError(() => error);
+          }),
+          finalize(() => (this.refreshInFlight = null)),
+          shareReplay(1)
+        );
+    }
+    return this.refreshInFlight;
+  }
+
   // Obtener el usuario actual desde el backend
   loadCurrentUser(): Observable<User> {
     return this.http
@@ -205,8 +260,11 @@ export class AuthService {
   }
 
   // Métodos auxiliares
-  private setAuthToken(token: string): void {
+  private setAuthToken(token: string, refreshToken?: string): void {
     localStorage.setItem(APP_CONSTANTS.TOKEN_KEY, token);
+    if (refreshToken) {
+      localStorage.setItem(APP_CONSTANTS.REFRESH_TOKEN_KEY, refreshToken);
+    }
   }
 
   private setCurrentUser(user: User): void {
@@ -216,6 +274,7 @@ export class AuthService {
 
   private clearAuthData(): void {
     localStorage.removeItem(APP_CONSTANTS.TOKEN_KEY);
+    localStorage.removeItem(APP_CONSTANTS.REFRESH_TOKEN_KEY);
     localStorage.removeItem(APP_CONSTANTS.USER_KEY);
     this.currentUserSubject.next(null);
   }
@@ -243,8 +302,14 @@ export class AuthService {
     return localStorage.getItem(APP_CONSTANTS.TOKEN_KEY);
   }
 
+  get refreshToken(): string | null {
+    return localStorage.getItem(APP_CONSTANTS.REFRESH_TOKEN_KEY);
+  }
+
+  // El access token dura poco: con un refresh token la sesión sigue activa y
+  // el interceptor lo renueva en la siguiente petición
   get isAuthenticated(): boolean {
-    return !!this.token && !!this.currentUser && !this.isTokenExpired();
+    return !!this.token && !!this.currentUser && (!this.isTokenExpired() || !!this.refreshToken);
   }
 
   /**
@@ -0,0 +1,47 @@
+import { Component, OnInit } from '@angular/core';
+import { CommonModule } from '@angular/common';
+import { Router } from '@angular/router';
+import { AuthService } from '../../../core/services/auth.service';
+
+// Destino de la redirección del login con Google. Los tokens llegan en el
+// fragmento (#token=...&refreshToken=...), que el navegador no envía a ningún
+// servidor ni incluye en el Referer.
+@Component({
+  selector: 'app-oauth2-callback',
+  standalone: true,
+  imports: [CommonModule],
+  template: `
+    <div class="min-h-screen flex items-center justify-center">
+      <p class="text-gray-600 text-sm">Iniciando sesión...</p>
+    </div>
+  `,
+})
+export class OAuth2CallbackComponent implements OnInit {
+  constructor(private authService: AuthService, private router: Router) {}
+
+  ngOnInit(): void {
+    const params = new URLSearchParams(window.location.hash.substring(1));
+    const token = params.get('token');
+    const refreshToken = params.get('refreshToken');
+
+    // Se quitan los tokens de la barra de direcciones y del historial
+    history.replaceState(null, '', window.location.pathname);
+
+    if (!token || !refreshToken) {
+      this.failed();
+      return;
+    }
+
+    this.authService.completeOAuthLogin(token, refreshToken).subscribe({
+      next: (redirectRoute) => this.router.navigate([redirectRoute], { replaceUrl: true }),
+      error: () => this.failed(),
+    });
+  }
+
+  private failed(): void {
+    this.router.navigate(['/auth/login'], {
+      replaceUrl: true,
+      queryParams: { message: 'No se pudo iniciar sesión con Google. Inténtalo de nuevo.' },
+    });
+  }
+}